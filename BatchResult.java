@@ -0,0 +1,124 @@
+/**
+ * Aggregated outcome of a batch of headless simulated games.
+ * Results from separate worker tasks are combined with {@link #merge(BatchResult)}.
+ */
+public class BatchResult {
+    private final int playerCount;
+    private long games;
+    private long finishedGames;
+    private long totalTurns;
+    private final long[] winsBySeat;
+    private long elapsedNanos;
+
+    /**
+     * Creates an empty result for games with the given number of players.
+     *
+     * @param playerCount Number of players seated in each game
+     */
+    public BatchResult(int playerCount) {
+        this.playerCount = playerCount;
+        this.winsBySeat = new long[playerCount];
+    }
+
+    /**
+     * Records one completed simulation.
+     *
+     * @param turns Number of turns that were played
+     * @param winnerSeat Seat index of the winner, or -1 if the game hit the turn limit
+     */
+    public void recordGame(int turns, int winnerSeat) {
+        games++;
+        totalTurns += turns;
+        if (winnerSeat >= 0) {
+            finishedGames++;
+            winsBySeat[winnerSeat]++;
+        }
+    }
+
+    /**
+     * Adds the counts of another result into this one.
+     *
+     * @param other The result to fold in
+     * @return This result, for chaining
+     */
+    public BatchResult merge(BatchResult other) {
+        games += other.games;
+        finishedGames += other.finishedGames;
+        totalTurns += other.totalTurns;
+        for (int i = 0; i < playerCount; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+        return this;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games that ended with a single solvent player.
+     *
+     * @return Number of finished games
+     */
+    public long getFinishedGames() {
+        return finishedGames;
+    }
+
+    public long getTotalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Gets the number of wins for a seat (0 = first player to move).
+     *
+     * @param seat The seat index
+     * @return Number of games won from that seat
+     */
+    public long getWins(int seat) {
+        return winsBySeat[seat];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the simulation throughput.
+     *
+     * @return Games simulated per wall-clock second
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos > 0 ? games * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Gets the average number of turns per game.
+     *
+     * @return Mean game length in turns
+     */
+    public double getAverageTurns() {
+        return games > 0 ? (double) totalTurns / games : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Simulated %d games in %.2f s (%.0f games/s)%n",
+                games, elapsedNanos / 1e9, getGamesPerSecond()));
+        sb.append(String.format("Finished: %d, hit turn limit: %d, average turns: %.1f%n",
+                finishedGames, games - finishedGames, getAverageTurns()));
+        for (int i = 0; i < playerCount; i++) {
+            double rate = finishedGames > 0 ? 100.0 * winsBySeat[i] / finishedGames : 0.0;
+            sb.append(String.format("Seat %d wins: %d (%.1f%%)%n", i + 1, winsBySeat[i], rate));
+        }
+        return sb.toString();
+    }
+}
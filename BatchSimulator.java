@@ -0,0 +1,334 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays large numbers of complete games without a user interface.
+ * Games are split into ranges and run on a work-stealing fork-join pool so that
+ * every core stays busy. Only engine classes are used here (no AWT or Swing),
+ * so the simulator runs on headless machines.
+ */
+public class BatchSimulator {
+    public static final int DEFAULT_MAX_TURNS = 2000;
+    private static final int GAMES_PER_TASK = 64;
+
+    private final int playerCount;
+    private final int maxTurns;
+    private final long seed;
+    private final ForkJoinPool pool;
+    private final List<String> playerNames;
+    private final PlayerStrategy[] strategies;
+    private volatile CampaignStatistics statistics;
+    private GameRules rules = GameRules.DEFAULT;
+
+    /**
+     * Creates a simulator that uses every available core.
+     *
+     * @param playerCount Number of players in each game
+     * @param maxTurns Turn limit after which a game is abandoned without a winner
+     * @param seed Campaign seed; game {@code i} always uses the stream derived from it
+     */
+    public BatchSimulator(int playerCount, int maxTurns, long seed) {
+        this(playerCount, maxTurns, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a simulator that runs its games on the given pool.
+     *
+     * @param playerCount Number of players in each game
+     * @param maxTurns Turn limit after which a game is abandoned without a winner
+     * @param seed Campaign seed; game {@code i} always uses the stream derived from it
+     * @param pool The fork-join pool to run games on
+     */
+    public BatchSimulator(int playerCount, int maxTurns, long seed, ForkJoinPool pool) {
+        if (playerCount < 2) {
+            throw new IllegalArgumentException("At least two players are required");
+        }
+        this.playerCount = playerCount;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+        this.pool = pool;
+        this.playerNames = new ArrayList<>();
+        for (int i = 1; i <= playerCount; i++) {
+            playerNames.add("Player " + i);
+        }
+        this.strategies = new PlayerStrategy[playerCount];
+        Arrays.fill(strategies, PlayerStrategy.DEFAULT);
+    }
+
+    /**
+     * Sets the strategy a seat plays with in every game. The same instance is
+     * used by all games on all threads, so it must be stateless.
+     *
+     * @param seat The seat index
+     * @param strategy The strategy
+     */
+    public void setStrategy(int seat, PlayerStrategy strategy) {
+        strategies[seat] = strategy;
+    }
+
+    /**
+     * Sets the rules every game is played by. Strategies that depend on the
+     * rules, such as {@link CashReserveStrategy}, must be built for the same rules.
+     *
+     * @param rules The rules
+     */
+    public void setRules(GameRules rules) {
+        this.rules = rules;
+    }
+
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Sets statistics that every game played from now on is added to, or
+     * null to collect none.
+     *
+     * @param statistics The statistics, built for this simulator's player count and turn limit
+     */
+    public void setStatistics(CampaignStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Plays the given number of games and blocks until all of them are done.
+     *
+     * @param games Number of games to simulate
+     * @return The aggregated result, including throughput
+     */
+    public BatchResult run(long games) {
+        long start = System.nanoTime();
+        BatchResult result = pool.invoke(new GameRangeTask(0, games));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Plays games until a stopping rule is satisfied or the game limit is
+     * reached, and blocks until the games in flight are done. One worker per
+     * pool thread claims batches of consecutive game indices; after each batch
+     * the rule is evaluated, and once it is satisfied no further batch is
+     * claimed, so the threads return to the pool within one batch. The games
+     * played are always a prefix of the campaign (games 0 to n-1), although
+     * where it ends depends on thread timing.
+     *
+     * @param estimates Estimates to add every game to; they can be read from
+     *                  other threads while the campaign runs
+     * @param rule The rule that ends the campaign
+     * @param maxGames Number of games after which to stop regardless of the rule
+     * @return The aggregated result of the games played, including throughput
+     */
+    public BatchResult runUntil(SequentialEstimates estimates, StoppingRule rule, long maxGames) {
+        long start = System.nanoTime();
+        SequentialRun run = new SequentialRun(estimates, rule, maxGames);
+        BatchResult result = pool.invoke(new SequentialWorker(run, pool.getParallelism()));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Builds a fresh game with a new board and freshly shuffled decks.
+     * The game's dice and decks are seeded from the campaign seed and the game
+     * index only, so results do not depend on thread scheduling.
+     *
+     * @param gameIndex Index of the game within the campaign
+     * @return A new game engine ready for its first turn
+     */
+    GameEngine createGame(long gameIndex) {
+        return createGame(gameIndex, false);
+    }
+    
+    /**
+     * Builds a fresh game, optionally with the mirror image of its dice.
+     *
+     * @param gameIndex Index of the game within the campaign
+     * @param mirroredDice True to roll 7 minus every value of the plain game
+     * @return A new game engine ready for its first turn
+     */
+    GameEngine createGame(long gameIndex, boolean mirroredDice) {
+        GameEngine engine = GameEngine.createSeeded(playerNames, GameRandom.forGame(seed, gameIndex), rules,
+                mirroredDice);
+        for (int seat = 0; seat < strategies.length; seat++) {
+            engine.setStrategy(seat, strategies[seat]);
+        }
+        return engine;
+    }
+
+    /**
+     * Plays a game until it is over or the turn limit is reached.
+     *
+     * @param engine The game to play
+     * @param result The result to record the outcome in
+     * @return Number of turns played
+     */
+    int playGame(GameEngine engine, BatchResult result) {
+        CampaignStatistics stats = statistics;
+        CampaignStatistics.GameTracker tracker = stats != null ? stats.newGame() : null;
+        int turns = 0;
+        while (!engine.isGameOver() && turns < maxTurns) {
+            engine.executeTurn();
+            if (tracker != null) {
+                tracker.afterTurn(engine);
+            }
+            turns++;
+        }
+        if (tracker != null) {
+            tracker.finish(engine, turns);
+        }
+        result.recordGame(turns, engine.isGameOver() ? findWinner(engine) : -1);
+        return turns;
+    }
+
+    /**
+     * Finds the seat of the only solvent player.
+     *
+     * @param engine A finished game
+     * @return The winner's seat index, or -1 if nobody is left
+     */
+    static int findWinner(GameEngine engine) {
+        List<Player> players = engine.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            if (!players.get(i).isBankrupt()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Plays a contiguous range of games, splitting it in half until it is small
+     * enough to run directly.
+     */
+    private class GameRangeTask extends RecursiveTask<BatchResult> {
+        private static final long serialVersionUID = 1L;
+        private final long from;
+        private final long to;
+
+        GameRangeTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                BatchResult result = new BatchResult(playerCount);
+                for (long i = from; i < to; i++) {
+                    playGame(createGame(i), result);
+                }
+                return result;
+            }
+            long mid = (from + to) >>> 1;
+            GameRangeTask left = new GameRangeTask(from, mid);
+            left.fork();
+            BatchResult right = new GameRangeTask(mid, to).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    /**
+     * The state shared by the workers of one sequential campaign.
+     */
+    private class SequentialRun {
+        private final SequentialEstimates estimates;
+        private final StoppingRule rule;
+        private final long maxGames;
+        private final AtomicLong nextGame = new AtomicLong();
+        private volatile boolean stopped;
+
+        SequentialRun(SequentialEstimates estimates, StoppingRule rule, long maxGames) {
+            this.estimates = estimates;
+            this.rule = rule;
+            this.maxGames = maxGames;
+        }
+
+        /**
+         * Claims and plays batches of games until the campaign stops.
+         *
+         * @return The games this worker played
+         */
+        BatchResult work() {
+            BatchResult result = new BatchResult(playerCount);
+            while (!stopped) {
+                long from = nextGame.getAndAdd(GAMES_PER_TASK);
+                if (from >= maxGames) {
+                    break;
+                }
+                long to = Math.min(from + GAMES_PER_TASK, maxGames);
+                RunningStatistic[] batch = SequentialEstimates.newBatch(playerCount);
+                for (long i = from; i < to; i++) {
+                    GameEngine engine = createGame(i);
+                    int turns = playGame(engine, result);
+                    SequentialEstimates.record(batch, turns, engine.isGameOver() ? findWinner(engine) : -1);
+                }
+                if (estimates.merge(batch, rule)) {
+                    stopped = true;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Runs one worker of a sequential campaign and forks the remaining ones.
+     */
+    private class SequentialWorker extends RecursiveTask<BatchResult> {
+        private static final long serialVersionUID = 1L;
+        private final SequentialRun run;
+        private final int workers;
+
+        SequentialWorker(SequentialRun run, int workers) {
+            this.run = run;
+            this.workers = workers;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            SequentialWorker others = null;
+            if (workers > 1) {
+                others = new SequentialWorker(run, workers - 1);
+                others.fork();
+            }
+            BatchResult result = run.work();
+            return others != null ? result.merge(others.join()) : result;
+        }
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: {@code java BatchSimulator [games] [players] [maxTurns] [threads] [seed] [reserve]}
+     * <p>
+     * If a reserve is given, player 1 plays a {@link CashReserveStrategy} with
+     * it and everyone else the default strategy.
+     *
+     * @param args Optional game count, player count, turn limit, thread count, seed and reserve
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 10_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int maxTurns = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_TURNS;
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            BatchSimulator simulator = new BatchSimulator(players, maxTurns, seed, pool);
+            if (args.length > 5) {
+                BoardSpec board = new BoardSpec(BoardInitializer.createBoard());
+                simulator.setStrategy(0, new CashReserveStrategy(board, simulator.getRules(),
+                        Integer.parseInt(args[5])));
+            }
+            System.out.println("Running " + games + " games with " + players
+                    + " players on " + threads + " threads (seed " + seed + ")...");
+            System.out.print(simulator.run(games));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable primitive description of a board: space types, prices, rents and
+ * colour groups flattened into arrays. It is built once per board and can be
+ * shared by any number of games and threads, so rule code that runs on a
+ * {@link GameState} never has to touch Space objects.
+ */
+public class BoardSpec {
+    /** Number of rent levels for a property: base, 1-4 houses, hotel. */
+    public static final int RENT_LEVELS = 6;
+
+    private final int size;
+    private final SpaceType[] types;
+    private final String[] names;
+    private final int[] prices;
+    private final int[] values;
+    private final int[] houseCosts;
+    private final int[] rents;
+    private final int[] groups;
+    private final int[][] groupMembers;
+    private final String[] groupNames;
+    private final int[] railroads;
+    private final int[] utilities;
+    private final int[] nextOfType;
+    private final boolean[] nextPassesGo;
+
+    /**
+     * Builds the tables for a board.
+     *
+     * @param board The board spaces in order
+     */
+    public BoardSpec(List<Space> board) {
+        this.size = board.size();
+        this.types = new SpaceType[size];
+        this.names = new String[size];
+        this.prices = new int[size];
+        this.values = new int[size];
+        this.houseCosts = new int[size];
+        this.rents = new int[size * RENT_LEVELS];
+        this.groups = new int[size];
+
+        Map<String, List<Integer>> groupTiles = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Space space = board.get(i);
+            types[i] = space.getType();
+            names[i] = space.getName();
+            values[i] = space.getValue();
+            groups[i] = -1;
+            if (space instanceof Buyable) {
+                prices[i] = ((Buyable) space).getPrice();
+            }
+            if (space instanceof PropertySpace) {
+                PropertySpace property = (PropertySpace) space;
+                houseCosts[i] = property.getHouseCost();
+                for (int level = 0; level < RENT_LEVELS; level++) {
+                    rents[i * RENT_LEVELS + level] = property.getRentForLevel(level);
+                }
+                groupTiles.computeIfAbsent(property.getColorGroup(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.groupMembers = new int[groupTiles.size()][];
+        this.groupNames = new String[groupTiles.size()];
+        int group = 0;
+        for (Map.Entry<String, List<Integer>> entry : groupTiles.entrySet()) {
+            List<Integer> tiles = entry.getValue();
+            groupNames[group] = entry.getKey();
+            groupMembers[group] = new int[tiles.size()];
+            for (int j = 0; j < tiles.size(); j++) {
+                groupMembers[group][j] = tiles.get(j);
+                groups[tiles.get(j)] = group;
+            }
+            group++;
+        }
+
+        this.railroads = tilesOfType(SpaceType.RAILROAD);
+        this.utilities = tilesOfType(SpaceType.UTILITY);
+
+        // Jump tables: for every type and start tile, the next tile of that type
+        // going forward (never the start tile itself) and whether GO is passed
+        int typeCount = SpaceType.values().length;
+        this.nextOfType = new int[typeCount * size];
+        this.nextPassesGo = new boolean[typeCount * size];
+        for (int type = 0; type < typeCount; type++) {
+            for (int from = 0; from < size; from++) {
+                int next = -1;
+                for (int step = 1; step < size; step++) {
+                    int tile = (from + step) % size;
+                    if (types[tile].ordinal() == type) {
+                        next = tile;
+                        break;
+                    }
+                }
+                nextOfType[type * size + from] = next;
+                nextPassesGo[type * size + from] = next != -1 && next < from;
+            }
+        }
+    }
+
+    private int[] tilesOfType(SpaceType type) {
+        int count = 0;
+        for (SpaceType t : types) {
+            if (t == type) {
+                count++;
+            }
+        }
+        int[] tiles = new int[count];
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == type) {
+                tiles[j++] = i;
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Gets the number of spaces on the board.
+     *
+     * @return The board size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public SpaceType getType(int tile) {
+        return types[tile];
+    }
+
+    public String getName(int tile) {
+        return names[tile];
+    }
+
+    /**
+     * Gets the purchase price of a buyable space.
+     *
+     * @param tile Board index
+     * @return The price, or 0 if the space cannot be bought
+     */
+    public int getPrice(int tile) {
+        return prices[tile];
+    }
+
+    /**
+     * Gets the value of a plain space (e.g. the tax amount).
+     *
+     * @param tile Board index
+     * @return The space value
+     */
+    public int getValue(int tile) {
+        return values[tile];
+    }
+
+    public int getHouseCost(int tile) {
+        return houseCosts[tile];
+    }
+
+    /**
+     * Gets the rent of a property at a development level.
+     *
+     * @param tile Board index of a property
+     * @param level 0 = no buildings, 1-4 = houses, 5 = hotel
+     * @return The rent amount
+     */
+    public int getRent(int tile, int level) {
+        return rents[tile * RENT_LEVELS + level];
+    }
+
+    /**
+     * Checks whether a space can be bought.
+     *
+     * @param tile Board index
+     * @return true for properties, railroads and utilities
+     */
+    public boolean isBuyable(int tile) {
+        SpaceType type = types[tile];
+        return type == SpaceType.PROPERTY || type == SpaceType.RAILROAD || type == SpaceType.UTILITY;
+    }
+
+    /**
+     * Gets the colour group id of a property.
+     *
+     * @param tile Board index
+     * @return The group id, or -1 if the space is not a colour property
+     */
+    public int getGroup(int tile) {
+        return groups[tile];
+    }
+
+    public int getGroupCount() {
+        return groupMembers.length;
+    }
+
+    /**
+     * Gets the board indices of every property in a colour group.
+     * The returned array is shared and must not be modified.
+     *
+     * @param group The group id
+     * @return The member tiles
+     */
+    public int[] getGroupMembers(int group) {
+        return groupMembers[group];
+    }
+
+    public String getGroupName(int group) {
+        return groupNames[group];
+    }
+
+    /**
+     * Gets the board indices of all railroads.
+     * The returned array is shared and must not be modified.
+     *
+     * @return The railroad tiles
+     */
+    public int[] getRailroads() {
+        return railroads;
+    }
+
+    /**
+     * Gets the board indices of all utilities.
+     * The returned array is shared and must not be modified.
+     *
+     * @return The utility tiles
+     */
+    public int[] getUtilities() {
+        return utilities;
+    }
+
+    /**
+     * Gets the nearest space of a type ahead of a tile, as used by the
+     * "advance to nearest railroad/utility" cards. The start tile itself is
+     * never returned.
+     *
+     * @param type The space type to look for
+     * @param from The starting board index
+     * @return The board index of the next such space, or -1 if there is none
+     */
+    public int getNextOfType(SpaceType type, int from) {
+        return nextOfType[type.ordinal() * size + from];
+    }
+
+    /**
+     * Checks whether moving forward to {@link #getNextOfType} passes GO.
+     *
+     * @param type The space type to look for
+     * @param from The starting board index
+     * @return true if the move wraps around the board
+     */
+    public boolean passesGoToNext(SpaceType type, int from) {
+        return nextPassesGo[type.ordinal() * size + from];
+    }
+}
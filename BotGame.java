@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connects the external-bot seats of one game to their {@link BotProcess}es:
+ * announces the game, streams the changes of every turn as {@code player}
+ * and {@code tile} lines, forwards dice rolls, and turns the engine's
+ * decisions into {@code ask} questions. Changes are found by comparing the
+ * game's compact state with the one last sent, so each turn only costs the
+ * lines for what actually changed.
+ */
+public class BotGame implements GameRecorder {
+    private final GameEngine engine;
+    private final BoardSpec board;
+    private final List<Seat> seats = new ArrayList<>();
+    private GameState sent;
+    private GameState current;
+
+    /**
+     * Creates the connection for a game about to start.
+     *
+     * @param engine The game
+     */
+    public BotGame(GameEngine engine) {
+        this.engine = engine;
+        this.board = engine.getBoardSpec();
+    }
+
+    /**
+     * Seats a bot process and returns the strategy that asks it.
+     *
+     * @param process The bot
+     * @param seat The seat it plays
+     * @param session Session id, unique within the process
+     * @param millis Time allowed for each decision
+     * @return The strategy to give the engine for this seat
+     */
+    public PlayerStrategy seat(BotProcess process, int seat, int session, long millis) {
+        Seat s = new Seat(process, seat, session, millis);
+        seats.add(s);
+        return s;
+    }
+
+    /**
+     * Opens every bot session and sends the starting position. Call after
+     * all seats are set and before the first turn.
+     */
+    public void start() {
+        current = engine.captureState();
+        int players = current.playerCount;
+        for (Seat s : seats) {
+            s.process.openSession(s.session);
+            s.process.send("new " + s.session + " " + s.seat + " " + players);
+            for (int p = 0; p < players; p++) {
+                s.process.send(playerLine(s.session, current, p));
+            }
+            for (int t = 0; t < current.tileCount; t++) {
+                if (current.owner[t] != GameState.NO_OWNER) {
+                    s.process.send(tileLine(s.session, current, t));
+                }
+            }
+        }
+        sent = engine.captureState();
+        if (!seats.isEmpty()) {
+            engine.setRecorder(this);
+        }
+    }
+
+    /**
+     * Queues the changes since the last update for every bot. They are sent
+     * with the next question, or when the game ends.
+     */
+    public void sendUpdates() {
+        if (seats.isEmpty()) {
+            return;
+        }
+        engine.captureState(current);
+        for (int p = 0; p < current.playerCount; p++) {
+            if (current.money[p] != sent.money[p] || current.position[p] != sent.position[p]
+                    || current.flags[p] != sent.flags[p]) {
+                for (Seat s : seats) {
+                    s.process.send(playerLine(s.session, current, p));
+                }
+            }
+        }
+        for (int t = 0; t < current.tileCount; t++) {
+            if (current.owner[t] != sent.owner[t] || current.buildings[t] != sent.buildings[t]
+                    || current.isMortgaged(t) != sent.isMortgaged(t)) {
+                for (Seat s : seats) {
+                    s.process.send(tileLine(s.session, current, t));
+                }
+            }
+        }
+        GameState swap = sent;
+        sent = current;
+        current = swap;
+    }
+
+    /**
+     * Sends the final changes and the result, and closes the sessions.
+     *
+     * @param winner The winning seat, or -1
+     */
+    public void end(int winner) {
+        sendUpdates();
+        for (Seat s : seats) {
+            s.process.closeSession(s.session, winner);
+        }
+        if (engine.getRecorder() == this) {
+            engine.setRecorder(null);
+        }
+    }
+
+    private static String playerLine(int session, GameState state, int p) {
+        return "player " + session + " " + p + " " + state.money[p] + " " + state.position[p] + " "
+                + (state.flags[p] & (GameState.FLAG_IN_JAIL | GameState.FLAG_BANKRUPT));
+    }
+
+    private static String tileLine(int session, GameState state, int t) {
+        return "tile " + session + " " + t + " " + state.owner[t] + " " + state.buildings[t] + " "
+                + (state.isMortgaged(t) ? 1 : 0);
+    }
+
+    @Override
+    public void diceRolled(int player, int die1, int die2) {
+        for (Seat s : seats) {
+            s.process.send("roll " + s.session + " " + player + " " + die1 + " " + die2);
+        }
+    }
+
+    @Override
+    public void cardDrawn(int player, boolean chance, int cardId) {
+    }
+
+    @Override
+    public void decisionMade(int player, int kind, int tile, boolean answer) {
+    }
+
+    @Override
+    public void turnEnded(int player) {
+    }
+
+    /**
+     * One bot-controlled seat. Every question is preceded by the changes
+     * made so far in the turn, so the bot decides on the current position.
+     */
+    private class Seat implements PlayerStrategy {
+        private final BotProcess process;
+        private final int seat;
+        private final int session;
+        private final long millis;
+
+        Seat(BotProcess process, int seat, int session, long millis) {
+            this.process = process;
+            this.seat = seat;
+            this.session = session;
+            this.millis = millis;
+        }
+
+        private boolean ask(String question, boolean fallback) {
+            sendUpdates();
+            return process.ask(session, question, millis, fallback);
+        }
+
+        @Override
+        public boolean shouldBuy(DecisionView view, int player, int tile) {
+            return ask("buy " + tile + " " + board.getPrice(tile), DEFAULT.shouldBuy(view, player, tile));
+        }
+
+        @Override
+        public boolean shouldPayJailFee(DecisionView view, int player) {
+            return ask("jail", DEFAULT.shouldPayJailFee(view, player));
+        }
+
+        @Override
+        public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+            return ask("build " + tile, DEFAULT.shouldBuildHouse(view, player, tile));
+        }
+
+        @Override
+        public boolean shouldMortgage(DecisionView view, int player, int tile) {
+            return ask("mortgage " + tile, DEFAULT.shouldMortgage(view, player, tile));
+        }
+
+        @Override
+        public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+            return ask("unmortgage " + tile, DEFAULT.shouldUnmortgage(view, player, tile));
+        }
+
+        @Override
+        public boolean managesProperties() {
+            return process.managesProperties();
+        }
+    }
+}
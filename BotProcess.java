@@ -0,0 +1,295 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An external bot program that plays through its standard input and output,
+ * in the spirit of chess engines speaking UCI. Bots need nothing from this
+ * code base; {@code ExampleBot} shows a complete one.
+ * <p>
+ * The protocol is line based. The engine sends:
+ * <pre>
+ * mnp 1                                  handshake, answered by "ready name [manage]"
+ * new session seat players               a seat in a new game
+ * player session p money position flags  a player changed (flags: 1 in jail, 2 bankrupt)
+ * tile session t owner buildings mortgaged   a space changed (owner -1 for none)
+ * roll session p die1 die2
+ * ask session id millis buy tile price   decisions; millis is the time allowed
+ * ask session id millis jail
+ * ask session id millis build|mortgage|unmortgage tile
+ * end session winner                     winner is -1 without one
+ * quit
+ * </pre>
+ * and the bot answers every {@code ask} with {@code answer session id y|n}.
+ * Bots that add {@code manage} to their ready line are also asked the build
+ * and mortgage questions at the start of each of their turns.
+ * Anything else the bot prints (such as {@code info ...}) is ignored.
+ * <p>
+ * One process plays many seats of many games at once: every line carries a
+ * session id, updates are buffered and only flushed together with the next
+ * question, and questions from different games are in flight at the same
+ * time. A question not answered within its time is decided by
+ * {@link PlayerStrategy#DEFAULT} and counted as a timeout.
+ */
+public class BotProcess implements Closeable {
+    public static final int PROTOCOL_VERSION = 1;
+    /** Allowance for pipe and scheduling latency on top of a question's time. */
+    public static final long LATENCY_ALLOWANCE_MS = 50;
+
+    private final Process process;
+    private final BufferedWriter out;
+    private final BufferedReader in;
+    private final String name;
+    private boolean managesProperties;
+    // Answer slots of sessions waiting for a bot decision
+    private final Map<Integer, BlockingQueue<String>> waiting = new ConcurrentHashMap<>();
+    private final AtomicLong nextAsk = new AtomicLong();
+    private final LongAdder answers = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder thinkNanos = new LongAdder();
+    private volatile boolean alive = true;
+
+    /**
+     * Starts a bot program and performs the handshake.
+     *
+     * @param command The program and its arguments
+     * @param handshakeMillis How long to wait for the bot to report ready
+     * @throws IOException if the program cannot be started or does not answer
+     */
+    public BotProcess(List<String> command, long handshakeMillis) throws IOException {
+        this.process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        this.out = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8),
+                64 * 1024);
+        this.in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        this.name = handshake(handshakeMillis);
+        Thread reader = new Thread(this::readLoop, "bot-" + name);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Splits a command line on spaces, for bot commands given as one string.
+     *
+     * @param commandLine The command line
+     * @return The program and its arguments
+     */
+    public static List<String> parseCommand(String commandLine) {
+        return Arrays.asList(commandLine.trim().split("\\s+"));
+    }
+
+    private String handshake(long handshakeMillis) throws IOException {
+        send("mnp " + PROTOCOL_VERSION);
+        flush();
+        long deadline = System.currentTimeMillis() + handshakeMillis;
+        while (System.currentTimeMillis() < deadline) {
+            if (!in.ready()) {
+                if (!process.isAlive()) {
+                    break;
+                }
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+            String line = in.readLine();
+            if (line == null) {
+                break;
+            }
+            if (line.startsWith("ready")) {
+                String[] parts = line.trim().split("\\s+");
+                managesProperties = parts.length > 2 && parts[2].equals("manage");
+                return parts.length > 1 ? parts[1] : "bot";
+            }
+        }
+        process.destroy();
+        throw new IOException("Bot did not answer the handshake: " + String.join(" ", process.info().command()
+                .orElse("?")));
+    }
+
+    private void readLoop() {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.startsWith("answer ")) {
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                if (parts.length < 4) {
+                    continue;
+                }
+                try {
+                    BlockingQueue<String> slot = waiting.get(Integer.parseInt(parts[1]));
+                    if (slot != null) {
+                        slot.offer(line);
+                    }
+                } catch (NumberFormatException e) {
+                    // Not a session id; ignored like any other unknown line
+                }
+            }
+        } catch (IOException e) {
+            // The bot exited
+        } finally {
+            alive = false;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Reports whether the bot asked for build and mortgage questions.
+     *
+     * @return true if the bot's ready line ended with {@code manage}
+     */
+    public boolean managesProperties() {
+        return managesProperties;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * Queues a line for the bot. Lines are sent when the buffer fills or at
+     * the next {@link #ask} or {@link #flush()}.
+     *
+     * @param line The line, without line break
+     */
+    public void send(String line) {
+        synchronized (out) {
+            try {
+                out.write(line);
+                out.write('\n');
+            } catch (IOException e) {
+                alive = false;
+            }
+        }
+    }
+
+    /**
+     * Sends all queued lines.
+     */
+    public void flush() {
+        synchronized (out) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                alive = false;
+            }
+        }
+    }
+
+    /**
+     * Registers a session so that answers for it can be delivered.
+     *
+     * @param session The session id
+     */
+    public void openSession(int session) {
+        waiting.put(session, new ArrayBlockingQueue<>(4));
+    }
+
+    /**
+     * Ends a session and tells the bot the result.
+     *
+     * @param session The session id
+     * @param winner The winning seat, or -1
+     */
+    public void closeSession(int session, int winner) {
+        send("end " + session + " " + winner);
+        flush();
+        waiting.remove(session);
+    }
+
+    /**
+     * Asks the bot a question for one session and waits for its answer.
+     *
+     * @param session The session id
+     * @param question The question, such as {@code "buy 39 400"}
+     * @param millis Time the bot is given
+     * @param fallback Answer used if the bot is too slow or gone
+     * @return The bot's answer, or the fallback
+     */
+    public boolean ask(int session, String question, long millis, boolean fallback) {
+        BlockingQueue<String> slot = waiting.get(session);
+        if (!alive || slot == null) {
+            return fallback;
+        }
+        slot.clear();
+        String id = Long.toString(nextAsk.incrementAndGet());
+        long start = System.nanoTime();
+        send("ask " + session + " " + id + " " + millis + " " + question);
+        flush();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(millis + LATENCY_ALLOWANCE_MS);
+        try {
+            while (true) {
+                String answer = slot.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (answer == null) {
+                    timeouts.increment();
+                    return fallback;
+                }
+                String[] parts = answer.split(" ");
+                // Late answers to earlier questions are dropped
+                if (parts[2].equals(id)) {
+                    answers.increment();
+                    thinkNanos.add(System.nanoTime() - start);
+                    return parts[3].equalsIgnoreCase("y");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+    }
+
+    public long getAnswers() {
+        return answers.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Average time from sending a question to receiving its answer.
+     *
+     * @return Microseconds, or 0 before the first answer
+     */
+    public double getAverageAnswerMicros() {
+        long count = answers.sum();
+        return count == 0 ? 0 : thinkNanos.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Tells the bot to quit and waits briefly for it to exit.
+     */
+    @Override
+    public void close() {
+        send("quit");
+        flush();
+        try {
+            if (!process.waitFor(2, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+}
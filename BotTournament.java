@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Plays many games between bots and reports how often each one wins.
+ * Entrants are either external programs speaking the {@link BotProcess}
+ * protocol or built-in strategies ({@code default}, {@code reserve:N} for a
+ * {@link CashReserveStrategy}). Games run in parallel; every external entrant
+ * is started as several processes and each process plays seats in many
+ * games at once. Seats rotate from game to game so no entrant always moves
+ * first. Every finished game also updates the entrants' {@link EloRatings}.
+ */
+public class BotTournament {
+    public static final long DEFAULT_DECISION_MILLIS = 100;
+    private static final long HANDSHAKE_MILLIS = 10_000;
+
+    private final List<String> entrants;
+    private final int playersPerGame;
+    private final int maxTurns;
+    private final long seed;
+    private final long decisionMillis;
+    // Processes of each external entrant; null for built-in entrants
+    private final BotProcess[][] processes;
+    private final PlayerStrategy[] builtIns;
+    private final String[] names;
+    private final AtomicInteger nextSession = new AtomicInteger();
+    private final AtomicLongArray wins;
+    private final AtomicLongArray played;
+    private final AtomicLong turns = new AtomicLong();
+    private final AtomicLong unfinished = new AtomicLong();
+    private final EloRatings ratings = new EloRatings();
+
+    /**
+     * Starts the entrants' processes.
+     *
+     * @param entrants Bot commands or built-in strategy names
+     * @param processesPerBot Processes to start for each external entrant
+     * @param playersPerGame Seats per game, filled by rotating through the entrants
+     * @param maxTurns Turn limit after which a game counts as unfinished
+     * @param seed Seed the games' dice and decks are derived from
+     * @param decisionMillis Time allowed for each decision
+     * @throws IOException if a bot cannot be started
+     */
+    public BotTournament(List<String> entrants, int processesPerBot, int playersPerGame, int maxTurns,
+                         long seed, long decisionMillis) throws IOException {
+        if (playersPerGame < 2) {
+            throw new IllegalArgumentException("At least two players are required");
+        }
+        this.entrants = entrants;
+        this.playersPerGame = playersPerGame;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+        this.decisionMillis = decisionMillis;
+        this.processes = new BotProcess[entrants.size()][];
+        this.builtIns = new PlayerStrategy[entrants.size()];
+        this.names = new String[entrants.size()];
+        this.wins = new AtomicLongArray(entrants.size());
+        this.played = new AtomicLongArray(entrants.size());
+        BoardSpec board = new BoardSpec(BoardInitializer.createBoard());
+        try {
+            for (int e = 0; e < entrants.size(); e++) {
+                String entrant = entrants.get(e);
+                if (entrant.equals("default")) {
+                    builtIns[e] = PlayerStrategy.DEFAULT;
+                    names[e] = "default";
+                } else if (entrant.startsWith("reserve:")) {
+                    builtIns[e] = new CashReserveStrategy(board, Integer.parseInt(entrant.substring(8)));
+                    names[e] = entrant;
+                } else {
+                    processes[e] = new BotProcess[processesPerBot];
+                    for (int p = 0; p < processesPerBot; p++) {
+                        processes[e][p] = new BotProcess(BotProcess.parseCommand(entrant), HANDSHAKE_MILLIS);
+                    }
+                    names[e] = processes[e][0].getName();
+                }
+                for (int other = 0; other < e; other++) {
+                    // Ratings are kept by name, so every entrant needs its own
+                    if (names[other].equals(names[e])) {
+                        names[e] = names[e] + "#" + (e + 1);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Plays games and blocks until all of them are done.
+     *
+     * @param games Number of games
+     * @param parallel Number of games in progress at once
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run(int games, int parallel) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(parallel);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int g = 0; g < games; g++) {
+                long gameIndex = g;
+                results.add(pool.submit(() -> playGame(gameIndex)));
+            }
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    System.err.println("Game failed: " + e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one game, seating entrant {@code (game + seat) % entrants} at
+     * each seat.
+     *
+     * @param gameIndex Index of the game within the tournament
+     */
+    void playGame(long gameIndex) {
+        List<String> seatNames = new ArrayList<>();
+        int[] entrantOf = new int[playersPerGame];
+        for (int seat = 0; seat < playersPerGame; seat++) {
+            entrantOf[seat] = (int) ((gameIndex + seat) % entrants.size());
+            seatNames.add(names[entrantOf[seat]]);
+        }
+        GameEngine engine = GameEngine.createSeeded(seatNames, GameRandom.forGame(seed, gameIndex));
+        BotGame game = new BotGame(engine);
+        for (int seat = 0; seat < playersPerGame; seat++) {
+            int e = entrantOf[seat];
+            if (processes[e] != null) {
+                BotProcess process = processes[e][(int) (gameIndex % processes[e].length)];
+                engine.setStrategy(seat, game.seat(process, seat, nextSession.getAndIncrement(), decisionMillis));
+            } else {
+                engine.setStrategy(seat, builtIns[e]);
+            }
+        }
+        game.start();
+
+        int turn = 0;
+        while (!engine.isGameOver() && turn < maxTurns) {
+            engine.executeTurn();
+            game.sendUpdates();
+            turn++;
+        }
+        int winner = -1;
+        if (engine.isGameOver()) {
+            List<Player> players = engine.getPlayers();
+            for (int seat = 0; seat < players.size() && winner < 0; seat++) {
+                if (!players.get(seat).isBankrupt()) {
+                    winner = seat;
+                }
+            }
+        }
+        game.end(winner);
+        ratings.record(engine);
+
+        for (int seat = 0; seat < playersPerGame; seat++) {
+            played.incrementAndGet(entrantOf[seat]);
+        }
+        if (winner >= 0) {
+            wins.incrementAndGet(entrantOf[winner]);
+        } else {
+            unfinished.incrementAndGet();
+        }
+        turns.addAndGet(turn);
+    }
+
+    /**
+     * Formats the standings.
+     *
+     * @return One line per entrant
+     */
+    public String getStandings() {
+        StringBuilder sb = new StringBuilder();
+        for (int e = 0; e < entrants.size(); e++) {
+            long games = played.get(e);
+            sb.append(String.format("%-20s %7d games %7d wins (%5.1f%%)  Elo %6.1f", names[e], games,
+                    wins.get(e), games == 0 ? 0 : 100.0 * wins.get(e) / games, ratings.getRating(names[e])));
+            if (processes[e] != null) {
+                long answers = 0;
+                long timeouts = 0;
+                double micros = 0;
+                for (BotProcess process : processes[e]) {
+                    answers += process.getAnswers();
+                    timeouts += process.getTimeouts();
+                    micros += process.getAverageAnswerMicros() * process.getAnswers();
+                }
+                sb.append(String.format("  %d answers, %.0f us average, %d timeouts", answers,
+                        answers == 0 ? 0 : micros / answers, timeouts));
+            }
+            sb.append('\n');
+        }
+        sb.append(unfinished.get()).append(" games reached the turn limit, ")
+                .append(turns.get()).append(" turns played\n");
+        return sb.toString();
+    }
+
+    public EloRatings getRatings() {
+        return ratings;
+    }
+
+    /**
+     * Stops every bot process.
+     */
+    public void close() {
+        for (BotProcess[] group : processes) {
+            if (group == null) {
+                continue;
+            }
+            for (BotProcess process : group) {
+                if (process != null) {
+                    process.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: {@code java BotTournament [options] entrant entrant ...}
+     * <p>
+     * Options: {@code -games N}, {@code -parallel N}, {@code -processes N}
+     * (per external bot), {@code -players N}, {@code -turns N}, {@code -ms N}
+     * (per decision), {@code -seed N}. An entrant is {@code default},
+     * {@code reserve:N} or a quoted command line such as
+     * {@code "java -cp out ExampleBot 200"}.
+     *
+     * @param args Options followed by the entrants
+     * @throws IOException if a bot cannot be started
+     * @throws InterruptedException if interrupted while playing
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        int games = 1000;
+        int parallel = Runtime.getRuntime().availableProcessors() * 4;
+        int processesPerBot = 2;
+        int players = 0;
+        int maxTurns = BatchSimulator.DEFAULT_MAX_TURNS;
+        long millis = DEFAULT_DECISION_MILLIS;
+        long seed = System.nanoTime();
+        List<String> entrants = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-games": games = Integer.parseInt(args[++i]); break;
+                case "-parallel": parallel = Integer.parseInt(args[++i]); break;
+                case "-processes": processesPerBot = Integer.parseInt(args[++i]); break;
+                case "-players": players = Integer.parseInt(args[++i]); break;
+                case "-turns": maxTurns = Integer.parseInt(args[++i]); break;
+                case "-ms": millis = Long.parseLong(args[++i]); break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                default: entrants.add(args[i]);
+            }
+        }
+        if (entrants.size() < 2 && players == 0) {
+            System.err.println("Usage: java BotTournament [-games N] [-parallel N] [-processes N] [-players N]"
+                    + " [-turns N] [-ms N] [-seed N] entrant entrant ...");
+            System.exit(1);
+        }
+        BotTournament tournament = new BotTournament(entrants, processesPerBot,
+                players > 0 ? players : entrants.size(), maxTurns, seed, millis);
+        try {
+            System.out.println("Playing " + games + " games, " + parallel + " at a time (seed " + seed + ")...");
+            long start = System.nanoTime();
+            tournament.run(games, parallel);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.print(tournament.getStandings());
+            System.out.printf("%.1f s, %.0f games/s%n", seconds, games / seconds);
+        } finally {
+            tournament.close();
+        }
+    }
+}
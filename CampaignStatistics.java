@@ -0,0 +1,457 @@
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics of a simulation campaign, collected while it runs: landings
+ * and rent collected per space, the distribution of game lengths, wins by
+ * seat and wins by the colour group that was completed first.
+ * <p>
+ * Every simulation thread writes to its own shard of counters, so writers
+ * never contend: a game is followed by a {@link GameTracker} in plain arrays
+ * and added to the shard of the thread that finishes it in one step. Shards
+ * are only merged when someone asks for a {@link #snapshot()}, which can be
+ * done at any time from any thread while the campaign runs. Each shard is
+ * guarded by a sequence number, so a snapshot contains every game either
+ * entirely or not at all.
+ */
+public class CampaignStatistics {
+    /** Width, in turns, of each bucket of the game length histogram. */
+    public static final int LENGTH_BUCKET_WIDTH = 10;
+
+    // Counter layout, shared by shards and snapshots
+    private static final int GAMES = 0;
+    private static final int FINISHED = 1;
+    private static final int TURNS = 2;
+    private static final int NO_MONOPOLY_GAMES = 3;
+    private static final int SEAT_WINS = 4;
+
+    private final BoardSpec board;
+    private final int playerCount;
+    private final int tileCount;
+    private final int groupCount;
+    private final int lengthBuckets;
+    private final int monopolyGames;
+    private final int monopolyWins;
+    private final int landings;
+    private final int rent;
+    private final int lengths;
+    private final int counterCount;
+
+    private final List<Shard> shards = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Shard> localShard = ThreadLocal.withInitial(this::newShard);
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param board The board the games are played on
+     * @param playerCount Number of players in each game
+     * @param maxTurns Turn limit of the campaign; longer games share the last length bucket
+     */
+    public CampaignStatistics(BoardSpec board, int playerCount, int maxTurns) {
+        this.board = board;
+        this.playerCount = playerCount;
+        this.tileCount = board.getSize();
+        this.groupCount = board.getGroupCount();
+        this.lengthBuckets = maxTurns / LENGTH_BUCKET_WIDTH + 1;
+        this.monopolyGames = SEAT_WINS + playerCount;
+        this.monopolyWins = monopolyGames + groupCount;
+        this.landings = monopolyWins + groupCount;
+        this.rent = landings + tileCount;
+        this.lengths = rent + tileCount;
+        this.counterCount = lengths + lengthBuckets;
+    }
+
+    private Shard newShard() {
+        Shard shard = new Shard(counterCount);
+        shards.add(shard);
+        return shard;
+    }
+
+    /**
+     * One thread's counters. Only the owning thread writes; readers use the
+     * sequence number to see whole games only.
+     */
+    private static final class Shard {
+        final AtomicLong sequence = new AtomicLong();
+        final AtomicLongArray counts;
+
+        Shard(int size) {
+            counts = new AtomicLongArray(size);
+        }
+
+        void add(long[] deltas) {
+            long s = sequence.get();
+            // Odd while writing; the fence keeps the counter writes after it
+            sequence.set(s + 1);
+            VarHandle.storeStoreFence();
+            for (int i = 0; i < deltas.length; i++) {
+                if (deltas[i] != 0) {
+                    counts.lazySet(i, counts.get(i) + deltas[i]);
+                }
+            }
+            sequence.lazySet(s + 2);
+        }
+
+        void readInto(long[] totals, long[] scratch) {
+            while (true) {
+                long before = sequence.get();
+                if ((before & 1) == 0) {
+                    for (int i = 0; i < scratch.length; i++) {
+                        scratch[i] = counts.get(i);
+                    }
+                    if (sequence.get() == before) {
+                        break;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+            for (int i = 0; i < scratch.length; i++) {
+                totals[i] += scratch[i];
+            }
+        }
+    }
+
+    /**
+     * Starts following a game. The tracker must be fed by the thread playing
+     * the game and is finished by {@link GameTracker#finish}.
+     *
+     * @return A new tracker
+     */
+    public GameTracker newGame() {
+        return new GameTracker();
+    }
+
+    /**
+     * Follows one game through the engine's turn events.
+     */
+    public final class GameTracker {
+        private final long[] deltas = new long[counterCount];
+        private final byte[] owner = new byte[tileCount];
+        private int firstMonopoly = -1;
+        private int firstMonopolyHolder = -1;
+
+        GameTracker() {
+            Arrays.fill(owner, GameState.NO_OWNER);
+        }
+
+        /**
+         * Reads the events of the turn just played.
+         *
+         * @param engine The game, right after {@link GameEngine#executeTurn()}
+         */
+        public void afterTurn(GameEngine engine) {
+            TurnEventLog events = engine.getTurnEvents();
+            int tile = -1;
+            for (int i = 0; i < events.size(); i++) {
+                switch (events.getType(i)) {
+                    case LANDED:
+                    case CARD_MOVED:
+                        tile = events.getArgument(i, 1);
+                        deltas[landings + tile]++;
+                        break;
+                    case MOVED_BACK:
+                        tile = events.getArgument(i, 2);
+                        deltas[landings + tile]++;
+                        break;
+                    case RENT_RECEIVED:
+                        if (tile >= 0) {
+                            deltas[rent + tile] += events.getArgument(i, 1);
+                        }
+                        break;
+                    case DOUBLE_RENT_PAID:
+                        if (tile >= 0) {
+                            deltas[rent + tile] += events.getArgument(i, 2);
+                        }
+                        break;
+                    case PROPERTY_BOUGHT:
+                        bought(events.getArgument(i, 0), events.getArgument(i, 1));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        private void bought(int seat, int tile) {
+            owner[tile] = (byte) seat;
+            int group = board.getGroup(tile);
+            if (firstMonopoly >= 0 || group < 0) {
+                return;
+            }
+            for (int member : board.getGroupMembers(group)) {
+                if (owner[member] != seat) {
+                    return;
+                }
+            }
+            firstMonopoly = group;
+            firstMonopolyHolder = seat;
+        }
+
+        /**
+         * Adds the finished (or abandoned) game to the statistics.
+         *
+         * @param engine The game
+         * @param turns Number of turns it was played for
+         */
+        public void finish(GameEngine engine, int turns) {
+            int winner = -1;
+            if (engine.isGameOver()) {
+                List<Player> players = engine.getPlayers();
+                for (int seat = 0; seat < players.size() && winner < 0; seat++) {
+                    if (!players.get(seat).isBankrupt()) {
+                        winner = seat;
+                    }
+                }
+            }
+            deltas[GAMES]++;
+            deltas[TURNS] += turns;
+            deltas[lengths + Math.min(turns / LENGTH_BUCKET_WIDTH, lengthBuckets - 1)]++;
+            if (winner >= 0) {
+                deltas[FINISHED]++;
+                deltas[SEAT_WINS + winner]++;
+            }
+            if (firstMonopoly >= 0) {
+                deltas[monopolyGames + firstMonopoly]++;
+                if (winner == firstMonopolyHolder) {
+                    deltas[monopolyWins + firstMonopoly]++;
+                }
+            } else {
+                deltas[NO_MONOPOLY_GAMES]++;
+            }
+            localShard.get().add(deltas);
+        }
+    }
+
+    /**
+     * Merges every thread's counters. Safe to call while games are running.
+     *
+     * @return The statistics of all games finished so far
+     */
+    public Snapshot snapshot() {
+        long[] totals = new long[counterCount];
+        long[] scratch = new long[counterCount];
+        for (Shard shard : shards) {
+            shard.readInto(totals, scratch);
+        }
+        return new Snapshot(totals);
+    }
+
+    /**
+     * The statistics at one moment.
+     */
+    public final class Snapshot {
+        private final long[] counts;
+        private final long totalLandings;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+            long sum = 0;
+            for (int t = 0; t < tileCount; t++) {
+                sum += counts[landings + t];
+            }
+            this.totalLandings = sum;
+        }
+
+        public long getGames() {
+            return counts[GAMES];
+        }
+
+        /**
+         * Gets the number of games that ended with a single solvent player.
+         *
+         * @return Number of finished games
+         */
+        public long getFinishedGames() {
+            return counts[FINISHED];
+        }
+
+        public long getTotalTurns() {
+            return counts[TURNS];
+        }
+
+        public double getAverageTurns() {
+            return getGames() > 0 ? (double) getTotalTurns() / getGames() : 0.0;
+        }
+
+        /**
+         * Gets how often a space was landed on, by a roll or by a card.
+         *
+         * @param tile Board index
+         * @return Number of landings
+         */
+        public long getLandings(int tile) {
+            return counts[landings + tile];
+        }
+
+        /**
+         * Gets a space's share of all landings.
+         *
+         * @param tile Board index
+         * @return Fraction between 0 and 1
+         */
+        public double getLandingShare(int tile) {
+            return totalLandings > 0 ? (double) getLandings(tile) / totalLandings : 0.0;
+        }
+
+        /**
+         * Gets the rent paid to the owner of a space.
+         *
+         * @param tile Board index
+         * @return Total rent over all games
+         */
+        public long getRent(int tile) {
+            return counts[rent + tile];
+        }
+
+        /**
+         * Gets the number of wins for a seat (0 = first player to move).
+         *
+         * @param seat The seat index
+         * @return Number of games won from that seat
+         */
+        public long getWins(int seat) {
+            return counts[SEAT_WINS + seat];
+        }
+
+        /**
+         * Gets a seat's share of the finished games.
+         *
+         * @param seat The seat index
+         * @return Fraction between 0 and 1
+         */
+        public double getWinRate(int seat) {
+            return getFinishedGames() > 0 ? (double) getWins(seat) / getFinishedGames() : 0.0;
+        }
+
+        /**
+         * Gets the number of games in which a colour group was the first to
+         * be completed by one player.
+         *
+         * @param group The group id
+         * @return Number of games
+         */
+        public long getFirstMonopolyGames(int group) {
+            return counts[monopolyGames + group];
+        }
+
+        /**
+         * Gets how often the player who completed a group first went on to
+         * win the game.
+         *
+         * @param group The group id
+         * @return Fraction of {@link #getFirstMonopolyGames} between 0 and 1
+         */
+        public double getFirstMonopolyWinRate(int group) {
+            long games = getFirstMonopolyGames(group);
+            return games > 0 ? (double) counts[monopolyWins + group] / games : 0.0;
+        }
+
+        /**
+         * Gets the number of games in which nobody ever completed a group.
+         *
+         * @return Number of games
+         */
+        public long getGamesWithoutMonopoly() {
+            return counts[NO_MONOPOLY_GAMES];
+        }
+
+        /**
+         * Gets the game length histogram; bucket {@code i} counts games of
+         * {@code i * LENGTH_BUCKET_WIDTH} to {@code (i + 1) * LENGTH_BUCKET_WIDTH - 1}
+         * turns, and the last bucket also every longer game.
+         *
+         * @return A copy of the bucket counts
+         */
+        public long[] getLengthHistogram() {
+            long[] histogram = new long[lengthBuckets];
+            System.arraycopy(counts, lengths, histogram, 0, lengthBuckets);
+            return histogram;
+        }
+
+        /**
+         * Estimates a quantile of the game length from the histogram.
+         *
+         * @param quantile Between 0 and 1, such as 0.5 for the median
+         * @return Upper bound of the bucket holding the quantile, in turns
+         */
+        public int getLengthQuantile(double quantile) {
+            long target = (long) Math.ceil(quantile * getGames());
+            long seen = 0;
+            for (int b = 0; b < lengthBuckets; b++) {
+                seen += counts[lengths + b];
+                if (seen >= target && seen > 0) {
+                    return (b + 1) * LENGTH_BUCKET_WIDTH - 1;
+                }
+            }
+            return lengthBuckets * LENGTH_BUCKET_WIDTH - 1;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d games, %d finished, average %.1f turns, median <= %d, 90%% <= %d%n",
+                    getGames(), getFinishedGames(), getAverageTurns(), getLengthQuantile(0.5),
+                    getLengthQuantile(0.9)));
+            for (int seat = 0; seat < playerCount; seat++) {
+                sb.append(String.format("Seat %d wins: %d (%.1f%%)%n", seat + 1, getWins(seat),
+                        100 * getWinRate(seat)));
+            }
+            sb.append("First monopoly:\n");
+            for (int group = 0; group < groupCount; group++) {
+                sb.append(String.format("  %-12s %8d games, holder won %5.1f%%%n", board.getGroupName(group),
+                        getFirstMonopolyGames(group), 100 * getFirstMonopolyWinRate(group)));
+            }
+            sb.append(String.format("  %-12s %8d games%n", "none", getGamesWithoutMonopoly()));
+            sb.append("Landings and rent:\n");
+            for (int t = 0; t < tileCount; t++) {
+                sb.append(String.format("  %2d %-24s %5.2f%%", t, board.getName(t), 100 * getLandingShare(t)));
+                if (board.isBuyable(t)) {
+                    sb.append(String.format("  rent %8.1f per game", getGames() > 0
+                            ? (double) getRent(t) / getGames() : 0.0));
+                }
+                sb.append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Command-line entry point: runs a campaign and prints live snapshots.
+     * Usage: {@code java CampaignStatistics [games] [players] [threads] [seed]}
+     *
+     * @param args Optional game count, player count, thread count and seed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 50_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            BatchSimulator simulator = new BatchSimulator(players, BatchSimulator.DEFAULT_MAX_TURNS, seed, pool);
+            CampaignStatistics statistics = new CampaignStatistics(new BoardSpec(BoardInitializer.createBoard()),
+                    players, BatchSimulator.DEFAULT_MAX_TURNS);
+            simulator.setStatistics(statistics);
+            System.out.println("Running " + games + " games with " + players + " players on " + threads
+                    + " threads (seed " + seed + ")...");
+            Thread campaign = new Thread(() -> System.out.print(simulator.run(games)));
+            campaign.start();
+            while (campaign.isAlive()) {
+                campaign.join(1000);
+                Snapshot live = statistics.snapshot();
+                System.out.printf("... %d games, average %.1f turns%n", live.getGames(), live.getAverageTurns());
+            }
+            System.out.print(statistics.snapshot());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A Chance or Community Chest deck stored as a circular array of card ids.
+ * Drawing takes the card at the head and returning puts it at the tail, both
+ * in constant time without shifting or allocating. Get Out of Jail Free cards
+ * that a player keeps are tracked as held and go back to the bottom of the
+ * deck when they are used.
+ */
+public class CardDeck {
+    /** Holder value for a card that is not held by any player. */
+    public static final int NOT_HELD = -1;
+
+    private final Card[] cards;
+    private final int[] ring;
+    private final int[] holders;
+    private int head;
+    private int count;
+
+    /**
+     * Creates a deck in the given order. A card's id is its index in the list.
+     *
+     * @param cards The cards, top of the deck first
+     */
+    public CardDeck(List<Card> cards) {
+        this.cards = cards.toArray(new Card[0]);
+        this.ring = new int[this.cards.length];
+        this.holders = new int[this.cards.length];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = i;
+        }
+        Arrays.fill(holders, NOT_HELD);
+        this.head = 0;
+        this.count = ring.length;
+    }
+
+    /**
+     * Draws the top card.
+     *
+     * @return The id of the drawn card
+     * @throws IllegalStateException if every card is held by players
+     */
+    public int draw() {
+        if (count == 0) {
+            throw new IllegalStateException("The deck is empty");
+        }
+        int id = ring[head];
+        head = (head + 1) % ring.length;
+        count--;
+        return id;
+    }
+
+    /**
+     * Puts a drawn card back at the bottom of the deck.
+     *
+     * @param id The card id
+     */
+    public void discard(int id) {
+        ring[(head + count) % ring.length] = id;
+        count++;
+    }
+
+    /**
+     * Records that a player keeps a drawn card (Get Out of Jail Free).
+     *
+     * @param id The card id
+     * @param player The seat of the player keeping it
+     */
+    public void hold(int id, int player) {
+        holders[id] = player;
+    }
+
+    /**
+     * Returns one card held by a player to the bottom of the deck.
+     *
+     * @param player The player's seat
+     * @return true if the player held a card from this deck
+     */
+    public boolean returnHeldCard(int player) {
+        for (int id = 0; id < holders.length; id++) {
+            if (holders[id] == player) {
+                holders[id] = NOT_HELD;
+                discard(id);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns every card held by a player, e.g. when the player goes bankrupt.
+     *
+     * @param player The player's seat
+     */
+    public void returnAllHeldCards(int player) {
+        while (returnHeldCard(player)) {
+            // keep returning until none are left
+        }
+    }
+
+    /**
+     * Gets a card by id.
+     *
+     * @param id The card id
+     * @return The card
+     */
+    public Card getCard(int id) {
+        return cards[id];
+    }
+
+    /**
+     * Gets the total number of cards, including drawn and held ones.
+     *
+     * @return The number of distinct cards
+     */
+    public int getCardCount() {
+        return cards.length;
+    }
+
+    /**
+     * Gets the number of cards currently in the deck.
+     *
+     * @return Cards available to draw
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the id of the card at a position from the top.
+     *
+     * @param position 0 for the top card
+     * @return The card id
+     */
+    public int peek(int position) {
+        return ring[(head + position) % ring.length];
+    }
+
+    /**
+     * Gets the seat of the player holding a card.
+     *
+     * @param id The card id
+     * @return The holder's seat, or {@link #NOT_HELD}
+     */
+    public int getHolder(int id) {
+        return holders[id];
+    }
+
+    /**
+     * Copies the deck order and holders into compact arrays.
+     *
+     * @param ringOut Receives the card ids, top first (length at least {@link #getCardCount()})
+     * @param holdersOut Receives the holder of each card id
+     */
+    public void exportTo(byte[] ringOut, byte[] holdersOut) {
+        for (int i = 0; i < count; i++) {
+            ringOut[i] = (byte) peek(i);
+        }
+        for (int id = 0; id < holders.length; id++) {
+            holdersOut[id] = (byte) holders[id];
+        }
+    }
+
+    /**
+     * Replaces the deck order and holders from compact arrays.
+     *
+     * @param ringIn Card ids in ring order
+     * @param ringHead Index of the top card in {@code ringIn}
+     * @param ringCount Number of cards in the deck
+     * @param holdersIn Holder of each card id
+     */
+    public void importFrom(byte[] ringIn, int ringHead, int ringCount, byte[] holdersIn) {
+        for (int i = 0; i < ringCount; i++) {
+            ring[i] = ringIn[(ringHead + i) % ringIn.length];
+        }
+        head = 0;
+        count = ringCount;
+        for (int id = 0; id < holders.length; id++) {
+            holders[id] = holdersIn[id];
+        }
+    }
+
+    /**
+     * Overwrites this deck with the state of another deck of the same cards.
+     *
+     * @param other The deck to copy
+     */
+    public void copyFrom(CardDeck other) {
+        if (other.cards.length != cards.length) {
+            throw new IllegalArgumentException("Decks have different sizes");
+        }
+        System.arraycopy(other.ring, 0, ring, 0, ring.length);
+        System.arraycopy(other.holders, 0, holders, 0, holders.length);
+        head = other.head;
+        count = other.count;
+    }
+}
@@ -1,6 +1,7 @@
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Manages the creation and shuffling of Chance and Community Chest card decks.
@@ -13,6 +14,28 @@ public class CardDeckManager {
      * @return A list of Card objects representing the Chance deck.
      */
     public static List<Card> createChanceDeck() {
+        return createChanceDeck(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Creates and returns a new Chance card deck shuffled with the given random source.
+     * 
+     * @param random The random source used for shuffling
+     * @return A list of Card objects representing the Chance deck.
+     */
+    public static List<Card> createChanceDeck(RandomGenerator random) {
+        List<Card> chanceCards = createChanceCards();
+        shuffle(chanceCards, random);
+        return chanceCards;
+    }
+
+    /**
+     * Creates the Chance cards in their standard, unshuffled order.
+     * Save files identify cards by their index in this list.
+     * 
+     * @return A new list of the Chance cards.
+     */
+    public static List<Card> createChanceCards() {
         List<Card> chanceCards = new ArrayList<>();
         chanceCards.add(new Card("Advance to Go", CardType.MOVEMENT, 0));
         chanceCards.add(new Card("Advance to Illinois Avenue", CardType.MOVEMENT, 24));
@@ -30,7 +53,6 @@ public class CardDeckManager {
         chanceCards.add(new Card("You have been elected Chairman of the Board: Pay $50 to each player", CardType.PAY_EACH_PLAYER, 50));
         chanceCards.add(new Card("Your building loan matures: Collect $150", CardType.COLLECT_MONEY, 150));
         
-        Collections.shuffle(chanceCards);
         return chanceCards;
     }
 
@@ -40,6 +62,28 @@ public class CardDeckManager {
      * @return A list of Card objects representing the Community Chest deck.
      */
     public static List<Card> createCommunityChestDeck() {
+        return createCommunityChestDeck(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Creates and returns a new Community Chest card deck shuffled with the given random source.
+     * 
+     * @param random The random source used for shuffling
+     * @return A list of Card objects representing the Community Chest deck.
+     */
+    public static List<Card> createCommunityChestDeck(RandomGenerator random) {
+        List<Card> communityChestCards = createCommunityChestCards();
+        shuffle(communityChestCards, random);
+        return communityChestCards;
+    }
+
+    /**
+     * Creates the Community Chest cards in their standard, unshuffled order.
+     * Save files identify cards by their index in this list.
+     * 
+     * @return A new list of the Community Chest cards.
+     */
+    public static List<Card> createCommunityChestCards() {
         List<Card> communityChestCards = new ArrayList<>();
         communityChestCards.add(new Card("Advance to Go", CardType.MOVEMENT, 0));
         communityChestCards.add(new Card("Bank error in your favor: Collect $200", CardType.COLLECT_MONEY, 200));
@@ -58,7 +102,21 @@ public class CardDeckManager {
         communityChestCards.add(new Card("You have won second prize in a beauty contest: Collect $10", CardType.COLLECT_MONEY, 10));
         communityChestCards.add(new Card("You inherit $100", CardType.COLLECT_MONEY, 100));
         
-        Collections.shuffle(communityChestCards);
         return communityChestCards;
     }
+
+    /**
+     * Shuffles a deck in place (Fisher-Yates) using the given random source.
+     * 
+     * @param deck The deck to shuffle
+     * @param random The random source
+     */
+    public static void shuffle(List<Card> deck, RandomGenerator random) {
+        for (int i = deck.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Card tmp = deck.get(i);
+            deck.set(i, deck.get(j));
+            deck.set(j, tmp);
+        }
+    }
 } 
\ No newline at end of file
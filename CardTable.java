@@ -0,0 +1,58 @@
+import java.util.List;
+
+/**
+ * Immutable primitive description of a card deck, indexed by card id.
+ * A card's id is its index in the list the table was built from.
+ */
+public class CardTable {
+    private final CardType[] types;
+    private final int[] values;
+    private final int[] extraValues;
+
+    /**
+     * Builds the table for a deck.
+     *
+     * @param cards The cards, in id order
+     */
+    public CardTable(List<Card> cards) {
+        this(cards.toArray(new Card[0]));
+    }
+
+    /**
+     * Builds the table for a deck.
+     *
+     * @param cards The cards, in id order
+     */
+    public CardTable(Card[] cards) {
+        int size = cards.length;
+        this.types = new CardType[size];
+        this.values = new int[size];
+        this.extraValues = new int[size];
+        for (int i = 0; i < size; i++) {
+            types[i] = cards[i].getType();
+            values[i] = cards[i].getValue();
+            extraValues[i] = cards[i].getExtraValue();
+        }
+    }
+
+    /**
+     * Gets the number of cards in the deck.
+     *
+     * @return The deck size
+     */
+    public int getSize() {
+        return types.length;
+    }
+
+    public CardType getType(int id) {
+        return types[id];
+    }
+
+    public int getValue(int id) {
+        return values[id];
+    }
+
+    public int getExtraValue(int id) {
+        return extraValues[id];
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * A cheap heuristic strategy that spends freely but always keeps a cash
+ * reserve for rent. It buys, builds and lifts mortgages only when the reserve
+ * survives the payment, never mortgages, and leaves jail at once while there
+ * is still property to buy but sits in jail (safe from rent) once the board
+ * is sold out. Each decision is a few array reads, so it is suitable for
+ * batch simulation.
+ */
+public class CashReserveStrategy implements PlayerStrategy {
+    private final BoardSpec board;
+    private final GameRules rules;
+    private final int reserve;
+
+    /**
+     * Creates a strategy with a fixed reserve for games with the default rules.
+     *
+     * @param board The board tables, for prices and house costs
+     * @param reserve Cash the player keeps after any voluntary payment
+     */
+    public CashReserveStrategy(BoardSpec board, int reserve) {
+        this(board, GameRules.DEFAULT, reserve);
+    }
+
+    /**
+     * Creates a strategy with a fixed reserve.
+     *
+     * @param board The board tables, for prices and house costs
+     * @param rules The rules of the games it plays, for the jail fee and mortgage interest
+     * @param reserve Cash the player keeps after any voluntary payment
+     */
+    public CashReserveStrategy(BoardSpec board, GameRules rules, int reserve) {
+        this.board = board;
+        this.rules = rules;
+        this.reserve = reserve;
+    }
+
+    public int getReserve() {
+        return reserve;
+    }
+
+    @Override
+    public boolean shouldBuy(DecisionView view, int player, int tile) {
+        return view.getMoney(player) - board.getPrice(tile) >= reserve;
+    }
+
+    @Override
+    public boolean shouldPayJailFee(DecisionView view, int player) {
+        if (view.getMoney(player) - rules.getJailFee() < reserve) {
+            return false;
+        }
+        for (int t = 0; t < board.getSize(); t++) {
+            if (board.isBuyable(t) && view.getOwner(t) == GameState.NO_OWNER) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+        return view.getMoney(player) - board.getHouseCost(tile) >= reserve;
+    }
+
+    @Override
+    public boolean shouldMortgage(DecisionView view, int player, int tile) {
+        return false;
+    }
+
+    @Override
+    public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+        // Mortgage value plus interest, as the engines charge it
+        int cost = (int) (board.getPrice(tile) / 2 * (1 + rules.getInterestRate()));
+        return view.getMoney(player) - cost >= reserve;
+    }
+
+    @Override
+    public String toString() {
+        return "CashReserveStrategy[" + reserve + "]";
+    }
+}
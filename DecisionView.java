@@ -0,0 +1,52 @@
+/**
+ * Read-only primitive view of a game, handed to a {@link PlayerStrategy} at
+ * every decision. Players are identified by seat and spaces by board index,
+ * so a strategy can inspect the position without any objects being created.
+ * {@link GameState} is a view itself, and {@link GameEngine} passes a live
+ * view over its players and board.
+ */
+public interface DecisionView {
+    int getPlayerCount();
+
+    int getTileCount();
+
+    int getCurrentPlayer();
+
+    int getMoney(int player);
+
+    int getPosition(int player);
+
+    boolean isInJail(int player);
+
+    boolean isBankrupt(int player);
+
+    int getJailTurns(int player);
+
+    int getJailCards(int player);
+
+    /**
+     * Gets the owner of a space.
+     *
+     * @param tile Board index
+     * @return The owner's seat, or {@link GameState#NO_OWNER}
+     */
+    int getOwner(int tile);
+
+    /**
+     * Gets the development level of a space.
+     *
+     * @param tile Board index
+     * @return 0 for none, 1-4 houses, or {@link GameState#HOTEL}
+     */
+    int getBuildings(int tile);
+
+    boolean isMortgaged(int tile);
+
+    /**
+     * Copies the complete position into a state, for strategies that search
+     * ahead. This is the only method that does real work.
+     *
+     * @param target A state shaped for this game
+     */
+    void copyTo(GameState target);
+}
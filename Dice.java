@@ -1,10 +1,12 @@
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * The Dice class represents a pair of dice for the Monopoly game.
  */
 public class Dice {
-    private Random random;
+    private final RandomGenerator random;
+    private final boolean mirrored;
     private int value1;
     private int value2;
     private int consecutiveDoubles;
@@ -13,12 +15,54 @@ public class Dice {
      * Initializes a new pair of dice.
      */
     public Dice() {
-        random = new Random();
+        this(new Random());
+    }
+    
+    /**
+     * Initializes a new pair of dice that draw from the given random source.
+     * Use a seeded source (e.g. {@link GameRandom}) to make games reproducible.
+     *
+     * @param random The random source for the rolls
+     */
+    public Dice(RandomGenerator random) {
+        this(random, false);
+    }
+    
+    /**
+     * Initializes a new pair of dice that can show the mirror image of their
+     * random source: a mirrored die shows 7 minus what the plain die would.
+     * Plain and mirrored dice on the same stream give antithetic rolls, which
+     * paired simulations use to cancel out dice luck.
+     *
+     * @param random The random source for the rolls
+     * @param mirrored True to show 7 minus each drawn value
+     */
+    public Dice(RandomGenerator random, boolean mirrored) {
+        this.random = random;
+        this.mirrored = mirrored;
         value1 = 1;
         value2 = 1;
         consecutiveDoubles = 0;
     }
     
+    /**
+     * Gets the random source the dice draw from.
+     *
+     * @return The random source
+     */
+    public RandomGenerator getRandom() {
+        return random;
+    }
+    
+    /**
+     * Checks whether the dice show the mirror image of their random source.
+     *
+     * @return boolean True for antithetic dice
+     */
+    public boolean isMirrored() {
+        return mirrored;
+    }
+    
     /**
      * Rolls the dice.
      *
@@ -27,6 +71,10 @@ public class Dice {
     public int roll() {
         value1 = random.nextInt(6) + 1;
         value2 = random.nextInt(6) + 1;
+        if (mirrored) {
+            value1 = 7 - value1;
+            value2 = 7 - value2;
+        }
         
         if (isDouble()) {
             consecutiveDoubles++;
@@ -98,6 +146,19 @@ public class Dice {
         return consecutiveDoubles;
     }
     
+    /**
+     * Restores the dice to a previously captured state.
+     *
+     * @param value1 Value of the first die
+     * @param value2 Value of the second die
+     * @param consecutiveDoubles Number of doubles rolled in a row
+     */
+    public void setState(int value1, int value2, int consecutiveDoubles) {
+        this.value1 = value1;
+        this.value2 = value2;
+        this.consecutiveDoubles = consecutiveDoubles;
+    }
+    
     @Override
     public String toString() {
         return "Dice roll: " + value1 + " and " + value2 + " (Total: " + getTotal() + ")";
@@ -133,6 +133,15 @@ public class DicePanel extends JPanel {
         rollButton.setEnabled(enabled);
     }
     
+    /**
+     * Check whether the roll button is enabled, i.e. the game waits for a roll.
+     * 
+     * @return True if the dice can be rolled
+     */
+    public boolean isRollEnabled() {
+        return rollButton.isEnabled();
+    }
+    
     /**
      * Get the sum of all dice.
      * 
@@ -0,0 +1,257 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Elo ratings for players or bots, updated game by game. A game with more
+ * than two players counts as every pair of players having played each other:
+ * each player scores 1 against those placed below, 0.5 against those placed
+ * equal and 0 against those above, and the usual Elo correction is scaled by
+ * {@code 1 / (players - 1)} so a game moves a rating about as much as one
+ * head-to-head match.
+ * <p>
+ * Ratings are kept in a sorted index that is updated in place when a game is
+ * recorded (O(log n) per player in the game), so leaderboard queries never
+ * sort. All methods are thread-safe.
+ */
+public class EloRatings {
+    public static final double DEFAULT_RATING = 1500;
+    public static final double DEFAULT_K = 32;
+
+    // Highest rating first; ties broken by id so every entry has its own slot
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble((Entry e) -> -e.rating)
+            .thenComparing(e -> e.id);
+
+    private final double initialRating;
+    private final double k;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> leaderboard = new TreeSet<>(ORDER);
+    private long games;
+
+    /**
+     * Creates an empty rating list with the default starting rating and K factor.
+     */
+    public EloRatings() {
+        this(DEFAULT_RATING, DEFAULT_K);
+    }
+
+    /**
+     * Creates an empty rating list.
+     *
+     * @param initialRating Rating of a player's first game
+     * @param k Largest change one game can make to a rating
+     */
+    public EloRatings(double initialRating, double k) {
+        this.initialRating = initialRating;
+        this.k = k;
+    }
+
+    /**
+     * A player's entry in the index. Its rating only changes while it is
+     * out of the index.
+     */
+    private static final class Entry {
+        final String id;
+        double rating;
+        long games;
+        long wins;
+
+        Entry(String id, double rating) {
+            this.id = id;
+            this.rating = rating;
+        }
+    }
+
+    /**
+     * A player's rating at the time of a query.
+     */
+    public static final class Standing {
+        private final int rank;
+        private final String id;
+        private final double rating;
+        private final long games;
+        private final long wins;
+
+        Standing(int rank, Entry entry) {
+            this.rank = rank;
+            this.id = entry.id;
+            this.rating = entry.rating;
+            this.games = entry.games;
+            this.wins = entry.wins;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public double getRating() {
+            return rating;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%4d. %-20s %7.1f %7d games %7d wins", rank, id, rating, games, wins);
+        }
+    }
+
+    /**
+     * Records a finished (or abandoned) game from its final position. The
+     * players are identified by name and placed as
+     * {@link GameEngine#getStandings()} ranks them; players still in the game
+     * with equal net worth share a place.
+     *
+     * @param engine The game
+     */
+    public void record(GameEngine engine) {
+        List<Player> players = engine.getPlayers();
+        int[] standings = engine.getStandings();
+        List<String> ids = new ArrayList<>(players.size());
+        for (Player player : players) {
+            ids.add(player.getName());
+        }
+        int[] places = new int[players.size()];
+        for (int i = 0; i < standings.length; i++) {
+            Player player = players.get(standings[i]);
+            places[standings[i]] = i;
+            if (i > 0) {
+                Player above = players.get(standings[i - 1]);
+                if (!player.isBankrupt() && !above.isBankrupt() && player.getNetWorth() == above.getNetWorth()) {
+                    places[standings[i]] = places[standings[i - 1]];
+                }
+            }
+        }
+        record(ids, places);
+    }
+
+    /**
+     * Records a game result.
+     *
+     * @param ids The players, by seat; a player may hold several seats
+     * @param places Each seat's place, 0 for the best; equal places are ties
+     */
+    public synchronized void record(List<String> ids, int[] places) {
+        int n = ids.size();
+        if (n < 2 || places.length != n) {
+            throw new IllegalArgumentException("A result needs a place for each of at least two seats");
+        }
+        Entry[] seats = new Entry[n];
+        for (int i = 0; i < n; i++) {
+            seats[i] = entries.computeIfAbsent(ids.get(i), id -> {
+                Entry entry = new Entry(id, initialRating);
+                leaderboard.add(entry);
+                return entry;
+            });
+        }
+        // All corrections use the ratings from before the game
+        Map<Entry, Double> deltas = new HashMap<>();
+        double scale = k / (n - 1);
+        for (int i = 0; i < n; i++) {
+            double delta = 0;
+            for (int j = 0; j < n; j++) {
+                if (seats[j] == seats[i]) {
+                    continue;
+                }
+                double expected = 1 / (1 + Math.pow(10, (seats[j].rating - seats[i].rating) / 400));
+                double score = places[i] < places[j] ? 1 : places[i] == places[j] ? 0.5 : 0;
+                delta += score - expected;
+            }
+            deltas.merge(seats[i], delta * scale, Double::sum);
+        }
+        int winner = -1;
+        for (int i = 0; i < n; i++) {
+            if (places[i] == 0) {
+                winner = winner == -1 ? i : -2;
+            }
+        }
+        for (Map.Entry<Entry, Double> change : deltas.entrySet()) {
+            Entry entry = change.getKey();
+            leaderboard.remove(entry);
+            entry.rating += change.getValue();
+            entry.games++;
+            if (winner >= 0 && seats[winner] == entry) {
+                entry.wins++;
+            }
+            leaderboard.add(entry);
+        }
+        games++;
+    }
+
+    /**
+     * Gets a player's current rating.
+     *
+     * @param id The player
+     * @return The rating, or the starting rating for an unknown player
+     */
+    public synchronized double getRating(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.rating : initialRating;
+    }
+
+    /**
+     * Gets a player's standing. The rank is found by walking the index from
+     * the top, so it costs time proportional to the rank.
+     *
+     * @param id The player
+     * @return The standing, or null for an unknown player
+     */
+    public synchronized Standing get(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? new Standing(leaderboard.headSet(entry).size() + 1, entry) : null;
+    }
+
+    /**
+     * Gets the best-rated players.
+     *
+     * @param count Maximum number of players
+     * @return Standings, best first
+     */
+    public List<Standing> top(int count) {
+        return page(0, count);
+    }
+
+    /**
+     * Gets a page of the leaderboard.
+     *
+     * @param from Number of better players to skip
+     * @param count Maximum number of players
+     * @return Standings, best first
+     */
+    public synchronized List<Standing> page(int from, int count) {
+        List<Standing> result = new ArrayList<>(Math.min(count, leaderboard.size()));
+        int rank = 0;
+        for (Entry entry : leaderboard) {
+            rank++;
+            if (rank <= from) {
+                continue;
+            }
+            if (result.size() == count) {
+                break;
+            }
+            result.add(new Standing(rank, entry));
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+}
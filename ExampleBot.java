@@ -0,0 +1,84 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A complete bot for the {@link BotProcess} protocol that uses nothing but
+ * the JDK, as a starting point for bots written in any language. It keeps
+ * every seat's money from the {@code player} updates and buys whenever it
+ * would keep at least the reserve given on its command line; it pays to
+ * leave jail when it has more than twice the reserve.
+ * <p>
+ * Run it with {@code java ExampleBot [reserve] [name]}.
+ */
+public class ExampleBot {
+    private static final int MAX_PLAYERS = 8;
+
+    /** What the bot knows about one seat it plays. */
+    private static class Session {
+        final int seat;
+        final int[] money = new int[MAX_PLAYERS];
+
+        Session(int seat) {
+            this.seat = seat;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int reserve = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        String name = args.length > 1 ? args[1] : "example-" + reserve;
+        Map<Integer, Session> sessions = new HashMap<>();
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        // Answers are flushed only when the engine waits for them
+        PrintStream out = new PrintStream(System.out, false);
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] w = line.split(" ");
+            switch (w[0]) {
+                case "mnp":
+                    out.println("ready " + name);
+                    out.flush();
+                    break;
+                case "new":
+                    sessions.put(Integer.parseInt(w[1]), new Session(Integer.parseInt(w[2])));
+                    break;
+                case "player": {
+                    Session s = sessions.get(Integer.parseInt(w[1]));
+                    if (s != null) {
+                        s.money[Integer.parseInt(w[2])] = Integer.parseInt(w[3]);
+                    }
+                    break;
+                }
+                case "ask": {
+                    Session s = sessions.get(Integer.parseInt(w[1]));
+                    int money = s != null ? s.money[s.seat] : 0;
+                    boolean yes;
+                    switch (w[4]) {
+                        case "buy":
+                            yes = money - Integer.parseInt(w[6]) >= reserve;
+                            break;
+                        case "jail":
+                            yes = money > 2 * reserve;
+                            break;
+                        default:
+                            yes = false;
+                    }
+                    out.println("answer " + w[1] + " " + w[2] + (yes ? " y" : " n"));
+                    out.flush();
+                    break;
+                }
+                case "end":
+                    sessions.remove(Integer.parseInt(w[1]));
+                    break;
+                case "quit":
+                    return;
+                default:
+                    // tile and roll updates are not needed by this bot
+            }
+        }
+    }
+}
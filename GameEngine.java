@@ -1,29 +1,48 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 
 /**
  * The GameEngine class manages the game flow, turns, and rules of Monopoly.
+ * Everything that happens during a turn is recorded as compact events in a
+ * reusable {@link TurnEventLog}; narration text is only built on request.
  */
 public class GameEngine implements MortgageService {
-    private static final int BOARD_SIZE = 40;
-    private static final int GO_SALARY = 200;
-    private static final int JAIL_POSITION = 10;
+    static final int GO_SALARY = GameRules.DEFAULT_GO_SALARY;
+    static final int JAIL_POSITION = 10;
     @SuppressWarnings("unused") // Board initialization uses this index implicitly
     private static final int GO_TO_JAIL_POSITION = 30;
-    private static final int JAIL_FEE = 50;
-    private static final int MAX_JAIL_TURNS = 3;
+    static final int JAIL_FEE = GameRules.DEFAULT_JAIL_FEE;
+    static final int MAX_JAIL_TURNS = GameRules.DEFAULT_MAX_JAIL_TURNS;
+    private static final int EVENT_LOG_CAPACITY = 64;
     
     private final List<Player> players;
+    private final GameRules rules;
     private final Dice dice;
     private int currentPlayerIndex;
     private final List<Space> board;
     private boolean gameOver;
-    private final List<Card> chanceCards;
-    private final List<Card> communityChestCards;
-    private final Random random;
+    private final CardDeck chanceDeck;
+    private final CardDeck communityChestDeck;
     private final MortgageService mortgageService;
+    private final TurnEventLog events;
+    private final BoardSpec boardSpec;
+    private final CardTable chanceCardTable;
+    private final CardTable communityChestCardTable;
+    private final OwnershipIndex ownershipIndex;
+    private final PlayerStrategy[] strategies;
+    private final DecisionView view;
+    private GameState snapshotBuffer;
+    private GameSnapshot lastSnapshot;
+    // Card id in this game's decks -> index in the standard decks, built on first save or load
+    private byte[] chanceToStandard;
+    private byte[] communityChestToStandard;
+    private GameRecorder recorder;
+    // Seats in the order they went bankrupt
+    private final int[] bankruptcyOrder;
+    private int bankruptCount;
     
     /**
      * Initializes a new game with a list of players and pre-initialized game components.
@@ -41,21 +60,103 @@ public class GameEngine implements MortgageService {
                         List<Space> board,
                         List<Card> chanceCards,
                         List<Card> communityChestCards) {
+        this(playerNames, dice, mortgageService, board, chanceCards, communityChestCards, GameRules.DEFAULT);
+    }
+    
+    /**
+     * Initializes a new game played by the given rules. The board and the
+     * mortgage service should have been built for the same rules.
+     *
+     * @param playerNames List of player names.
+     * @param dice The Dice instance to use for the game.
+     * @param mortgageService The MortgageService instance to use for the game.
+     * @param board The initialized game board.
+     * @param chanceCards The initialized deck of Chance cards.
+     * @param communityChestCards The initialized deck of Community Chest cards.
+     * @param rules Salary, jail and starting money rules.
+     */
+    public GameEngine(List<String> playerNames, 
+                        Dice dice, 
+                        MortgageService mortgageService,
+                        List<Space> board,
+                        List<Card> chanceCards,
+                        List<Card> communityChestCards,
+                        GameRules rules) {
+        this.rules = rules;
         // Initialize players
         this.players = new ArrayList<>();
         for (String name : playerNames) {
-            this.players.add(new Player(name));
+            this.players.add(new Player(name, rules.getStartingMoney()));
         }
         
         this.dice = dice;
         this.mortgageService = mortgageService;
         this.board = board;
-        this.chanceCards = chanceCards;
-        this.communityChestCards = communityChestCards;
+        
+        // Card ids used by turn events are indices into the initial deck order
+        this.chanceDeck = new CardDeck(chanceCards);
+        this.communityChestDeck = new CardDeck(communityChestCards);
+        this.boardSpec = new BoardSpec(board);
+        this.chanceCardTable = new CardTable(chanceCards);
+        this.communityChestCardTable = new CardTable(communityChestCards);
+        this.ownershipIndex = OwnershipIndex.forBoard(board);
         
         this.currentPlayerIndex = 0;
-        this.random = new Random();
         this.gameOver = false;
+        this.events = new TurnEventLog(EVENT_LOG_CAPACITY);
+        this.strategies = new PlayerStrategy[players.size()];
+        Arrays.fill(strategies, PlayerStrategy.DEFAULT);
+        this.view = new LiveView();
+        this.bankruptcyOrder = new int[players.size()];
+    }
+    
+    /**
+     * Creates a complete, reproducible game from a single random source.
+     * The dice and both decks each get their own child stream split
+     * from {@code source}, so the same seed always produces the same game and
+     * no two games share random state.
+     *
+     * @param playerNames List of player names.
+     * @param source The random source the game's streams are split from.
+     * @return A new game ready for its first turn
+     */
+    public static GameEngine createSeeded(List<String> playerNames, GameRandom source) {
+        return createSeeded(playerNames, source, GameRules.DEFAULT);
+    }
+    
+    /**
+     * Creates a complete, reproducible game played by the given rules. The
+     * random streams are split exactly as in {@link #createSeeded(List, GameRandom)},
+     * so games with the same source and different rules see the same dice and decks.
+     *
+     * @param playerNames List of player names.
+     * @param source The random source the game's streams are split from.
+     * @param rules The rules to play by.
+     * @return A new game ready for its first turn
+     */
+    public static GameEngine createSeeded(List<String> playerNames, GameRandom source, GameRules rules) {
+        return createSeeded(playerNames, source, rules, false);
+    }
+    
+    /**
+     * Creates a complete, reproducible game whose dice may be mirrored. A game
+     * with mirrored dice rolls 7 minus every value the plain game with the same
+     * source rolls, while its decks are unchanged. Such games
+     * cannot be saved with their random state.
+     *
+     * @param playerNames List of player names.
+     * @param source The random source the game's streams are split from.
+     * @param rules The rules to play by.
+     * @param mirroredDice True for antithetic dice (see {@link Dice#isMirrored()})
+     * @return A new game ready for its first turn
+     */
+    public static GameEngine createSeeded(List<String> playerNames, GameRandom source, GameRules rules,
+                                          boolean mirroredDice) {
+        Dice dice = new Dice(source.split(), mirroredDice);
+        List<Card> chanceCards = CardDeckManager.createChanceDeck(source.split());
+        List<Card> communityChestCards = CardDeckManager.createCommunityChestDeck(source.split());
+        return new GameEngine(playerNames, dice, new MortgageServiceImpl(rules.getInterestRate()),
+                BoardInitializer.createBoard(rules), chanceCards, communityChestCards, rules);
     }
     
     /**
@@ -64,60 +165,88 @@ public class GameEngine implements MortgageService {
      * @return String Result of the turn
      */
     public String playTurn() {
+        executeTurn();
+        return TurnEventFormatter.render(events, this);
+    }
+    
+    /**
+     * Executes a complete turn for the current player without building any text.
+     * What happened is available afterwards from {@link #getTurnEvents()}.
+     */
+    public void executeTurn() {
+        int playerIndex = currentPlayerIndex;
+        runTurn();
+        if (recorder != null) {
+            recorder.turnEnded(playerIndex);
+        }
+    }
+    
+    private void runTurn() {
+        events.clear();
         if (gameOver) {
-            return "Game is over!";
+            events.add(TurnEventType.GAME_ALREADY_OVER, -1);
+            return;
         }
         
-        Player currentPlayer = players.get(currentPlayerIndex);
-        StringBuilder result = new StringBuilder();
+        int playerIndex = currentPlayerIndex;
+        Player currentPlayer = players.get(playerIndex);
         
         // Check if the player is bankrupt
         if (currentPlayer.isBankrupt()) {
             advanceToNextPlayer();
-            return currentPlayer.getName() + " is bankrupt and cannot play.";
+            events.add(TurnEventType.BANKRUPT_SKIPPED, playerIndex);
+            return;
         }
         
-        result.append(currentPlayer.getName() + "'s turn.\n");
+        events.add(TurnEventType.TURN_STARTED, playerIndex);
+        
+        PlayerStrategy strategy = strategies[playerIndex];
+        if (strategy.managesProperties()) {
+            manageProperties(currentPlayer, playerIndex, strategy);
+        }
         
         // Handle player in jail
         if (currentPlayer.isInJail()) {
-            result.append(handleJailTurn(currentPlayer));
+            handleJailTurn(currentPlayer, playerIndex);
             // If still in jail after handling, end the turn
             if (currentPlayer.isInJail()) {
                 advanceToNextPlayer();
-                return result.toString();
+                return;
             }
         }
         
         // Roll the dice
         int steps = dice.roll();
-        result.append(dice.toString() + "\n");
+        if (recorder != null) {
+            recorder.diceRolled(playerIndex, dice.getValue1(), dice.getValue2());
+        }
+        events.add(TurnEventType.DICE_ROLLED, playerIndex, dice.getValue1(), dice.getValue2());
         
         // Check for three consecutive doubles
         if (dice.isThreeConsecutiveDoubles()) {
-            result.append(currentPlayer.getName() + " rolled 3 consecutive doubles and must go to jail!\n");
+            events.add(TurnEventType.THREE_DOUBLES_JAIL, playerIndex);
             currentPlayer.goToJail(JAIL_POSITION);
             dice.resetConsecutiveDoubles();
             advanceToNextPlayer();
-            return result.toString();
+            return;
         }
         
         // Move the player
-        boolean passedGo = currentPlayer.move(steps, BOARD_SIZE);
+        boolean passedGo = currentPlayer.move(steps, board.size());
         if (passedGo) {
-            currentPlayer.addMoney(GO_SALARY);
-            result.append(currentPlayer.getName() + " passed GO and collected $" + GO_SALARY + ".\n");
+            currentPlayer.addMoney(rules.getGoSalary());
+            events.add(TurnEventType.PASSED_GO, playerIndex, rules.getGoSalary());
         }
         
         // Handle the current space
         Space currentSpace = board.get(currentPlayer.getPosition());
-        result.append(currentPlayer.getName() + " landed on " + currentSpace.getName() + ".\n");
+        events.add(TurnEventType.LANDED, playerIndex, currentPlayer.getPosition());
         
-        handleLandedOnSpace(currentPlayer, currentSpace, result);
+        handleLandedOnSpace(currentPlayer, playerIndex, currentSpace);
         
         // Check if the player went bankrupt after the turn
         if (currentPlayer.isBankrupt()) {
-            result.append(currentPlayer.getName() + " went bankrupt!\n");
+            events.add(TurnEventType.WENT_BANKRUPT, playerIndex);
             handleBankruptcy(currentPlayer);
             checkGameOver();
         }
@@ -126,127 +255,487 @@ public class GameEngine implements MortgageService {
         if (!dice.isDouble() || currentPlayer.isInJail()) {
             advanceToNextPlayer();
         } else {
-            result.append(currentPlayer.getName() + " rolled doubles and gets another turn!\n");
+            events.add(TurnEventType.EXTRA_TURN, playerIndex);
+        }
+    }
+    
+    /**
+     * Creates an engine that plays this game's rules directly on {@link GameState}
+     * objects, for fast search and rollouts from states captured here.
+     *
+     * @return A state engine sharing this game's board and card tables
+     */
+    public GameStateEngine createStateEngine() {
+        return new GameStateEngine(boardSpec, chanceCardTable, communityChestCardTable, rules);
+    }
+    
+    /**
+     * Solves the long-run landing probabilities for this game's board and decks.
+     *
+     * @return The solved probabilities
+     */
+    public LandingProbabilities createLandingProbabilities() {
+        return new LandingProbabilities(boardSpec, chanceCardTable, communityChestCardTable);
+    }
+    
+    /**
+     * Creates expected-income analytics for this game's board. They follow
+     * ownership and building changes until {@link IncomeAnalytics#detach()}.
+     *
+     * @return The analytics
+     */
+    public IncomeAnalytics createIncomeAnalytics() {
+        return new IncomeAnalytics(board, createLandingProbabilities(), ownershipIndex);
+    }
+    
+    /**
+     * Captures the complete dynamic state of the game in compact form.
+     *
+     * @return A new state object
+     */
+    public GameState captureState() {
+        GameState state = new GameState(players.size(), board.size(),
+                chanceDeck.getCardCount(), communityChestDeck.getCardCount());
+        captureState(state);
+        return state;
+    }
+    
+    /**
+     * Captures the complete dynamic state of the game into an existing state object.
+     *
+     * @param state The state to overwrite; must have this game's shape
+     */
+    public void captureState(GameState state) {
+        for (int p = 0; p < players.size(); p++) {
+            Player player = players.get(p);
+            state.money[p] = player.getMoney();
+            state.position[p] = (byte) player.getPosition();
+            state.flags[p] = 0;
+            state.setFlag(p, GameState.FLAG_IN_JAIL, player.isInJail());
+            state.setFlag(p, GameState.FLAG_BANKRUPT, player.isBankrupt());
+            state.setFlag(p, GameState.FLAG_SURRENDERED, player.hasSurrendered());
+            state.jailTurns[p] = (byte) player.getJailTurns();
+            state.jailCards[p] = (byte) player.getGetOutOfJailCards();
         }
         
-        return result.toString();
+        for (int t = 0; t < board.size(); t++) {
+            Space space = board.get(t);
+            state.owner[t] = GameState.NO_OWNER;
+            state.buildings[t] = 0;
+            state.setMortgaged(t, false);
+            if (space instanceof Buyable) {
+                Buyable property = (Buyable) space;
+                if (property.getOwner() != null) {
+                    state.owner[t] = (byte) indexOf(property.getOwner());
+                }
+                state.setMortgaged(t, property.isMortgaged());
+            }
+            if (space instanceof PropertySpace) {
+                PropertySpace property = (PropertySpace) space;
+                state.buildings[t] = (byte) (property.hasHotel() ? GameState.HOTEL : property.getHouses());
+            }
+        }
+        
+        chanceDeck.exportTo(state.chanceDeck, state.chanceHolder);
+        state.chanceHead = 0;
+        state.chanceCount = chanceDeck.size();
+        communityChestDeck.exportTo(state.communityChestDeck, state.communityChestHolder);
+        state.communityChestHead = 0;
+        state.communityChestCount = communityChestDeck.size();
+        
+        state.currentPlayer = currentPlayerIndex;
+        state.die1 = dice.getValue1();
+        state.die2 = dice.getValue2();
+        state.consecutiveDoubles = dice.getConsecutiveDoubles();
+        state.gameOver = gameOver;
+    }
+    
+    /**
+     * Replaces the game's players, board ownership, decks and dice with a
+     * captured state, for example one that was played forward by a
+     * {@link GameStateEngine}.
+     *
+     * @param state A state captured from this game (same players and board)
+     */
+    public void restoreState(GameState state) {
+        if (state.playerCount != players.size() || state.tileCount != board.size()) {
+            throw new IllegalArgumentException("State does not belong to this game");
+        }
+        for (int p = 0; p < players.size(); p++) {
+            Player player = players.get(p);
+            player.setMoney(state.money[p]);
+            player.setPosition(state.position[p]);
+            player.setInJail(state.isInJail(p));
+            player.setBankrupt(state.isBankrupt(p));
+            player.setSurrendered((state.flags[p] & GameState.FLAG_SURRENDERED) != 0);
+            player.setJailTurns(state.jailTurns[p]);
+            player.setGetOutOfJailCards(state.jailCards[p]);
+            player.clearProperties();
+        }
+        
+        for (int t = 0; t < board.size(); t++) {
+            Space space = board.get(t);
+            if (space instanceof Buyable) {
+                Buyable property = (Buyable) space;
+                int owner = state.owner[t];
+                Player ownerPlayer = owner == GameState.NO_OWNER ? null : players.get(owner);
+                property.setOwner(ownerPlayer);
+                if (ownerPlayer != null) {
+                    ownerPlayer.addProperty(property);
+                }
+                if (property.isMortgaged() != state.isMortgaged(t)) {
+                    if (state.isMortgaged(t)) {
+                        property.mortgage();
+                    } else {
+                        property.unmortgage();
+                    }
+                }
+            }
+            if (space instanceof PropertySpace) {
+                ((PropertySpace) space).setDevelopmentLevel(state.buildings[t]);
+            }
+        }
+        
+        chanceDeck.importFrom(state.chanceDeck, state.chanceHead, state.chanceCount, state.chanceHolder);
+        communityChestDeck.importFrom(state.communityChestDeck, state.communityChestHead,
+                state.communityChestCount, state.communityChestHolder);
+        
+        // Owner changes were counted one by one; recount so the totals are exact
+        ownershipIndex.recount(players, board);
+        
+        currentPlayerIndex = state.currentPlayer;
+        dice.setState(state.die1, state.die2, state.consecutiveDoubles);
+        gameOver = state.gameOver;
+        updateBankruptcyOrder();
+    }
+    
+    /**
+     * Takes an immutable snapshot of the game for undo/redo or what-if play.
+     * Parts of the game that did not change since the previous snapshot (or
+     * restore) are shared with it, so keeping one snapshot per turn is cheap.
+     *
+     * @return The snapshot
+     */
+    public GameSnapshot snapshot() {
+        if (snapshotBuffer == null) {
+            snapshotBuffer = captureState();
+        } else {
+            captureState(snapshotBuffer);
+        }
+        lastSnapshot = GameSnapshot.of(snapshotBuffer, lastSnapshot);
+        return lastSnapshot;
+    }
+    
+    /**
+     * Puts the game back into a snapshot taken from it. Ownership counts,
+     * deck positions, held cards and the dice's doubles count are rebuilt
+     * along with the players and the board.
+     *
+     * @param snapshot A snapshot taken from this game
+     */
+    public void restore(GameSnapshot snapshot) {
+        if (snapshotBuffer == null) {
+            snapshotBuffer = captureState();
+        }
+        snapshot.copyTo(snapshotBuffer);
+        restoreState(snapshotBuffer);
+        lastSnapshot = snapshot;
+    }
+    
+    /**
+     * Saves the game to a file in {@link SaveGameFormat}.
+     *
+     * @param path The file to create or replace
+     * @throws IOException if the file cannot be written
+     * @throws IllegalStateException if the game does not use the standard decks or
+     *                               is played by custom {@link GameRules}
+     */
+    public void save(Path path) throws IOException {
+        requireDefaultRules();
+        try (SaveGameArchive.Writer writer = new SaveGameArchive.Writer(path, new SaveGameFormat(
+                players.size(), board.size(), chanceDeck.getCardCount(), communityChestDeck.getCardCount()))) {
+            writer.append(this);
+        }
+    }
+    
+    /**
+     * Loads a game saved with {@link #save(Path)}.
+     *
+     * @param path The save file
+     * @return The game, ready for its next turn
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a supported save file
+     */
+    public static GameEngine load(Path path) throws IOException {
+        return SaveGameArchive.open(path).loadGame(0);
+    }
+    
+    /**
+     * Replaces this game's position with a saved one of the same shape.
+     * Player names are kept. The dice's random state is restored when both
+     * the record and this game's dice have one.
+     *
+     * @param archive The archive holding the save
+     * @param index The record index
+     * @throws IllegalArgumentException if the save has a different number of players
+     */
+    public void restoreSaved(SaveGameArchive archive, int index) {
+        GameState state = captureState();
+        archive.readState(index, state);
+        restoreSaveState(state);
+        
+        GameRandom diceRandom = archive.getDiceRandom(index);
+        if (diceRandom != null && dice.getRandom() instanceof GameRandom) {
+            ((GameRandom) dice.getRandom()).setState(diceRandom.getSeed(), diceRandom.getGamma());
+        }
+    }
+    
+    /**
+     * Captures the state with cards identified by their standard index, as
+     * save files store them.
+     *
+     * @param state The state to overwrite
+     */
+    void captureSaveState(GameState state) {
+        if (state.playerCount != players.size() || state.tileCount != board.size()
+                || state.chanceHolder.length != chanceDeck.getCardCount()
+                || state.communityChestHolder.length != communityChestDeck.getCardCount()) {
+            throw new IllegalArgumentException("State does not belong to this game");
+        }
+        captureState(state);
+        mapCards(state, true);
+    }
+    
+    /**
+     * Restores a state with cards identified by their standard index, as
+     * save files store them. The state's card ids are translated in place.
+     *
+     * @param state The state to restore; it is overwritten
+     */
+    void restoreSaveState(GameState state) {
+        mapCards(state, false);
+        restoreState(state);
+    }
+    
+    /**
+     * Fails unless the game is played by the default rules. Save files and
+     * journals do not store the rules, so other games would replay wrongly.
+     *
+     * @throws IllegalStateException if the rules are not {@link GameRules#DEFAULT}
+     */
+    void requireDefaultRules() {
+        if (!rules.equals(GameRules.DEFAULT)) {
+            throw new IllegalStateException("Games with custom rules cannot be saved or recorded (" + rules + ")");
+        }
+    }
+    
+    List<String> getPlayerNames() {
+        List<String> names = new ArrayList<>(players.size());
+        for (Player player : players) {
+            names.add(player.getName());
+        }
+        return names;
+    }
+    
+    GameRandom getSavableDiceRandom() {
+        return dice.getRandom() instanceof GameRandom && !dice.isMirrored() ? (GameRandom) dice.getRandom() : null;
+    }
+    
+    /**
+     * Translates the card ids of a state between this game's deck order and
+     * the standard order.
+     */
+    private void mapCards(GameState state, boolean toStandard) {
+        standardCardId(true, 0);
+        mapDeck(state.chanceDeck, state.chanceHolder, chanceToStandard, toStandard);
+        mapDeck(state.communityChestDeck, state.communityChestHolder, communityChestToStandard, toStandard);
+    }
+    
+    private int standardCardId(boolean chance, int cardId) {
+        if (chanceToStandard == null) {
+            chanceToStandard = standardIds(chanceDeck, CardDeckManager.createChanceCards());
+            communityChestToStandard = standardIds(communityChestDeck, CardDeckManager.createCommunityChestCards());
+        }
+        return (chance ? chanceToStandard : communityChestToStandard)[cardId];
+    }
+    
+    private static void mapDeck(byte[] ring, byte[] holders, byte[] toStandard, boolean forward) {
+        byte[] mapping = toStandard;
+        if (!forward) {
+            mapping = new byte[toStandard.length];
+            for (int id = 0; id < toStandard.length; id++) {
+                mapping[toStandard[id]] = (byte) id;
+            }
+        }
+        // Ring entries are card ids; holders are indexed by card id
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = mapping[ring[i]];
+        }
+        byte[] mappedHolders = new byte[holders.length];
+        for (int id = 0; id < holders.length; id++) {
+            mappedHolders[mapping[id]] = holders[id];
+        }
+        System.arraycopy(mappedHolders, 0, holders, 0, holders.length);
+    }
+    
+    private static byte[] standardIds(CardDeck deck, List<Card> standard) {
+        if (deck.getCardCount() != standard.size()) {
+            throw new IllegalStateException("Only games with the standard decks can be saved");
+        }
+        byte[] ids = new byte[deck.getCardCount()];
+        boolean[] used = new boolean[standard.size()];
+        for (int id = 0; id < ids.length; id++) {
+            Card card = deck.getCard(id);
+            int match = -1;
+            for (int s = 0; s < standard.size() && match < 0; s++) {
+                if (!used[s] && standard.get(s).getDescription().equals(card.getDescription())) {
+                    match = s;
+                }
+            }
+            if (match < 0) {
+                throw new IllegalStateException("Only games with the standard decks can be saved");
+            }
+            used[match] = true;
+            ids[id] = (byte) match;
+        }
+        return ids;
+    }
+    
+    /**
+     * Gets the events recorded during the most recent turn.
+     * The log is reused and overwritten by the next turn.
+     *
+     * @return The turn event log
+     */
+    public TurnEventLog getTurnEvents() {
+        return events;
+    }
+    
+    /**
+     * Gets a card by the id used in {@link TurnEventType#CARD_DRAWN} events.
+     *
+     * @param chance True for the Chance deck, false for Community Chest
+     * @param id The card id
+     * @return The card
+     */
+    public Card getCard(boolean chance, int id) {
+        return chance ? chanceDeck.getCard(id) : communityChestDeck.getCard(id);
     }
     
     /**
      * Handles the turn when a player is in jail.
      *
      * @param player The player in jail
-     * @return String Result of handling the jail turn
+     * @param playerIndex The player's seat index
      */
-    private String handleJailTurn(Player player) {
-        StringBuilder result = new StringBuilder();
-        result.append(player.getName() + " is in jail (Turn " + (player.getJailTurns() + 1) + ").\n");
+    private void handleJailTurn(Player player, int playerIndex) {
+        events.add(TurnEventType.JAIL_TURN, playerIndex, player.getJailTurns() + 1);
         
         // Check if player has a Get Out of Jail Free card
         if (player.hasGetOutOfJailCard()) {
-            result.append(player.getName() + " uses a Get Out of Jail Free card.\n");
+            events.add(TurnEventType.JAIL_CARD_USED, playerIndex);
             player.useGetOutOfJailCard();
+            // The used card goes back to the bottom of the deck it came from
+            if (!chanceDeck.returnHeldCard(playerIndex)) {
+                communityChestDeck.returnHeldCard(playerIndex);
+            }
             player.setInJail(false);
             player.resetJailTurns();
-            return result.toString();
-        }
-        
-        // Option 1: Pay the fine
-        if (player.getMoney() >= JAIL_FEE) {
-            // For simplicity, we'll have the AI automatically pay after 2 turns
-            // In a real game, this would be a player choice
-            if (player.getJailTurns() >= 2) {
-                result.append(player.getName() + " pays the $" + JAIL_FEE + " fine to get out of jail.\n");
-                player.pay(JAIL_FEE);
-                player.setInJail(false);
-                player.resetJailTurns();
-                return result.toString();
-            }
+            return;
+        }
+        
+        // Option 1: Pay the fine, if the player's strategy chooses to
+        if (player.getMoney() >= rules.getJailFee() && decide(GameRecorder.DECISION_JAIL_FEE, playerIndex, -1,
+                strategies[playerIndex].shouldPayJailFee(view, playerIndex))) {
+            events.add(TurnEventType.JAIL_FEE_PAID, playerIndex, rules.getJailFee());
+            player.pay(rules.getJailFee());
+            player.setInJail(false);
+            player.resetJailTurns();
+            return;
         }
         
         // Option 2: Try to roll doubles
         dice.roll();
-        result.append(player.getName() + " rolls " + dice.toString() + " to try to get out of jail.\n");
+        if (recorder != null) {
+            recorder.diceRolled(playerIndex, dice.getValue1(), dice.getValue2());
+        }
+        events.add(TurnEventType.JAIL_ROLL, playerIndex, dice.getValue1(), dice.getValue2());
         
         if (dice.isDouble()) {
-            result.append(player.getName() + " rolled doubles and gets out of jail!\n");
+            events.add(TurnEventType.JAIL_DOUBLES_RELEASE, playerIndex);
             player.setInJail(false);
             player.resetJailTurns();
             
             // Move the player according to the roll
             int steps = dice.getTotal();
-            boolean passedGo = player.move(steps, BOARD_SIZE);
+            boolean passedGo = player.move(steps, board.size());
             if (passedGo) {
-                player.addMoney(GO_SALARY);
-                result.append(player.getName() + " passed GO and collected $" + GO_SALARY + ".\n");
+                player.addMoney(rules.getGoSalary());
+                events.add(TurnEventType.PASSED_GO, playerIndex, rules.getGoSalary());
             }
             
             // Handle the space the player landed on
             Space currentSpace = board.get(player.getPosition());
-            result.append(player.getName() + " landed on " + currentSpace.getName() + ".\n");
-            handleLandedOnSpace(player, currentSpace, result);
+            events.add(TurnEventType.LANDED, playerIndex, player.getPosition());
+            handleLandedOnSpace(player, playerIndex, currentSpace);
         } else {
             // Failed to roll doubles
             player.incrementJailTurns();
             
             // If this is the third turn in jail, player must pay and get out
-            if (player.getJailTurns() >= MAX_JAIL_TURNS) {
-                result.append("This is " + player.getName() + "'s third turn in jail. ");
-                
-                if (player.getMoney() >= JAIL_FEE) {
-                    result.append("Must pay the $" + JAIL_FEE + " fine to get out of jail.\n");
-                    player.pay(JAIL_FEE);
+            if (player.getJailTurns() >= rules.getMaxJailTurns()) {
+                if (player.getMoney() >= rules.getJailFee()) {
+                    events.add(TurnEventType.JAIL_FORCED_FEE, playerIndex, rules.getJailFee());
+                    player.pay(rules.getJailFee());
                     player.setInJail(false);
                     player.resetJailTurns();
                 } else {
-                    result.append("Cannot afford the $" + JAIL_FEE + " fine! Must sell properties or declare bankruptcy.\n");
+                    events.add(TurnEventType.JAIL_FEE_UNAFFORDABLE, playerIndex, rules.getJailFee());
                     // In a real game, player would have options to mortgage properties
                     // For simplicity, we're assuming bankruptcy if they can't pay
                     player.setBankrupt(true);
                 }
             }
         }
-        
-        return result.toString();
     }
     
     /**
      * Handles actions when a player lands on a specific board space.
      *
      * @param player The player who moved
+     * @param playerIndex The player's seat index
      * @param space The space the player landed on
-     * @param result StringBuilder to update with results
      */
-    private void handleLandedOnSpace(Player player, Space space, StringBuilder result) {
+    private void handleLandedOnSpace(Player player, int playerIndex, Space space) {
         SpaceType spaceType = space.getType();
         
         switch (spaceType) {
             case PROPERTY:
             case RAILROAD:
             case UTILITY:
-                handlePropertySpace(player, (Buyable) space, result);
+                handlePropertySpace(player, playerIndex, (Buyable) space);
                 break;
             case TAX:
-                handleTaxSpace(player, space, result);
+                handleTaxSpace(player, playerIndex, space);
                 break;
             case GO_TO_JAIL:
-                result.append(player.getName() + " must go to jail!\n");
+                events.add(TurnEventType.SENT_TO_JAIL, playerIndex);
                 player.goToJail(JAIL_POSITION);
                 break;
             case CHANCE:
-                handleCardDraw(player, true, result);
+                handleCardDraw(player, playerIndex, true);
                 break;
             case COMMUNITY_CHEST:
-                handleCardDraw(player, false, result);
+                handleCardDraw(player, playerIndex, false);
                 break;
             case FREE_PARKING:
-                result.append(player.getName() + " landed on Free Parking. Nothing happens.\n");
+                events.add(TurnEventType.FREE_PARKING, playerIndex);
                 break;
             case GO:
-                result.append(player.getName() + " landed on GO.\n");
+                events.add(TurnEventType.LANDED_ON_GO, playerIndex);
                 break;
             case JAIL:
-                result.append(player.getName() + " is just visiting jail.\n");
+                events.add(TurnEventType.JUST_VISITING, playerIndex);
                 break;
             default:
                 break;
@@ -257,16 +746,25 @@ public class GameEngine implements MortgageService {
      * Handles drawing a card from Chance or Community Chest.
      * 
      * @param player The player drawing the card
+     * @param playerIndex The player's seat index
      * @param isChance True if drawing from Chance, false for Community Chest
-     * @param result StringBuilder to update with results
      */
-    private void handleCardDraw(Player player, boolean isChance, StringBuilder result) {
-        List<Card> deck = isChance ? chanceCards : communityChestCards;
-        String deckName = isChance ? "Chance" : "Community Chest";
+    private void handleCardDraw(Player player, int playerIndex, boolean isChance) {
+        CardDeck deck = isChance ? chanceDeck : communityChestDeck;
         
         // Draw the top card
-        Card card = deck.remove(0);
-        result.append(player.getName() + " draws " + deckName + " card: " + card.getDescription() + "\n");
+        int cardId = deck.draw();
+        Card card = deck.getCard(cardId);
+        if (recorder != null) {
+            recorder.cardDrawn(playerIndex, isChance, standardCardId(isChance, cardId));
+        }
+        events.add(TurnEventType.CARD_DRAWN, playerIndex, isChance ? 1 : 0, cardId);
+        
+        // Put the card at the bottom of the deck (unless the player keeps it)
+        // before its effect, so decisions during a card move see a whole deck
+        if (card.getType() != CardType.GET_OUT_OF_JAIL_FREE) {
+            deck.discard(cardId);
+        }
         
         // Execute card effect
         switch (card.getType()) {
@@ -276,44 +774,45 @@ public class GameEngine implements MortgageService {
                 
                 // If moving to a position before current position, player passes GO
                 if (destination < currentPosition) {
-                    player.addMoney(GO_SALARY);
-                    result.append(player.getName() + " passes GO and collects $" + GO_SALARY + ".\n");
+                    player.addMoney(rules.getGoSalary());
+                    events.add(TurnEventType.CARD_PASSED_GO, playerIndex, rules.getGoSalary());
                 }
                 
                 // Move player to destination
                 player.setPosition(destination);
                 Space destinationSpace = board.get(destination);
-                result.append(player.getName() + " moves to " + destinationSpace.getName() + ".\n");
+                events.add(TurnEventType.CARD_MOVED, playerIndex, destination);
                 
                 // Handle effects of the destination space
-                handleLandedOnSpace(player, destinationSpace, result);
+                handleLandedOnSpace(player, playerIndex, destinationSpace);
                 break;
                 
             case GO_TO_JAIL:
-                result.append(player.getName() + " goes to jail!\n");
+                events.add(TurnEventType.CARD_TO_JAIL, playerIndex);
                 player.goToJail(JAIL_POSITION);
                 break;
                 
             case COLLECT_MONEY:
                 int amount = card.getValue();
                 player.addMoney(amount);
-                result.append(player.getName() + " collects $" + amount + ".\n");
+                events.add(TurnEventType.CARD_COLLECT, playerIndex, amount);
                 break;
                 
             case PAY_MONEY:
                 int fee = card.getValue();
                 boolean canPay = player.pay(fee);
                 if (canPay) {
-                    result.append(player.getName() + " pays $" + fee + ".\n");
+                    events.add(TurnEventType.CARD_PAY, playerIndex, fee);
                 } else {
-                    result.append(player.getName() + " cannot afford to pay $" + fee + "!\n");
+                    events.add(TurnEventType.CARD_PAY_UNAFFORDABLE, playerIndex, fee);
                     player.setBankrupt(true);
                 }
                 break;
                 
             case GET_OUT_OF_JAIL_FREE:
                 player.addGetOutOfJailCard();
-                result.append(player.getName() + " keeps this card for future use.\n");
+                deck.hold(cardId, playerIndex);
+                events.add(TurnEventType.CARD_KEPT, playerIndex);
                 break;
                 
             case REPAIRS:
@@ -335,14 +834,14 @@ public class GameEngine implements MortgageService {
                 }
                 
                 if (totalRepairCost > 0) {
-                    result.append(player.getName() + " must pay $" + totalRepairCost + " for repairs.\n");
+                    events.add(TurnEventType.REPAIRS_DUE, playerIndex, totalRepairCost);
                     boolean canPayRepairs = player.pay(totalRepairCost);
                     if (!canPayRepairs) {
-                        result.append(player.getName() + " cannot afford repairs!\n");
+                        events.add(TurnEventType.REPAIRS_UNAFFORDABLE, playerIndex);
                         player.setBankrupt(true);
                     }
                 } else {
-                    result.append(player.getName() + " has no properties requiring repair.\n");
+                    events.add(TurnEventType.NO_REPAIRS, playerIndex);
                 }
                 break;
                 
@@ -350,17 +849,18 @@ public class GameEngine implements MortgageService {
                 int payAmount = card.getValue();
                 int totalPaid = 0;
                 
-                for (Player otherPlayer : players) {
+                for (int i = 0; i < players.size(); i++) {
+                    Player otherPlayer = players.get(i);
                     if (otherPlayer != player && !otherPlayer.isBankrupt()) {
                         otherPlayer.addMoney(payAmount);
                         totalPaid += payAmount;
-                        result.append(player.getName() + " pays $" + payAmount + " to " + otherPlayer.getName() + ".\n");
+                        events.add(TurnEventType.PLAYER_PAID_PLAYER, playerIndex, i, payAmount);
                     }
                 }
                 
                 boolean canPayAll = player.pay(totalPaid);
                 if (!canPayAll) {
-                    result.append(player.getName() + " cannot afford to pay all players!\n");
+                    events.add(TurnEventType.PAY_EACH_UNAFFORDABLE, playerIndex);
                     player.setBankrupt(true);
                 }
                 break;
@@ -369,84 +869,71 @@ public class GameEngine implements MortgageService {
                 int collectAmount = card.getValue();
                 int totalCollected = 0;
                 
-                for (Player otherPlayer : players) {
+                for (int i = 0; i < players.size(); i++) {
+                    Player otherPlayer = players.get(i);
                     if (otherPlayer != player && !otherPlayer.isBankrupt()) {
                         boolean paid = otherPlayer.pay(collectAmount);
                         if (paid) {
                             totalCollected += collectAmount;
-                            result.append(otherPlayer.getName() + " pays $" + collectAmount + " to " + player.getName() + ".\n");
+                            events.add(TurnEventType.PLAYER_PAID_PLAYER, i, playerIndex, collectAmount);
                         } else {
-                            result.append(otherPlayer.getName() + " cannot afford to pay $" + collectAmount + "!\n");
+                            events.add(TurnEventType.COLLECT_UNAFFORDABLE, i, collectAmount);
                             otherPlayer.setBankrupt(true);
+                            returnJailCards(otherPlayer, i);
                         }
                     }
                 }
                 
                 player.addMoney(totalCollected);
-                result.append(player.getName() + " collects a total of $" + totalCollected + ".\n");
+                events.add(TurnEventType.COLLECTED_TOTAL, playerIndex, totalCollected);
                 break;
                 
             case NEAREST_RAILROAD:
-                moveToNearestProperty(player, SpaceType.RAILROAD, result);
+                moveToNearestProperty(player, playerIndex, SpaceType.RAILROAD);
                 break;
                 
             case NEAREST_UTILITY:
-                moveToNearestProperty(player, SpaceType.UTILITY, result);
+                moveToNearestProperty(player, playerIndex, SpaceType.UTILITY);
                 break;
                 
             case MOVE_BACKWARD:
                 int spacesToMove = card.getValue();
-                int newPosition = (player.getPosition() - spacesToMove + BOARD_SIZE) % BOARD_SIZE;
+                int newPosition = (player.getPosition() - spacesToMove + board.size()) % board.size();
                 player.setPosition(newPosition);
                 
                 Space newSpace = board.get(newPosition);
-                result.append(player.getName() + " moves back " + spacesToMove + " spaces to " + newSpace.getName() + ".\n");
+                events.add(TurnEventType.MOVED_BACK, playerIndex, spacesToMove, newPosition);
                 
                 // Handle the effects of the new space
-                handleLandedOnSpace(player, newSpace, result);
+                handleLandedOnSpace(player, playerIndex, newSpace);
                 break;
         }
-        
-        // Put the card at the bottom of the deck (unless it's Get Out of Jail Free)
-        if (card.getType() != CardType.GET_OUT_OF_JAIL_FREE) {
-            deck.add(card);
-        }
     }
     
     /**
      * Moves a player to the nearest property of a specified type.
      * 
      * @param player The player to move
+     * @param playerIndex The player's seat index
      * @param type The type of property to find (RAILROAD or UTILITY)
-     * @param result StringBuilder to update with results
      */
-    private void moveToNearestProperty(Player player, SpaceType type, StringBuilder result) {
+    private void moveToNearestProperty(Player player, int playerIndex, SpaceType type) {
         int currentPosition = player.getPosition();
-        int nearestPosition = -1;
-        int distance = BOARD_SIZE; // Maximum possible distance
-        
-        // Find the nearest property of the specified type
-        for (int i = 0; i < board.size(); i++) {
-            if (board.get(i).getType() == type) {
-                int dist = (i - currentPosition + BOARD_SIZE) % BOARD_SIZE;
-                if (dist > 0 && dist < distance) {
-                    distance = dist;
-                    nearestPosition = i;
-                }
-            }
-        }
+        
+        // One lookup in the board's precomputed jump table
+        int nearestPosition = boardSpec.getNextOfType(type, currentPosition);
         
         if (nearestPosition != -1) {
             // Check if passing GO
-            if (nearestPosition < currentPosition) {
-                player.addMoney(GO_SALARY);
-                result.append(player.getName() + " passes GO and collects $" + GO_SALARY + ".\n");
+            if (boardSpec.passesGoToNext(type, currentPosition)) {
+                player.addMoney(rules.getGoSalary());
+                events.add(TurnEventType.CARD_PASSED_GO, playerIndex, rules.getGoSalary());
             }
             
             // Move to the nearest property
             player.setPosition(nearestPosition);
             Space destination = board.get(nearestPosition);
-            result.append(player.getName() + " moves to " + destination.getName() + ".\n");
+            events.add(TurnEventType.CARD_MOVED, playerIndex, nearestPosition);
             
             // Handle landing on the property with double rent if it's owned
             if (destination instanceof Buyable) {
@@ -455,25 +942,25 @@ public class GameEngine implements MortgageService {
                     // Apply double rent for landing via card
                     int regularRent = property.calculateRent();
                     int doubleRent = regularRent * 2;
+                    int ownerIndex = indexOf(property.getOwner());
                     
-                    result.append(property.getName() + " is owned by " + property.getOwner().getName() + ".\n");
-                    result.append("Card effect: Rent is doubled to $" + doubleRent + ".\n");
+                    events.add(TurnEventType.DOUBLE_RENT_DUE, playerIndex, nearestPosition, ownerIndex, doubleRent);
                     
                     boolean canPay = player.pay(doubleRent);
                     if (canPay) {
                         property.getOwner().addMoney(doubleRent);
-                        result.append(player.getName() + " pays $" + doubleRent + " to " + property.getOwner().getName() + ".\n");
+                        events.add(TurnEventType.DOUBLE_RENT_PAID, playerIndex, ownerIndex, doubleRent);
                     } else {
-                        result.append(player.getName() + " cannot afford the double rent!\n");
+                        events.add(TurnEventType.DOUBLE_RENT_UNAFFORDABLE, playerIndex);
                         player.setBankrupt(true);
                     }
                 } else {
                     // If unowned or owned by the player, handle normally
-                    handlePropertySpace(player, property, result);
+                    handlePropertySpace(player, playerIndex, property);
                 }
             }
         } else {
-            result.append("Error: No property of specified type found on the board.\n");
+            events.add(TurnEventType.NO_NEAREST_SPACE, -1, type.ordinal());
         }
     }
     
@@ -481,24 +968,31 @@ public class GameEngine implements MortgageService {
      * Handles landing on a buyable space (Property, Railroad, Utility).
      *
      * @param player The player
+     * @param playerIndex The player's seat index
      * @param property The buyable space
-     * @param result StringBuilder for results
      */
-    private void handlePropertySpace(Player player, Buyable property, StringBuilder result) {
+    private void handlePropertySpace(Player player, int playerIndex, Buyable property) {
+        int position = player.getPosition();
+        
         // If unowned, allow purchase
         if (property.getOwner() == null) {
             if (player.getMoney() >= property.getPrice()) {
-                // Assume player always buys if they can
-                player.pay(property.getPrice());
-                property.setOwner(player);
-                player.addProperty(property);
-                result.append(player.getName() + " bought " + property.getName() + " for $" + property.getPrice() + ".\n");
+                if (decide(GameRecorder.DECISION_BUY, playerIndex, position,
+                        strategies[playerIndex].shouldBuy(view, playerIndex, position))) {
+                    player.pay(property.getPrice());
+                    property.setOwner(player);
+                    player.addProperty(property);
+                    events.add(TurnEventType.PROPERTY_BOUGHT, playerIndex, position, property.getPrice());
+                } else {
+                    events.add(TurnEventType.PROPERTY_DECLINED, playerIndex, position);
+                }
             } else {
-                result.append(player.getName() + " cannot afford to buy " + property.getName() + ".\n");
+                events.add(TurnEventType.PROPERTY_UNAFFORDABLE, playerIndex, position);
                 // In a real game, an auction could happen here
             }
         } else if (!property.getOwner().equals(player)) {
             // If owned by another player, pay rent
+            int ownerIndex = indexOf(property.getOwner());
             int rentMultiplier = property.calculateRent(); // Gets base rent, railroad rent, or utility multiplier
             int finalRent;
 
@@ -506,24 +1000,24 @@ public class GameEngine implements MortgageService {
                 // Utility rent = multiplier * dice roll
                 int diceRoll = dice.getTotal(); // Get the last dice roll total
                 finalRent = rentMultiplier * diceRoll;
-                result.append(player.getName() + " must pay rent based on dice roll (" + diceRoll + "). Multiplier: " + rentMultiplier + "x.\n");
+                events.add(TurnEventType.UTILITY_RENT_ROLL, playerIndex, diceRoll, rentMultiplier);
             } else {
                 // Property or Railroad rent is directly calculated
                 finalRent = rentMultiplier;
             }
 
-            result.append(player.getName() + " must pay $" + finalRent + " rent to " + property.getOwner().getName() + ".\n");
+            events.add(TurnEventType.RENT_DUE, playerIndex, ownerIndex, finalRent);
             boolean canPay = player.pay(finalRent);
             if (canPay) {
                 property.getOwner().addMoney(finalRent);
-                result.append(property.getOwner().getName() + " received $" + finalRent + ".\n");
+                events.add(TurnEventType.RENT_RECEIVED, ownerIndex, finalRent);
             } else {
-                result.append(player.getName() + " cannot afford the rent!\n");
+                events.add(TurnEventType.RENT_UNAFFORDABLE, playerIndex);
                 // In reality, player could sell assets to pay debt
                 player.setBankrupt(true);
             }
         } else {
-            result.append(player.getName() + " already owns " + property.getName() + ".\n");
+            events.add(TurnEventType.ALREADY_OWNED, playerIndex, position);
         }
     }
     
@@ -531,20 +1025,139 @@ public class GameEngine implements MortgageService {
      * Handles landing on a tax space.
      *
      * @param player The player
+     * @param playerIndex The player's seat index
      * @param taxSpace The tax space
-     * @param result StringBuilder for results
      */
-    private void handleTaxSpace(Player player, Space taxSpace, StringBuilder result) {
+    private void handleTaxSpace(Player player, int playerIndex, Space taxSpace) {
         int taxAmount = taxSpace.getValue(); // Assumes Space has getValue() for tax amount
-        result.append(player.getName() + " must pay $" + taxAmount + " in taxes.\n");
+        events.add(TurnEventType.TAX_DUE, playerIndex, taxAmount);
         boolean canPay = player.pay(taxAmount);
         if (!canPay) {
-            result.append(player.getName() + " cannot afford the tax!\n");
+            events.add(TurnEventType.TAX_UNAFFORDABLE, playerIndex);
             // In reality, player could sell assets to pay tax
             player.setBankrupt(true);
         }
     }
     
+    /**
+     * Gets the seat index of a player.
+     *
+     * @param player The player to look up
+     * @return The player's index, or -1 if the player is not in this game
+     */
+    private int indexOf(Player player) {
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i) == player) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Offers the current player's strategy its start-of-turn choices: lifting
+     * or taking mortgages, then building one house at a time for as long as
+     * the strategy keeps accepting.
+     *
+     * @param player The player whose turn it is
+     * @param playerIndex The player's seat index
+     * @param strategy The player's strategy
+     */
+    private void manageProperties(Player player, int playerIndex, PlayerStrategy strategy) {
+        for (int t = 0; t < board.size(); t++) {
+            Space space = board.get(t);
+            if (!(space instanceof Mortgageable) || ((Buyable) space).getOwner() != player) {
+                continue;
+            }
+            Mortgageable property = (Mortgageable) space;
+            if (property.isMortgaged()) {
+                if (mortgageService.canUnmortgage(property) && decide(GameRecorder.DECISION_UNMORTGAGE,
+                        playerIndex, t, strategy.shouldUnmortgage(view, playerIndex, t))) {
+                    events.add(TurnEventType.PROPERTY_UNMORTGAGED, playerIndex, t,
+                            mortgageService.unmortgage(property));
+                }
+            } else if (mortgageService.canMortgage(property) && decide(GameRecorder.DECISION_MORTGAGE,
+                    playerIndex, t, strategy.shouldMortgage(view, playerIndex, t))) {
+                events.add(TurnEventType.PROPERTY_MORTGAGED, playerIndex, t, mortgageService.mortgage(property));
+            }
+        }
+        
+        boolean built = true;
+        while (built) {
+            built = false;
+            for (int t = 0; t < board.size(); t++) {
+                Space space = board.get(t);
+                if (!(space instanceof PropertySpace)) {
+                    continue;
+                }
+                PropertySpace property = (PropertySpace) space;
+                if (property.getOwner() != player || player.getMoney() < property.getHouseCost()) {
+                    continue;
+                }
+                // The house decision also covers the hotel upgrade (see PlayerStrategy)
+                if (property.canBuildHouse() && decide(GameRecorder.DECISION_BUILD, playerIndex, t,
+                        strategy.shouldBuildHouse(view, playerIndex, t))) {
+                    if (buildHouse(player, property)) {
+                        events.add(TurnEventType.HOUSE_BUILT, playerIndex, t, property.getHouseCost());
+                        built = true;
+                    }
+                } else if (property.canBuildHotel() && decide(GameRecorder.DECISION_BUILD, playerIndex, t,
+                        strategy.shouldBuildHouse(view, playerIndex, t))) {
+                    if (buildHotel(player, property)) {
+                        events.add(TurnEventType.HOTEL_BUILT, playerIndex, t, property.getHouseCost());
+                        built = true;
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Passes a strategy's answer to the recorder, if any.
+     *
+     * @return The answer
+     */
+    private boolean decide(int kind, int playerIndex, int tile, boolean answer) {
+        if (recorder != null) {
+            recorder.decisionMade(playerIndex, kind, tile, answer);
+        }
+        return answer;
+    }
+    
+    /**
+     * Sets the recorder that receives every dice roll, card draw and decision.
+     * Only games with the standard decks can be recorded.
+     *
+     * @param recorder The recorder, or null to stop recording
+     */
+    public void setRecorder(GameRecorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    public GameRecorder getRecorder() {
+        return recorder;
+    }
+    
+    /**
+     * Sets the strategy that makes a player's buy, jail, build and mortgage choices.
+     *
+     * @param playerIndex The player's seat index
+     * @param strategy The strategy, or {@link PlayerStrategy#DEFAULT}
+     */
+    public void setStrategy(int playerIndex, PlayerStrategy strategy) {
+        strategies[playerIndex] = strategy;
+    }
+    
+    /**
+     * Gets the strategy making a player's choices.
+     *
+     * @param playerIndex The player's seat index
+     * @return The strategy
+     */
+    public PlayerStrategy getStrategy(int playerIndex) {
+        return strategies[playerIndex];
+    }
+    
     /**
      * Allows a player to build a house on a property.
      * 
@@ -611,22 +1224,7 @@ public class GameEngine implements MortgageService {
      * @return true if the player has a monopoly
      */
     public boolean hasMonopoly(Player player, String colorGroup) {
-        int ownedInGroup = 0;
-        int totalInGroup = 0;
-        
-        for (Space space : board) {
-            if (space instanceof PropertySpace) {
-                PropertySpace property = (PropertySpace) space;
-                if (property.getColorGroup().equals(colorGroup)) {
-                    totalInGroup++;
-                    if (property.getOwner() == player) {
-                        ownedInGroup++;
-                    }
-                }
-            }
-        }
-        
-        return totalInGroup > 0 && ownedInGroup == totalInGroup;
+        return ownershipIndex.hasMonopoly(player, ownershipIndex.getGroupId(colorGroup));
     }
     
     /**
@@ -638,7 +1236,8 @@ public class GameEngine implements MortgageService {
         // Make sure the player is marked bankrupt
         player.setBankrupt(true);
         
-        // Give all properties back to the bank (or could transfer to creditor)
+        // Give all properties back to the bank (or could transfer to creditor);
+        // setOwner keeps the ownership index counts in step
         for (Buyable property : player.getProperties()) {
             property.setOwner(null);
         }
@@ -646,10 +1245,25 @@ public class GameEngine implements MortgageService {
         // Clear the player's properties
         player.clearProperties();
         
+        returnJailCards(player, players.indexOf(player));
+        
         // Check if the game is over
         checkGameOver();
     }
     
+    /**
+     * Returns a bankrupt player's Get Out of Jail Free cards to the bottom of
+     * the decks they came from, Chance first.
+     *
+     * @param player The bankrupt player
+     * @param playerIndex The player's seat index
+     */
+    private void returnJailCards(Player player, int playerIndex) {
+        chanceDeck.returnAllHeldCards(playerIndex);
+        communityChestDeck.returnAllHeldCards(playerIndex);
+        player.setGetOutOfJailCards(0);
+    }
+    
     /**
      * Advances to the next player in sequence.
      */
@@ -661,6 +1275,7 @@ public class GameEngine implements MortgageService {
      * Checks if the game is over (only one non-bankrupt player remaining).
      */
     private void checkGameOver() {
+        updateBankruptcyOrder();
         int activePlayers = 0;
         int lastActivePlayerIndex = -1;
         
@@ -672,16 +1287,81 @@ public class GameEngine implements MortgageService {
         }
         
         if (activePlayers <= 1) {
+            // Only record the result once; the GUI handles displaying it
+            if (!gameOver) {
+                events.add(TurnEventType.GAME_OVER, lastActivePlayerIndex);
+            }
             gameOver = true;
-            // Print winner message to console (GUI should handle this display)
-            if (lastActivePlayerIndex != -1) {
-                System.out.println("Game Over! " + players.get(lastActivePlayerIndex).getName() + " is the winner!");
-            } else {
-                System.out.println("Game Over! No winner (all players bankrupt simultaneously?).");
+        }
+    }
+    
+    /**
+     * Brings the bankruptcy order in line with the players' bankrupt flags:
+     * players no longer bankrupt (after an undo) are dropped, newly bankrupt
+     * players are appended in seat order.
+     */
+    private void updateBankruptcyOrder() {
+        int kept = 0;
+        for (int i = 0; i < bankruptCount; i++) {
+            if (players.get(bankruptcyOrder[i]).isBankrupt()) {
+                bankruptcyOrder[kept++] = bankruptcyOrder[i];
+            }
+        }
+        bankruptCount = kept;
+        for (int p = 0; p < players.size(); p++) {
+            if (players.get(p).isBankrupt() && !isInBankruptcyOrder(p)) {
+                bankruptcyOrder[bankruptCount++] = p;
             }
         }
     }
     
+    private boolean isInBankruptcyOrder(int playerIndex) {
+        for (int i = 0; i < bankruptCount; i++) {
+            if (bankruptcyOrder[i] == playerIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Gets the seats of the bankrupt players in the order they went bankrupt.
+     *
+     * @return Seat indices, first bankruptcy first
+     */
+    public int[] getBankruptcyOrder() {
+        updateBankruptcyOrder();
+        return Arrays.copyOf(bankruptcyOrder, bankruptCount);
+    }
+    
+    /**
+     * Ranks the players: those still in the game by net worth, as the
+     * ranking dialog shows them, followed by the bankrupt players with the
+     * last to go bankrupt first.
+     *
+     * @return Seat indices, best first
+     */
+    public int[] getStandings() {
+        updateBankruptcyOrder();
+        int solvent = players.size() - bankruptCount;
+        Integer[] active = new Integer[solvent];
+        int n = 0;
+        for (int p = 0; p < players.size(); p++) {
+            if (!players.get(p).isBankrupt()) {
+                active[n++] = p;
+            }
+        }
+        Arrays.sort(active, (a, b) -> Integer.compare(players.get(b).getNetWorth(), players.get(a).getNetWorth()));
+        int[] standings = new int[players.size()];
+        for (int i = 0; i < solvent; i++) {
+            standings[i] = active[i];
+        }
+        for (int i = 0; i < bankruptCount; i++) {
+            standings[solvent + i] = bankruptcyOrder[bankruptCount - 1 - i];
+        }
+        return standings;
+    }
+    
     /**
      * Sets the game as over, for example when a player surrenders.
      * This is different from the automatic game over detection by bankruptcy.
@@ -690,6 +1370,10 @@ public class GameEngine implements MortgageService {
         gameOver = true;
     }
     
+    public GameRules getRules() {
+        return rules;
+    }
+    
     /**
      * Gets the list of players.
      *
@@ -726,6 +1410,15 @@ public class GameEngine implements MortgageService {
         return board;
     }
     
+    /**
+     * Gets the primitive tables describing this game's board.
+     * 
+     * @return The board tables
+     */
+    public BoardSpec getBoardSpec() {
+        return boardSpec;
+    }
+    
     /**
      * Checks if a property can be mortgaged.
      *
@@ -780,4 +1473,85 @@ public class GameEngine implements MortgageService {
     public int getUnmortgageCost(Mortgageable property) {
         return mortgageService.getUnmortgageCost(property);
     }
+    
+    /**
+     * The view strategies see of this game. It reads the players and board
+     * directly, so asking a strategy allocates nothing.
+     */
+    private class LiveView implements DecisionView {
+        @Override
+        public int getPlayerCount() {
+            return players.size();
+        }
+        
+        @Override
+        public int getTileCount() {
+            return board.size();
+        }
+        
+        @Override
+        public int getCurrentPlayer() {
+            return currentPlayerIndex;
+        }
+        
+        @Override
+        public int getMoney(int player) {
+            return players.get(player).getMoney();
+        }
+        
+        @Override
+        public int getPosition(int player) {
+            return players.get(player).getPosition();
+        }
+        
+        @Override
+        public boolean isInJail(int player) {
+            return players.get(player).isInJail();
+        }
+        
+        @Override
+        public boolean isBankrupt(int player) {
+            return players.get(player).isBankrupt();
+        }
+        
+        @Override
+        public int getJailTurns(int player) {
+            return players.get(player).getJailTurns();
+        }
+        
+        @Override
+        public int getJailCards(int player) {
+            return players.get(player).getGetOutOfJailCards();
+        }
+        
+        @Override
+        public int getOwner(int tile) {
+            Space space = board.get(tile);
+            if (!(space instanceof Buyable) || ((Buyable) space).getOwner() == null) {
+                return GameState.NO_OWNER;
+            }
+            return indexOf(((Buyable) space).getOwner());
+        }
+        
+        @Override
+        public int getBuildings(int tile) {
+            Space space = board.get(tile);
+            if (!(space instanceof PropertySpace)) {
+                return 0;
+            }
+            PropertySpace property = (PropertySpace) space;
+            return property.hasHotel() ? GameState.HOTEL : property.getHouses();
+        }
+        
+        @Override
+        public boolean isMortgaged(int tile) {
+            Space space = board.get(tile);
+            return space instanceof Buyable && ((Buyable) space).isMortgaged();
+        }
+        
+        @Override
+        public void copyTo(GameState target) {
+            captureState(target);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Undo/redo history of a game as a list of {@link GameSnapshot}s with a
+ * cursor. Recording after an undo drops the undone snapshots, like an
+ * editor's history; to keep a branch point instead, hold on to the snapshot
+ * and {@link GameEngine#restore(GameSnapshot)} it later.
+ */
+public class GameHistory {
+    private final GameEngine engine;
+    private final List<GameSnapshot> snapshots;
+    private int cursor;
+
+    /**
+     * Creates a history for a game, starting with its current position.
+     *
+     * @param engine The game
+     */
+    public GameHistory(GameEngine engine) {
+        this.engine = engine;
+        this.snapshots = new ArrayList<>();
+        this.cursor = -1;
+        record();
+    }
+
+    /**
+     * Records the game's current position as the newest entry, discarding
+     * anything that was undone.
+     *
+     * @return The recorded snapshot
+     */
+    public GameSnapshot record() {
+        while (snapshots.size() > cursor + 1) {
+            snapshots.remove(snapshots.size() - 1);
+        }
+        GameSnapshot snapshot = engine.snapshot();
+        snapshots.add(snapshot);
+        cursor++;
+        return snapshot;
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < snapshots.size() - 1;
+    }
+
+    /**
+     * Restores the entry before the current one.
+     *
+     * @return true if the game was changed
+     */
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        cursor--;
+        engine.restore(snapshots.get(cursor));
+        return true;
+    }
+
+    /**
+     * Restores the entry after the current one.
+     *
+     * @return true if the game was changed
+     */
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        cursor++;
+        engine.restore(snapshots.get(cursor));
+        return true;
+    }
+
+    /**
+     * Restores the current entry again, throwing away whatever happened
+     * since it was recorded.
+     */
+    public void revert() {
+        engine.restore(snapshots.get(cursor));
+    }
+
+    /**
+     * Gets the current entry.
+     *
+     * @return The snapshot the cursor is on
+     */
+    public GameSnapshot getCurrent() {
+        return snapshots.get(cursor);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Estimates the memory held by the whole history, counting chunks shared
+     * between snapshots once.
+     *
+     * @return Approximate size in bytes
+     */
+    public long getRetainedBytes() {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (GameSnapshot snapshot : snapshots) {
+            bytes += snapshot.retainedBytes(seen);
+        }
+        return bytes;
+    }
+}
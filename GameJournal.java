@@ -0,0 +1,305 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of a game: the starting position followed by every dice
+ * roll, card draw and strategy decision, which is everything needed to play
+ * the game again move for move with {@link JournalReplayer}.
+ * <p>
+ * File layout (little-endian): a {@value #HEADER_SIZE}-byte header, the
+ * starting position as a one-record {@link SaveGameFormat} file, then
+ * {@value #ENTRY_SIZE}-byte entries {@code [type, a, b, c, int d]}. Entries
+ * are collected in a direct buffer and written in batches; after every
+ * {@code turnsPerSync} turns the batch is written and forced to disk, so a
+ * crash loses at most that many turns. A torn tail is ignored on replay.
+ * <p>
+ * Every {@code keyframeInterval} turns a keyframe entry is followed by the
+ * complete position as a {@link SaveGameFormat} record, padded to whole
+ * entries. A replay can seek by restoring the nearest keyframe and replaying
+ * only the turns after it.
+ */
+public class GameJournal implements GameRecorder, Closeable {
+    public static final int MAGIC = 0x4a504e4d; // "MNPJ" in little-endian
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 16;
+    public static final int ENTRY_SIZE = 8;
+    public static final int DEFAULT_TURNS_PER_SYNC = 16;
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 50;
+
+    // Header fields
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_PLAYERS = 6;
+    static final int H_SAVE_LENGTH = 8;
+    // Bit per seat: the seat's strategy manages properties
+    static final int H_SEAT_FLAGS = 12;
+
+    // Entry types
+    static final byte DICE = 1;         // a = die 1, b = die 2, c = player
+    static final byte CARD = 2;         // a = 1 for Chance, b = standard card id, c = player
+    static final byte DECISION = 3;     // a = kind, b = answer, c = player, d = tile
+    static final byte TURN_END = 4;     // c = player, d = turn number
+    static final byte KEYFRAME = 5;     // d = turns played; followed by a save record
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final GameEngine engine;
+    private final int turnsPerSync;
+    private final int keyframeInterval;
+    private final SaveGameFormat format;
+    private final GameState scratch;
+    private long position;
+    private int turns;
+    private int unsyncedTurns;
+
+    /**
+     * Creates or replaces a journal file and starts recording a game from
+     * its current position.
+     *
+     * @param path The file
+     * @param engine The game; it must use the standard board and decks
+     * @param turnsPerSync Number of turns between forced writes to disk
+     * @param keyframeInterval Number of turns between keyframes, or 0 for none
+     * @throws IOException if the file cannot be written
+     * @throws IllegalStateException if the game is played by custom {@link GameRules},
+     *                               which journals cannot replay
+     */
+    public GameJournal(Path path, GameEngine engine, int turnsPerSync, int keyframeInterval) throws IOException {
+        if (turnsPerSync < 1 || keyframeInterval < 0) {
+            throw new IllegalArgumentException("turnsPerSync must be positive and keyframeInterval not negative");
+        }
+        engine.requireDefaultRules();
+        this.engine = engine;
+        this.turnsPerSync = turnsPerSync;
+        this.keyframeInterval = keyframeInterval;
+        this.scratch = engine.captureState();
+        this.format = SaveGameFormat.forState(scratch);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeStart();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        engine.setRecorder(this);
+    }
+
+    /**
+     * Creates or replaces a journal file with the default keyframe interval.
+     *
+     * @param path The file
+     * @param engine The game; it must use the standard board and decks
+     * @param turnsPerSync Number of turns between forced writes to disk
+     * @throws IOException if the file cannot be written
+     */
+    public GameJournal(Path path, GameEngine engine, int turnsPerSync) throws IOException {
+        this(path, engine, turnsPerSync, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Creates or replaces a journal file with the default sync and keyframe
+     * intervals.
+     *
+     * @param path The file
+     * @param engine The game; it must use the standard board and decks
+     * @throws IOException if the file cannot be written
+     */
+    public GameJournal(Path path, GameEngine engine) throws IOException {
+        this(path, engine, DEFAULT_TURNS_PER_SYNC, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Gets the size of a keyframe's position record, padded to whole entries.
+     *
+     * @param format The journal's save format
+     * @return The padded size in bytes
+     */
+    static int keyframeSize(SaveGameFormat format) {
+        return (format.getRecordSize() + ENTRY_SIZE - 1) / ENTRY_SIZE * ENTRY_SIZE;
+    }
+
+    private void writeStart() throws IOException {
+        engine.captureSaveState(scratch);
+        int saveLength = (int) format.recordOffset(1);
+        // Entries start on an entry boundary
+        int entriesOffset = (HEADER_SIZE + saveLength + ENTRY_SIZE - 1) / ENTRY_SIZE * ENTRY_SIZE;
+
+        ByteBuffer start = ByteBuffer.allocate(entriesOffset).order(ByteOrder.LITTLE_ENDIAN);
+        start.putInt(H_MAGIC, MAGIC);
+        start.putShort(H_VERSION, VERSION);
+        start.put(H_PLAYERS, (byte) scratch.playerCount);
+        start.putInt(H_SAVE_LENGTH, saveLength);
+        int seatFlags = 0;
+        for (int p = 0; p < scratch.playerCount; p++) {
+            if (engine.getStrategy(p).managesProperties()) {
+                seatFlags |= 1 << p;
+            }
+        }
+        start.putInt(H_SEAT_FLAGS, seatFlags);
+
+        ByteBuffer save = start.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN);
+        format.writeHeader(save, 1);
+        format.writeRecord(save, (int) format.recordOffset(0), scratch, engine.getPlayerNames(),
+                engine.getSavableDiceRandom());
+
+        start.clear();
+        while (start.hasRemaining()) {
+            position += channel.write(start, position);
+        }
+    }
+
+    @Override
+    public void diceRolled(int player, int die1, int die2) {
+        append(DICE, die1, die2, player, 0);
+    }
+
+    @Override
+    public void cardDrawn(int player, boolean chance, int cardId) {
+        append(CARD, chance ? 1 : 0, cardId, player, 0);
+    }
+
+    @Override
+    public void decisionMade(int player, int kind, int tile, boolean answer) {
+        append(DECISION, kind, answer ? 1 : 0, player, tile);
+    }
+
+    @Override
+    public void turnEnded(int player) {
+        append(TURN_END, 0, 0, player, turns);
+        turns++;
+        if (keyframeInterval > 0 && turns % keyframeInterval == 0) {
+            writeKeyframe();
+        }
+        if (++unsyncedTurns >= turnsPerSync) {
+            sync();
+        }
+    }
+
+    /**
+     * Number of turns recorded so far.
+     *
+     * @return The turn count
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Writes all buffered entries and forces them to disk.
+     *
+     * @throws UncheckedIOException if writing fails
+     */
+    public void sync() {
+        try {
+            flush();
+            channel.force(false);
+            unsyncedTurns = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeKeyframe() {
+        int size = keyframeSize(format);
+        if (buffer.remaining() < ENTRY_SIZE + size) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        append(KEYFRAME, 0, 0, 0, turns);
+        engine.captureSaveState(scratch);
+        int at = buffer.position();
+        format.writeRecord(buffer, at, scratch, engine.getPlayerNames(), null);
+        for (int i = at + format.getRecordSize(); i < at + size; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.position(at + size);
+    }
+
+    private void append(byte type, int a, int b, int c, int d) {
+        if (buffer.remaining() < ENTRY_SIZE) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        buffer.put(type).put((byte) a).put((byte) b).put((byte) c).putInt(d);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Stops recording, writes the remaining entries and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (engine.getRecorder() == this) {
+            engine.setRecorder(null);
+        }
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Command-line entry point: records a seeded game played by the default
+     * strategies.
+     * Usage: {@code java GameJournal <file> [players] [seed] [maxTurns]}
+     *
+     * @param args Journal file, optional player count, seed and turn limit
+     * @throws IOException if the journal cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 1) {
+            System.err.println("Usage: java GameJournal <file> [players] [seed] [maxTurns]");
+            System.exit(1);
+        }
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int maxTurns = args.length > 3 ? Integer.parseInt(args[3]) : BatchSimulator.DEFAULT_MAX_TURNS;
+
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= players; i++) {
+            names.add("Player " + i);
+        }
+        GameEngine engine = GameEngine.createSeeded(names, new GameRandom(seed));
+        long start = System.nanoTime();
+        try (GameJournal journal = new GameJournal(Path.of(args[0]), engine)) {
+            while (!engine.isGameOver() && journal.getTurns() < maxTurns) {
+                engine.executeTurn();
+            }
+            System.out.println("Recorded " + journal.getTurns() + " turns (seed " + seed + ") in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+}
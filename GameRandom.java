@@ -0,0 +1,122 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Seedable, splittable random number source for games and simulations.
+ * This uses the same SplitMix64 algorithm as {@link java.util.SplittableRandom},
+ * but its state (seed and gamma) is exposed so that a game can be saved and
+ * resumed with exactly the same future rolls and shuffles.
+ * Instances are not thread-safe; give each thread or game its own stream.
+ */
+public class GameRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma;
+
+    /**
+     * Creates a random source from a single seed value.
+     *
+     * @param seed The seed
+     */
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Recreates a random source from a saved state.
+     *
+     * @param seed The saved seed (see {@link #getSeed()})
+     * @param gamma The saved gamma (see {@link #getGamma()}); must be odd
+     */
+    public GameRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma | 1L;
+    }
+
+    /**
+     * Derives the random source for one game of a campaign.
+     * The result depends only on the campaign seed and the game index, so games
+     * are reproducible no matter which thread or in which order they run.
+     *
+     * @param campaignSeed The seed of the whole batch
+     * @param gameIndex The index of the game within the batch
+     * @return A random source owned by that game alone
+     */
+    public static GameRandom forGame(long campaignSeed, long gameIndex) {
+        long s = mix64(campaignSeed) + gameIndex * GOLDEN_GAMMA;
+        return new GameRandom(mix64(s), mixGamma(s + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Splits off a new, statistically independent random source.
+     * This one advances by two steps; the child shares no state with it.
+     *
+     * @return The child random source
+     */
+    public GameRandom split() {
+        return new GameRandom(mix64(nextSeed()), mixGamma(nextSeed()));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    /**
+     * Gets the current seed, which together with the gamma is the full state.
+     *
+     * @return The current seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the increment applied to the seed on every step.
+     *
+     * @return The gamma value
+     */
+    public long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Resets the source to a saved state.
+     *
+     * @param seed The saved seed (see {@link #getSeed()})
+     * @param gamma The saved gamma (see {@link #getGamma()}); must be odd
+     */
+    public void setState(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma | 1L;
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        // Avoid gammas with too few bit transitions, which mix poorly
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Receives the inputs of a game as {@link GameEngine} consumes them: dice
+ * rolls, card draws and the answers of the players' strategies. Together with
+ * the starting position these determine the game completely, which is what
+ * {@link GameJournal} relies on. Calls arrive on the thread playing the game,
+ * in the order the inputs were used.
+ */
+public interface GameRecorder {
+    /** Decision kinds, matching the {@link PlayerStrategy} methods. */
+    int DECISION_BUY = 0;
+    int DECISION_JAIL_FEE = 1;
+    int DECISION_BUILD = 2;
+    int DECISION_MORTGAGE = 3;
+    int DECISION_UNMORTGAGE = 4;
+
+    /**
+     * Called after the dice were rolled, for a move or in jail.
+     *
+     * @param player The rolling player's seat
+     * @param die1 First die
+     * @param die2 Second die
+     */
+    void diceRolled(int player, int die1, int die2);
+
+    /**
+     * Called after a card was drawn.
+     *
+     * @param player The drawing player's seat
+     * @param chance true for Chance, false for Community Chest
+     * @param cardId The card's index in the standard deck
+     *               ({@link CardDeckManager#createChanceCards()} or
+     *               {@link CardDeckManager#createCommunityChestCards()})
+     */
+    void cardDrawn(int player, boolean chance, int cardId);
+
+    /**
+     * Called after a strategy answered a decision.
+     *
+     * @param player The deciding player's seat
+     * @param kind One of the {@code DECISION_} constants
+     * @param tile Board index the decision was about, or -1 for the jail fee
+     * @param answer The strategy's answer
+     */
+    void decisionMade(int player, int kind, int tile, boolean answer);
+
+    /**
+     * Called when {@link GameEngine#executeTurn()} returns.
+     *
+     * @param player The seat whose turn it was
+     */
+    void turnEnded(int player);
+}
@@ -0,0 +1,172 @@
+import java.util.Arrays;
+
+/**
+ * The adjustable numbers of the rules: salary, jail, starting money, rents
+ * and mortgage interest. Rules are immutable; the {@code with...} methods
+ * return modified copies, so variants for experiments are cheap to derive
+ * from {@link #DEFAULT}.
+ * <p>
+ * Save files and game journals do not record the rules, so only games played
+ * by the defaults can be saved or recorded.
+ */
+public final class GameRules {
+    public static final int DEFAULT_GO_SALARY = 200;
+    public static final int DEFAULT_JAIL_FEE = 50;
+    public static final int DEFAULT_MAX_JAIL_TURNS = 3;
+    public static final int DEFAULT_STARTING_MONEY = 3000;
+    public static final double DEFAULT_INTEREST_RATE = 0.1;
+    /** Number of rent levels for a property: base, 1-4 houses, hotel. */
+    public static final int RENT_LEVELS = BoardSpec.RENT_LEVELS;
+
+    /** The rules the game ships with. */
+    public static final GameRules DEFAULT = new GameRules(DEFAULT_GO_SALARY, DEFAULT_JAIL_FEE,
+            DEFAULT_MAX_JAIL_TURNS, DEFAULT_STARTING_MONEY, new int[] {100, 200, 300, 400, 500, 600},
+            DEFAULT_INTEREST_RATE);
+
+    private final int goSalary;
+    private final int jailFee;
+    private final int maxJailTurns;
+    private final int startingMoney;
+    // Rent of a property at each level, in percent of its price
+    private final int[] rentPercent;
+    private final double interestRate;
+
+    private GameRules(int goSalary, int jailFee, int maxJailTurns, int startingMoney, int[] rentPercent,
+                      double interestRate) {
+        if (goSalary < 0 || jailFee < 0 || maxJailTurns < 1 || startingMoney < 0 || interestRate < 0) {
+            throw new IllegalArgumentException("Invalid rules");
+        }
+        for (int percent : rentPercent) {
+            if (percent < 0) {
+                throw new IllegalArgumentException("Rents cannot be negative");
+            }
+        }
+        this.goSalary = goSalary;
+        this.jailFee = jailFee;
+        this.maxJailTurns = maxJailTurns;
+        this.startingMoney = startingMoney;
+        this.rentPercent = rentPercent;
+        this.interestRate = interestRate;
+    }
+
+    public int getGoSalary() {
+        return goSalary;
+    }
+
+    public int getJailFee() {
+        return jailFee;
+    }
+
+    /**
+     * Gets the number of failed rolls after which a player must leave jail.
+     *
+     * @return Number of jail turns
+     */
+    public int getMaxJailTurns() {
+        return maxJailTurns;
+    }
+
+    public int getStartingMoney() {
+        return startingMoney;
+    }
+
+    /**
+     * Gets the rent of a property at a development level relative to its price.
+     *
+     * @param level 0 for no buildings, 1-4 houses, 5 for a hotel
+     * @return Rent in percent of the price
+     */
+    public int getRentPercent(int level) {
+        return rentPercent[level];
+    }
+
+    /**
+     * Calculates a property's rent at a development level.
+     *
+     * @param price The property's price
+     * @param level 0 for no buildings, 1-4 houses, 5 for a hotel
+     * @return The rent
+     */
+    public int rentFor(int price, int level) {
+        return (int) ((long) price * rentPercent[level] / 100);
+    }
+
+    /**
+     * Gets the interest charged on top of the mortgage value to lift a mortgage.
+     *
+     * @return Interest as a fraction, such as 0.1 for 10%
+     */
+    public double getInterestRate() {
+        return interestRate;
+    }
+
+    public GameRules withGoSalary(int goSalary) {
+        return new GameRules(goSalary, jailFee, maxJailTurns, startingMoney, rentPercent, interestRate);
+    }
+
+    public GameRules withJailFee(int jailFee) {
+        return new GameRules(goSalary, jailFee, maxJailTurns, startingMoney, rentPercent, interestRate);
+    }
+
+    public GameRules withMaxJailTurns(int maxJailTurns) {
+        return new GameRules(goSalary, jailFee, maxJailTurns, startingMoney, rentPercent, interestRate);
+    }
+
+    public GameRules withStartingMoney(int startingMoney) {
+        return new GameRules(goSalary, jailFee, maxJailTurns, startingMoney, rentPercent, interestRate);
+    }
+
+    public GameRules withInterestRate(double interestRate) {
+        return new GameRules(goSalary, jailFee, maxJailTurns, startingMoney, rentPercent, interestRate);
+    }
+
+    /**
+     * Changes the rent of one development level.
+     *
+     * @param level 0 for no buildings, 1-4 houses, 5 for a hotel
+     * @param percent Rent in percent of the property's price
+     * @return The modified rules
+     */
+    public GameRules withRentPercent(int level, int percent) {
+        int[] rents = rentPercent.clone();
+        rents[level] = percent;
+        return new GameRules(goSalary, jailFee, maxJailTurns, startingMoney, rents, interestRate);
+    }
+
+    /**
+     * Scales the rents of every level.
+     *
+     * @param percent New rents in percent of the current ones
+     * @return The modified rules
+     */
+    public GameRules withRentScale(int percent) {
+        int[] rents = new int[RENT_LEVELS];
+        for (int level = 0; level < RENT_LEVELS; level++) {
+            rents[level] = rentPercent[level] * percent / 100;
+        }
+        return new GameRules(goSalary, jailFee, maxJailTurns, startingMoney, rents, interestRate);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameRules)) {
+            return false;
+        }
+        GameRules rules = (GameRules) other;
+        return goSalary == rules.goSalary && jailFee == rules.jailFee && maxJailTurns == rules.maxJailTurns
+                && startingMoney == rules.startingMoney && Arrays.equals(rentPercent, rules.rentPercent)
+                && Double.compare(interestRate, rules.interestRate) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((((goSalary * 31 + jailFee) * 31 + maxJailTurns) * 31 + startingMoney) * 31
+                + Arrays.hashCode(rentPercent)) * 31 + Double.hashCode(interestRate);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("salary %d, jail fee %d, jail turns %d, start %d, rents %s%%, interest %.0f%%",
+                goSalary, jailFee, maxJailTurns, startingMoney, Arrays.toString(rentPercent), interestRate * 100);
+    }
+}
@@ -0,0 +1,594 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts many games at once for players connecting over TCP. Every table owns
+ * its {@link GameEngine} and runs its turn loop on its own thread; every
+ * connection has a reader and a writer thread. Where the JVM has virtual
+ * threads (Java 21+) they are used, so thousands of tables and connections
+ * cost little more than their state; on older JVMs the server falls back to
+ * a cached pool of platform threads.
+ * <p>
+ * The protocol is line based, UTF-8, one message per line:
+ * <pre>
+ * client: JOIN seats name      wait for a table with that many seats
+ * server: SEATED table seat
+ * server: START table seats
+ * server: ROLL player die1 die2
+ * server: CARD player CHANCE|CHEST card
+ * server: TURN turn player position money
+ * server: ASK id BUY tile      a decision for the client's seat
+ * server: ASK id JAIL
+ * client: ANSWER id Y|N
+ * server: OVER winner turns    winner is -1 if the turn limit was reached
+ * client: STATS
+ * server: STATS tables=.. hosted=.. connections=.. turns=.. turnsPerSec=.. evicted=..
+ * client: QUIT
+ * </pre>
+ * A client joins one table at a time: {@code JOIN} is refused with
+ * {@code ERROR} while it waits or plays, and accepted again after
+ * {@code OVER}. Remote seats decide on buying
+ * and the jail fee; unanswered questions fall back to
+ * {@link PlayerStrategy#DEFAULT} after {@link #DEFAULT_ANSWER_TIMEOUT_MS}.
+ * <p>
+ * Backpressure: each connection's outgoing messages go through a bounded
+ * queue, so a table can run at most {@link #SEND_QUEUE_SIZE} messages ahead
+ * of its slowest player. When the queue stays full for
+ * {@link #DEFAULT_SEND_TIMEOUT_MS} the client is disconnected and its seat is
+ * played by the default strategy for the rest of the game.
+ */
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7878;
+    public static final int SEND_QUEUE_SIZE = 256;
+    public static final long DEFAULT_SEND_TIMEOUT_MS = 2000;
+    public static final long DEFAULT_ANSWER_TIMEOUT_MS = 5000;
+    // Posted to a connection's answers when it closes; compared by identity
+    private static final String CLOSED = new String("CLOSED");
+    // Connection states: not at a table, in the lobby, or playing
+    private static final int IDLE = 0;
+    private static final int WAITING = 1;
+    private static final int SEATED = 2;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService threads;
+    private final int maxTurns;
+    private final long seed;
+    private final long sendTimeoutMs;
+    private final long answerTimeoutMs;
+    // Connections waiting for a table, by seat count
+    private final Map<Integer, List<Connection>> lobby = new HashMap<>();
+    private final AtomicInteger tablesActive = new AtomicInteger();
+    private final AtomicLong tablesHosted = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong evicted = new AtomicLong();
+    private final LongAdder turns = new LongAdder();
+    private final long startNanos;
+    private long rateTurns;
+    private long rateNanos;
+    private double turnsPerSecond;
+    private volatile boolean closed;
+
+    /**
+     * Starts a server listening on the loopback interface.
+     *
+     * @param port The port, or 0 for any free port
+     * @param maxTurns Turn limit after which a table ends without a winner
+     * @param seed Seed the tables' dice and decks are derived from
+     * @throws IOException if the port cannot be bound
+     */
+    public GameServer(int port, int maxTurns, long seed) throws IOException {
+        this(port, maxTurns, seed, DEFAULT_SEND_TIMEOUT_MS, DEFAULT_ANSWER_TIMEOUT_MS);
+    }
+
+    /**
+     * Starts a server listening on the loopback interface.
+     *
+     * @param port The port, or 0 for any free port
+     * @param maxTurns Turn limit after which a table ends without a winner
+     * @param seed Seed the tables' dice and decks are derived from
+     * @param sendTimeoutMs How long a table waits for a slow client before disconnecting it
+     * @param answerTimeoutMs How long a table waits for an answer before deciding by default
+     * @throws IOException if the port cannot be bound
+     */
+    public GameServer(int port, int maxTurns, long seed, long sendTimeoutMs, long answerTimeoutMs)
+            throws IOException {
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.answerTimeoutMs = answerTimeoutMs;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.threads = newThreadPerTaskExecutor();
+        this.startNanos = System.nanoTime();
+        this.rateNanos = startNanos;
+        threads.execute(this::acceptLoop);
+    }
+
+    /**
+     * Creates an executor that starts a new thread for every task: virtual
+     * threads where the JVM has them, otherwise daemon platform threads.
+     *
+     * @return The executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Reports whether the running JVM provides virtual threads.
+     *
+     * @return true on Java 21 and later
+     */
+    public static boolean hasVirtualThreads() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.incrementAndGet();
+                threads.execute(connection::readLoop);
+                threads.execute(connection::writeLoop);
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Seats a connection at the next table with the requested size, starting
+     * the table once every seat is taken.
+     */
+    private void join(Connection connection, int seats) {
+        List<Connection> players;
+        synchronized (lobby) {
+            List<Connection> waiting = lobby.computeIfAbsent(seats, s -> new ArrayList<>());
+            waiting.add(connection);
+            if (waiting.size() < seats) {
+                return;
+            }
+            players = new ArrayList<>(waiting);
+            waiting.clear();
+            for (Connection player : players) {
+                player.state.set(SEATED);
+            }
+        }
+        Table table = new Table(tablesHosted.getAndIncrement(), players);
+        threads.execute(table::run);
+    }
+
+    private void leaveLobby(Connection connection) {
+        synchronized (lobby) {
+            for (List<Connection> waiting : lobby.values()) {
+                waiting.remove(connection);
+            }
+        }
+    }
+
+    /**
+     * Formats the server's counters as a {@code STATS} line. The turn rate
+     * covers the time since the previous call, or since the start.
+     *
+     * @return The statistics line
+     */
+    public synchronized String getStats() {
+        long now = System.nanoTime();
+        long total = turns.sum();
+        if (now - rateNanos >= 100_000_000L) {
+            turnsPerSecond = (total - rateTurns) * 1e9 / (now - rateNanos);
+            rateTurns = total;
+            rateNanos = now;
+        }
+        return String.format("STATS tables=%d hosted=%d connections=%d turns=%d turnsPerSec=%.0f evicted=%d",
+                tablesActive.get(), tablesHosted.get(), connections.get(), total, turnsPerSecond, evicted.get());
+    }
+
+    public int getTablesActive() {
+        return tablesActive.get();
+    }
+
+    public long getTablesHosted() {
+        return tablesHosted.get();
+    }
+
+    public long getTurns() {
+        return turns.sum();
+    }
+
+    public long getEvicted() {
+        return evicted.get();
+    }
+
+    /**
+     * Average turn rate since the server started.
+     *
+     * @return Turns per second
+     */
+    public double getAverageTurnsPerSecond() {
+        return turns.sum() * 1e9 / Math.max(1, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Stops accepting connections and stops every thread. Tables in progress
+     * are abandoned.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        threads.shutdownNow();
+    }
+
+    /**
+     * A game in progress. Its turn loop runs on its own thread and is the
+     * only code touching its engine.
+     */
+    private class Table implements GameRecorder {
+        private final long id;
+        private final List<Connection> players;
+        private final GameEngine engine;
+
+        Table(long id, List<Connection> players) {
+            this.id = id;
+            this.players = players;
+            List<String> names = new ArrayList<>();
+            for (Connection player : players) {
+                names.add(player.name);
+            }
+            this.engine = GameEngine.createSeeded(names, GameRandom.forGame(seed, id));
+            for (int seat = 0; seat < players.size(); seat++) {
+                engine.setStrategy(seat, new RemoteStrategy(players.get(seat)));
+            }
+            engine.setRecorder(this);
+        }
+
+        void run() {
+            tablesActive.incrementAndGet();
+            try {
+                for (int seat = 0; seat < players.size(); seat++) {
+                    players.get(seat).send("SEATED " + id + " " + seat);
+                }
+                broadcast("START " + id + " " + players.size());
+                int turn = 0;
+                List<Player> seats = engine.getPlayers();
+                while (!engine.isGameOver() && turn < maxTurns && !closed) {
+                    int current = seats.indexOf(engine.getCurrentPlayer());
+                    engine.executeTurn();
+                    Player player = seats.get(current);
+                    broadcast("TURN " + turn + " " + current + " " + player.getPosition() + " " + player.getMoney());
+                    turn++;
+                    turns.increment();
+                }
+                finish("OVER " + winner() + " " + turn);
+            } catch (RuntimeException e) {
+                System.err.println("Error at table " + id + ": " + e.getMessage());
+                finish("OVER -1 0");
+            } finally {
+                tablesActive.decrementAndGet();
+            }
+        }
+
+        /**
+         * Frees the players to join again, then tells them the game is over,
+         * so a JOIN sent in reply to OVER is always accepted.
+         */
+        private void finish(String message) {
+            for (Connection player : players) {
+                player.state.set(IDLE);
+            }
+            broadcast(message);
+        }
+
+        private int winner() {
+            if (!engine.isGameOver()) {
+                return -1;
+            }
+            List<Player> seats = engine.getPlayers();
+            for (int seat = 0; seat < seats.size(); seat++) {
+                if (!seats.get(seat).isBankrupt()) {
+                    return seat;
+                }
+            }
+            return -1;
+        }
+
+        private void broadcast(String message) {
+            for (Connection player : players) {
+                player.send(message);
+            }
+        }
+
+        @Override
+        public void diceRolled(int player, int die1, int die2) {
+            broadcast("ROLL " + player + " " + die1 + " " + die2);
+        }
+
+        @Override
+        public void cardDrawn(int player, boolean chance, int cardId) {
+            broadcast("CARD " + player + (chance ? " CHANCE " : " CHEST ") + cardId);
+        }
+
+        @Override
+        public void decisionMade(int player, int kind, int tile, boolean answer) {
+        }
+
+        @Override
+        public void turnEnded(int player) {
+        }
+    }
+
+    /**
+     * Asks a connected player for buy and jail decisions, answering like
+     * {@link PlayerStrategy#DEFAULT} when the player is gone or too slow.
+     */
+    private class RemoteStrategy implements PlayerStrategy {
+        private final Connection connection;
+
+        RemoteStrategy(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public boolean shouldBuy(DecisionView view, int player, int tile) {
+            return connection.ask("BUY " + tile, DEFAULT.shouldBuy(view, player, tile));
+        }
+
+        @Override
+        public boolean shouldPayJailFee(DecisionView view, int player) {
+            return connection.ask("JAIL", DEFAULT.shouldPayJailFee(view, player));
+        }
+
+        @Override
+        public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+            return false;
+        }
+
+        @Override
+        public boolean shouldMortgage(DecisionView view, int player, int tile) {
+            return false;
+        }
+
+        @Override
+        public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+            return false;
+        }
+
+        @Override
+        public boolean managesProperties() {
+            return false;
+        }
+    }
+
+    /**
+     * One client. Incoming lines are handled by its reader thread; outgoing
+     * lines wait in a bounded queue drained by its writer thread.
+     */
+    private class Connection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+        private final BlockingQueue<String> outbound = new ArrayBlockingQueue<>(SEND_QUEUE_SIZE);
+        private final BlockingQueue<String> answers = new LinkedBlockingQueue<>();
+        private final AtomicInteger nextAsk = new AtomicInteger();
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private String name = "Guest";
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void readLoop() {
+            try {
+                String line;
+                while (open.get() && (line = in.readLine()) != null) {
+                    handle(line.trim());
+                }
+            } catch (IOException e) {
+                // The client went away; the seat plays on by default
+            } finally {
+                close();
+            }
+        }
+
+        private void handle(String line) {
+            String[] parts = line.split(" ", 3);
+            switch (parts[0]) {
+                case "ANSWER":
+                    answers.offer(line);
+                    break;
+                case "JOIN":
+                    try {
+                        int seats = Integer.parseInt(parts[1]);
+                        if (seats < 2 || seats > 8) {
+                            throw new NumberFormatException();
+                        }
+                        if (!state.compareAndSet(IDLE, WAITING)) {
+                            send("ERROR already joined a table");
+                            break;
+                        }
+                        if (parts.length > 2) {
+                            name = parts[2];
+                        }
+                        join(this, seats);
+                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                        send("ERROR JOIN needs a seat count from 2 to 8");
+                    }
+                    break;
+                case "STATS":
+                    send(getStats());
+                    break;
+                case "QUIT":
+                    close();
+                    break;
+                default:
+                    send("ERROR unknown command " + parts[0]);
+            }
+        }
+
+        void writeLoop() {
+            try {
+                while (open.get()) {
+                    String message = outbound.poll(1, TimeUnit.SECONDS);
+                    if (message == null) {
+                        continue;
+                    }
+                    out.write(message);
+                    out.newLine();
+                    // Write everything queued so far before flushing
+                    while ((message = outbound.poll()) != null) {
+                        out.write(message);
+                        out.newLine();
+                    }
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // Closed below
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Queues a line for the client, waiting while the client is behind.
+         * A client that stays behind for the send timeout is disconnected.
+         */
+        void send(String message) {
+            if (!open.get()) {
+                return;
+            }
+            try {
+                if (!outbound.offer(message, sendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    evicted.incrementAndGet();
+                    close();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+            }
+        }
+
+        /**
+         * Asks the client a yes/no question and waits for the answer.
+         *
+         * @param question The question, without the id
+         * @param fallback Answer used if the client is gone or too slow
+         */
+        boolean ask(String question, boolean fallback) {
+            if (!open.get()) {
+                return fallback;
+            }
+            String id = Integer.toString(nextAsk.incrementAndGet());
+            send("ASK " + id + " " + question);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(answerTimeoutMs);
+            try {
+                while (open.get()) {
+                    String answer = answers.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    // close() posts the sentinel to wake a table waiting here
+                    if (answer == null || answer == CLOSED) {
+                        return fallback;
+                    }
+                    String[] parts = answer.split(" ");
+                    // Late answers to earlier questions are dropped
+                    if (parts.length == 3 && parts[1].equals(id)) {
+                        return parts[2].equalsIgnoreCase("Y");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return fallback;
+        }
+
+        /**
+         * Disconnects the client. Safe to call from the reader, writer and
+         * table threads at once; only the first call has an effect.
+         */
+        void close() {
+            if (!open.compareAndSet(true, false)) {
+                return;
+            }
+            answers.offer(CLOSED);
+            connections.decrementAndGet();
+            leaveLobby(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    /**
+     * Command-line entry point: runs a server and prints its statistics
+     * every five seconds.
+     * Usage: {@code java GameServer [port] [maxTurns] [seed]}
+     *
+     * @param args Optional port, turn limit and seed
+     * @throws IOException if the port cannot be bound
+     * @throws InterruptedException if interrupted while running
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxTurns = args.length > 1 ? Integer.parseInt(args[1]) : BatchSimulator.DEFAULT_MAX_TURNS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        try (GameServer server = new GameServer(port, maxTurns, seed)) {
+            System.out.println("Listening on port " + server.getPort() + " with "
+                    + (hasVirtualThreads() ? "virtual" : "platform") + " threads (seed " + seed + ")");
+            while (true) {
+                Thread.sleep(5000);
+                System.out.println(server.getStats());
+            }
+        }
+    }
+}
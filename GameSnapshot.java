@@ -0,0 +1,272 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a game's dynamic state, for undo/redo and for
+ * branching off what-if lines of play.
+ * <p>
+ * The state is split into small immutable chunks: money, the other player
+ * fields, the board in runs of {@link #TILES_PER_CHUNK} spaces, and each deck.
+ * A snapshot taken on top of an earlier one reuses every chunk that did not
+ * change, so a long history mostly consists of shared references. A typical
+ * turn only changes money, positions and perhaps one board chunk, so a
+ * thousand turns of history cost about a hundred kilobytes.
+ */
+public final class GameSnapshot {
+    /** Number of board spaces stored per chunk. */
+    public static final int TILES_PER_CHUNK = 8;
+
+    // Bytes per space in a board chunk: owner, buildings, mortgaged
+    private static final int TILE_STRIDE = 3;
+    // Bytes per player in the player chunk: position, flags, jail turns, jail cards
+    private static final int PLAYER_STRIDE = 4;
+
+    private final int playerCount;
+    private final int tileCount;
+    private final int chanceSize;
+    private final int communityChestSize;
+    private final int[] money;
+    private final byte[] players;
+    private final byte[][] tiles;
+    // Cards in the deck top first, followed by the holder of every card id
+    private final byte[] chance;
+    private final byte[] communityChest;
+    private final int currentPlayer;
+    private final int die1;
+    private final int die2;
+    private final int consecutiveDoubles;
+    private final boolean gameOver;
+
+    private GameSnapshot(GameState s, GameSnapshot base) {
+        this.playerCount = s.playerCount;
+        this.tileCount = s.tileCount;
+        this.chanceSize = s.chanceHolder.length;
+        this.communityChestSize = s.communityChestHolder.length;
+        this.money = base != null && Arrays.equals(base.money, s.money) ? base.money : s.money.clone();
+        this.players = base != null && playersEqual(base.players, s) ? base.players : encodePlayers(s);
+        this.tiles = encodeTiles(s, base != null ? base.tiles : null);
+        this.chance = base != null && deckEquals(base.chance, s.chanceDeck, s.chanceHead, s.chanceCount,
+                s.chanceHolder) ? base.chance
+                : encodeDeck(s.chanceDeck, s.chanceHead, s.chanceCount, s.chanceHolder);
+        this.communityChest = base != null && deckEquals(base.communityChest, s.communityChestDeck,
+                s.communityChestHead, s.communityChestCount, s.communityChestHolder) ? base.communityChest
+                : encodeDeck(s.communityChestDeck, s.communityChestHead, s.communityChestCount,
+                        s.communityChestHolder);
+        this.currentPlayer = s.currentPlayer;
+        this.die1 = s.die1;
+        this.die2 = s.die2;
+        this.consecutiveDoubles = s.consecutiveDoubles;
+        this.gameOver = s.gameOver;
+    }
+
+    /**
+     * Takes a snapshot of a state.
+     *
+     * @param state The state to snapshot; it is not kept
+     * @return The snapshot
+     */
+    public static GameSnapshot of(GameState state) {
+        return new GameSnapshot(state, null);
+    }
+
+    /**
+     * Takes a snapshot of a state, sharing every chunk that is unchanged
+     * since an earlier snapshot of the same game.
+     *
+     * @param state The state to snapshot; it is not kept
+     * @param base An earlier snapshot of the same game, or null
+     * @return The snapshot
+     */
+    public static GameSnapshot of(GameState state, GameSnapshot base) {
+        if (base != null && (base.playerCount != state.playerCount || base.tileCount != state.tileCount
+                || base.chanceSize != state.chanceHolder.length
+                || base.communityChestSize != state.communityChestHolder.length)) {
+            base = null;
+        }
+        return new GameSnapshot(state, base);
+    }
+
+    /**
+     * Writes the snapshot into a state of the same shape.
+     *
+     * @param target The state to overwrite
+     */
+    public void copyTo(GameState target) {
+        if (target.playerCount != playerCount || target.tileCount != tileCount
+                || target.chanceHolder.length != chanceSize
+                || target.communityChestHolder.length != communityChestSize) {
+            throw new IllegalArgumentException("Snapshot does not match the state's shape");
+        }
+        System.arraycopy(money, 0, target.money, 0, playerCount);
+        for (int p = 0; p < playerCount; p++) {
+            int i = p * PLAYER_STRIDE;
+            target.position[p] = players[i];
+            target.flags[p] = players[i + 1];
+            target.jailTurns[p] = players[i + 2];
+            target.jailCards[p] = players[i + 3];
+        }
+        Arrays.fill(target.mortgaged, 0L);
+        for (int t = 0; t < tileCount; t++) {
+            byte[] chunk = tiles[t / TILES_PER_CHUNK];
+            int i = (t % TILES_PER_CHUNK) * TILE_STRIDE;
+            target.owner[t] = chunk[i];
+            target.buildings[t] = chunk[i + 1];
+            target.setMortgaged(t, chunk[i + 2] != 0);
+        }
+        target.chanceCount = decodeDeck(chance, target.chanceDeck, target.chanceHolder);
+        target.chanceHead = 0;
+        target.communityChestCount = decodeDeck(communityChest, target.communityChestDeck,
+                target.communityChestHolder);
+        target.communityChestHead = 0;
+        target.currentPlayer = currentPlayer;
+        target.die1 = die1;
+        target.die2 = die2;
+        target.consecutiveDoubles = consecutiveDoubles;
+        target.gameOver = gameOver;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getMoney(int player) {
+        return money[player];
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Adds the memory held by this snapshot's chunks to a running total,
+     * counting chunks already in {@code seen} (shared with other snapshots)
+     * only once.
+     *
+     * @param seen Identity set of chunks counted so far
+     * @return Approximate bytes held by chunks not seen before
+     */
+    long retainedBytes(Set<Object> seen) {
+        long bytes = 48;
+        bytes += arrayBytes(seen, money, money.length * 4L);
+        bytes += arrayBytes(seen, players, players.length);
+        bytes += arrayBytes(seen, tiles, tiles.length * 4L);
+        for (byte[] chunk : tiles) {
+            bytes += arrayBytes(seen, chunk, chunk.length);
+        }
+        bytes += arrayBytes(seen, chance, chance.length);
+        bytes += arrayBytes(seen, communityChest, communityChest.length);
+        return bytes;
+    }
+
+    private static long arrayBytes(Set<Object> seen, Object array, long payload) {
+        // Object header plus payload, rounded up to 8 bytes
+        return seen.add(array) ? (16 + payload + 7) & ~7L : 0;
+    }
+
+    private static byte[] encodePlayers(GameState s) {
+        byte[] chunk = new byte[s.playerCount * PLAYER_STRIDE];
+        for (int p = 0; p < s.playerCount; p++) {
+            int i = p * PLAYER_STRIDE;
+            chunk[i] = s.position[p];
+            chunk[i + 1] = s.flags[p];
+            chunk[i + 2] = s.jailTurns[p];
+            chunk[i + 3] = s.jailCards[p];
+        }
+        return chunk;
+    }
+
+    private static boolean playersEqual(byte[] chunk, GameState s) {
+        for (int p = 0; p < s.playerCount; p++) {
+            int i = p * PLAYER_STRIDE;
+            if (chunk[i] != s.position[p] || chunk[i + 1] != s.flags[p]
+                    || chunk[i + 2] != s.jailTurns[p] || chunk[i + 3] != s.jailCards[p]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[][] encodeTiles(GameState s, byte[][] baseTiles) {
+        int chunks = (s.tileCount + TILES_PER_CHUNK - 1) / TILES_PER_CHUNK;
+        byte[][] result = null;
+        for (int c = 0; c < chunks; c++) {
+            int from = c * TILES_PER_CHUNK;
+            int to = Math.min(s.tileCount, from + TILES_PER_CHUNK);
+            if (baseTiles != null && tilesEqual(baseTiles[c], s, from, to)) {
+                if (result != null) {
+                    result[c] = baseTiles[c];
+                }
+                continue;
+            }
+            if (result == null) {
+                // First changed chunk: copy the references shared so far
+                result = new byte[chunks][];
+                if (baseTiles != null) {
+                    System.arraycopy(baseTiles, 0, result, 0, c);
+                }
+            }
+            byte[] chunk = new byte[(to - from) * TILE_STRIDE];
+            for (int t = from; t < to; t++) {
+                int i = (t - from) * TILE_STRIDE;
+                chunk[i] = s.owner[t];
+                chunk[i + 1] = s.buildings[t];
+                chunk[i + 2] = (byte) (s.isMortgaged(t) ? 1 : 0);
+            }
+            result[c] = chunk;
+        }
+        // Nothing changed: share the whole chunk table
+        return result != null ? result : baseTiles;
+    }
+
+    private static boolean tilesEqual(byte[] chunk, GameState s, int from, int to) {
+        for (int t = from; t < to; t++) {
+            int i = (t - from) * TILE_STRIDE;
+            if (chunk[i] != s.owner[t] || chunk[i + 1] != s.buildings[t]
+                    || (chunk[i + 2] != 0) != s.isMortgaged(t)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encodeDeck(byte[] ring, int head, int count, byte[] holders) {
+        byte[] chunk = new byte[count + holders.length];
+        for (int i = 0; i < count; i++) {
+            chunk[i] = ring[(head + i) % ring.length];
+        }
+        System.arraycopy(holders, 0, chunk, count, holders.length);
+        return chunk;
+    }
+
+    private static boolean deckEquals(byte[] chunk, byte[] ring, int head, int count, byte[] holders) {
+        if (chunk.length != count + holders.length) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (chunk[i] != ring[(head + i) % ring.length]) {
+                return false;
+            }
+        }
+        for (int id = 0; id < holders.length; id++) {
+            if (chunk[count + id] != holders[id]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int decodeDeck(byte[] chunk, byte[] ring, byte[] holders) {
+        int count = chunk.length - holders.length;
+        System.arraycopy(chunk, 0, ring, 0, count);
+        System.arraycopy(chunk, count, holders, 0, holders.length);
+        return count;
+    }
+}
@@ -0,0 +1,302 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Compact struct-of-arrays snapshot of everything that changes during a game.
+ * Per-player data is indexed by seat and per-space data by board index, all in
+ * primitive arrays, so a whole game can be copied with a handful of
+ * {@link System#arraycopy} calls. Static data (prices, rents, card effects)
+ * lives in {@link BoardSpec} and {@link CardTable} and is not copied.
+ */
+public class GameState implements DecisionView {
+    /** Player flag: the player is in jail. */
+    public static final int FLAG_IN_JAIL = 1;
+    /** Player flag: the player is bankrupt. */
+    public static final int FLAG_BANKRUPT = 2;
+    /** Player flag: the player surrendered voluntarily. */
+    public static final int FLAG_SURRENDERED = 4;
+
+    /** Value of {@link #owner} for spaces owned by the bank. */
+    public static final byte NO_OWNER = -1;
+    /** Value of {@link #buildings} for a hotel. */
+    public static final byte HOTEL = 5;
+
+    final int playerCount;
+    final int tileCount;
+
+    // Per player
+    final int[] money;
+    final byte[] position;
+    final byte[] flags;
+    final byte[] jailTurns;
+    final byte[] jailCards;
+
+    // Per space
+    final byte[] owner;
+    final byte[] buildings;
+    final long[] mortgaged;
+
+    // Decks: ring buffers of card ids, read from head
+    final byte[] chanceDeck;
+    final byte[] communityChestDeck;
+    int chanceHead;
+    int chanceCount;
+    int communityChestHead;
+    int communityChestCount;
+    // Seat holding each card id (kept Get Out of Jail Free cards), or NO_OWNER
+    final byte[] chanceHolder;
+    final byte[] communityChestHolder;
+
+    // Turn state
+    int currentPlayer;
+    int die1;
+    int die2;
+    int consecutiveDoubles;
+    boolean gameOver;
+
+    /**
+     * Creates an empty state.
+     *
+     * @param playerCount Number of players
+     * @param tileCount Number of spaces on the board
+     * @param chanceSize Number of cards in the Chance deck
+     * @param communityChestSize Number of cards in the Community Chest deck
+     */
+    public GameState(int playerCount, int tileCount, int chanceSize, int communityChestSize) {
+        this.playerCount = playerCount;
+        this.tileCount = tileCount;
+        this.money = new int[playerCount];
+        this.position = new byte[playerCount];
+        this.flags = new byte[playerCount];
+        this.jailTurns = new byte[playerCount];
+        this.jailCards = new byte[playerCount];
+        this.owner = new byte[tileCount];
+        this.buildings = new byte[tileCount];
+        this.mortgaged = new long[(tileCount + 63) >>> 6];
+        this.chanceDeck = new byte[chanceSize];
+        this.communityChestDeck = new byte[communityChestSize];
+        this.chanceHolder = new byte[chanceSize];
+        this.communityChestHolder = new byte[communityChestSize];
+        Arrays.fill(owner, NO_OWNER);
+        Arrays.fill(chanceHolder, NO_OWNER);
+        Arrays.fill(communityChestHolder, NO_OWNER);
+        this.die1 = 1;
+        this.die2 = 1;
+    }
+
+    /**
+     * Creates an independent copy of this state.
+     *
+     * @return The copy
+     */
+    public GameState copy() {
+        GameState copy = new GameState(playerCount, tileCount, chanceDeck.length, communityChestDeck.length);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this state with another one of the same shape.
+     * No memory is allocated, which makes this cheap to call once per rollout.
+     *
+     * @param other The state to copy
+     */
+    public void copyFrom(GameState other) {
+        if (other.playerCount != playerCount || other.tileCount != tileCount
+                || other.chanceDeck.length != chanceDeck.length
+                || other.communityChestDeck.length != communityChestDeck.length) {
+            throw new IllegalArgumentException("Game states have different shapes");
+        }
+        System.arraycopy(other.money, 0, money, 0, playerCount);
+        System.arraycopy(other.position, 0, position, 0, playerCount);
+        System.arraycopy(other.flags, 0, flags, 0, playerCount);
+        System.arraycopy(other.jailTurns, 0, jailTurns, 0, playerCount);
+        System.arraycopy(other.jailCards, 0, jailCards, 0, playerCount);
+        System.arraycopy(other.owner, 0, owner, 0, tileCount);
+        System.arraycopy(other.buildings, 0, buildings, 0, tileCount);
+        System.arraycopy(other.mortgaged, 0, mortgaged, 0, mortgaged.length);
+        System.arraycopy(other.chanceDeck, 0, chanceDeck, 0, chanceDeck.length);
+        System.arraycopy(other.communityChestDeck, 0, communityChestDeck, 0, communityChestDeck.length);
+        System.arraycopy(other.chanceHolder, 0, chanceHolder, 0, chanceHolder.length);
+        System.arraycopy(other.communityChestHolder, 0, communityChestHolder, 0, communityChestHolder.length);
+        chanceHead = other.chanceHead;
+        chanceCount = other.chanceCount;
+        communityChestHead = other.communityChestHead;
+        communityChestCount = other.communityChestCount;
+        currentPlayer = other.currentPlayer;
+        die1 = other.die1;
+        die2 = other.die2;
+        consecutiveDoubles = other.consecutiveDoubles;
+        gameOver = other.gameOver;
+    }
+
+    @Override
+    public void copyTo(GameState target) {
+        target.copyFrom(this);
+    }
+
+    /**
+     * Shuffles the cards still in both decks, leaving held cards alone.
+     * Rollouts use this so that they do not play with knowledge of the real
+     * deck order.
+     *
+     * @param random The random source
+     */
+    public void shuffleDecks(RandomGenerator random) {
+        shuffleRing(chanceDeck, chanceHead, chanceCount, random);
+        shuffleRing(communityChestDeck, communityChestHead, communityChestCount, random);
+    }
+
+    /**
+     * Checks whether two states describe the same position. Decks are
+     * compared card by card from their heads, so rings that start at
+     * different slots but hold the same order are equal.
+     *
+     * @param other The state to compare with
+     * @return true if every player, space, deck and turn value matches
+     */
+    public boolean samePosition(GameState other) {
+        if (other.playerCount != playerCount || other.tileCount != tileCount
+                || other.chanceDeck.length != chanceDeck.length
+                || other.communityChestDeck.length != communityChestDeck.length) {
+            return false;
+        }
+        return Arrays.equals(money, other.money) && Arrays.equals(position, other.position)
+                && Arrays.equals(flags, other.flags) && Arrays.equals(jailTurns, other.jailTurns)
+                && Arrays.equals(jailCards, other.jailCards) && Arrays.equals(owner, other.owner)
+                && Arrays.equals(buildings, other.buildings) && Arrays.equals(mortgaged, other.mortgaged)
+                && sameRing(chanceDeck, chanceHead, chanceCount, other.chanceDeck, other.chanceHead,
+                        other.chanceCount)
+                && sameRing(communityChestDeck, communityChestHead, communityChestCount,
+                        other.communityChestDeck, other.communityChestHead, other.communityChestCount)
+                && Arrays.equals(chanceHolder, other.chanceHolder)
+                && Arrays.equals(communityChestHolder, other.communityChestHolder)
+                && currentPlayer == other.currentPlayer && die1 == other.die1 && die2 == other.die2
+                && consecutiveDoubles == other.consecutiveDoubles && gameOver == other.gameOver;
+    }
+
+    private static boolean sameRing(byte[] a, int headA, int countA, byte[] b, int headB, int countB) {
+        if (countA != countB) {
+            return false;
+        }
+        for (int i = 0; i < countA; i++) {
+            if (a[(headA + i) % a.length] != b[(headB + i) % b.length]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void shuffleRing(byte[] ring, int head, int count, RandomGenerator random) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int a = (head + i) % ring.length;
+            int b = (head + j) % ring.length;
+            byte tmp = ring[a];
+            ring[a] = ring[b];
+            ring[b] = tmp;
+        }
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    public int getMoney(int player) {
+        return money[player];
+    }
+
+    public int getPosition(int player) {
+        return position[player];
+    }
+
+    public boolean isInJail(int player) {
+        return (flags[player] & FLAG_IN_JAIL) != 0;
+    }
+
+    public boolean isBankrupt(int player) {
+        return (flags[player] & FLAG_BANKRUPT) != 0;
+    }
+
+    public int getJailTurns(int player) {
+        return jailTurns[player];
+    }
+
+    public int getJailCards(int player) {
+        return jailCards[player];
+    }
+
+    /**
+     * Gets the owner of a space.
+     *
+     * @param tile Board index
+     * @return The owner's seat, or {@link #NO_OWNER}
+     */
+    public int getOwner(int tile) {
+        return owner[tile];
+    }
+
+    /**
+     * Gets the development level of a space.
+     *
+     * @param tile Board index
+     * @return 0 for none, 1-4 houses, or {@link #HOTEL}
+     */
+    public int getBuildings(int tile) {
+        return buildings[tile];
+    }
+
+    public boolean isMortgaged(int tile) {
+        return (mortgaged[tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    void setMortgaged(int tile, boolean value) {
+        if (value) {
+            mortgaged[tile >>> 6] |= 1L << tile;
+        } else {
+            mortgaged[tile >>> 6] &= ~(1L << tile);
+        }
+    }
+
+    void setFlag(int player, int flag, boolean value) {
+        if (value) {
+            flags[player] |= flag;
+        } else {
+            flags[player] &= ~flag;
+        }
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getConsecutiveDoubles() {
+        return consecutiveDoubles;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Finds the only solvent player of a finished game.
+     *
+     * @return The winner's seat, or -1 if the game is not decided
+     */
+    public int getWinner() {
+        int winner = -1;
+        for (int p = 0; p < playerCount; p++) {
+            if (!isBankrupt(p)) {
+                if (winner >= 0) {
+                    return -1;
+                }
+                winner = p;
+            }
+        }
+        return winner;
+    }
+}
@@ -0,0 +1,445 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Off-heap store for large numbers of suspended games, such as the forked
+ * positions of a search. Each game ({@link GameState} plus its dice stream)
+ * is packed into a fixed-size slot of direct memory, so millions of them cost
+ * the garbage collector nothing: the heap only holds a few buffer objects and
+ * a bit set of live slots.
+ * <p>
+ * Slots are addressed by number. Allocating, freeing and copying a slot take
+ * constant time: free slots form a linked list threaded through the slots
+ * themselves, and a copy is one bulk memory copy. Storing and loading use
+ * absolute reads and writes only and allocate nothing. Memory is reserved in
+ * chunks as the number of slots in use grows and is returned when the arena
+ * is garbage collected.
+ * <p>
+ * An arena is not thread-safe; give each search thread its own.
+ * <p>
+ * Slot layout (native byte order): dice seed and gamma, the mortgage bit set,
+ * money per player, then position, flags, jail turns and jail cards per
+ * player, owner and buildings per space, both decks as raw ring buffers with
+ * their card holders, and finally deck cursors, current player, dice values,
+ * doubles count and slot flags.
+ */
+public class GameStateArena {
+    /** Largest chunk of direct memory reserved at once. */
+    public static final int MAX_CHUNK_BYTES = 1 << 26;
+
+    private static final int FLAG_GAME_OVER = 1;
+    private static final int FLAG_DICE = 2;
+    private static final int NO_SLOT = -1;
+
+    private final int playerCount;
+    private final int tileCount;
+    private final int chanceSize;
+    private final int communityChestSize;
+    private final int capacity;
+
+    // Slot offsets
+    private final int mortgagedOffset;
+    private final int mortgagedWords;
+    private final int moneyOffset;
+    private final int playerOffset;
+    private final int ownerOffset;
+    private final int buildingsOffset;
+    private final int chanceOffset;
+    private final int communityChestOffset;
+    private final int turnOffset;
+    private final int slotSize;
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private final ByteBuffer[] chunks;
+    private final long[] live;
+    private int freeHead = NO_SLOT;
+    private int highWater;
+    private int liveCount;
+
+    /**
+     * Creates an arena for games of one shape. No memory is reserved yet.
+     *
+     * @param playerCount Number of players
+     * @param tileCount Number of spaces on the board
+     * @param chanceSize Number of Chance cards
+     * @param communityChestSize Number of Community Chest cards
+     * @param capacity Maximum number of slots in use at once
+     */
+    public GameStateArena(int playerCount, int tileCount, int chanceSize, int communityChestSize, int capacity) {
+        if (playerCount > 127 || tileCount > 127 || chanceSize > 127 || communityChestSize > 127) {
+            throw new IllegalArgumentException("Game is too large for an arena slot");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.playerCount = playerCount;
+        this.tileCount = tileCount;
+        this.chanceSize = chanceSize;
+        this.communityChestSize = communityChestSize;
+        this.capacity = capacity;
+
+        int offset = 2 * Long.BYTES;
+        mortgagedOffset = offset;
+        mortgagedWords = (tileCount + 63) >>> 6;
+        offset += mortgagedWords * Long.BYTES;
+        moneyOffset = offset;
+        offset += playerCount * Integer.BYTES;
+        playerOffset = offset;
+        offset += playerCount * 4;
+        ownerOffset = offset;
+        offset += tileCount;
+        buildingsOffset = offset;
+        offset += tileCount;
+        chanceOffset = offset;
+        offset += 2 * chanceSize;
+        communityChestOffset = offset;
+        offset += 2 * communityChestSize;
+        turnOffset = offset;
+        offset += 9;
+        slotSize = (offset + 7) & ~7;
+
+        // Chunks hold a power of two of slots so that a slot number splits with a shift and a mask
+        int slotsPerChunk = Integer.highestOneBit(MAX_CHUNK_BYTES / slotSize);
+        slotsPerChunk = Math.min(slotsPerChunk, Integer.highestOneBit(capacity - 1) << 1);
+        this.chunkShift = Integer.numberOfTrailingZeros(Math.max(slotsPerChunk, 1));
+        this.chunkMask = (1 << chunkShift) - 1;
+        this.chunks = new ByteBuffer[(int) (((long) capacity + chunkMask) >>> chunkShift)];
+        this.live = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * Creates an arena for games shaped like a given state.
+     *
+     * @param state A state of the shape to store
+     * @param capacity Maximum number of slots in use at once
+     * @return The new arena
+     */
+    public static GameStateArena forState(GameState state, int capacity) {
+        return new GameStateArena(state.playerCount, state.tileCount, state.chanceHolder.length,
+                state.communityChestHolder.length, capacity);
+    }
+
+    /**
+     * Takes a free slot. Its contents are undefined until stored or copied to.
+     *
+     * @return The slot number
+     * @throws IllegalStateException if every slot is in use
+     */
+    public int allocate() {
+        int slot;
+        if (freeHead != NO_SLOT) {
+            slot = freeHead;
+            freeHead = chunk(slot).getInt(offset(slot));
+        } else if (highWater < capacity) {
+            slot = highWater++;
+            if (chunks[slot >>> chunkShift] == null) {
+                reserveChunk(slot >>> chunkShift);
+            }
+        } else {
+            throw new IllegalStateException("All " + capacity + " arena slots are in use");
+        }
+        live[slot >>> 6] |= 1L << slot;
+        liveCount++;
+        return slot;
+    }
+
+    private void reserveChunk(int index) {
+        int slots = (int) Math.min(chunkMask + 1L, capacity - ((long) index << chunkShift));
+        chunks[index] = ByteBuffer.allocateDirect(slots * slotSize).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns a slot to the arena.
+     *
+     * @param slot A slot in use
+     */
+    public void free(int slot) {
+        checkLive(slot);
+        live[slot >>> 6] &= ~(1L << slot);
+        liveCount--;
+        chunk(slot).putInt(offset(slot), freeHead);
+        freeHead = slot;
+    }
+
+    /**
+     * Frees every slot at once. Reserved memory is kept for reuse.
+     */
+    public void clear() {
+        Arrays.fill(live, 0);
+        freeHead = NO_SLOT;
+        highWater = 0;
+        liveCount = 0;
+    }
+
+    /**
+     * Overwrites one slot with the contents of another.
+     *
+     * @param from The slot to copy
+     * @param to The slot to overwrite
+     */
+    public void copy(int from, int to) {
+        checkLive(from);
+        checkLive(to);
+        if (from != to) {
+            chunk(to).put(offset(to), chunk(from), offset(from), slotSize);
+        }
+    }
+
+    /**
+     * Allocates a slot holding a copy of another.
+     *
+     * @param slot The slot to copy
+     * @return The new slot
+     */
+    public int fork(int slot) {
+        checkLive(slot);
+        int copy = allocate();
+        chunk(copy).put(offset(copy), chunk(slot), offset(slot), slotSize);
+        return copy;
+    }
+
+    /**
+     * Packs a game into a slot.
+     *
+     * @param slot A slot in use
+     * @param state The game state
+     * @param dice The game's dice stream, or null to store none
+     */
+    public void store(int slot, GameState state, GameRandom dice) {
+        checkLive(slot);
+        checkShape(state);
+        ByteBuffer buffer = chunk(slot);
+        int at = offset(slot);
+        buffer.putLong(at, dice != null ? dice.getSeed() : 0);
+        buffer.putLong(at + Long.BYTES, dice != null ? dice.getGamma() : 0);
+        for (int w = 0; w < mortgagedWords; w++) {
+            buffer.putLong(at + mortgagedOffset + w * Long.BYTES, state.mortgaged[w]);
+        }
+        for (int p = 0; p < playerCount; p++) {
+            buffer.putInt(at + moneyOffset + p * Integer.BYTES, state.money[p]);
+            int player = at + playerOffset + p * 4;
+            buffer.put(player, state.position[p]);
+            buffer.put(player + 1, state.flags[p]);
+            buffer.put(player + 2, state.jailTurns[p]);
+            buffer.put(player + 3, state.jailCards[p]);
+        }
+        buffer.put(at + ownerOffset, state.owner, 0, tileCount);
+        buffer.put(at + buildingsOffset, state.buildings, 0, tileCount);
+        buffer.put(at + chanceOffset, state.chanceDeck, 0, chanceSize);
+        buffer.put(at + chanceOffset + chanceSize, state.chanceHolder, 0, chanceSize);
+        buffer.put(at + communityChestOffset, state.communityChestDeck, 0, communityChestSize);
+        buffer.put(at + communityChestOffset + communityChestSize, state.communityChestHolder, 0,
+                communityChestSize);
+        int turn = at + turnOffset;
+        buffer.put(turn, (byte) state.chanceHead);
+        buffer.put(turn + 1, (byte) state.chanceCount);
+        buffer.put(turn + 2, (byte) state.communityChestHead);
+        buffer.put(turn + 3, (byte) state.communityChestCount);
+        buffer.put(turn + 4, (byte) state.currentPlayer);
+        buffer.put(turn + 5, (byte) state.die1);
+        buffer.put(turn + 6, (byte) state.die2);
+        buffer.put(turn + 7, (byte) state.consecutiveDoubles);
+        buffer.put(turn + 8, (byte) ((state.gameOver ? FLAG_GAME_OVER : 0) | (dice != null ? FLAG_DICE : 0)));
+    }
+
+    /**
+     * Unpacks a slot into an existing state and dice stream.
+     *
+     * @param slot A slot in use
+     * @param target The state to overwrite; must have this arena's shape
+     * @param dice Dice stream to set to the stored position, or null to
+     *             ignore it; left unchanged if the slot has none
+     * @return true if the slot had a dice stream
+     */
+    public boolean load(int slot, GameState target, GameRandom dice) {
+        checkLive(slot);
+        checkShape(target);
+        ByteBuffer buffer = chunk(slot);
+        int at = offset(slot);
+        for (int w = 0; w < mortgagedWords; w++) {
+            target.mortgaged[w] = buffer.getLong(at + mortgagedOffset + w * Long.BYTES);
+        }
+        for (int p = 0; p < playerCount; p++) {
+            target.money[p] = buffer.getInt(at + moneyOffset + p * Integer.BYTES);
+            int player = at + playerOffset + p * 4;
+            target.position[p] = buffer.get(player);
+            target.flags[p] = buffer.get(player + 1);
+            target.jailTurns[p] = buffer.get(player + 2);
+            target.jailCards[p] = buffer.get(player + 3);
+        }
+        buffer.get(at + ownerOffset, target.owner, 0, tileCount);
+        buffer.get(at + buildingsOffset, target.buildings, 0, tileCount);
+        buffer.get(at + chanceOffset, target.chanceDeck, 0, chanceSize);
+        buffer.get(at + chanceOffset + chanceSize, target.chanceHolder, 0, chanceSize);
+        buffer.get(at + communityChestOffset, target.communityChestDeck, 0, communityChestSize);
+        buffer.get(at + communityChestOffset + communityChestSize, target.communityChestHolder, 0,
+                communityChestSize);
+        int turn = at + turnOffset;
+        target.chanceHead = buffer.get(turn);
+        target.chanceCount = buffer.get(turn + 1);
+        target.communityChestHead = buffer.get(turn + 2);
+        target.communityChestCount = buffer.get(turn + 3);
+        target.currentPlayer = buffer.get(turn + 4);
+        target.die1 = buffer.get(turn + 5);
+        target.die2 = buffer.get(turn + 6);
+        target.consecutiveDoubles = buffer.get(turn + 7);
+        int flags = buffer.get(turn + 8);
+        target.gameOver = (flags & FLAG_GAME_OVER) != 0;
+        boolean hasDice = (flags & FLAG_DICE) != 0;
+        if (hasDice && dice != null) {
+            dice.setState(buffer.getLong(at), buffer.getLong(at + Long.BYTES));
+        }
+        return hasDice;
+    }
+
+    /**
+     * Reads one player's money straight from a slot, for cheap evaluation
+     * of suspended games without unpacking them.
+     *
+     * @param slot A slot in use
+     * @param player The player's seat
+     * @return The player's money
+     */
+    public int getMoney(int slot, int player) {
+        checkLive(slot);
+        return chunk(slot).getInt(offset(slot) + moneyOffset + player * Integer.BYTES);
+    }
+
+    /**
+     * Checks whether a slot is in use.
+     *
+     * @param slot The slot number
+     * @return true if the slot was allocated and not freed since
+     */
+    public boolean isLive(int slot) {
+        return slot >= 0 && slot < capacity && (live[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void checkLive(int slot) {
+        if (!isLive(slot)) {
+            throw new IllegalArgumentException("Slot " + slot + " is not in use");
+        }
+    }
+
+    private void checkShape(GameState state) {
+        if (state.playerCount != playerCount || state.tileCount != tileCount
+                || state.chanceHolder.length != chanceSize
+                || state.communityChestHolder.length != communityChestSize) {
+            throw new IllegalArgumentException("Game state does not match the arena's slots");
+        }
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot >>> chunkShift];
+    }
+
+    private int offset(int slot) {
+        return (slot & chunkMask) * slotSize;
+    }
+
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of slots in use.
+     *
+     * @return Allocated slots that have not been freed
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Gets the amount of direct memory reserved so far.
+     *
+     * @return Bytes
+     */
+    public long getReservedBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : chunks) {
+            if (chunk != null) {
+                bytes += chunk.capacity();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Command-line entry point: forks a game into many slots, plays a turn in
+     * each and frees them again, then reports timings and the garbage
+     * collections that happened meanwhile. Direct memory is limited to the
+     * heap size unless {@code -XX:MaxDirectMemorySize} says otherwise.
+     * Usage: {@code java GameStateArena [slots] [players] [seed]}
+     *
+     * @param args Optional slot count, player count and seed
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= players; i++) {
+            names.add("Player " + i);
+        }
+        GameEngine engine = GameEngine.createSeeded(names, GameRandom.forGame(seed, 0));
+        for (int turn = 0; turn < 40 && !engine.isGameOver(); turn++) {
+            engine.executeTurn();
+        }
+        GameStateEngine rules = engine.createStateEngine();
+        GameState state = engine.captureState();
+        GameRandom dice = new GameRandom(seed);
+        GameStateArena arena = forState(state, slots);
+        int root = arena.allocate();
+        arena.store(root, state, dice);
+        int[] forks = new int[slots - 1];
+
+        // One untimed round reserves the memory and warms up the JIT
+        for (int round = 0; round < 2; round++) {
+            long collections = countCollections();
+            long start = System.nanoTime();
+            for (int i = 0; i < forks.length; i++) {
+                forks[i] = arena.fork(root);
+            }
+            long forked = System.nanoTime();
+            for (int fork : forks) {
+                arena.load(fork, state, dice);
+                rules.playTurn(state, dice);
+                arena.store(fork, state, dice);
+            }
+            long played = System.nanoTime();
+            for (int fork : forks) {
+                arena.free(fork);
+            }
+            long freed = System.nanoTime();
+            if (round == 1) {
+                System.out.printf("%d slots of %d bytes, %.1f MB off-heap%n", slots, arena.getSlotSize(),
+                        arena.getReservedBytes() / 1e6);
+                System.out.printf("fork %.0f ns, load+turn+store %.0f ns, free %.0f ns per slot%n",
+                        (forked - start) / (double) forks.length, (played - forked) / (double) forks.length,
+                        (freed - played) / (double) forks.length);
+                System.out.println("Garbage collections during the round: " + (countCollections() - collections));
+            }
+        }
+    }
+
+    private static long countCollections() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+}
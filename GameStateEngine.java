@@ -0,0 +1,723 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays Monopoly turns directly on a {@link GameState}.
+ * The rules are the same as in {@link GameEngine#executeTurn()}, but every
+ * read and write goes to primitive arrays, so forked states can be played out
+ * quickly for search and rollouts. One engine can be shared by many threads as
+ * long as each thread uses its own state and random source.
+ */
+public class GameStateEngine {
+    private static final int RAILROAD_BASE_RENT = 25;
+
+    private final BoardSpec board;
+    private final CardTable chanceCards;
+    private final CardTable communityChestCards;
+    private final GameRules rules;
+    private final int goSalary;
+    private final int jailFee;
+    private final int maxJailTurns;
+
+    /**
+     * Creates an engine for a board and its decks.
+     *
+     * @param board The board tables
+     * @param chanceCards The Chance card table (ids match the state's deck)
+     * @param communityChestCards The Community Chest card table
+     */
+    public GameStateEngine(BoardSpec board, CardTable chanceCards, CardTable communityChestCards) {
+        this(board, chanceCards, communityChestCards, GameRules.DEFAULT);
+    }
+
+    /**
+     * Creates an engine for a board and its decks that plays by the given
+     * rules. Rents come from the board, which should be built for the same rules.
+     *
+     * @param board The board tables
+     * @param chanceCards The Chance card table (ids match the state's deck)
+     * @param communityChestCards The Community Chest card table
+     * @param rules Salary, jail and mortgage rules
+     */
+    public GameStateEngine(BoardSpec board, CardTable chanceCards, CardTable communityChestCards,
+                           GameRules rules) {
+        this.board = board;
+        this.chanceCards = chanceCards;
+        this.communityChestCards = communityChestCards;
+        this.rules = rules;
+        this.goSalary = rules.getGoSalary();
+        this.jailFee = rules.getJailFee();
+        this.maxJailTurns = rules.getMaxJailTurns();
+    }
+
+    public BoardSpec getBoard() {
+        return board;
+    }
+
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Creates an empty state shaped for this engine's board and decks.
+     *
+     * @param playerCount Number of players
+     * @return The new state
+     */
+    public GameState newState(int playerCount) {
+        return new GameState(playerCount, board.getSize(), chanceCards.getSize(), communityChestCards.getSize());
+    }
+
+    /**
+     * Plays turns until the game is over or the turn limit is reached.
+     *
+     * @param state The state to play on
+     * @param random Random source for the dice
+     * @param maxTurns Maximum number of turns to play
+     * @return Number of turns played
+     */
+    public int playGame(GameState state, RandomGenerator random, int maxTurns) {
+        return playGame(state, random, maxTurns, PlayerStrategy.DEFAULT);
+    }
+
+    /**
+     * Plays turns with the given choices until the game is over or the turn
+     * limit is reached.
+     *
+     * @param state The state to play on
+     * @param random Random source for the dice
+     * @param maxTurns Maximum number of turns to play
+     * @param strategy Makes every player's choices
+     * @return Number of turns played
+     */
+    public int playGame(GameState state, RandomGenerator random, int maxTurns, PlayerStrategy strategy) {
+        int turns = 0;
+        while (!state.gameOver && turns < maxTurns) {
+            playTurn(state, random, strategy);
+            turns++;
+        }
+        return turns;
+    }
+
+    /**
+     * Executes one complete turn for the current player.
+     *
+     * @param s The state to play on
+     * @param random Random source for the dice
+     */
+    public void playTurn(GameState s, RandomGenerator random) {
+        playTurn(s, random, PlayerStrategy.DEFAULT);
+    }
+
+    /**
+     * Executes one complete turn for the current player with the given choices.
+     *
+     * @param s The state to play on
+     * @param random Random source for the dice
+     * @param strategy Makes every player's choices
+     */
+    public void playTurn(GameState s, RandomGenerator random, PlayerStrategy strategy) {
+        if (s.gameOver) {
+            return;
+        }
+        int p = s.currentPlayer;
+        if (s.isBankrupt(p)) {
+            advance(s);
+            return;
+        }
+
+        if (strategy.managesProperties()) {
+            manageProperties(s, p, strategy);
+        }
+
+        if (s.isInJail(p)) {
+            handleJailTurn(s, p, random, strategy);
+            if (s.isInJail(p)) {
+                advance(s);
+                return;
+            }
+        }
+
+        int steps = roll(s, random);
+        if (s.consecutiveDoubles >= 3) {
+            goToJail(s, p);
+            s.consecutiveDoubles = 0;
+            advance(s);
+            return;
+        }
+
+        moveBy(s, p, steps);
+        handleLanding(s, p, strategy);
+        endTurn(s);
+    }
+
+    /**
+     * Finishes the current player's turn after the landing has been handled:
+     * settles a bankruptcy and passes the dice on unless doubles were rolled.
+     * Search code uses this to resume a turn that it interrupted at a decision.
+     *
+     * @param s The state to play on
+     */
+    public void endTurn(GameState s) {
+        int p = s.currentPlayer;
+        if (s.isBankrupt(p)) {
+            releaseProperties(s, p);
+            checkGameOver(s);
+        }
+
+        if (s.die1 != s.die2 || s.isInJail(p)) {
+            advance(s);
+        }
+    }
+
+    private void manageProperties(GameState s, int p, PlayerStrategy strategy) {
+        int size = board.getSize();
+        for (int t = 0; t < size; t++) {
+            if (s.owner[t] != p) {
+                continue;
+            }
+            if (s.isMortgaged(t)) {
+                if (s.money[p] >= getUnmortgageCost(t) && strategy.shouldUnmortgage(s, p, t)) {
+                    unmortgage(s, p, t);
+                }
+            } else if (s.buildings[t] == 0 && strategy.shouldMortgage(s, p, t)) {
+                mortgage(s, p, t);
+            }
+        }
+
+        // Keep offering houses until the strategy stops building
+        boolean built = true;
+        while (built) {
+            built = false;
+            for (int t = 0; t < size; t++) {
+                if (canBuild(s, p, t) && s.money[p] >= board.getHouseCost(t)
+                        && strategy.shouldBuildHouse(s, p, t)) {
+                    build(s, p, t);
+                    built = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a player may build the next house (or the hotel) on a
+     * property: the whole group must be owned, the property unmortgaged, and
+     * houses are built evenly across the group.
+     *
+     * @param s The state
+     * @param p The player's seat
+     * @param tile Board index
+     * @return true if building is allowed (money is not checked)
+     */
+    public boolean canBuild(GameState s, int p, int tile) {
+        if (s.owner[tile] != p || board.getType(tile) != SpaceType.PROPERTY || s.isMortgaged(tile)) {
+            return false;
+        }
+        int level = s.buildings[tile];
+        if (level >= GameState.HOTEL) {
+            return false;
+        }
+        for (int t : board.getGroupMembers(board.getGroup(tile))) {
+            if (s.owner[t] != p || (t != tile && s.buildings[t] < level)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the next house (or the hotel) on a property and pays for it.
+     * Legality is not checked; see {@link #canBuild}.
+     *
+     * @param s The state
+     * @param p The player's seat
+     * @param tile Board index
+     */
+    public void build(GameState s, int p, int tile) {
+        s.money[p] -= board.getHouseCost(tile);
+        s.buildings[tile]++;
+    }
+
+    /**
+     * Mortgages a space and pays out half its price.
+     *
+     * @param s The state
+     * @param p The owner's seat
+     * @param tile Board index
+     */
+    public void mortgage(GameState s, int p, int tile) {
+        s.money[p] += board.getPrice(tile) / 2;
+        s.setMortgaged(tile, true);
+    }
+
+    /**
+     * Lifts a mortgage, charging the mortgage value plus interest.
+     *
+     * @param s The state
+     * @param p The owner's seat
+     * @param tile Board index
+     */
+    public void unmortgage(GameState s, int p, int tile) {
+        s.money[p] -= getUnmortgageCost(tile);
+        s.setMortgaged(tile, false);
+    }
+
+    /**
+     * Buys an unowned space at its price.
+     *
+     * @param s The state
+     * @param p The buyer's seat
+     * @param tile Board index
+     */
+    public void buy(GameState s, int p, int tile) {
+        s.money[p] -= board.getPrice(tile);
+        s.owner[tile] = (byte) p;
+    }
+
+    /**
+     * Gets the cost of lifting the mortgage on a space, as charged by
+     * {@link MortgageServiceImpl}.
+     *
+     * @param tile Board index
+     * @return Mortgage value plus interest
+     */
+    public int getUnmortgageCost(int tile) {
+        return (int) (board.getPrice(tile) / 2 * (1 + rules.getInterestRate()));
+    }
+
+    private void handleJailTurn(GameState s, int p, RandomGenerator random, PlayerStrategy strategy) {
+        if (s.jailCards[p] > 0) {
+            s.jailCards[p]--;
+            if (!returnHeldCard(s, true, p)) {
+                returnHeldCard(s, false, p);
+            }
+            releaseFromJail(s, p);
+            return;
+        }
+
+        if (s.money[p] >= jailFee && strategy.shouldPayJailFee(s, p)) {
+            s.money[p] -= jailFee;
+            releaseFromJail(s, p);
+            return;
+        }
+
+        roll(s, random);
+        if (s.die1 == s.die2) {
+            releaseFromJail(s, p);
+            moveBy(s, p, s.die1 + s.die2);
+            handleLanding(s, p, strategy);
+        } else {
+            s.jailTurns[p]++;
+            if (s.jailTurns[p] >= maxJailTurns) {
+                if (s.money[p] >= jailFee) {
+                    s.money[p] -= jailFee;
+                    releaseFromJail(s, p);
+                } else {
+                    s.setFlag(p, GameState.FLAG_BANKRUPT, true);
+                }
+            }
+        }
+    }
+
+    private void handleLanding(GameState s, int p, PlayerStrategy strategy) {
+        int tile = s.position[p];
+        switch (board.getType(tile)) {
+            case PROPERTY:
+            case RAILROAD:
+            case UTILITY:
+                handleBuyable(s, p, tile, strategy);
+                break;
+            case TAX:
+                if (!pay(s, p, board.getValue(tile))) {
+                    s.setFlag(p, GameState.FLAG_BANKRUPT, true);
+                }
+                break;
+            case GO_TO_JAIL:
+                goToJail(s, p);
+                break;
+            case CHANCE:
+                handleCard(s, p, true, strategy);
+                break;
+            case COMMUNITY_CHEST:
+                handleCard(s, p, false, strategy);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void handleBuyable(GameState s, int p, int tile, PlayerStrategy strategy) {
+        int owner = s.owner[tile];
+        if (owner == GameState.NO_OWNER) {
+            int price = board.getPrice(tile);
+            if (s.money[p] >= price && strategy.shouldBuy(s, p, tile)) {
+                buy(s, p, tile);
+            }
+        } else if (owner != p) {
+            int rent = calculateRent(s, tile);
+            if (board.getType(tile) == SpaceType.UTILITY) {
+                rent *= s.die1 + s.die2;
+            }
+            if (pay(s, p, rent)) {
+                s.money[owner] += rent;
+            } else {
+                s.setFlag(p, GameState.FLAG_BANKRUPT, true);
+            }
+        }
+    }
+
+    private void handleCard(GameState s, int p, boolean chance, PlayerStrategy strategy) {
+        CardTable table = chance ? chanceCards : communityChestCards;
+        int id = drawCard(s, chance);
+        // Returned before the effect, as in GameEngine
+        if (table.getType(id) != CardType.GET_OUT_OF_JAIL_FREE) {
+            returnCard(s, chance, id);
+        }
+
+        switch (table.getType(id)) {
+            case MOVEMENT: {
+                int destination = table.getValue(id);
+                if (destination < s.position[p]) {
+                    s.money[p] += goSalary;
+                }
+                s.position[p] = (byte) destination;
+                handleLanding(s, p, strategy);
+                break;
+            }
+            case GO_TO_JAIL:
+                goToJail(s, p);
+                break;
+            case COLLECT_MONEY:
+                s.money[p] += table.getValue(id);
+                break;
+            case PAY_MONEY:
+                if (!pay(s, p, table.getValue(id))) {
+                    s.setFlag(p, GameState.FLAG_BANKRUPT, true);
+                }
+                break;
+            case GET_OUT_OF_JAIL_FREE:
+                s.jailCards[p]++;
+                (chance ? s.chanceHolder : s.communityChestHolder)[id] = (byte) p;
+                break;
+            case REPAIRS: {
+                int houseCost = table.getValue(id);
+                int hotelCost = table.getExtraValue(id);
+                int total = 0;
+                for (int t = 0; t < s.tileCount; t++) {
+                    if (s.owner[t] == p && board.getType(t) == SpaceType.PROPERTY) {
+                        int level = s.buildings[t];
+                        total += level == GameState.HOTEL ? hotelCost : houseCost * level;
+                    }
+                }
+                if (total > 0 && !pay(s, p, total)) {
+                    s.setFlag(p, GameState.FLAG_BANKRUPT, true);
+                }
+                break;
+            }
+            case PAY_EACH_PLAYER: {
+                int amount = table.getValue(id);
+                int total = 0;
+                for (int o = 0; o < s.playerCount; o++) {
+                    if (o != p && !s.isBankrupt(o)) {
+                        s.money[o] += amount;
+                        total += amount;
+                    }
+                }
+                if (!pay(s, p, total)) {
+                    s.setFlag(p, GameState.FLAG_BANKRUPT, true);
+                }
+                break;
+            }
+            case COLLECT_FROM_EACH_PLAYER: {
+                int amount = table.getValue(id);
+                int total = 0;
+                for (int o = 0; o < s.playerCount; o++) {
+                    if (o != p && !s.isBankrupt(o)) {
+                        if (pay(s, o, amount)) {
+                            total += amount;
+                        } else {
+                            s.setFlag(o, GameState.FLAG_BANKRUPT, true);
+                            returnJailCards(s, o);
+                        }
+                    }
+                }
+                s.money[p] += total;
+                break;
+            }
+            case NEAREST_RAILROAD:
+                moveToNearest(s, p, SpaceType.RAILROAD, strategy);
+                break;
+            case NEAREST_UTILITY:
+                moveToNearest(s, p, SpaceType.UTILITY, strategy);
+                break;
+            case MOVE_BACKWARD: {
+                int size = board.getSize();
+                s.position[p] = (byte) ((s.position[p] - table.getValue(id) + size) % size);
+                handleLanding(s, p, strategy);
+                break;
+            }
+        }
+    }
+
+    private void moveToNearest(GameState s, int p, SpaceType type, PlayerStrategy strategy) {
+        int current = s.position[p];
+        int nearest = board.getNextOfType(type, current);
+        if (nearest == -1) {
+            return;
+        }
+        if (board.passesGoToNext(type, current)) {
+            s.money[p] += goSalary;
+        }
+        s.position[p] = (byte) nearest;
+
+        int owner = s.owner[nearest];
+        if (owner != GameState.NO_OWNER && owner != p) {
+            int rent = calculateRent(s, nearest) * 2;
+            if (pay(s, p, rent)) {
+                s.money[owner] += rent;
+            } else {
+                s.setFlag(p, GameState.FLAG_BANKRUPT, true);
+            }
+        } else {
+            handleBuyable(s, p, nearest, strategy);
+        }
+    }
+
+    /**
+     * Calculates the rent of an owned space, before the dice multiplier for utilities.
+     *
+     * @param s The state
+     * @param tile Board index of a buyable space
+     * @return The rent, or the utility multiplier
+     */
+    int calculateRent(GameState s, int tile) {
+        int owner = s.owner[tile];
+        if (owner == GameState.NO_OWNER || s.isMortgaged(tile)) {
+            return 0;
+        }
+        switch (board.getType(tile)) {
+            case PROPERTY: {
+                int level = s.buildings[tile];
+                if (level > 0) {
+                    return board.getRent(tile, level);
+                }
+                int base = board.getRent(tile, 0);
+                return hasMonopoly(s, owner, board.getGroup(tile)) ? base * 2 : base;
+            }
+            case RAILROAD: {
+                int count = countOwned(s, owner, board.getRailroads());
+                return count >= 1 && count <= 4 ? RAILROAD_BASE_RENT << (count - 1) : 0;
+            }
+            case UTILITY: {
+                int count = countOwned(s, owner, board.getUtilities());
+                return count >= 2 ? 10 : count == 1 ? 4 : 0;
+            }
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Checks whether a player owns every property of a colour group.
+     *
+     * @param s The state
+     * @param player The player's seat
+     * @param group The group id
+     * @return true if the player holds the whole group
+     */
+    boolean hasMonopoly(GameState s, int player, int group) {
+        for (int t : board.getGroupMembers(group)) {
+            if (s.owner[t] != player) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int countOwned(GameState s, int player, int[] tiles) {
+        int count = 0;
+        for (int t : tiles) {
+            if (s.owner[t] == player) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int roll(GameState s, RandomGenerator random) {
+        s.die1 = random.nextInt(6) + 1;
+        s.die2 = random.nextInt(6) + 1;
+        if (s.die1 == s.die2) {
+            s.consecutiveDoubles++;
+        } else {
+            s.consecutiveDoubles = 0;
+        }
+        return s.die1 + s.die2;
+    }
+
+    private void moveBy(GameState s, int p, int steps) {
+        int old = s.position[p];
+        int next = (old + steps) % board.getSize();
+        s.position[p] = (byte) next;
+        if (next < old) {
+            s.money[p] += goSalary;
+        }
+    }
+
+    private static boolean pay(GameState s, int p, int amount) {
+        if (s.money[p] >= amount) {
+            s.money[p] -= amount;
+            return true;
+        }
+        return false;
+    }
+
+    private static void goToJail(GameState s, int p) {
+        s.position[p] = (byte) GameEngine.JAIL_POSITION;
+        s.setFlag(p, GameState.FLAG_IN_JAIL, true);
+        s.jailTurns[p] = 0;
+    }
+
+    private static void releaseFromJail(GameState s, int p) {
+        s.setFlag(p, GameState.FLAG_IN_JAIL, false);
+        s.jailTurns[p] = 0;
+    }
+
+    private static void releaseProperties(GameState s, int p) {
+        for (int t = 0; t < s.tileCount; t++) {
+            if (s.owner[t] == p) {
+                s.owner[t] = GameState.NO_OWNER;
+            }
+        }
+        returnJailCards(s, p);
+    }
+
+    /**
+     * Returns a bankrupt player's held jail cards to their decks, Chance
+     * first as in GameEngine.
+     */
+    private static void returnJailCards(GameState s, int p) {
+        while (returnHeldCard(s, true, p)) {
+            // keep returning until none are left
+        }
+        while (returnHeldCard(s, false, p)) {
+            // keep returning until none are left
+        }
+        s.jailCards[p] = 0;
+    }
+
+    private static void checkGameOver(GameState s) {
+        int active = 0;
+        for (int o = 0; o < s.playerCount; o++) {
+            if (!s.isBankrupt(o)) {
+                active++;
+            }
+        }
+        if (active <= 1) {
+            s.gameOver = true;
+        }
+    }
+
+    private static void advance(GameState s) {
+        s.currentPlayer = (s.currentPlayer + 1) % s.playerCount;
+    }
+
+    private static int drawCard(GameState s, boolean chance) {
+        if (chance) {
+            int id = s.chanceDeck[s.chanceHead];
+            s.chanceHead = (s.chanceHead + 1) % s.chanceDeck.length;
+            s.chanceCount--;
+            return id;
+        }
+        int id = s.communityChestDeck[s.communityChestHead];
+        s.communityChestHead = (s.communityChestHead + 1) % s.communityChestDeck.length;
+        s.communityChestCount--;
+        return id;
+    }
+
+    private static void returnCard(GameState s, boolean chance, int id) {
+        if (chance) {
+            s.chanceDeck[(s.chanceHead + s.chanceCount) % s.chanceDeck.length] = (byte) id;
+            s.chanceCount++;
+        } else {
+            int length = s.communityChestDeck.length;
+            s.communityChestDeck[(s.communityChestHead + s.communityChestCount) % length] = (byte) id;
+            s.communityChestCount++;
+        }
+    }
+
+    private static boolean returnHeldCard(GameState s, boolean chance, int p) {
+        byte[] holders = chance ? s.chanceHolder : s.communityChestHolder;
+        for (int id = 0; id < holders.length; id++) {
+            if (holders[id] == p) {
+                holders[id] = GameState.NO_OWNER;
+                returnCard(s, chance, id);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Self-check entry point: plays seeded games through {@link GameEngine}
+     * and, from the same starting position and dice stream, through this
+     * engine, and compares the two states after every turn. Any rule change
+     * made to one engine but not the other shows up as a divergence.
+     * Usage: {@code java GameStateEngine [games] [players] [reserve] [seed]}
+     * <p>
+     * With a reserve, every seat plays a {@link CashReserveStrategy}, which
+     * also exercises building and mortgages; otherwise the default strategy.
+     * Exits with status 1 if any game diverged.
+     *
+     * @param args Optional game count, player count, reserve and seed
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        PlayerStrategy strategy = args.length > 2
+                ? new CashReserveStrategy(new BoardSpec(BoardInitializer.createBoard()), Integer.parseInt(args[2]))
+                : PlayerStrategy.DEFAULT;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        int maxTurns = BatchSimulator.DEFAULT_MAX_TURNS;
+
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= players; i++) {
+            names.add("Player " + i);
+        }
+        System.out.println("Comparing " + games + " games with " + players + " players, "
+                + (args.length > 2 ? strategy : "default strategy") + " (seed " + seed + ")...");
+        int diverged = 0;
+        long turnsChecked = 0;
+        for (int g = 0; g < games; g++) {
+            GameEngine reference = GameEngine.createSeeded(names, GameRandom.forGame(seed, g));
+            for (int p = 0; p < players; p++) {
+                reference.setStrategy(p, strategy);
+            }
+            GameStateEngine engine = reference.createStateEngine();
+            GameState state = reference.captureState();
+            GameState expected = reference.captureState();
+            // The state engine rolls from a copy of the reference game's dice stream
+            GameRandom dice = reference.getSavableDiceRandom();
+            GameRandom random = new GameRandom(dice.getSeed(), dice.getGamma());
+            for (int turn = 0; turn < maxTurns && !reference.isGameOver(); turn++) {
+                reference.executeTurn();
+                engine.playTurn(state, random, strategy);
+                reference.captureState(expected);
+                turnsChecked++;
+                if (!state.samePosition(expected)) {
+                    if (diverged < 10) {
+                        System.out.println("Game " + g + " diverged at turn " + turn);
+                    }
+                    diverged++;
+                    break;
+                }
+            }
+        }
+        System.out.println(turnsChecked + " turns checked, " + diverged + " games diverged");
+        if (diverged > 0) {
+            System.exit(1);
+        }
+    }
+}
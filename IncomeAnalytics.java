@@ -0,0 +1,289 @@
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expected rent income of every buyable space, derived from the board's
+ * {@link LandingProbabilities}.
+ * <p>
+ * Two kinds of figures are offered. The static tables give the expected rent a
+ * space earns per opponent turn at every development level, and the payback
+ * time of buying and developing it. The live figures follow the actual game:
+ * the analytics listen to the board's {@link OwnershipIndex} and, when a space
+ * changes owner, buildings or mortgage, recompute only the spaces whose rent
+ * can have changed (the space's colour group, or all railroads or utilities),
+ * so they can be queried every turn at no cost.
+ */
+public class IncomeAnalytics implements OwnershipIndex.Listener {
+    /** Number of development levels a property has: base, 1-4 houses, hotel. */
+    public static final int PROPERTY_LEVELS = BoardSpec.RENT_LEVELS;
+
+    private final List<Space> board;
+    private final BoardSpec spec;
+    private final LandingProbabilities landing;
+    private final OwnershipIndex ownershipIndex;
+    private final Map<Space, Integer> tiles;
+
+    // Static tables: expected rent per opponent turn, by tile and level
+    private final double[][] expectedRent;
+    private final double[] expectedMonopolyRent;
+
+    // Live figures
+    private final double[] currentIncome;
+    private final Player[] incomeOwner;
+    private final Map<Player, double[]> playerIncome;
+
+    /**
+     * Builds the tables for a board and starts following its ownership.
+     *
+     * @param board The board spaces
+     * @param landing Landing probabilities solved for the same board
+     * @param ownershipIndex The board's ownership index
+     */
+    public IncomeAnalytics(List<Space> board, LandingProbabilities landing, OwnershipIndex ownershipIndex) {
+        this.board = board;
+        this.spec = landing.getBoard();
+        this.landing = landing;
+        this.ownershipIndex = ownershipIndex;
+        this.tiles = new IdentityHashMap<>();
+
+        int size = board.size();
+        this.expectedRent = new double[size][];
+        this.expectedMonopolyRent = new double[size];
+        for (int t = 0; t < size; t++) {
+            Space space = board.get(t);
+            tiles.put(space, t);
+            double landings = landing.getLandingsPerTurn(t);
+            if (space instanceof PropertySpace) {
+                expectedRent[t] = new double[PROPERTY_LEVELS];
+                for (int level = 0; level < PROPERTY_LEVELS; level++) {
+                    expectedRent[t][level] = spec.getRent(t, level) * landings;
+                }
+                expectedMonopolyRent[t] = spec.getRent(t, 0) * 2 * landings;
+            } else if (space instanceof RailroadSpace) {
+                int railroads = spec.getRailroads().length;
+                expectedRent[t] = new double[railroads + 1];
+                for (int count = 1; count <= railroads; count++) {
+                    expectedRent[t][count] = railroadRent(t, count);
+                }
+            } else if (space instanceof UtilitySpace) {
+                int utilities = spec.getUtilities().length;
+                expectedRent[t] = new double[utilities + 1];
+                for (int count = 1; count <= utilities; count++) {
+                    expectedRent[t][count] = utilityRent(t, count);
+                }
+            }
+        }
+
+        this.currentIncome = new double[size];
+        this.incomeOwner = new Player[size];
+        this.playerIncome = new IdentityHashMap<>();
+        for (int t = 0; t < size; t++) {
+            if (expectedRent[t] != null) {
+                refresh(t);
+            }
+        }
+        ownershipIndex.addListener(this);
+    }
+
+    // Landings via a "nearest" card pay double rent on railroads
+    private double railroadRent(int tile, int count) {
+        double landings = landing.getLandingsPerTurn(tile) + landing.getNearestCardLandingsPerTurn(tile);
+        return RailroadSpace.getRentForCount(count) * landings;
+    }
+
+    // Utility rent is the multiplier times the dice total, or twice the
+    // multiplier when sent by a "nearest" card (as the engine charges it)
+    private double utilityRent(int tile, int count) {
+        int multiplier = UtilitySpace.getMultiplierForCount(count);
+        return multiplier * landing.getDiceTotalPerTurn(tile)
+                + 2.0 * multiplier * landing.getNearestCardLandingsPerTurn(tile);
+    }
+
+    /**
+     * Gets the expected rent a space earns per opponent turn.
+     *
+     * @param tile Board index of a buyable space
+     * @param level For properties 0 (no buildings, no monopoly), 1-4 houses or 5 for a hotel;
+     *              for railroads and utilities the number of them the owner holds
+     * @return Expected rent per opponent turn, or 0 for spaces and levels without rent
+     */
+    public double getExpectedRent(int tile, int level) {
+        double[] levels = expectedRent[tile];
+        if (levels == null || level < 0 || level >= levels.length) {
+            return 0;
+        }
+        return levels[level];
+    }
+
+    /**
+     * Gets the expected rent per opponent turn of an undeveloped property
+     * whose owner holds the whole colour group (double base rent).
+     *
+     * @param tile Board index of a property
+     * @return Expected rent per opponent turn
+     */
+    public double getExpectedMonopolyRent(int tile) {
+        return expectedMonopolyRent[tile];
+    }
+
+    /**
+     * Gets the number of opponent turns needed to earn back the cost of a
+     * space at a development level: the price plus, for properties, the
+     * houses built (a hotel counts as five).
+     *
+     * @param tile Board index of a buyable space
+     * @param level As for {@link #getExpectedRent(int, int)}
+     * @return Opponent turns to pay back, or infinity if the level earns nothing
+     */
+    public double getPaybackTurns(int tile, int level) {
+        double rent = getExpectedRent(tile, level);
+        if (rent <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int cost = spec.getPrice(tile);
+        if (spec.getType(tile) == SpaceType.PROPERTY) {
+            cost += spec.getHouseCost(tile) * level;
+        }
+        return cost / rent;
+    }
+
+    /**
+     * Gets the expected rent per opponent turn of a whole colour group at a
+     * uniform development level. Level 0 assumes the group is complete.
+     *
+     * @param group The group id from {@link BoardSpec#getGroup(int)}
+     * @param level 0-5 as for properties
+     * @return Expected rent per opponent turn
+     */
+    public double getExpectedGroupRent(int group, int level) {
+        double total = 0;
+        for (int tile : spec.getGroupMembers(group)) {
+            total += level == 0 ? expectedMonopolyRent[tile] : getExpectedRent(tile, level);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the payback time of buying a whole colour group and developing it
+     * uniformly to a level.
+     *
+     * @param group The group id
+     * @param level 0-5 as for properties
+     * @return Opponent turns to pay back, or infinity if the level earns nothing
+     */
+    public double getGroupPaybackTurns(int group, int level) {
+        double rent = getExpectedGroupRent(group, level);
+        if (rent <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int cost = 0;
+        for (int tile : spec.getGroupMembers(group)) {
+            cost += spec.getPrice(tile) + spec.getHouseCost(tile) * level;
+        }
+        return cost / rent;
+    }
+
+    /**
+     * Gets the rent a space is currently expected to earn per opponent turn,
+     * given its owner, buildings and mortgage.
+     *
+     * @param tile Board index
+     * @return Expected rent per opponent turn, 0 if unowned or mortgaged
+     */
+    public double getCurrentIncome(int tile) {
+        return currentIncome[tile];
+    }
+
+    /**
+     * Gets the rent a player's spaces are currently expected to earn per
+     * opponent turn, summed over all of them.
+     *
+     * @param player The player
+     * @return Expected rent per opponent turn
+     */
+    public double getPlayerIncome(Player player) {
+        double[] total = playerIncome.get(player);
+        return total != null ? total[0] : 0;
+    }
+
+    /**
+     * Stops following the board's ownership.
+     */
+    public void detach() {
+        ownershipIndex.removeListener(this);
+    }
+
+    @Override
+    public void spaceChanged(Buyable space) {
+        Integer tile = tiles.get(space);
+        if (tile == null) {
+            return;
+        }
+        if (space instanceof PropertySpace) {
+            // A change of owner can make or break the group's monopoly
+            for (int member : spec.getGroupMembers(spec.getGroup(tile))) {
+                refresh(member);
+            }
+        } else if (space instanceof RailroadSpace) {
+            for (int railroad : spec.getRailroads()) {
+                refresh(railroad);
+            }
+        } else if (space instanceof UtilitySpace) {
+            for (int utility : spec.getUtilities()) {
+                refresh(utility);
+            }
+        }
+    }
+
+    private void refresh(int tile) {
+        Buyable space = (Buyable) board.get(tile);
+        Player owner = space.getOwner();
+        double income = 0;
+        if (owner != null && !space.isMortgaged()) {
+            if (space instanceof PropertySpace) {
+                PropertySpace property = (PropertySpace) space;
+                if (property.hasHotel()) {
+                    income = expectedRent[tile][5];
+                } else if (property.getHouses() > 0) {
+                    income = expectedRent[tile][property.getHouses()];
+                } else if (ownershipIndex.hasMonopoly(owner, property.getColorGroupId())) {
+                    income = expectedMonopolyRent[tile];
+                } else {
+                    income = expectedRent[tile][0];
+                }
+            } else if (space instanceof RailroadSpace) {
+                income = getExpectedRent(tile, owner.getOwnedRailroads());
+            } else if (space instanceof UtilitySpace) {
+                income = getExpectedRent(tile, owner.getOwnedUtilities());
+            }
+        }
+
+        if (incomeOwner[tile] != null) {
+            playerIncome.get(incomeOwner[tile])[0] -= currentIncome[tile];
+        }
+        currentIncome[tile] = income;
+        incomeOwner[tile] = owner;
+        if (owner != null) {
+            playerIncome.computeIfAbsent(owner, p -> new double[1])[0] += income;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Expected rent per opponent turn (payback in opponent turns)\n");
+        for (int t = 0; t < board.size(); t++) {
+            if (expectedRent[t] == null) {
+                continue;
+            }
+            sb.append(String.format("%2d %-24s", t, spec.getName(t)));
+            for (int level = 0; level < expectedRent[t].length; level++) {
+                if (expectedRent[t][level] > 0) {
+                    sb.append(String.format(" %7.2f (%5.0f)", expectedRent[t][level], getPaybackTurns(t, level)));
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,405 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays a {@link GameJournal} again through a real {@link GameEngine}. The
+ * engine's dice and every player's strategy are fed from the journal, so the
+ * game takes exactly the recorded course; card draws and turn boundaries are
+ * checked against the journal as they happen, and any divergence (a journal
+ * from a different engine version, say) stops the replay with an
+ * {@link IllegalStateException}. Without a user interface a replay runs at
+ * full engine speed.
+ * <p>
+ * {@link #seek(int)} jumps to any turn by restoring the nearest keyframe at
+ * or before it and replaying the turns in between, so with the default
+ * keyframe interval no seek replays more than a few dozen turns.
+ */
+public class JournalReplayer {
+    private final ByteBuffer entries;
+    private final int end;
+    private final GameEngine engine;
+    private final SaveGameArchive start;
+    private final GameState scratch;
+    private final int keyframeSize;
+    // Keyframes by turn; the first is the starting position (record offset -1)
+    private int[] keyframeTurns;
+    private int[] keyframeRecords;
+    private int[] keyframeCursors;
+    private int keyframeCount;
+    private int turnCount;
+    private int cursor;
+    private int turn;
+    // Second die of the current dice entry has yet to be served
+    private boolean secondDie;
+
+    /**
+     * Creates a replayer over a journal held in memory.
+     *
+     * @param journal The journal bytes, from position 0
+     * @throws IllegalArgumentException if the bytes are not a supported journal
+     */
+    public JournalReplayer(ByteBuffer journal) {
+        ByteBuffer buffer = journal.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < GameJournal.HEADER_SIZE || buffer.getInt(GameJournal.H_MAGIC) != GameJournal.MAGIC) {
+            throw new IllegalArgumentException("Not a game journal");
+        }
+        short version = buffer.getShort(GameJournal.H_VERSION);
+        if (version < 1 || version > GameJournal.VERSION) {
+            throw new IllegalArgumentException("Unsupported journal version " + version);
+        }
+        int players = buffer.get(GameJournal.H_PLAYERS);
+        int saveLength = buffer.getInt(GameJournal.H_SAVE_LENGTH);
+        int seatFlags = buffer.getInt(GameJournal.H_SEAT_FLAGS);
+        int entriesOffset = (GameJournal.HEADER_SIZE + saveLength + GameJournal.ENTRY_SIZE - 1)
+                / GameJournal.ENTRY_SIZE * GameJournal.ENTRY_SIZE;
+        if (saveLength < 0 || entriesOffset > buffer.limit()) {
+            throw new IllegalArgumentException("Journal is truncated");
+        }
+
+        this.start = SaveGameArchive.wrap(
+                buffer.duplicate().position(GameJournal.HEADER_SIZE).limit(GameJournal.HEADER_SIZE + saveLength));
+        if (start.getCount() != 1 || start.getFormat().getPlayerCount() != players) {
+            throw new IllegalArgumentException("Journal does not start with a single saved position");
+        }
+        this.engine = start.loadGame(0, new Dice(new ScriptedDice()));
+        this.scratch = start.getFormat().newState();
+        this.keyframeSize = GameJournal.keyframeSize(start.getFormat());
+        for (int p = 0; p < players; p++) {
+            engine.setStrategy(p, new ScriptedStrategy((seatFlags & (1 << p)) != 0));
+        }
+        engine.setRecorder(new Checker());
+
+        this.entries = buffer.duplicate().position(entriesOffset).slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.keyframeTurns = new int[16];
+        this.keyframeRecords = new int[16];
+        this.keyframeCursors = new int[16];
+        this.end = index();
+    }
+
+    /**
+     * Maps a journal file and creates a replayer over it.
+     *
+     * @param path The file
+     * @return The replayer, positioned at the start of the game
+     * @throws IOException if the file cannot be read
+     */
+    public static JournalReplayer open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Journal is larger than 2 GB");
+            }
+            return new JournalReplayer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Scans the entries once, counting turns and indexing the keyframes.
+     *
+     * @return The end of the last complete turn; anything after it is a torn
+     *         tail from a crash while recording
+     */
+    private int index() {
+        addKeyframe(0, -1, 0);
+        int last = 0;
+        int at = 0;
+        while (at + GameJournal.ENTRY_SIZE <= entries.limit()) {
+            byte type = entries.get(at);
+            if (type == GameJournal.KEYFRAME) {
+                int next = at + GameJournal.ENTRY_SIZE + keyframeSize;
+                if (next > entries.limit()) {
+                    break;
+                }
+                addKeyframe(entries.getInt(at + 4), at + GameJournal.ENTRY_SIZE, next);
+                last = next;
+                at = next;
+                continue;
+            }
+            at += GameJournal.ENTRY_SIZE;
+            if (type == GameJournal.TURN_END) {
+                turnCount++;
+                last = at;
+            }
+        }
+        return last;
+    }
+
+    private void addKeyframe(int keyTurn, int record, int entryCursor) {
+        if (keyframeCount == keyframeTurns.length) {
+            keyframeTurns = Arrays.copyOf(keyframeTurns, keyframeCount * 2);
+            keyframeRecords = Arrays.copyOf(keyframeRecords, keyframeCount * 2);
+            keyframeCursors = Arrays.copyOf(keyframeCursors, keyframeCount * 2);
+        }
+        keyframeTurns[keyframeCount] = keyTurn;
+        keyframeRecords[keyframeCount] = record;
+        keyframeCursors[keyframeCount] = entryCursor;
+        keyframeCount++;
+    }
+
+    /**
+     * The game being replayed. Its state is the position after the last
+     * replayed turn; it must not be played by anything else.
+     *
+     * @return The engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Number of turns replayed so far.
+     *
+     * @return The turn count
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Number of complete turns in the journal.
+     *
+     * @return The turn count
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    public int getKeyframeCount() {
+        return keyframeCount;
+    }
+
+    public boolean hasNext() {
+        return cursor < end;
+    }
+
+    /**
+     * Replays the next recorded turn.
+     *
+     * @return false if the journal has no more turns
+     * @throws IllegalStateException if the game diverges from the journal
+     */
+    public boolean step() {
+        if (!hasNext()) {
+            return false;
+        }
+        engine.executeTurn();
+        return true;
+    }
+
+    /**
+     * Replays every remaining turn.
+     *
+     * @return Number of turns replayed by this call
+     * @throws IllegalStateException if the game diverges from the journal
+     */
+    public int replayAll() {
+        int from = turn;
+        while (step()) {
+            // Each step replays one turn
+        }
+        return turn - from;
+    }
+
+    /**
+     * Brings the game to the position after the given number of turns.
+     * Seeking backwards, or forwards past a keyframe, restores the nearest
+     * keyframe first; otherwise the game just plays on.
+     *
+     * @param target Number of turns to have been played, from 0 to
+     *               {@link #getTurnCount()}
+     * @throws IllegalStateException if the game diverges from the journal
+     */
+    public void seek(int target) {
+        if (target < 0 || target > turnCount) {
+            throw new IllegalArgumentException("Turn " + target + " is not in the journal (0-" + turnCount + ")");
+        }
+        int k = Arrays.binarySearch(keyframeTurns, 0, keyframeCount, target);
+        if (k < 0) {
+            k = -k - 2;
+        }
+        if (target < turn || keyframeTurns[k] > turn) {
+            restoreKeyframe(k);
+        }
+        while (turn < target) {
+            step();
+        }
+    }
+
+    private void restoreKeyframe(int k) {
+        if (keyframeRecords[k] < 0) {
+            start.readState(0, scratch);
+        } else {
+            start.getFormat().readState(entries, keyframeRecords[k], scratch);
+        }
+        engine.restoreSaveState(scratch);
+        cursor = keyframeCursors[k];
+        turn = keyframeTurns[k];
+        secondDie = false;
+    }
+
+    /**
+     * Moves past the entry at the cursor after checking its type and player.
+     *
+     * @return Offset of the entry
+     */
+    private int expect(byte type, int player) {
+        if (cursor >= end) {
+            throw new IllegalStateException("Journal ends in the middle of turn " + turn);
+        }
+        int at = cursor;
+        if (entries.get(at) != type || entries.get(at + 3) != player) {
+            throw new IllegalStateException("Replay diverges from the journal at turn " + turn
+                    + ": expected entry type " + type + " for player " + player
+                    + ", found type " + entries.get(at) + " for player " + entries.get(at + 3));
+        }
+        cursor += GameJournal.ENTRY_SIZE;
+        return at;
+    }
+
+    private boolean decision(int kind, int player, int tile) {
+        int at = expect(GameJournal.DECISION, player);
+        if (entries.get(at + 1) != kind || entries.getInt(at + 4) != tile) {
+            throw new IllegalStateException("Replay diverges from the journal at turn " + turn
+                    + ": decision " + kind + " on tile " + tile + " was not recorded");
+        }
+        return entries.get(at + 2) != 0;
+    }
+
+    /**
+     * Random source that serves the recorded dice. Dice roll the first die
+     * and then the second, each with {@code nextInt(6)}.
+     */
+    private class ScriptedDice implements RandomGenerator {
+        @Override
+        public int nextInt(int bound) {
+            if (bound != 6) {
+                throw new IllegalStateException("Replayed game asked for a random number that is not a die");
+            }
+            if (!secondDie) {
+                if (cursor >= end || entries.get(cursor) != GameJournal.DICE) {
+                    throw new IllegalStateException("Replay diverges from the journal at turn " + turn
+                            + ": dice were rolled but not recorded");
+                }
+                secondDie = true;
+                return entries.get(cursor + 1) - 1;
+            }
+            secondDie = false;
+            int die = entries.get(cursor + 2) - 1;
+            cursor += GameJournal.ENTRY_SIZE;
+            return die;
+        }
+
+        @Override
+        public long nextLong() {
+            throw new IllegalStateException("Replayed game asked for a random number that is not a die");
+        }
+    }
+
+    /**
+     * Strategy that answers every decision as recorded.
+     */
+    private class ScriptedStrategy implements PlayerStrategy {
+        private final boolean managesProperties;
+
+        ScriptedStrategy(boolean managesProperties) {
+            this.managesProperties = managesProperties;
+        }
+
+        @Override
+        public boolean shouldBuy(DecisionView view, int player, int tile) {
+            return decision(GameRecorder.DECISION_BUY, player, tile);
+        }
+
+        @Override
+        public boolean shouldPayJailFee(DecisionView view, int player) {
+            return decision(GameRecorder.DECISION_JAIL_FEE, player, -1);
+        }
+
+        @Override
+        public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+            return decision(GameRecorder.DECISION_BUILD, player, tile);
+        }
+
+        @Override
+        public boolean shouldMortgage(DecisionView view, int player, int tile) {
+            return decision(GameRecorder.DECISION_MORTGAGE, player, tile);
+        }
+
+        @Override
+        public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+            return decision(GameRecorder.DECISION_UNMORTGAGE, player, tile);
+        }
+
+        @Override
+        public boolean managesProperties() {
+            return managesProperties;
+        }
+    }
+
+    /**
+     * Checks the replayed card draws and turn ends against the journal.
+     * Dice and decisions are consumed where they are used.
+     */
+    private class Checker implements GameRecorder {
+        @Override
+        public void diceRolled(int player, int die1, int die2) {
+        }
+
+        @Override
+        public void cardDrawn(int player, boolean chance, int cardId) {
+            int at = expect(GameJournal.CARD, player);
+            if ((entries.get(at + 1) != 0) != chance || entries.get(at + 2) != cardId) {
+                throw new IllegalStateException("Replay diverges from the journal at turn " + turn
+                        + ": drew card " + cardId + " but the journal has card " + entries.get(at + 2));
+            }
+        }
+
+        @Override
+        public void decisionMade(int player, int kind, int tile, boolean answer) {
+        }
+
+        @Override
+        public void turnEnded(int player) {
+            int at = expect(GameJournal.TURN_END, player);
+            if (entries.getInt(at + 4) != turn) {
+                throw new IllegalStateException("Journal turn " + entries.getInt(at + 4)
+                        + " found where turn " + turn + " was expected");
+            }
+            turn++;
+            if (cursor < end && entries.get(cursor) == GameJournal.KEYFRAME) {
+                cursor += GameJournal.ENTRY_SIZE + keyframeSize;
+            }
+        }
+    }
+
+    /**
+     * Command-line entry point: replays a journal without a user interface
+     * and reports the speed and the final standings.
+     * Usage: {@code java JournalReplayer <file>}
+     *
+     * @param args The journal file
+     * @throws IOException if the journal cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 1) {
+            System.err.println("Usage: java JournalReplayer <file>");
+            System.exit(1);
+        }
+        JournalReplayer replayer = open(Path.of(args[0]));
+        long start = System.nanoTime();
+        int turns = replayer.replayAll();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Replayed %d turns in %.1f ms (%.0f turns/s)%n", turns, elapsed / 1e6,
+                turns / Math.max(elapsed / 1e9, 1e-9));
+        for (Player player : replayer.getEngine().getPlayers()) {
+            System.out.println(player.getName() + ": $" + player.getMoney()
+                    + (player.isBankrupt() ? " (bankrupt)" : ""));
+        }
+    }
+}
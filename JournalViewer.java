@@ -0,0 +1,198 @@
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.io.IOException;
+import java.nio.file.Path;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSlider;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Shows a recorded game on the regular board, one turn at a time at a
+ * watchable pace. The turns are replayed by a {@link JournalReplayer}; this
+ * window only draws the result of each turn and logs what happened. The
+ * timeline slider seeks to any turn through the journal's keyframes.
+ */
+public class JournalViewer extends JFrame {
+    private static final long serialVersionUID = 1L;
+    /** Time between replayed turns while playing. */
+    public static final int DEFAULT_TURN_DELAY_MS = 800;
+
+    private final JournalReplayer replayer;
+    private final GameBoardPanel boardPanel;
+    private final JTextArea logArea;
+    private final JLabel turnLabel;
+    private final JButton playButton;
+    private final JButton stepButton;
+    private final JSlider timeline;
+    private final Timer timer;
+    // Set while the slider is moved by the viewer rather than the user
+    private boolean updatingTimeline;
+
+    /**
+     * Creates a viewer positioned at the start of the recorded game.
+     *
+     * @param replayer The replayer to drive
+     * @param turnDelayMs Time between turns while playing
+     */
+    public JournalViewer(JournalReplayer replayer, int turnDelayMs) {
+        super("Monopoly - Xem lại ván chơi");
+        this.replayer = replayer;
+        GameEngine engine = replayer.getEngine();
+
+        boardPanel = new GameBoardPanel(engine.getBoard(), engine);
+        for (Player player : engine.getPlayers()) {
+            boardPanel.addPlayer(player);
+        }
+        refreshBoard();
+
+        logArea = new JTextArea(30, 40);
+        logArea.setEditable(false);
+        logArea.setLineWrap(true);
+        logArea.setWrapStyleWord(true);
+
+        turnLabel = new JLabel();
+        playButton = new JButton("Phát");
+        stepButton = new JButton("Bước tiếp");
+        timer = new Timer(turnDelayMs, e -> step());
+        playButton.addActionListener(e -> togglePlay());
+        stepButton.addActionListener(e -> step());
+        timeline = new JSlider(0, replayer.getTurnCount(), 0);
+        timeline.addChangeListener(e -> {
+            if (!updatingTimeline) {
+                seek(timeline.getValue());
+            }
+        });
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(playButton);
+        controls.add(stepButton);
+        controls.add(turnLabel);
+
+        setLayout(new BorderLayout());
+        add(boardPanel, BorderLayout.CENTER);
+        add(new JScrollPane(logArea), BorderLayout.EAST);
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(timeline, BorderLayout.NORTH);
+        bottom.add(controls, BorderLayout.SOUTH);
+        add(bottom, BorderLayout.SOUTH);
+        updateControls();
+
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    private void togglePlay() {
+        if (timer.isRunning()) {
+            timer.stop();
+        } else {
+            timer.start();
+        }
+        updateControls();
+    }
+
+    /**
+     * Replays one turn and draws it.
+     */
+    private void step() {
+        GameEngine engine = replayer.getEngine();
+        String player = engine.getCurrentPlayer().getName();
+        try {
+            if (!replayer.step()) {
+                timer.stop();
+                updateControls();
+                return;
+            }
+        } catch (IllegalStateException ex) {
+            timer.stop();
+            logArea.append("Replay stopped: " + ex.getMessage() + "\n");
+            stepButton.setEnabled(false);
+            playButton.setEnabled(false);
+            return;
+        }
+        logArea.append("Turn " + replayer.getTurn() + " - " + player + ":\n");
+        logArea.append(TurnEventFormatter.render(engine.getTurnEvents(), engine));
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+        refreshBoard();
+        updateControls();
+    }
+
+    /**
+     * Jumps to a turn chosen on the timeline.
+     *
+     * @param target Number of turns to have been played
+     */
+    private void seek(int target) {
+        if (target == replayer.getTurn()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            replayer.seek(target);
+        } catch (IllegalStateException ex) {
+            timer.stop();
+            logArea.append("Replay stopped: " + ex.getMessage() + "\n");
+            stepButton.setEnabled(false);
+            playButton.setEnabled(false);
+            return;
+        }
+        logArea.append("Jumped to turn " + target + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms\n");
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+        refreshBoard();
+        updateControls();
+    }
+
+    private void refreshBoard() {
+        GameEngine engine = replayer.getEngine();
+        for (Player player : engine.getPlayers()) {
+            boardPanel.updatePlayerPosition(player);
+        }
+        for (Space space : engine.getBoard()) {
+            if (space instanceof Buyable) {
+                boardPanel.updatePropertyOwnership((Buyable) space);
+            }
+        }
+        boardPanel.repaint();
+    }
+
+    private void updateControls() {
+        boolean more = replayer.hasNext();
+        playButton.setText(timer.isRunning() ? "Tạm dừng" : "Phát");
+        playButton.setEnabled(more);
+        stepButton.setEnabled(more && !timer.isRunning());
+        turnLabel.setText("Lượt " + replayer.getTurn() + "/" + replayer.getTurnCount());
+        updatingTimeline = true;
+        timeline.setValue(replayer.getTurn());
+        updatingTimeline = false;
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: {@code java JournalViewer <file> [turnDelayMs]}
+     *
+     * @param args The journal file and an optional delay between turns
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: java JournalViewer <file> [turnDelayMs]");
+            System.exit(1);
+        }
+        int delay = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TURN_DELAY_MS;
+        JournalReplayer replayer;
+        try {
+            replayer = JournalReplayer.open(Path.of(args[0]));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error opening journal: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        SwingUtilities.invokeLater(() -> new JournalViewer(replayer, delay).setVisible(true));
+    }
+}
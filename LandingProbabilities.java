@@ -0,0 +1,449 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Analytic long-run landing statistics for a board, computed from a Markov
+ * chain instead of by simulating games.
+ * <p>
+ * Each state of the chain is the position of a token after one dice roll:
+ * a board tile together with the number of doubles already rolled this turn
+ * (0-2), or a jail state counting the turns already spent in jail. The
+ * transitions follow the engine's rules: three doubles send the player to
+ * jail, Go To Jail spaces and cards send the player to jail, movement cards
+ * chain into further landings, and a player in jail tries for doubles for
+ * {@code jailRollAttempts} turns and then pays the fee and rolls normally.
+ * Cards are assumed to be drawn uniformly from their deck, and kept Get Out of
+ * Jail Free cards are ignored. The stationary distribution is found by power
+ * iteration over a sparse transition matrix.
+ */
+public class LandingProbabilities {
+    /** Turns the engine's players try for doubles before paying the jail fee. */
+    public static final int DEFAULT_JAIL_ROLL_ATTEMPTS = 2;
+
+    private static final int DOUBLES_LEVELS = 3;
+    private static final int MAX_CARD_CHAIN = 8;
+    private static final double TOLERANCE = 1e-13;
+    private static final int MAX_ITERATIONS = 100000;
+
+    private final BoardSpec board;
+    private final CardTable chanceCards;
+    private final CardTable communityChestCards;
+    private final int size;
+    private final int jailTile;
+    private final int jailRollAttempts;
+    private final int stateCount;
+
+    // Sparse transition matrix, one row per source state
+    private final int[] rowStart;
+    private final int[] targets;
+    private final double[] weights;
+
+    private final double[] stationary;
+    private final double[] turnEnd;
+    private final double[] landings;
+    private final double[] nearestCardLandings;
+    private final double[] diceTotals;
+    private final double inJail;
+    private final double rollsPerTurn;
+    private final int iterations;
+
+    /**
+     * Solves the chain for a board using the engine's jail policy.
+     *
+     * @param board The board tables
+     * @param chanceCards The Chance deck
+     * @param communityChestCards The Community Chest deck
+     */
+    public LandingProbabilities(BoardSpec board, CardTable chanceCards, CardTable communityChestCards) {
+        this(board, chanceCards, communityChestCards, DEFAULT_JAIL_ROLL_ATTEMPTS);
+    }
+
+    /**
+     * Solves the chain for a board.
+     *
+     * @param board The board tables
+     * @param chanceCards The Chance deck
+     * @param communityChestCards The Community Chest deck
+     * @param jailRollAttempts Turns a jailed player tries for doubles before paying
+     *                         (0 pays immediately; capped by the forced fee rule)
+     */
+    public LandingProbabilities(BoardSpec board, CardTable chanceCards, CardTable communityChestCards,
+                                int jailRollAttempts) {
+        this.board = board;
+        this.chanceCards = chanceCards;
+        this.communityChestCards = communityChestCards;
+        this.size = board.getSize();
+        this.jailTile = GameEngine.JAIL_POSITION;
+        this.jailRollAttempts = Math.max(0, Math.min(jailRollAttempts, GameEngine.MAX_JAIL_TURNS));
+        this.stateCount = size * DOUBLES_LEVELS + GameEngine.MAX_JAIL_TURNS;
+
+        // Build the sparse matrix row by row through a dense scratch row
+        double[] row = new double[stateCount];
+        double[] outcome = new double[size + 1];
+        int[] starts = new int[stateCount + 1];
+        int[] cols = new int[stateCount * 16];
+        double[] vals = new double[stateCount * 16];
+        int nonZero = 0;
+        for (int s = 0; s < stateCount; s++) {
+            Arrays.fill(row, 0);
+            expand(s, 1.0, row, outcome, null);
+            starts[s] = nonZero;
+            for (int t = 0; t < stateCount; t++) {
+                if (row[t] != 0) {
+                    if (nonZero == cols.length) {
+                        cols = Arrays.copyOf(cols, nonZero * 2);
+                        vals = Arrays.copyOf(vals, nonZero * 2);
+                    }
+                    cols[nonZero] = t;
+                    vals[nonZero] = row[t];
+                    nonZero++;
+                }
+            }
+        }
+        starts[stateCount] = nonZero;
+        this.rowStart = starts;
+        this.targets = Arrays.copyOf(cols, nonZero);
+        this.weights = Arrays.copyOf(vals, nonZero);
+
+        // Power iteration from a token on GO
+        double[] current = new double[stateCount];
+        double[] next = new double[stateCount];
+        current[stateIndex(0, 0)] = 1.0;
+        int iteration = 0;
+        while (iteration < MAX_ITERATIONS) {
+            Arrays.fill(next, 0);
+            for (int s = 0; s < stateCount; s++) {
+                double mass = current[s];
+                if (mass == 0) {
+                    continue;
+                }
+                for (int k = rowStart[s]; k < rowStart[s + 1]; k++) {
+                    next[targets[k]] += mass * weights[k];
+                }
+            }
+            // Averaging consecutive iterates damps any periodic component
+            double change = 0;
+            for (int s = 0; s < stateCount; s++) {
+                double value = 0.5 * (current[s] + next[s]);
+                change += Math.abs(value - current[s]);
+                current[s] = value;
+            }
+            iteration++;
+            if (change < TOLERANCE) {
+                break;
+            }
+        }
+        this.stationary = current;
+        this.iterations = iteration;
+
+        // A turn ends on every state without a pending extra roll
+        double turnEndMass = 0;
+        double jailMass = 0;
+        for (int t = 0; t < size; t++) {
+            turnEndMass += stationary[stateIndex(t, 0)];
+        }
+        for (int j = 0; j < GameEngine.MAX_JAIL_TURNS; j++) {
+            jailMass += stationary[jailIndex(j)];
+        }
+        turnEndMass += jailMass;
+        this.rollsPerTurn = 1.0 / turnEndMass;
+        this.inJail = jailMass / turnEndMass;
+        this.turnEnd = new double[size];
+        for (int t = 0; t < size; t++) {
+            turnEnd[t] = stationary[stateIndex(t, 0)] / turnEndMass;
+        }
+
+        // Replay one step from the stationary distribution to count every
+        // stop a token makes, including spaces it leaves again via a card
+        Arrivals arrivals = new Arrivals(size);
+        for (int s = 0; s < stateCount; s++) {
+            if (stationary[s] > 0) {
+                expand(s, stationary[s] / turnEndMass, row, outcome, arrivals);
+            }
+        }
+        this.landings = arrivals.all;
+        this.nearestCardLandings = arrivals.nearest;
+        this.diceTotals = arrivals.diceTotal;
+    }
+
+    /**
+     * Solves the chain for a board and decks as created by {@link BoardInitializer}
+     * and {@link CardDeckManager}.
+     *
+     * @param board The board spaces
+     * @param chanceCards The Chance cards
+     * @param communityChestCards The Community Chest cards
+     * @return The solved probabilities
+     */
+    public static LandingProbabilities forBoard(List<Space> board, List<Card> chanceCards,
+                                                List<Card> communityChestCards) {
+        return new LandingProbabilities(new BoardSpec(board), new CardTable(chanceCards),
+                new CardTable(communityChestCards));
+    }
+
+    /** Running totals of every stop a token makes, scaled per turn. */
+    private static class Arrivals {
+        final double[] all;
+        final double[] nearest;
+        final double[] diceTotal;
+
+        Arrivals(int size) {
+            all = new double[size];
+            nearest = new double[size];
+            diceTotal = new double[size];
+        }
+    }
+
+    private int stateIndex(int tile, int doubles) {
+        return doubles * size + tile;
+    }
+
+    private int jailIndex(int turns) {
+        return size * DOUBLES_LEVELS + turns;
+    }
+
+    /**
+     * Adds one step of the chain from a state to a row.
+     *
+     * @param state The source state
+     * @param scale Probability mass of the source
+     * @param row Receives the mass of each target state
+     * @param outcome Scratch space for landing resolution
+     * @param arrivals Receives every stop made, or null
+     */
+    private void expand(int state, double scale, double[] row, double[] outcome, Arrivals arrivals) {
+        if (state < size * DOUBLES_LEVELS) {
+            rollFrom(state % size, state / size, scale, row, outcome, arrivals);
+            return;
+        }
+        int turns = state - size * DOUBLES_LEVELS;
+        if (turns >= jailRollAttempts) {
+            // Pay the fee and roll normally
+            rollFrom(jailTile, 0, scale, row, outcome, arrivals);
+            return;
+        }
+        double w = scale / 36.0;
+        for (int a = 1; a <= 6; a++) {
+            for (int b = 1; b <= 6; b++) {
+                if (a == b) {
+                    // Released; the engine then rolls again as after a double
+                    move(jailTile, a + b, 1, w, row, outcome, arrivals);
+                } else if (turns + 1 >= GameEngine.MAX_JAIL_TURNS) {
+                    // Forced fee, then a normal roll in the same turn
+                    rollFrom(jailTile, 0, w, row, outcome, arrivals);
+                } else {
+                    row[jailIndex(turns + 1)] += w;
+                }
+            }
+        }
+    }
+
+    private void rollFrom(int tile, int doubles, double scale, double[] row, double[] outcome,
+                          Arrivals arrivals) {
+        double w = scale / 36.0;
+        for (int a = 1; a <= 6; a++) {
+            for (int b = 1; b <= 6; b++) {
+                if (a != b) {
+                    move(tile, a + b, 0, w, row, outcome, arrivals);
+                } else if (doubles + 1 >= DOUBLES_LEVELS) {
+                    row[jailIndex(0)] += w;
+                } else {
+                    move(tile, a + b, doubles + 1, w, row, outcome, arrivals);
+                }
+            }
+        }
+    }
+
+    private void move(int from, int total, int nextDoubles, double w, double[] row, double[] outcome,
+                      Arrivals arrivals) {
+        Arrays.fill(outcome, 0);
+        resolve((from + total) % size, w, total, 0, false, outcome, arrivals);
+        for (int t = 0; t < size; t++) {
+            if (outcome[t] != 0) {
+                row[stateIndex(t, nextDoubles)] += outcome[t];
+            }
+        }
+        row[jailIndex(0)] += outcome[size];
+    }
+
+    /**
+     * Follows a landing through Go To Jail and any card moves.
+     *
+     * @param tile The space landed on
+     * @param w Probability of this landing
+     * @param total The dice total of the roll that caused it
+     * @param depth Number of card moves so far
+     * @param nearest True if a "nearest" card caused this landing
+     * @param outcome Receives the final tile ({@code size} = jail)
+     * @param arrivals Receives every stop made, or null
+     */
+    private void resolve(int tile, double w, int total, int depth, boolean nearest, double[] outcome,
+                         Arrivals arrivals) {
+        if (arrivals != null) {
+            arrivals.all[tile] += w;
+            if (nearest) {
+                arrivals.nearest[tile] += w;
+            } else {
+                arrivals.diceTotal[tile] += w * total;
+            }
+        }
+        SpaceType type = board.getType(tile);
+        if (type == SpaceType.GO_TO_JAIL) {
+            outcome[size] += w;
+            return;
+        }
+        if ((type != SpaceType.CHANCE && type != SpaceType.COMMUNITY_CHEST) || depth >= MAX_CARD_CHAIN) {
+            outcome[tile] += w;
+            return;
+        }
+
+        CardTable table = type == SpaceType.CHANCE ? chanceCards : communityChestCards;
+        double cw = w / table.getSize();
+        for (int id = 0; id < table.getSize(); id++) {
+            switch (table.getType(id)) {
+                case MOVEMENT:
+                    resolve(table.getValue(id), cw, total, depth + 1, false, outcome, arrivals);
+                    break;
+                case GO_TO_JAIL:
+                    outcome[size] += cw;
+                    break;
+                case NEAREST_RAILROAD:
+                case NEAREST_UTILITY: {
+                    SpaceType target = table.getType(id) == CardType.NEAREST_RAILROAD
+                            ? SpaceType.RAILROAD : SpaceType.UTILITY;
+                    int next = board.getNextOfType(target, tile);
+                    if (next == -1) {
+                        outcome[tile] += cw;
+                    } else {
+                        resolve(next, cw, total, depth + 1, true, outcome, arrivals);
+                    }
+                    break;
+                }
+                case MOVE_BACKWARD:
+                    resolve((tile - table.getValue(id) + size) % size, cw, total, depth + 1, false,
+                            outcome, arrivals);
+                    break;
+                default:
+                    outcome[tile] += cw;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Gets the long-run probability that a turn ends on a tile.
+     * For the jail tile this covers only players just visiting; see
+     * {@link #getInJailProbability()}.
+     *
+     * @param tile Board index
+     * @return The probability
+     */
+    public double getTurnEndProbability(int tile) {
+        return turnEnd[tile];
+    }
+
+    /**
+     * Gets the long-run probability that a turn ends with the player in jail.
+     *
+     * @return The probability
+     */
+    public double getInJailProbability() {
+        return inJail;
+    }
+
+    /**
+     * Gets the expected number of times per turn a player stops on a tile,
+     * counting every roll of the turn and every card move.
+     * This is how often rent or tax on the tile is paid.
+     *
+     * @param tile Board index
+     * @return Expected landings per turn
+     */
+    public double getLandingsPerTurn(int tile) {
+        return landings[tile];
+    }
+
+    /**
+     * Gets the part of {@link #getLandingsPerTurn(int)} that comes from
+     * "advance to nearest railroad/utility" cards.
+     *
+     * @param tile Board index
+     * @return Expected card landings per turn
+     */
+    public double getNearestCardLandingsPerTurn(int tile) {
+        return nearestCardLandings[tile];
+    }
+
+    /**
+     * Gets the expected sum of the dice totals of landings on a tile per turn,
+     * excluding "nearest" card landings. Utility rent is this times the multiplier.
+     *
+     * @param tile Board index
+     * @return Dice-weighted landings per turn
+     */
+    public double getDiceTotalPerTurn(int tile) {
+        return diceTotals[tile];
+    }
+
+    /**
+     * Gets the probability that a turn ends on any property of a colour group.
+     *
+     * @param group The group id from {@link BoardSpec#getGroup(int)}
+     * @return The summed probability
+     */
+    public double getGroupTurnEndProbability(int group) {
+        double total = 0;
+        for (int tile : board.getGroupMembers(group)) {
+            total += turnEnd[tile];
+        }
+        return total;
+    }
+
+    /**
+     * Gets the expected landings per turn on any property of a colour group.
+     *
+     * @param group The group id from {@link BoardSpec#getGroup(int)}
+     * @return The summed landings
+     */
+    public double getGroupLandingsPerTurn(int group) {
+        double total = 0;
+        for (int tile : board.getGroupMembers(group)) {
+            total += landings[tile];
+        }
+        return total;
+    }
+
+    /**
+     * Gets the expected number of dice rolls in a turn, including jail rolls.
+     *
+     * @return Rolls per turn
+     */
+    public double getRollsPerTurn() {
+        return rollsPerTurn;
+    }
+
+    public BoardSpec getBoard() {
+        return board;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Landing probabilities (%d iterations, %.3f rolls per turn)%n",
+                iterations, rollsPerTurn));
+        for (int t = 0; t < size; t++) {
+            sb.append(String.format("%2d %-28s end %6.3f%%  landings %.4f%n",
+                    t, board.getName(t), turnEnd[t] * 100, landings[t]));
+        }
+        sb.append(String.format("   %-28s end %6.3f%%%n", "In jail", inJail * 100));
+        for (int g = 0; g < board.getGroupCount(); g++) {
+            sb.append(String.format("   %-28s end %6.3f%%  landings %.4f%n", board.getGroupName(g),
+                    getGroupTurnEndProbability(g) * 100, getGroupLandingsPerTurn(g)));
+        }
+        return sb.toString();
+    }
+}
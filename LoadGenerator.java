@@ -0,0 +1,224 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures a {@link GameServer} on localhost by connecting many bot clients
+ * that join tables, answer every question at random and join again after
+ * each game. A share of the clients can be made deliberately slow readers to
+ * exercise the server's backpressure. Without a port the generator starts a
+ * server in the same JVM.
+ */
+public class LoadGenerator {
+    private final int port;
+    private final int clients;
+    private final int seats;
+    private final int slowClients;
+    private final LongAdder games = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder answers = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * Creates a load generator.
+     *
+     * @param port The server's port on the loopback interface
+     * @param clients Number of clients to connect
+     * @param seats Seats per table the clients ask for
+     * @param slowClients How many of the clients read slowly
+     */
+    public LoadGenerator(int port, int clients, int seats, int slowClients) {
+        this.port = port;
+        this.clients = clients;
+        this.seats = seats;
+        this.slowClients = slowClients;
+    }
+
+    /**
+     * Runs the clients for a while, then disconnects them.
+     *
+     * @param seconds How long to run
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run(int seconds) throws InterruptedException {
+        ExecutorService threads = GameServer.newThreadPerTaskExecutor();
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            boolean slow = i < slowClients;
+            String name = (slow ? "Slow" : "Bot") + i;
+            threads.execute(() -> {
+                try {
+                    playClient(name, slow);
+                } catch (IOException e) {
+                    if (running) {
+                        failures.increment();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        done.await(10, TimeUnit.SECONDS);
+        threads.shutdownNow();
+    }
+
+    private void playClient(String name, boolean slow) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            // Short timeout so that the client notices the end of the run
+            socket.setSoTimeout(500);
+            // A small receive buffer lets a slow reader fall behind quickly
+            if (slow) {
+                socket.setReceiveBufferSize(1024);
+            }
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                    StandardCharsets.UTF_8));
+            send(out, "JOIN " + seats + " " + name);
+            while (running) {
+                String line;
+                try {
+                    line = in.readLine();
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                if (line == null) {
+                    return;
+                }
+                messages.increment();
+                if (slow) {
+                    sleep(20);
+                }
+                if (line.startsWith("ASK ")) {
+                    String id = line.split(" ", 3)[1];
+                    send(out, "ANSWER " + id + (ThreadLocalRandom.current().nextInt(4) != 0 ? " Y" : " N"));
+                    answers.increment();
+                } else if (line.startsWith("OVER ")) {
+                    games.increment();
+                    send(out, "JOIN " + seats + " " + name);
+                }
+            }
+            send(out, "QUIT");
+        }
+    }
+
+    private static void send(BufferedWriter out, String message) throws IOException {
+        out.write(message);
+        out.newLine();
+        out.flush();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Asks a server for its statistics line.
+     *
+     * @param port The server's port on the loopback interface
+     * @return The {@code STATS} line
+     * @throws IOException if the server cannot be reached
+     */
+    public static String queryStats(int port) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                    StandardCharsets.UTF_8));
+            send(out, "STATS");
+            String stats = in.readLine();
+            send(out, "QUIT");
+            return stats;
+        }
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    public long getAnswers() {
+        return answers.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: {@code java LoadGenerator [clients] [seconds] [seats] [slowClients] [port]}
+     * <p>
+     * Without a port a server is started in this JVM.
+     *
+     * @param args Optional client count, duration, seats per table, slow client count and port
+     * @throws IOException if the server cannot be started or reached
+     * @throws InterruptedException if interrupted while running
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int seats = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int slowClients = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        GameServer server = args.length > 4 ? null
+                : new GameServer(0, BatchSimulator.DEFAULT_MAX_TURNS, System.nanoTime());
+        int port = server != null ? server.getPort() : Integer.parseInt(args[4]);
+        try {
+            System.out.println("Connecting " + clients + " clients (" + slowClients + " slow) to port " + port
+                    + " for " + seconds + " s on " + (GameServer.hasVirtualThreads() ? "virtual" : "platform")
+                    + " threads...");
+            LoadGenerator generator = new LoadGenerator(port, clients, seats, slowClients);
+            long start = System.nanoTime();
+            Thread reporter = new Thread(() -> {
+                try {
+                    while (true) {
+                        Thread.sleep(2000);
+                        System.out.println(queryStats(port));
+                    }
+                } catch (InterruptedException | IOException e) {
+                    // Run finished
+                }
+            });
+            reporter.setDaemon(true);
+            reporter.start();
+            generator.run(seconds);
+            reporter.interrupt();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.println(queryStats(port));
+            System.out.printf("Clients finished %d games, received %d messages (%.0f/s), answered %d questions,"
+                    + " %d connection failures%n", generator.getGames(), generator.getMessages(),
+                    generator.getMessages() / elapsed, generator.getAnswers(), generator.getFailures());
+            if (server != null) {
+                System.out.printf("Server: %d tables hosted, %.0f turns/s on average, %d slow clients evicted%n",
+                        server.getTablesHosted(), server.getAverageTurnsPerSecond(), server.getEvicted());
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+}
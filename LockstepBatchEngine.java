@@ -0,0 +1,967 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plays many games side by side in lockstep: every call to {@link #step(int)}
+ * plays one turn in each running game. The state of all games lives in
+ * struct-of-arrays form across games (money, positions, owners and decks of
+ * every game in a handful of primitive arrays indexed by game), and each turn
+ * is played in phases that sweep all games at once.
+ * <p>
+ * The dice and the move, which every turn has, run as short counted loops
+ * over the whole batch with masks instead of branches, so the JIT can unroll
+ * them and keep them free of calls and allocation; the rarer parts of a turn
+ * (jail, landing, cards) are handled per game afterwards. The rules are those
+ * of {@link GameStateEngine} with every seat playing
+ * {@link PlayerStrategy#DEFAULT}, and the dice reproduce {@link GameRandom}
+ * exactly, so a game loaded into a lane plays out turn for turn as it would
+ * in {@link GameEngine}.
+ */
+public class LockstepBatchEngine {
+    private static final int RAILROAD_BASE_RENT = 25;
+    private static final int DIE_FACES = 6;
+
+    private final BoardSpec board;
+    private final CardTable chanceCards;
+    private final CardTable communityChestCards;
+    private final int goSalary;
+    private final int jailFee;
+    private final int maxJailTurns;
+    private final int startingMoney;
+    private final int lanes;
+    private final int players;
+    private final int tiles;
+    private final int chanceSize;
+    private final int communityChestSize;
+
+    // Per game
+    private final long[] seed;
+    private final long[] gamma;
+    private final int[] die1;
+    private final int[] die2;
+    private final int[] doubles;
+    private final int[] current;
+    private final int[] turns;
+    private final boolean[] over;
+    // -1 for games that roll and move in the current step, 0 otherwise
+    private final int[] moving;
+    // Index of the current player's entry in the per-player arrays
+    private final int[] seat;
+
+    // Per game and player, at game * players + player
+    private final int[] money;
+    private final int[] position;
+    private final byte[] flags;
+    private final byte[] jailTurns;
+    private final byte[] jailCards;
+
+    // Per game and space, at game * tiles + tile
+    private final byte[] owner;
+    private final byte[] buildings;
+    private final boolean[] mortgaged;
+
+    // Per game decks: ring buffers of standard card ids, read from head
+    private final byte[] chanceDeck;
+    private final byte[] communityChestDeck;
+    private final int[] chanceHead;
+    private final int[] chanceCount;
+    private final int[] communityChestHead;
+    private final int[] communityChestCount;
+    private final byte[] chanceHolder;
+    private final byte[] communityChestHolder;
+
+    /**
+     * Creates an engine with every lane empty.
+     *
+     * @param board The board tables
+     * @param chanceCards The standard Chance card table
+     * @param communityChestCards The standard Community Chest card table
+     * @param rules Salary, jail and starting money rules; rents come from the board
+     * @param lanes Number of games played side by side
+     * @param players Number of players in every game
+     */
+    public LockstepBatchEngine(BoardSpec board, CardTable chanceCards, CardTable communityChestCards,
+                               GameRules rules, int lanes, int players) {
+        if (players < 2) {
+            throw new IllegalArgumentException("At least two players are required");
+        }
+        this.board = board;
+        this.chanceCards = chanceCards;
+        this.communityChestCards = communityChestCards;
+        this.goSalary = rules.getGoSalary();
+        this.jailFee = rules.getJailFee();
+        this.maxJailTurns = rules.getMaxJailTurns();
+        this.startingMoney = rules.getStartingMoney();
+        this.lanes = lanes;
+        this.players = players;
+        this.tiles = board.getSize();
+        this.chanceSize = chanceCards.getSize();
+        this.communityChestSize = communityChestCards.getSize();
+
+        seed = new long[lanes];
+        gamma = new long[lanes];
+        die1 = new int[lanes];
+        die2 = new int[lanes];
+        doubles = new int[lanes];
+        current = new int[lanes];
+        turns = new int[lanes];
+        over = new boolean[lanes];
+        moving = new int[lanes];
+        seat = new int[lanes];
+
+        money = new int[lanes * players];
+        position = new int[lanes * players];
+        flags = new byte[lanes * players];
+        jailTurns = new byte[lanes * players];
+        jailCards = new byte[lanes * players];
+
+        owner = new byte[lanes * tiles];
+        buildings = new byte[lanes * tiles];
+        mortgaged = new boolean[lanes * tiles];
+
+        chanceDeck = new byte[lanes * chanceSize];
+        communityChestDeck = new byte[lanes * communityChestSize];
+        chanceHead = new int[lanes];
+        chanceCount = new int[lanes];
+        communityChestHead = new int[lanes];
+        communityChestCount = new int[lanes];
+        chanceHolder = new byte[lanes * chanceSize];
+        communityChestHolder = new byte[lanes * communityChestSize];
+
+        Arrays.fill(over, true);
+    }
+
+    /**
+     * Creates an engine for the standard board and decks.
+     *
+     * @param lanes Number of games played side by side
+     * @param players Number of players in every game
+     */
+    public LockstepBatchEngine(int lanes, int players) {
+        this(GameRules.DEFAULT, lanes, players);
+    }
+
+    /**
+     * Creates an engine for the standard board and decks played by the given rules.
+     *
+     * @param rules The rules
+     * @param lanes Number of games played side by side
+     * @param players Number of players in every game
+     */
+    public LockstepBatchEngine(GameRules rules, int lanes, int players) {
+        this(new BoardSpec(BoardInitializer.createBoard(rules)), new CardTable(CardDeckManager.createChanceCards()),
+                new CardTable(CardDeckManager.createCommunityChestCards()), rules, lanes, players);
+    }
+
+    public int getLaneCount() {
+        return lanes;
+    }
+
+    public int getPlayerCount() {
+        return players;
+    }
+
+    /**
+     * Starts a new game in a lane, set up exactly as
+     * {@link GameEngine#createSeeded(java.util.List, GameRandom, GameRules)}
+     * would set it up from the same source and rules.
+     *
+     * @param lane The lane
+     * @param source The random source the game's streams are split from
+     */
+    public void loadNewGame(int lane, GameRandom source) {
+        GameRandom dice = source.split();
+        int base = lane * players;
+        for (int p = base; p < base + players; p++) {
+            money[p] = startingMoney;
+            position[p] = 0;
+            flags[p] = 0;
+            jailTurns[p] = 0;
+            jailCards[p] = 0;
+        }
+        Arrays.fill(owner, lane * tiles, (lane + 1) * tiles, GameState.NO_OWNER);
+        Arrays.fill(buildings, lane * tiles, (lane + 1) * tiles, (byte) 0);
+        Arrays.fill(mortgaged, lane * tiles, (lane + 1) * tiles, false);
+        newDeck(chanceDeck, chanceHolder, lane * chanceSize, chanceSize, source.split());
+        newDeck(communityChestDeck, communityChestHolder, lane * communityChestSize, communityChestSize,
+                source.split());
+        chanceHead[lane] = 0;
+        chanceCount[lane] = chanceSize;
+        communityChestHead[lane] = 0;
+        communityChestCount[lane] = communityChestSize;
+        startLane(lane, dice, 0, 0, 0, 0, false);
+    }
+
+    /**
+     * Shuffles a deck of standard ids the way {@link CardDeckManager#shuffle}
+     * shuffles the cards.
+     */
+    private static void newDeck(byte[] deck, byte[] holders, int offset, int size, GameRandom random) {
+        for (int id = 0; id < size; id++) {
+            deck[offset + id] = (byte) id;
+            holders[offset + id] = GameState.NO_OWNER;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = deck[offset + i];
+            deck[offset + i] = deck[offset + j];
+            deck[offset + j] = tmp;
+        }
+    }
+
+    /**
+     * Loads a game in progress into a lane.
+     *
+     * @param lane The lane
+     * @param state The game, with cards identified by their standard index as
+     *              {@link GameEngine#captureSaveState} records them
+     * @param dice The game's dice stream; it is copied, not advanced
+     */
+    public void load(int lane, GameState state, GameRandom dice) {
+        if (state.playerCount != players || state.tileCount != tiles
+                || state.chanceDeck.length != chanceSize || state.communityChestDeck.length != communityChestSize) {
+            throw new IllegalArgumentException("State does not fit this engine");
+        }
+        int base = lane * players;
+        for (int p = 0; p < players; p++) {
+            money[base + p] = state.money[p];
+            position[base + p] = state.position[p];
+            flags[base + p] = state.flags[p];
+            jailTurns[base + p] = state.jailTurns[p];
+            jailCards[base + p] = state.jailCards[p];
+        }
+        System.arraycopy(state.owner, 0, owner, lane * tiles, tiles);
+        System.arraycopy(state.buildings, 0, buildings, lane * tiles, tiles);
+        for (int t = 0; t < tiles; t++) {
+            mortgaged[lane * tiles + t] = state.isMortgaged(t);
+        }
+        System.arraycopy(state.chanceDeck, 0, chanceDeck, lane * chanceSize, chanceSize);
+        System.arraycopy(state.chanceHolder, 0, chanceHolder, lane * chanceSize, chanceSize);
+        System.arraycopy(state.communityChestDeck, 0, communityChestDeck, lane * communityChestSize,
+                communityChestSize);
+        System.arraycopy(state.communityChestHolder, 0, communityChestHolder, lane * communityChestSize,
+                communityChestSize);
+        chanceHead[lane] = state.chanceHead;
+        chanceCount[lane] = state.chanceCount;
+        communityChestHead[lane] = state.communityChestHead;
+        communityChestCount[lane] = state.communityChestCount;
+        startLane(lane, dice, state.currentPlayer, state.die1, state.die2, state.consecutiveDoubles,
+                state.gameOver);
+    }
+
+    private void startLane(int lane, GameRandom dice, int player, int d1, int d2, int consecutiveDoubles,
+                           boolean gameOver) {
+        seed[lane] = dice.getSeed();
+        gamma[lane] = dice.getGamma();
+        current[lane] = player;
+        die1[lane] = d1;
+        die2[lane] = d2;
+        doubles[lane] = consecutiveDoubles;
+        turns[lane] = 0;
+        over[lane] = gameOver;
+    }
+
+    /**
+     * Copies a lane's game out, with cards identified by their standard index.
+     *
+     * @param lane The lane
+     * @param state The state to overwrite
+     */
+    public void store(int lane, GameState state) {
+        int base = lane * players;
+        for (int p = 0; p < players; p++) {
+            state.money[p] = money[base + p];
+            state.position[p] = (byte) position[base + p];
+            state.flags[p] = flags[base + p];
+            state.jailTurns[p] = jailTurns[base + p];
+            state.jailCards[p] = jailCards[base + p];
+        }
+        System.arraycopy(owner, lane * tiles, state.owner, 0, tiles);
+        System.arraycopy(buildings, lane * tiles, state.buildings, 0, tiles);
+        for (int t = 0; t < tiles; t++) {
+            state.setMortgaged(t, mortgaged[lane * tiles + t]);
+        }
+        System.arraycopy(chanceDeck, lane * chanceSize, state.chanceDeck, 0, chanceSize);
+        System.arraycopy(chanceHolder, lane * chanceSize, state.chanceHolder, 0, chanceSize);
+        System.arraycopy(communityChestDeck, lane * communityChestSize, state.communityChestDeck, 0,
+                communityChestSize);
+        System.arraycopy(communityChestHolder, lane * communityChestSize, state.communityChestHolder, 0,
+                communityChestSize);
+        state.chanceHead = chanceHead[lane];
+        state.chanceCount = chanceCount[lane];
+        state.communityChestHead = communityChestHead[lane];
+        state.communityChestCount = communityChestCount[lane];
+        state.currentPlayer = current[lane];
+        state.die1 = die1[lane];
+        state.die2 = die2[lane];
+        state.consecutiveDoubles = doubles[lane];
+        state.gameOver = over[lane];
+    }
+
+    /**
+     * Gets a lane's dice stream at its current position.
+     *
+     * @param lane The lane
+     * @return A copy of the stream
+     */
+    public GameRandom getDiceRandom(int lane) {
+        return new GameRandom(seed[lane], gamma[lane]);
+    }
+
+    /**
+     * Gets the number of turns played in a lane since its game was loaded.
+     *
+     * @param lane The lane
+     * @return Number of turns
+     */
+    public int getTurns(int lane) {
+        return turns[lane];
+    }
+
+    public boolean isGameOver(int lane) {
+        return over[lane];
+    }
+
+    /**
+     * Finds the winner of a lane's game.
+     *
+     * @param lane The lane
+     * @return The only solvent seat of a finished game, or -1
+     */
+    public int getWinner(int lane) {
+        if (!over[lane]) {
+            return -1;
+        }
+        for (int p = 0; p < players; p++) {
+            if ((flags[lane * players + p] & GameState.FLAG_BANKRUPT) == 0) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Takes a lane out of play until a new game is loaded into it.
+     *
+     * @param lane The lane
+     */
+    public void clear(int lane) {
+        over[lane] = true;
+    }
+
+    /**
+     * Plays one turn in every lane whose game is not over and has played
+     * fewer than {@code maxTurns} turns.
+     *
+     * @param maxTurns Turn limit per game
+     * @return Number of lanes that played a turn
+     */
+    public int step(int maxTurns) {
+        int running = beginTurns(maxTurns);
+        if (running == 0) {
+            return 0;
+        }
+        rollDice();
+        countDoubles();
+        moveTokens();
+        finishTurns();
+        return running;
+    }
+
+    /**
+     * Plays until every lane is over or at the turn limit.
+     *
+     * @param maxTurns Turn limit per game
+     * @return Total number of turns played
+     */
+    public long run(int maxTurns) {
+        long total = 0;
+        int running;
+        while ((running = step(maxTurns)) > 0) {
+            total += running;
+        }
+        return total;
+    }
+
+    /**
+     * Phase 1, per game: skips bankrupt players and plays out jail turns;
+     * marks the games whose current player rolls and moves normally.
+     */
+    private int beginTurns(int maxTurns) {
+        int running = 0;
+        for (int g = 0; g < lanes; g++) {
+            moving[g] = 0;
+            if (over[g] || turns[g] >= maxTurns) {
+                continue;
+            }
+            running++;
+            turns[g]++;
+            int p = g * players + current[g];
+            seat[g] = p;
+            if ((flags[p] & GameState.FLAG_BANKRUPT) != 0) {
+                advance(g);
+                continue;
+            }
+            if ((flags[p] & GameState.FLAG_IN_JAIL) != 0) {
+                handleJailTurn(g, p);
+                if ((flags[p] & GameState.FLAG_IN_JAIL) != 0) {
+                    advance(g);
+                    continue;
+                }
+            }
+            moving[g] = -1;
+        }
+        return running;
+    }
+
+    /**
+     * Phase 2, all games: rolls both dice for the moving games. Two SplitMix
+     * steps per game without branches; the rare draws that
+     * {@link java.util.random.RandomGenerator#nextInt(int)} would reject are
+     * flagged and redone one at a time.
+     */
+    private void rollDice() {
+        int rejected = 0;
+        for (int g = 0; g < lanes; g++) {
+            long mask = moving[g];
+            long s1 = seed[g] + gamma[g];
+            long s2 = s1 + gamma[g];
+            int u1 = mix32(s1) >>> 1;
+            int u2 = mix32(s2) >>> 1;
+            int r1 = u1 % DIE_FACES;
+            int r2 = u2 % DIE_FACES;
+            rejected |= ((u1 + (DIE_FACES - 1) - r1) | (u2 + (DIE_FACES - 1) - r2)) & (int) mask;
+            seed[g] = (s2 & mask) | (seed[g] & ~mask);
+            die1[g] = ((r1 + 1) & (int) mask) | (die1[g] & ~(int) mask);
+            die2[g] = ((r2 + 1) & (int) mask) | (die2[g] & ~(int) mask);
+        }
+        if (rejected < 0) {
+            for (int g = 0; g < lanes; g++) {
+                if (moving[g] != 0) {
+                    // Redone from the seed before the roll; unaffected games get the same dice
+                    seed[g] -= 2 * gamma[g];
+                    die1[g] = nextDie(g) + 1;
+                    die2[g] = nextDie(g) + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Phase 3: updates the doubles count; three doubles in a row send the
+     * player to jail instead of moving.
+     */
+    private void countDoubles() {
+        for (int g = 0; g < lanes; g++) {
+            int mask = moving[g];
+            int rolled = die1[g] == die2[g] ? doubles[g] + 1 : 0;
+            doubles[g] = (rolled & mask) | (doubles[g] & ~mask);
+        }
+        for (int g = 0; g < lanes; g++) {
+            if (moving[g] != 0 && doubles[g] >= 3) {
+                goToJail(seat[g]);
+                doubles[g] = 0;
+                advance(g);
+                moving[g] = 0;
+            }
+        }
+    }
+
+    /**
+     * Phase 4, all games: moves the current player and pays the salary on
+     * passing Go.
+     */
+    private void moveTokens() {
+        for (int g = 0; g < lanes; g++) {
+            int mask = moving[g];
+            int p = seat[g];
+            int next = position[p] + ((die1[g] + die2[g]) & mask);
+            int wrapped = next >= tiles ? -1 : 0;
+            position[p] = next - (tiles & wrapped);
+            money[p] += goSalary & wrapped;
+        }
+    }
+
+    /**
+     * Phase 5, per game: resolves the space landed on and passes the dice.
+     */
+    private void finishTurns() {
+        for (int g = 0; g < lanes; g++) {
+            if (moving[g] == 0) {
+                continue;
+            }
+            int p = seat[g];
+            handleLanding(g, p);
+            if ((flags[p] & GameState.FLAG_BANKRUPT) != 0) {
+                releaseProperties(g, p - g * players);
+                checkGameOver(g);
+            }
+            if (die1[g] != die2[g] || (flags[p] & GameState.FLAG_IN_JAIL) != 0) {
+                advance(g);
+            }
+        }
+    }
+
+    private void handleJailTurn(int g, int p) {
+        if (jailCards[p] > 0) {
+            jailCards[p]--;
+            if (!returnHeldCard(g, true, p - g * players)) {
+                returnHeldCard(g, false, p - g * players);
+            }
+            releaseFromJail(p);
+            return;
+        }
+
+        if (money[p] >= jailFee && jailTurns[p] >= 2) {
+            money[p] -= jailFee;
+            releaseFromJail(p);
+            return;
+        }
+
+        die1[g] = nextDie(g) + 1;
+        die2[g] = nextDie(g) + 1;
+        doubles[g] = die1[g] == die2[g] ? doubles[g] + 1 : 0;
+        if (die1[g] == die2[g]) {
+            releaseFromJail(p);
+            int next = position[p] + die1[g] + die2[g];
+            if (next >= tiles) {
+                next -= tiles;
+                money[p] += goSalary;
+            }
+            position[p] = next;
+            handleLanding(g, p);
+        } else {
+            jailTurns[p]++;
+            if (jailTurns[p] >= maxJailTurns) {
+                if (money[p] >= jailFee) {
+                    money[p] -= jailFee;
+                    releaseFromJail(p);
+                } else {
+                    flags[p] |= GameState.FLAG_BANKRUPT;
+                }
+            }
+        }
+    }
+
+    private void handleLanding(int g, int p) {
+        int tile = position[p];
+        switch (board.getType(tile)) {
+            case PROPERTY:
+            case RAILROAD:
+            case UTILITY:
+                handleBuyable(g, p, tile);
+                break;
+            case TAX:
+                if (!pay(p, board.getValue(tile))) {
+                    flags[p] |= GameState.FLAG_BANKRUPT;
+                }
+                break;
+            case GO_TO_JAIL:
+                goToJail(p);
+                break;
+            case CHANCE:
+                handleCard(g, p, true);
+                break;
+            case COMMUNITY_CHEST:
+                handleCard(g, p, false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void handleBuyable(int g, int p, int tile) {
+        int seatOwner = owner[g * tiles + tile];
+        if (seatOwner == GameState.NO_OWNER) {
+            int price = board.getPrice(tile);
+            if (money[p] >= price) {
+                money[p] -= price;
+                owner[g * tiles + tile] = (byte) (p - g * players);
+            }
+        } else if (seatOwner != p - g * players) {
+            int rent = calculateRent(g, tile);
+            if (board.getType(tile) == SpaceType.UTILITY) {
+                rent *= die1[g] + die2[g];
+            }
+            if (pay(p, rent)) {
+                money[g * players + seatOwner] += rent;
+            } else {
+                flags[p] |= GameState.FLAG_BANKRUPT;
+            }
+        }
+    }
+
+    private void handleCard(int g, int p, boolean chance) {
+        CardTable table = chance ? chanceCards : communityChestCards;
+        int id = drawCard(g, chance);
+        // Returned before the effect, as in GameEngine
+        if (table.getType(id) != CardType.GET_OUT_OF_JAIL_FREE) {
+            returnCard(g, chance, id);
+        }
+
+        switch (table.getType(id)) {
+            case MOVEMENT: {
+                int destination = table.getValue(id);
+                if (destination < position[p]) {
+                    money[p] += goSalary;
+                }
+                position[p] = destination;
+                handleLanding(g, p);
+                break;
+            }
+            case GO_TO_JAIL:
+                goToJail(p);
+                break;
+            case COLLECT_MONEY:
+                money[p] += table.getValue(id);
+                break;
+            case PAY_MONEY:
+                if (!pay(p, table.getValue(id))) {
+                    flags[p] |= GameState.FLAG_BANKRUPT;
+                }
+                break;
+            case GET_OUT_OF_JAIL_FREE:
+                jailCards[p]++;
+                if (chance) {
+                    chanceHolder[g * chanceSize + id] = (byte) (p - g * players);
+                } else {
+                    communityChestHolder[g * communityChestSize + id] = (byte) (p - g * players);
+                }
+                break;
+            case REPAIRS: {
+                int houseCost = table.getValue(id);
+                int hotelCost = table.getExtraValue(id);
+                int self = p - g * players;
+                int total = 0;
+                for (int t = 0; t < tiles; t++) {
+                    if (owner[g * tiles + t] == self && board.getType(t) == SpaceType.PROPERTY) {
+                        int level = buildings[g * tiles + t];
+                        total += level == GameState.HOTEL ? hotelCost : houseCost * level;
+                    }
+                }
+                if (total > 0 && !pay(p, total)) {
+                    flags[p] |= GameState.FLAG_BANKRUPT;
+                }
+                break;
+            }
+            case PAY_EACH_PLAYER: {
+                int amount = table.getValue(id);
+                int total = 0;
+                for (int o = g * players; o < (g + 1) * players; o++) {
+                    if (o != p && (flags[o] & GameState.FLAG_BANKRUPT) == 0) {
+                        money[o] += amount;
+                        total += amount;
+                    }
+                }
+                if (!pay(p, total)) {
+                    flags[p] |= GameState.FLAG_BANKRUPT;
+                }
+                break;
+            }
+            case COLLECT_FROM_EACH_PLAYER: {
+                int amount = table.getValue(id);
+                int total = 0;
+                for (int o = g * players; o < (g + 1) * players; o++) {
+                    if (o != p && (flags[o] & GameState.FLAG_BANKRUPT) == 0) {
+                        if (pay(o, amount)) {
+                            total += amount;
+                        } else {
+                            flags[o] |= GameState.FLAG_BANKRUPT;
+                            returnJailCards(g, o - g * players);
+                        }
+                    }
+                }
+                money[p] += total;
+                break;
+            }
+            case NEAREST_RAILROAD:
+                moveToNearest(g, p, SpaceType.RAILROAD);
+                break;
+            case NEAREST_UTILITY:
+                moveToNearest(g, p, SpaceType.UTILITY);
+                break;
+            case MOVE_BACKWARD:
+                position[p] = (position[p] - table.getValue(id) + tiles) % tiles;
+                handleLanding(g, p);
+                break;
+        }
+    }
+
+    private void moveToNearest(int g, int p, SpaceType type) {
+        int from = position[p];
+        int nearest = board.getNextOfType(type, from);
+        if (nearest == -1) {
+            return;
+        }
+        if (board.passesGoToNext(type, from)) {
+            money[p] += goSalary;
+        }
+        position[p] = nearest;
+
+        int seatOwner = owner[g * tiles + nearest];
+        if (seatOwner != GameState.NO_OWNER && seatOwner != p - g * players) {
+            int rent = calculateRent(g, nearest) * 2;
+            if (pay(p, rent)) {
+                money[g * players + seatOwner] += rent;
+            } else {
+                flags[p] |= GameState.FLAG_BANKRUPT;
+            }
+        } else {
+            handleBuyable(g, p, nearest);
+        }
+    }
+
+    /**
+     * Calculates the rent of an owned space as
+     * {@link GameStateEngine#calculateRent} does.
+     */
+    private int calculateRent(int g, int tile) {
+        int base = g * tiles;
+        int seatOwner = owner[base + tile];
+        if (seatOwner == GameState.NO_OWNER || mortgaged[base + tile]) {
+            return 0;
+        }
+        switch (board.getType(tile)) {
+            case PROPERTY: {
+                int level = buildings[base + tile];
+                if (level > 0) {
+                    return board.getRent(tile, level);
+                }
+                int rent = board.getRent(tile, 0);
+                return countOwned(base, seatOwner, board.getGroupMembers(board.getGroup(tile)))
+                        == board.getGroupMembers(board.getGroup(tile)).length ? rent * 2 : rent;
+            }
+            case RAILROAD: {
+                int count = countOwned(base, seatOwner, board.getRailroads());
+                return count >= 1 && count <= 4 ? RAILROAD_BASE_RENT << (count - 1) : 0;
+            }
+            case UTILITY: {
+                int count = countOwned(base, seatOwner, board.getUtilities());
+                return count >= 2 ? 10 : count == 1 ? 4 : 0;
+            }
+            default:
+                return 0;
+        }
+    }
+
+    private int countOwned(int base, int seatOwner, int[] group) {
+        int count = 0;
+        for (int t : group) {
+            if (owner[base + t] == seatOwner) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rolls one die from a lane's stream, exactly as
+     * {@code GameRandom.nextInt(6)} does.
+     */
+    private int nextDie(int g) {
+        int u = mix32(seed[g] += gamma[g]) >>> 1;
+        int r;
+        while (u + (DIE_FACES - 1) - (r = u % DIE_FACES) < 0) {
+            u = mix32(seed[g] += gamma[g]) >>> 1;
+        }
+        return r;
+    }
+
+    /** The output function of {@link GameRandom#nextInt()}. */
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private boolean pay(int p, int amount) {
+        if (money[p] >= amount) {
+            money[p] -= amount;
+            return true;
+        }
+        return false;
+    }
+
+    private void goToJail(int p) {
+        position[p] = GameEngine.JAIL_POSITION;
+        flags[p] |= GameState.FLAG_IN_JAIL;
+        jailTurns[p] = 0;
+    }
+
+    private void releaseFromJail(int p) {
+        flags[p] &= ~GameState.FLAG_IN_JAIL;
+        jailTurns[p] = 0;
+    }
+
+    private void releaseProperties(int g, int player) {
+        for (int t = g * tiles; t < (g + 1) * tiles; t++) {
+            if (owner[t] == player) {
+                owner[t] = GameState.NO_OWNER;
+            }
+        }
+        returnJailCards(g, player);
+    }
+
+    /**
+     * Returns a bankrupt player's held jail cards to their decks, Chance
+     * first as in GameEngine.
+     */
+    private void returnJailCards(int g, int player) {
+        while (returnHeldCard(g, true, player)) {
+            // keep returning until none are left
+        }
+        while (returnHeldCard(g, false, player)) {
+            // keep returning until none are left
+        }
+        jailCards[g * players + player] = 0;
+    }
+
+    private void checkGameOver(int g) {
+        int active = 0;
+        for (int p = g * players; p < (g + 1) * players; p++) {
+            if ((flags[p] & GameState.FLAG_BANKRUPT) == 0) {
+                active++;
+            }
+        }
+        if (active <= 1) {
+            over[g] = true;
+        }
+    }
+
+    private void advance(int g) {
+        current[g] = (current[g] + 1) % players;
+    }
+
+    private int drawCard(int g, boolean chance) {
+        if (chance) {
+            int id = chanceDeck[g * chanceSize + chanceHead[g]];
+            chanceHead[g] = (chanceHead[g] + 1) % chanceSize;
+            chanceCount[g]--;
+            return id;
+        }
+        int id = communityChestDeck[g * communityChestSize + communityChestHead[g]];
+        communityChestHead[g] = (communityChestHead[g] + 1) % communityChestSize;
+        communityChestCount[g]--;
+        return id;
+    }
+
+    private void returnCard(int g, boolean chance, int id) {
+        if (chance) {
+            chanceDeck[g * chanceSize + (chanceHead[g] + chanceCount[g]) % chanceSize] = (byte) id;
+            chanceCount[g]++;
+        } else {
+            communityChestDeck[g * communityChestSize
+                    + (communityChestHead[g] + communityChestCount[g]) % communityChestSize] = (byte) id;
+            communityChestCount[g]++;
+        }
+    }
+
+    private boolean returnHeldCard(int g, boolean chance, int player) {
+        byte[] holders = chance ? chanceHolder : communityChestHolder;
+        int size = chance ? chanceSize : communityChestSize;
+        for (int id = 0; id < size; id++) {
+            if (holders[g * size + id] == player) {
+                holders[g * size + id] = GameState.NO_OWNER;
+                returnCard(g, chance, id);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plays a campaign of games, refilling each lane with the next game as
+     * soon as its current one ends. Game {@code i} is seeded from
+     * {@code GameRandom.forGame(seed, i)} like in {@link BatchSimulator}, so
+     * both produce the same results for the same seed.
+     *
+     * @param games Number of games
+     * @param maxTurns Turn limit after which a game is abandoned without a winner
+     * @param seed Campaign seed
+     * @return The aggregated outcome
+     */
+    public BatchResult simulate(long games, int maxTurns, long seed) {
+        long start = System.nanoTime();
+        BatchResult result = new BatchResult(players);
+        boolean[] playing = new boolean[lanes];
+        long next = 0;
+        for (int lane = 0; lane < lanes; lane++) {
+            if (next < games) {
+                loadNewGame(lane, GameRandom.forGame(seed, next++));
+                playing[lane] = true;
+            } else {
+                clear(lane);
+            }
+        }
+        int running = Math.min(lanes, (int) Math.min(games, Integer.MAX_VALUE));
+        while (running > 0) {
+            step(maxTurns);
+            for (int lane = 0; lane < lanes; lane++) {
+                if (!playing[lane] || (!over[lane] && turns[lane] < maxTurns)) {
+                    continue;
+                }
+                result.recordGame(turns[lane], getWinner(lane));
+                if (next < games) {
+                    loadNewGame(lane, GameRandom.forGame(seed, next++));
+                } else {
+                    clear(lane);
+                    playing[lane] = false;
+                    running--;
+                }
+            }
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Benchmark entry point: plays the same campaign with
+     * {@link BatchSimulator} (one engine object per game) on one thread and
+     * with this engine, checks that the results agree and compares the speed.
+     * Usage: {@code java LockstepBatchEngine [games] [players] [lanes] [maxTurns] [seed]}
+     *
+     * @param args Optional game count, player count, lane count, turn limit and seed
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 20_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int lanes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int maxTurns = args.length > 3 ? Integer.parseInt(args[3]) : BatchSimulator.DEFAULT_MAX_TURNS;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            BatchSimulator objects = new BatchSimulator(players, maxTurns, seed, pool);
+            LockstepBatchEngine lockstep = new LockstepBatchEngine(lanes, players);
+            System.out.println("Playing " + games + " games with " + players + " players on one thread, "
+                    + lanes + " lanes (seed " + seed + ")...");
+            // The first round warms up the JIT
+            List<BatchResult[]> rounds = new ArrayList<>();
+            for (int round = 0; round < 2; round++) {
+                rounds.add(new BatchResult[] {objects.run(games), lockstep.simulate(games, maxTurns, seed)});
+            }
+            BatchResult[] last = rounds.get(rounds.size() - 1);
+            System.out.print("Object per game:\n" + last[0]);
+            System.out.print("Lockstep:\n" + last[1]);
+            System.out.printf("Speed-up %.2fx, results %s%n", last[1].getGamesPerSecond()
+                    / last[0].getGamesPerSecond(), sameOutcome(last[0], last[1]) ? "identical" : "DIFFERENT");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static boolean sameOutcome(BatchResult a, BatchResult b) {
+        if (a.getGames() != b.getGames() || a.getFinishedGames() != b.getFinishedGames()
+                || a.getTotalTurns() != b.getTotalTurns()) {
+            return false;
+        }
+        for (int seat = 0; seat < a.getPlayerCount(); seat++) {
+            if (a.getWins(seat) != b.getWins(seat)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -19,7 +19,18 @@ import java.awt.RenderingHints;
 
 public class Main extends JFrame implements DicePanel.DiceRollListener {
 
+    // Background win-odds estimate shown in the player panels
+    private static final int WIN_ODDS_ROLLOUTS = 20000;
+    private static final long WIN_ODDS_TIME_MILLIS = 3000;
+
     private GameEngine gameEngine;
+    private WinProbabilityEstimator winEstimator;
+    private WinProbabilityEstimator.Run winEstimate;
+    private int winEstimateGeneration;
+    private GameHistory history; // One snapshot at the start of every turn
+    private boolean rolledSinceRecord;
+    private JMenuItem undoItem;
+    private JMenuItem redoItem;
     private JTextArea logArea;
     private JLabel statusLabel; // To show current player info
     private JPanel playersPanel; // Panel to show all players
@@ -107,12 +118,15 @@ public class Main extends JFrame implements DicePanel.DiceRollListener {
         
         // --- Initialize GameEngine ---
         gameEngine = new GameEngine(playerNames, dice, mortgageService, board, chanceCards, communityChestCards);
+        winEstimator = new WinProbabilityEstimator(gameEngine.createStateEngine(),
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), BatchSimulator.DEFAULT_MAX_TURNS);
         
         // Assign characters to players
         List<Player> players = gameEngine.getPlayers();
         for (int i = 0; i < players.size(); i++) {
             players.get(i).setCharacter(selectedCharacters.get(i));
         }
+        history = new GameHistory(gameEngine);
 
         // --- Setup GUI ---
         // Status Label with improved styling
@@ -759,7 +773,29 @@ public class Main extends JFrame implements DicePanel.DiceRollListener {
             }
         });
         
+        undoItem = new JMenuItem("Hoàn tác lượt đi");
+        undoItem.setAccelerator(KeyStroke.getKeyStroke('Z', Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
+        undoItem.addActionListener(e -> undoTurn());
+        undoItem.setEnabled(false);
+        
+        redoItem = new JMenuItem("Làm lại lượt đi");
+        redoItem.setAccelerator(KeyStroke.getKeyStroke('Y', Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
+        redoItem.addActionListener(e -> redoTurn());
+        redoItem.setEnabled(false);
+        
+        JMenuItem saveGameItem = new JMenuItem("Lưu trò chơi...");
+        saveGameItem.addActionListener(e -> saveGame());
+        
+        JMenuItem loadGameItem = new JMenuItem("Tải trò chơi...");
+        loadGameItem.addActionListener(e -> loadGame());
+        
         gameMenu.add(newGameItem);
+        gameMenu.add(saveGameItem);
+        gameMenu.add(loadGameItem);
+        gameMenu.addSeparator();
+        gameMenu.add(undoItem);
+        gameMenu.add(redoItem);
+        gameMenu.addSeparator();
         gameMenu.add(reloadPrisonItem);
         gameMenu.add(reloadCarItem);
         gameMenu.add(reloadDogItem);
@@ -1041,6 +1077,8 @@ public class Main extends JFrame implements DicePanel.DiceRollListener {
     public void onDiceRolled(int die1, int die2) {
         Player currentPlayer = gameEngine.getCurrentPlayer();
         int steps = dicePanel.getDiceTotal(); // Lấy tổng tất cả (4) xúc xắc
+        rolledSinceRecord = true;
+        updateHistoryMenu();
         boolean isDouble = dicePanel.isDouble();
         
         appendToLog("\n------------------------------\n");
@@ -1484,6 +1522,122 @@ public class Main extends JFrame implements DicePanel.DiceRollListener {
         
         appendToLog("\n------------------------------\n");
         appendToLog(gameEngine.getCurrentPlayer().getName() + "'s turn.\n");
+        
+        history.record();
+        rolledSinceRecord = false;
+        updateHistoryMenu();
+    }
+    
+    /**
+     * Takes back the current turn if the dice were already rolled, otherwise
+     * the previous turn. Only allowed while the game waits for a roll, so no
+     * animation or timer of the undone turn is still running.
+     */
+    private void undoTurn() {
+        if (history == null || !dicePanel.isRollEnabled()) {
+            return;
+        }
+        if (rolledSinceRecord) {
+            history.revert();
+        } else if (!history.undo()) {
+            return;
+        }
+        rolledSinceRecord = false;
+        refreshAfterRestore("Turn undone.");
+    }
+    
+    /**
+     * Replays a turn that was undone.
+     */
+    private void redoTurn() {
+        if (history == null || !dicePanel.isRollEnabled() || rolledSinceRecord || !history.redo()) {
+            return;
+        }
+        refreshAfterRestore("Turn redone.");
+    }
+    
+    /**
+     * Saves the game in progress to a file chosen by the user.
+     */
+    private void saveGame() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("monopoly.save"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            gameEngine.save(chooser.getSelectedFile().toPath());
+            appendToLog("Game saved to " + chooser.getSelectedFile().getName() + ".\n");
+        } catch (IOException | RuntimeException ex) {
+            JOptionPane.showMessageDialog(this,
+                "Không thể lưu trò chơi: " + ex.getMessage(),
+                "Lỗi",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    /**
+     * Loads a saved game with the same number of players into this game.
+     * Only allowed while the game waits for a roll.
+     */
+    private void loadGame() {
+        if (!dicePanel.isRollEnabled()) {
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            SaveGameArchive archive = SaveGameArchive.open(chooser.getSelectedFile().toPath());
+            if (archive.getCount() == 0
+                    || archive.getFormat().getPlayerCount() != gameEngine.getPlayers().size()) {
+                throw new IllegalArgumentException("the saved game has a different number of players");
+            }
+            gameEngine.restoreSaved(archive, 0);
+        } catch (IOException | RuntimeException ex) {
+            JOptionPane.showMessageDialog(this,
+                "Không thể tải trò chơi: " + ex.getMessage(),
+                "Lỗi",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        history.record();
+        rolledSinceRecord = false;
+        refreshAfterRestore("Game loaded.");
+    }
+    
+    /**
+     * Brings the board, panels and controls in line with a restored position.
+     *
+     * @param message Log line describing the restore
+     */
+    private void refreshAfterRestore(String message) {
+        for (Player player : gameEngine.getPlayers()) {
+            gameBoardPanel.updatePlayerPosition(player);
+        }
+        for (Space space : gameEngine.getBoard()) {
+            if (space instanceof Buyable) {
+                gameBoardPanel.updatePropertyOwnership((Buyable) space);
+            }
+        }
+        updateStatusLabel();
+        updatePlayerHighlights();
+        updatePlayerInfoPanels();
+        gameBoardPanel.repaint();
+        dicePanel.setRollEnabled(true);
+        buyPropertyButton.setEnabled(false);
+        updateHistoryMenu();
+        appendToLog("\n------------------------------\n");
+        appendToLog(message + " " + gameEngine.getCurrentPlayer().getName() + "'s turn.\n");
+    }
+    
+    private void updateHistoryMenu() {
+        if (history == null) {
+            return;
+        }
+        undoItem.setEnabled(rolledSinceRecord || history.canUndo());
+        redoItem.setEnabled(!rolledSinceRecord && history.canRedo());
     }
     
     /**
@@ -1525,11 +1679,12 @@ public class Main extends JFrame implements DicePanel.DiceRollListener {
         dicePanel.setRollEnabled(false);
         buyPropertyButton.setEnabled(false);
         
-        // Calculate player rankings based on net worth
-        List<Player> rankedPlayers = new ArrayList<>(gameEngine.getPlayers());
-        
-        // Sort players by net worth in descending order
-        rankedPlayers.sort((p1, p2) -> Integer.compare(p2.getNetWorth(), p1.getNetWorth()));
+        // Rank players still in the game by net worth, then the bankrupt
+        // players with the last to go bankrupt first
+        List<Player> rankedPlayers = new ArrayList<>();
+        for (int seat : gameEngine.getStandings()) {
+            rankedPlayers.add(gameEngine.getPlayers().get(seat));
+        }
         
         // Create and show the ranking dialog using the external class
         SwingUtilities.invokeLater(() -> {
@@ -1602,6 +1757,48 @@ public class Main extends JFrame implements DicePanel.DiceRollListener {
         }
         // Update property info panel for current player
         propertyInfoPanel.updateForPlayer(gameEngine.getCurrentPlayer());
+        refreshWinProbabilities();
+    }
+    
+    /**
+     * Restarts the background win-odds estimate from the current position.
+     * Results arrive on worker threads and are handed to the EDT; estimates
+     * from a superseded position are dropped.
+     */
+    private void refreshWinProbabilities() {
+        if (winEstimate != null) {
+            winEstimate.cancel();
+        }
+        // The window may already be disposed
+        if (gameEngine.isGameOver() || winEstimator == null) return;
+        
+        int generation = ++winEstimateGeneration;
+        GameState position = gameEngine.captureState();
+        winEstimate = winEstimator.start(position, WIN_ODDS_ROLLOUTS, WIN_ODDS_TIME_MILLIS, System.nanoTime(),
+                estimate -> SwingUtilities.invokeLater(() -> {
+                    if (generation != winEstimateGeneration) return;
+                    for (int i = 0; i < playerInfoPanels.size(); i++) {
+                        playerInfoPanels.get(i).setWinProbability(
+                                estimate.getWinProbability(i), estimate.isFinished());
+                    }
+                }));
+    }
+    
+    /**
+     * Stops the win-odds estimate and its worker threads along with the
+     * window, so starting a new game does not leave the old pool running.
+     */
+    @Override
+    public void dispose() {
+        if (winEstimate != null) {
+            winEstimate.cancel();
+            winEstimate = null;
+        }
+        if (winEstimator != null) {
+            winEstimator.close();
+            winEstimator = null;
+        }
+        super.dispose();
     }
     
     /**
@@ -0,0 +1,378 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A computer player that makes its buy, build, mortgage and jail decisions
+ * with Monte Carlo Tree Search over forked {@link GameState}s.
+ * <p>
+ * Each decision is searched for a fixed time budget. A simulation copies the
+ * position, reshuffles the undrawn cards, takes one of the two answers and
+ * plays the game to the end with {@link GameStateEngine}. The bot's own later
+ * decisions inside a simulation are taken from an open-loop tree (nodes are
+ * sequences of the bot's decisions, whatever the dice did in between) that is
+ * grown with UCB1; everything else is played with the default strategy.
+ * Workers search independent trees in parallel and their root statistics are
+ * summed. After a decision the subtree below the chosen answer is kept, so the
+ * next decision starts from the statistics gathered for it.
+ */
+public class MctsBot implements PlayerStrategy, AutoCloseable {
+    private static final double EXPLORATION = 1.4;
+    private static final int MAX_TREE_DEPTH = 16;
+    // Mortgaging is only searched when cash runs low; otherwise it is declined
+    private static final int MORTGAGE_SEARCH_CASH = 150;
+
+    private final GameStateEngine engine;
+    private final int seat;
+    private final long timeBudgetNanos;
+    private final int maxTurns;
+    private final Worker[] workers;
+    private final ExecutorService executor;
+    private long simulations;
+
+    /**
+     * Creates a bot for one seat.
+     *
+     * @param engine The engine used for simulations
+     * @param seat The seat the bot plays; other seats get the default strategy
+     * @param timeBudgetMillis Search time per decision
+     * @param threads Number of parallel search workers
+     * @param seed Seed for the simulations' random streams
+     */
+    public MctsBot(GameStateEngine engine, int seat, long timeBudgetMillis, int threads, long seed) {
+        this.engine = engine;
+        this.seat = seat;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        this.maxTurns = BatchSimulator.DEFAULT_MAX_TURNS;
+        this.workers = new Worker[Math.max(1, threads)];
+        GameRandom source = new GameRandom(seed);
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(source.split());
+        }
+        this.executor = workers.length > 1 ? Executors.newFixedThreadPool(workers.length, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-bot");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Gets the number of simulations played so far, over all decisions.
+     *
+     * @return The simulation count
+     */
+    public long getSimulations() {
+        return simulations;
+    }
+
+    @Override
+    public boolean shouldBuy(DecisionView view, int player, int tile) {
+        if (player != seat) {
+            return PlayerStrategy.DEFAULT.shouldBuy(view, player, tile);
+        }
+        return search(view, GameRecorder.DECISION_BUY, tile);
+    }
+
+    @Override
+    public boolean shouldPayJailFee(DecisionView view, int player) {
+        if (player != seat) {
+            return PlayerStrategy.DEFAULT.shouldPayJailFee(view, player);
+        }
+        return search(view, GameRecorder.DECISION_JAIL_FEE, -1);
+    }
+
+    @Override
+    public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+        if (player != seat) {
+            return PlayerStrategy.DEFAULT.shouldBuildHouse(view, player, tile);
+        }
+        return search(view, GameRecorder.DECISION_BUILD, tile);
+    }
+
+    @Override
+    public boolean shouldMortgage(DecisionView view, int player, int tile) {
+        if (player != seat || view.getMoney(player) >= MORTGAGE_SEARCH_CASH) {
+            return false;
+        }
+        return search(view, GameRecorder.DECISION_MORTGAGE, tile);
+    }
+
+    @Override
+    public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+        if (player != seat) {
+            return PlayerStrategy.DEFAULT.shouldUnmortgage(view, player, tile);
+        }
+        return search(view, GameRecorder.DECISION_UNMORTGAGE, tile);
+    }
+
+    /**
+     * Searches one decision and returns the answer with the most visits.
+     */
+    private boolean search(DecisionView view, int kind, int tile) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        for (Worker worker : workers) {
+            worker.prepare(view, kind, tile);
+        }
+        if (executor == null) {
+            workers[0].call(deadline);
+        } else {
+            List<Future<?>> futures = new ArrayList<>(workers.length);
+            for (Worker worker : workers) {
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    worker.call(deadline);
+                    return null;
+                }));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search failed", e.getCause());
+            }
+        }
+
+        long yes = 0;
+        long no = 0;
+        for (Worker worker : workers) {
+            no += worker.root.visits[0];
+            yes += worker.root.visits[1];
+            simulations += worker.completed;
+        }
+        boolean answer = yes > no;
+        for (Worker worker : workers) {
+            worker.commit(answer ? 1 : 0);
+        }
+        return answer;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * One decision point of the bot in the open-loop tree, with statistics
+     * for answering no (0) and yes (1).
+     */
+    private static class Node {
+        final int kind;
+        final int tile;
+        final int[] visits = new int[2];
+        final double[] wins = new double[2];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final List<Node>[] children = new List[2];
+
+        Node(int kind, int tile) {
+            this.kind = kind;
+            this.tile = tile;
+        }
+
+        int totalVisits() {
+            return visits[0] + visits[1];
+        }
+
+        int select() {
+            if (visits[0] == 0 || visits[1] == 0) {
+                return visits[1] == 0 ? 1 : 0;
+            }
+            double logTotal = Math.log(totalVisits());
+            double best = -1;
+            int choice = 0;
+            for (int a = 0; a < 2; a++) {
+                double score = wins[a] / visits[a] + EXPLORATION * Math.sqrt(logTotal / visits[a]);
+                if (score > best) {
+                    best = score;
+                    choice = a;
+                }
+            }
+            return choice;
+        }
+
+        Node child(int action, int kind, int tile) {
+            List<Node> list = children[action];
+            if (list == null) {
+                list = new ArrayList<>(2);
+                children[action] = list;
+            }
+            Node found = find(list, kind, tile);
+            if (found == null) {
+                found = new Node(kind, tile);
+                list.add(found);
+            }
+            return found;
+        }
+
+        static Node find(List<Node> list, int kind, int tile) {
+            if (list != null) {
+                for (Node node : list) {
+                    if (node.kind == kind && node.tile == tile) {
+                        return node;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A search thread's tree, scratch state and random stream. During a
+     * simulation it is also the strategy, answering the bot's decisions from the
+     * tree and everyone else's with the default strategy.
+     */
+    private class Worker implements PlayerStrategy {
+        private final GameRandom random;
+        private final Node[] pathNodes = new Node[MAX_TREE_DEPTH + 1];
+        private final int[] pathActions = new int[MAX_TREE_DEPTH + 1];
+        private GameState start;
+        private GameState state;
+        private Node root;
+        private List<Node> reusable;
+        private int completed;
+
+        // Per simulation
+        private int pathLength;
+        private Node cursor;
+        private boolean forcedPending;
+        private int forcedKind;
+        private int forcedTile;
+        private boolean forcedAnswer;
+
+        Worker(GameRandom random) {
+            this.random = random;
+        }
+
+        void prepare(DecisionView view, int kind, int tile) {
+            if (start == null || start.getPlayerCount() != view.getPlayerCount()) {
+                start = engine.newState(view.getPlayerCount());
+                state = engine.newState(view.getPlayerCount());
+            }
+            view.copyTo(start);
+            // Keep the subtree if the previous search already reached this decision
+            Node reused = Node.find(reusable, kind, tile);
+            root = reused != null ? reused : new Node(kind, tile);
+            reusable = null;
+            completed = 0;
+        }
+
+        void commit(int action) {
+            reusable = root.children[action];
+        }
+
+        void call(long deadline) {
+            do {
+                simulate();
+                completed++;
+            } while (System.nanoTime() < deadline);
+        }
+
+        private void simulate() {
+            state.copyFrom(start);
+            state.shuffleDecks(random);
+            int action = root.select();
+            pathNodes[0] = root;
+            pathActions[0] = action;
+            pathLength = 1;
+            cursor = root;
+            forcedPending = false;
+
+            if (root.kind == GameRecorder.DECISION_BUY) {
+                // Interrupted after landing: settle the purchase and finish the turn
+                if (action == 1) {
+                    engine.buy(state, seat, root.tile);
+                }
+                engine.endTurn(state);
+            } else {
+                // Decided at the start of the turn: replay the turn with this answer
+                forcedPending = true;
+                forcedKind = root.kind;
+                forcedTile = root.tile;
+                forcedAnswer = action == 1;
+                engine.playTurn(state, random, this);
+            }
+            engine.playGame(state, random, maxTurns, this);
+
+            double reward = reward(state);
+            for (int i = 0; i < pathLength; i++) {
+                Node node = pathNodes[i];
+                int a = pathActions[i];
+                node.visits[a]++;
+                node.wins[a] += reward;
+            }
+        }
+
+        private double reward(GameState s) {
+            if (s.isBankrupt(seat)) {
+                return 0;
+            }
+            int active = 0;
+            for (int p = 0; p < s.getPlayerCount(); p++) {
+                if (!s.isBankrupt(p)) {
+                    active++;
+                }
+            }
+            return 1.0 / active;
+        }
+
+        private boolean decide(int kind, int tile, boolean fallback) {
+            if (forcedPending && kind == forcedKind && tile == forcedTile) {
+                forcedPending = false;
+                return forcedAnswer;
+            }
+            if (cursor == null || pathLength > MAX_TREE_DEPTH) {
+                return fallback;
+            }
+            Node next = cursor.child(pathActions[pathLength - 1], kind, tile);
+            boolean expanded = next.totalVisits() == 0;
+            int action = next.select();
+            pathNodes[pathLength] = next;
+            pathActions[pathLength] = action;
+            pathLength++;
+            // Below a new node the rest of the game is a plain rollout
+            cursor = expanded ? null : next;
+            return action == 1;
+        }
+
+        @Override
+        public boolean shouldBuy(DecisionView view, int player, int tile) {
+            boolean fallback = PlayerStrategy.DEFAULT.shouldBuy(view, player, tile);
+            return player == seat ? decide(GameRecorder.DECISION_BUY, tile, fallback) : fallback;
+        }
+
+        @Override
+        public boolean shouldPayJailFee(DecisionView view, int player) {
+            boolean fallback = PlayerStrategy.DEFAULT.shouldPayJailFee(view, player);
+            return player == seat ? decide(GameRecorder.DECISION_JAIL_FEE, -1, fallback) : fallback;
+        }
+
+        @Override
+        public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+            return player == seat && decide(GameRecorder.DECISION_BUILD, tile, false);
+        }
+
+        @Override
+        public boolean shouldMortgage(DecisionView view, int player, int tile) {
+            if (player != seat || view.getMoney(player) >= MORTGAGE_SEARCH_CASH) {
+                return false;
+            }
+            return decide(GameRecorder.DECISION_MORTGAGE, tile, false);
+        }
+
+        @Override
+        public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+            return player == seat && decide(GameRecorder.DECISION_UNMORTGAGE, tile, false);
+        }
+    }
+}
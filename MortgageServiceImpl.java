@@ -7,7 +7,23 @@ public class MortgageServiceImpl implements MortgageService {
     /**
      * The interest rate applied when unmortgaging a property (typically 10%).
      */
-    private static final double INTEREST_RATE = 0.1;
+    private final double interestRate;
+    
+    /**
+     * Creates a service charging the default interest.
+     */
+    public MortgageServiceImpl() {
+        this(GameRules.DEFAULT_INTEREST_RATE);
+    }
+    
+    /**
+     * Creates a service charging the given interest to lift a mortgage.
+     *
+     * @param interestRate Interest as a fraction of the mortgage value
+     */
+    public MortgageServiceImpl(double interestRate) {
+        this.interestRate = interestRate;
+    }
     
     /**
      * Checks if a property can be mortgaged.
@@ -99,6 +115,6 @@ public class MortgageServiceImpl implements MortgageService {
         }
         
         int mortgageValue = property.getMortgageValue();
-        return (int)(mortgageValue * (1 + INTEREST_RATE));
+        return (int)(mortgageValue * (1 + interestRate));
     }
 } 
\ No newline at end of file
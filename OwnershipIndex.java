@@ -0,0 +1,198 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps running ownership counts for one board so that monopoly, railroad and
+ * utility checks are constant-time lookups instead of scans.
+ * Every buyable space on the board reports owner changes here from
+ * {@code setOwner} and {@code resetOwner}; the per-player counts are stored on
+ * the Player objects themselves.
+ */
+public class OwnershipIndex {
+    /**
+     * Receives a call after a space on the board changed owner, buildings or
+     * mortgage status.
+     */
+    public interface Listener {
+        void spaceChanged(Buyable space);
+    }
+
+    private final Map<String, Integer> groupIds;
+    private final PropertySpace[][] groupMembers;
+    private final List<Listener> listeners;
+
+    /**
+     * Builds the index for a board and attaches it to every buyable space.
+     * Existing owners are counted, so a board can be indexed mid-game.
+     *
+     * @param board The board spaces
+     */
+    public OwnershipIndex(List<Space> board) {
+        Map<String, List<PropertySpace>> groups = new LinkedHashMap<>();
+        for (Space space : board) {
+            if (space instanceof PropertySpace) {
+                PropertySpace property = (PropertySpace) space;
+                groups.computeIfAbsent(property.getColorGroup(), k -> new ArrayList<>()).add(property);
+            }
+        }
+
+        this.listeners = new ArrayList<>();
+        this.groupIds = new LinkedHashMap<>();
+        this.groupMembers = new PropertySpace[groups.size()][];
+        int id = 0;
+        for (Map.Entry<String, List<PropertySpace>> entry : groups.entrySet()) {
+            groupIds.put(entry.getKey(), id);
+            groupMembers[id] = entry.getValue().toArray(new PropertySpace[0]);
+            for (PropertySpace property : groupMembers[id]) {
+                property.attachOwnershipIndex(this, id);
+            }
+            id++;
+        }
+
+        for (Space space : board) {
+            if (space instanceof RailroadSpace) {
+                ((RailroadSpace) space).attachOwnershipIndex(this);
+            } else if (space instanceof UtilitySpace) {
+                ((UtilitySpace) space).attachOwnershipIndex(this);
+            }
+            if (space instanceof Buyable && ((Buyable) space).getOwner() != null) {
+                ownerChanged((Buyable) space, null, ((Buyable) space).getOwner());
+            }
+        }
+    }
+
+    /**
+     * Makes sure a board has an ownership index, building one if needed.
+     *
+     * @param board The board spaces
+     * @return The board's index
+     */
+    public static OwnershipIndex forBoard(List<Space> board) {
+        for (Space space : board) {
+            if (space instanceof PropertySpace) {
+                OwnershipIndex existing = ((PropertySpace) space).getOwnershipIndex();
+                if (existing != null) {
+                    return existing;
+                }
+                break;
+            }
+        }
+        return new OwnershipIndex(board);
+    }
+
+    /**
+     * Updates the counts after a space changed hands.
+     *
+     * @param property The space whose owner changed
+     * @param oldOwner The previous owner, or null
+     * @param newOwner The new owner, or null
+     */
+    void ownerChanged(Buyable property, Player oldOwner, Player newOwner) {
+        if (oldOwner != newOwner) {
+            if (oldOwner != null) {
+                adjust(oldOwner, property, -1);
+            }
+            if (newOwner != null) {
+                adjust(newOwner, property, 1);
+            }
+        }
+        spaceChanged(property);
+    }
+
+    /**
+     * Tells the listeners that a space changed.
+     *
+     * @param space The space whose owner, buildings or mortgage changed
+     */
+    void spaceChanged(Buyable space) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).spaceChanged(space);
+        }
+    }
+
+    /**
+     * Recounts every player's holdings from the board, discarding the running
+     * counts. Used after the board was overwritten wholesale, e.g. when a
+     * snapshot is restored.
+     *
+     * @param players The players of the game
+     * @param board The board spaces
+     */
+    public void recount(List<Player> players, List<Space> board) {
+        for (Player player : players) {
+            player.resetOwnedCounts();
+        }
+        for (Space space : board) {
+            if (space instanceof Buyable && ((Buyable) space).getOwner() != null) {
+                adjust(((Buyable) space).getOwner(), (Buyable) space, 1);
+            }
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void adjust(Player player, Buyable property, int delta) {
+        if (property instanceof PropertySpace) {
+            player.adjustOwnedInGroup(((PropertySpace) property).getColorGroupId(), delta, groupMembers.length);
+        } else if (property instanceof RailroadSpace) {
+            player.adjustOwnedRailroads(delta);
+        } else if (property instanceof UtilitySpace) {
+            player.adjustOwnedUtilities(delta);
+        }
+    }
+
+    /**
+     * Checks whether a player owns every property of a colour group.
+     *
+     * @param player The player
+     * @param group The group id
+     * @return true if the player holds the whole group
+     */
+    public boolean hasMonopoly(Player player, int group) {
+        return player != null && group >= 0 && player.getOwnedInGroup(group) == groupMembers[group].length;
+    }
+
+    /**
+     * Gets the id of a colour group.
+     *
+     * @param colorGroup The colour group name
+     * @return The group id, or -1 if no property on the board has that colour
+     */
+    public int getGroupId(String colorGroup) {
+        Integer id = groupIds.get(colorGroup);
+        return id != null ? id : -1;
+    }
+
+    public int getGroupCount() {
+        return groupMembers.length;
+    }
+
+    /**
+     * Gets the number of properties in a colour group.
+     *
+     * @param group The group id
+     * @return The group size
+     */
+    public int getGroupSize(int group) {
+        return groupMembers[group].length;
+    }
+
+    /**
+     * Gets the properties of a colour group.
+     * The returned array is shared and must not be modified.
+     *
+     * @param group The group id
+     * @return The group's properties
+     */
+    public PropertySpace[] getGroupMembers(int group) {
+        return groupMembers[group];
+    }
+}
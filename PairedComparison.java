@@ -0,0 +1,309 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compares two rule sets with common random numbers. Game {@code i} of the
+ * baseline and game {@code i} of the variant are built from the same seed, so
+ * both consume the same dice rolls and the same shuffled decks; only the rules
+ * differ. The per-seed differences of the outcomes vary far less than two
+ * independent campaigns would, so a difference is resolved with several times
+ * fewer games.
+ * <p>
+ * With antithetic dice every seed is also played a second time with mirrored
+ * dice (7 minus each value) by both rule sets, and the two plays are averaged.
+ */
+public class PairedComparison {
+    private static final int PAIRS_PER_TASK = 32;
+
+    private final int playerCount;
+    private final BatchSimulator baseline;
+    private final BatchSimulator variant;
+    private final ForkJoinPool pool;
+    private boolean antithetic;
+
+    /**
+     * Creates a comparison of two rule sets.
+     *
+     * @param baselineRules The rules the variant is measured against
+     * @param variantRules The rules under test
+     * @param playerCount Number of players in each game
+     * @param maxTurns Turn limit after which a game is abandoned without a winner
+     * @param seed Campaign seed; pair {@code i} always uses the stream derived from it
+     * @param pool The fork-join pool to run games on
+     */
+    public PairedComparison(GameRules baselineRules, GameRules variantRules, int playerCount, int maxTurns,
+                            long seed, ForkJoinPool pool) {
+        this.playerCount = playerCount;
+        this.baseline = new BatchSimulator(playerCount, maxTurns, seed, pool);
+        this.variant = new BatchSimulator(playerCount, maxTurns, seed, pool);
+        this.pool = pool;
+        baseline.setRules(baselineRules);
+        variant.setRules(variantRules);
+    }
+
+    /**
+     * Sets whether every seed is also played with mirrored dice.
+     *
+     * @param antithetic True to play each seed twice per rule set
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    public boolean isAntithetic() {
+        return antithetic;
+    }
+
+    /**
+     * Plays the given number of seeds with both rule sets and blocks until all
+     * of them are done.
+     *
+     * @param pairs Number of seeds
+     * @return The paired outcome
+     */
+    public Result run(long pairs) {
+        long start = System.nanoTime();
+        Result result = pool.invoke(new PairRangeTask(0, pairs));
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Plays one game and records its outcome in a batch from
+     * {@link SequentialEstimates#newBatch(int)}.
+     */
+    private void playGame(BatchSimulator simulator, long gameIndex, boolean mirrored, RunningStatistic[] batch) {
+        GameEngine engine = simulator.createGame(gameIndex, mirrored);
+        int turns = simulator.playGame(engine, new BatchResult(playerCount));
+        SequentialEstimates.record(batch, turns, engine.isGameOver() ? BatchSimulator.findWinner(engine) : -1);
+    }
+
+    /**
+     * Outcome of a paired comparison, with the metrics of
+     * {@link SequentialEstimates}: {@link SequentialEstimates#GAME_LENGTH},
+     * {@link SequentialEstimates#FINISHED} and {@link SequentialEstimates#wins(int)}.
+     */
+    public static final class Result {
+        private final int playerCount;
+        private long pairs;
+        private final RunningStatistic[] baseline;
+        private final RunningStatistic[] variant;
+        private final RunningStatistic[] difference;
+        private long elapsedNanos;
+
+        Result(int playerCount) {
+            this.playerCount = playerCount;
+            baseline = SequentialEstimates.newBatch(playerCount);
+            variant = SequentialEstimates.newBatch(playerCount);
+            difference = SequentialEstimates.newBatch(playerCount);
+        }
+
+        /**
+         * Adds one seed: its games under both rule sets and the difference of
+         * their means, so mirrored plays of a seed count as one observation.
+         */
+        void addPair(RunningStatistic[] base, RunningStatistic[] test) {
+            for (int i = 0; i < baseline.length; i++) {
+                baseline[i].merge(base[i]);
+                variant[i].merge(test[i]);
+                difference[i].add(test[i].getMean() - base[i].getMean());
+            }
+            pairs++;
+        }
+
+        Result merge(Result other) {
+            pairs += other.pairs;
+            for (int i = 0; i < baseline.length; i++) {
+                baseline[i].merge(other.baseline[i]);
+                variant[i].merge(other.variant[i]);
+                difference[i].merge(other.difference[i]);
+            }
+            return this;
+        }
+
+        /**
+         * Gets the number of seeds played by both rule sets.
+         *
+         * @return Number of pairs
+         */
+        public long getPairs() {
+            return pairs;
+        }
+
+        public int getMetricCount() {
+            return baseline.length;
+        }
+
+        /**
+         * Gets the statistics of single baseline games.
+         *
+         * @param metric The metric index
+         * @return One observation per baseline game played
+         */
+        public RunningStatistic getBaseline(int metric) {
+            return baseline[metric];
+        }
+
+        /**
+         * Gets the statistics of single variant games.
+         *
+         * @param metric The metric index
+         * @return One observation per variant game played
+         */
+        public RunningStatistic getVariant(int metric) {
+            return variant[metric];
+        }
+
+        /**
+         * Gets the paired differences, variant minus baseline.
+         *
+         * @param metric The metric index
+         * @return One observation per seed
+         */
+        public RunningStatistic getDifference(int metric) {
+            return difference[metric];
+        }
+
+        /**
+         * Estimates how many times more games two independent campaigns would
+         * need to measure the difference as precisely as this comparison.
+         *
+         * @param metric The metric index
+         * @return Ratio of the independent to the paired variance of the difference
+         */
+        public double getVarianceReduction(int metric) {
+            double paired = difference[metric].getVariance() / Math.max(1, pairs);
+            double independent = (baseline[metric].getVariance() + variant[metric].getVariance())
+                    / Math.max(1, baseline[metric].getCount());
+            return paired > 0 ? independent / paired : Double.POSITIVE_INFINITY;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Pairs:      %d (%d games per rule set, %d players)%n",
+                    pairs, baseline[SequentialEstimates.GAME_LENGTH].getCount(), playerCount));
+            sb.append(String.format("%-14s %10s %10s %21s %12s%n",
+                    "", "baseline", "variant", "difference (95%)", "reduction"));
+            for (int i = 0; i < baseline.length; i++) {
+                double scale = i == SequentialEstimates.GAME_LENGTH ? 1 : 100;
+                sb.append(String.format("%-14s %10.2f %10.2f %+10.2f +/- %6.2f %11.1fx%n",
+                        SequentialEstimates.getMetricName(i), scale * baseline[i].getMean(), scale * variant[i].getMean(),
+                        scale * difference[i].getMean(), scale * difference[i].getHalfWidth(RunningStatistic.Z_95),
+                        getVarianceReduction(i)));
+            }
+            sb.append(String.format("Elapsed:    %.2f s%n", elapsedNanos / 1e9));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Plays a contiguous range of seeds, splitting it in half until it is
+     * small enough to run directly.
+     */
+    private class PairRangeTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+        private final long from;
+        private final long to;
+
+        PairRangeTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= PAIRS_PER_TASK) {
+                Result result = new Result(playerCount);
+                for (long i = from; i < to; i++) {
+                    RunningStatistic[] base = SequentialEstimates.newBatch(playerCount);
+                    RunningStatistic[] test = SequentialEstimates.newBatch(playerCount);
+                    playGame(baseline, i, false, base);
+                    playGame(variant, i, false, test);
+                    if (antithetic) {
+                        playGame(baseline, i, true, base);
+                        playGame(variant, i, true, test);
+                    }
+                    result.addPair(base, test);
+                }
+                return result;
+            }
+            long mid = (from + to) >>> 1;
+            PairRangeTask left = new PairRangeTask(from, mid);
+            left.fork();
+            Result right = new PairRangeTask(mid, to).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: {@code java PairedComparison [options] parameter=value ...}
+     * <p>
+     * Options: {@code -games N} (seeds), {@code -players N}, {@code -turns N},
+     * {@code -threads N}, {@code -seed N} and {@code -antithetic}. A plain
+     * {@code parameter=value} changes the variant, {@code base.parameter=value}
+     * the baseline; both start from the default rules. Parameters are those of
+     * {@link RuleSweep#PARAMETERS}.
+     *
+     * @param args Options followed by the rule changes
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long pairs = 2000;
+        int players = 4;
+        int maxTurns = BatchSimulator.DEFAULT_MAX_TURNS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        boolean antithetic = false;
+        GameRules baselineRules = GameRules.DEFAULT;
+        GameRules variantRules = GameRules.DEFAULT;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-games": pairs = Long.parseLong(args[++i]); break;
+                    case "-players": players = Integer.parseInt(args[++i]); break;
+                    case "-turns": maxTurns = Integer.parseInt(args[++i]); break;
+                    case "-threads": threads = Integer.parseInt(args[++i]); break;
+                    case "-seed": seed = Long.parseLong(args[++i]); break;
+                    case "-antithetic": antithetic = true; break;
+                    default: {
+                        String[] parts = args[i].split("=", 2);
+                        if (parts.length != 2) {
+                            throw new IllegalArgumentException("Expected parameter=value: " + args[i]);
+                        }
+                        double value = Double.parseDouble(parts[1]);
+                        if (parts[0].startsWith("base.")) {
+                            baselineRules = RuleSweep.apply(baselineRules, parts[0].substring(5), value);
+                        } else {
+                            variantRules = RuleSweep.apply(variantRules, parts[0], value);
+                        }
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java PairedComparison [-games N] [-players N] [-turns N] [-threads N]"
+                    + " [-seed N] [-antithetic] [base.]parameter=value ...");
+            System.exit(1);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            PairedComparison comparison = new PairedComparison(baselineRules, variantRules, players, maxTurns,
+                    seed, pool);
+            comparison.setAntithetic(antithetic);
+            System.out.println("Baseline: " + baselineRules);
+            System.out.println("Variant:  " + variantRules);
+            System.out.println("Running " + pairs + " seeds" + (antithetic ? " with antithetic dice" : "")
+                    + " on " + threads + " threads (seed " + seed + ")...");
+            System.out.print(comparison.run(pairs));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -15,6 +16,9 @@ public class Player {
     private int getOutOfJailCards;
     private Character character;
     private boolean surrendered; // Track if player surrendered voluntarily
+    private int[] ownedInGroup; // Maintained by OwnershipIndex, indexed by colour group id
+    private int ownedRailroads;
+    private int ownedUtilities;
 
     /**
      * Initializes a new player with default values.
@@ -22,8 +26,18 @@ public class Player {
      * @param name The player's name
      */
     public Player(String name) {
+        this(name, GameRules.DEFAULT_STARTING_MONEY); // Doubled from the standard 1500
+    }
+
+    /**
+     * Initializes a new player with the given amount of money.
+     *
+     * @param name The player's name
+     * @param startingMoney The player's money at the start of the game
+     */
+    public Player(String name, int startingMoney) {
         this.name = name;
-        this.money = 3000; // Increased starting money (doubled from standard 1500)
+        this.money = startingMoney;
         this.position = 0; // Starting position ("GO" space)
         this.inJail = false;
         this.jailTurns = 0;
@@ -32,6 +46,9 @@ public class Player {
         this.getOutOfJailCards = 0;
         this.character = null;
         this.surrendered = false;
+        this.ownedInGroup = new int[0];
+        this.ownedRailroads = 0;
+        this.ownedUtilities = 0;
     }
 
     /**
@@ -189,6 +206,56 @@ public class Player {
         return null;
     }
 
+    /**
+     * Gets how many properties of a colour group the player owns.
+     * Kept up to date by the board's {@link OwnershipIndex}.
+     *
+     * @param group The colour group id
+     * @return Number of properties owned in that group
+     */
+    public int getOwnedInGroup(int group) {
+        return group < ownedInGroup.length ? ownedInGroup[group] : 0;
+    }
+
+    /**
+     * Gets how many railroads the player owns.
+     *
+     * @return Number of railroads owned
+     */
+    public int getOwnedRailroads() {
+        return ownedRailroads;
+    }
+
+    /**
+     * Gets how many utilities the player owns.
+     *
+     * @return Number of utilities owned
+     */
+    public int getOwnedUtilities() {
+        return ownedUtilities;
+    }
+
+    void adjustOwnedInGroup(int group, int delta, int groupCount) {
+        if (ownedInGroup.length < groupCount) {
+            ownedInGroup = Arrays.copyOf(ownedInGroup, groupCount);
+        }
+        ownedInGroup[group] += delta;
+    }
+
+    void adjustOwnedRailroads(int delta) {
+        ownedRailroads += delta;
+    }
+
+    void adjustOwnedUtilities(int delta) {
+        ownedUtilities += delta;
+    }
+
+    void resetOwnedCounts() {
+        Arrays.fill(ownedInGroup, 0);
+        ownedRailroads = 0;
+        ownedUtilities = 0;
+    }
+
     /**
      * Gives the player a Get Out of Jail Free card.
      */
@@ -272,6 +339,10 @@ public class Player {
     public int getMoney() {
         return money;
     }
+    
+    public void setMoney(int money) {
+        this.money = money;
+    }
 
     public int getPosition() {
         return position;
@@ -301,10 +372,18 @@ public class Player {
         return jailTurns;
     }
     
+    public void setJailTurns(int jailTurns) {
+        this.jailTurns = jailTurns;
+    }
+    
     public int getGetOutOfJailCards() {
         return getOutOfJailCards;
     }
     
+    public void setGetOutOfJailCards(int getOutOfJailCards) {
+        this.getOutOfJailCards = getOutOfJailCards;
+    }
+    
     public Character getCharacter() {
         return character;
     }
@@ -11,6 +11,7 @@ public class PlayerInfoPanel extends JPanel {
     private JLabel moneyLabel;
     private JLabel positionLabel;
     private JLabel statusLabel;
+    private JLabel oddsLabel;
     private JLabel characterImage;
     private Font infoFont; // Font will be scaled based on resolution
     private boolean isCurrentPlayer;
@@ -49,7 +50,7 @@ public class PlayerInfoPanel extends JPanel {
         add(characterImage, BorderLayout.WEST);
         
         // Player info on the right
-        JPanel infoPanel = new JPanel(new GridLayout(4, 1, 0, GameUtils.scale(5)));
+        JPanel infoPanel = new JPanel(new GridLayout(5, 1, 0, GameUtils.scale(5)));
         nameLabel = new JLabel();
         nameLabel.setFont(infoFont);
         
@@ -62,10 +63,14 @@ public class PlayerInfoPanel extends JPanel {
         statusLabel = new JLabel();
         statusLabel.setFont(infoFont);
         
+        oddsLabel = new JLabel("Win chance: ...");
+        oddsLabel.setFont(infoFont);
+        
         infoPanel.add(nameLabel);
         infoPanel.add(moneyLabel);
         infoPanel.add(positionLabel);
         infoPanel.add(statusLabel);
+        infoPanel.add(oddsLabel);
         
         add(infoPanel, BorderLayout.CENTER);
     }
@@ -98,6 +103,18 @@ public class PlayerInfoPanel extends JPanel {
         }
     }
     
+    /**
+     * Shows the player's estimated chance of winning.
+     * Must be called on the Event Dispatch Thread.
+     * 
+     * @param probability The win probability (0-1)
+     * @param finished False while the estimate is still being refined
+     */
+    public void setWinProbability(double probability, boolean finished) {
+        String text = String.format("Win chance: %.0f%%", probability * 100);
+        oddsLabel.setText(finished ? text : text + " ...");
+    }
+    
     /**
      * Updates the player displayed by this panel.
      * 
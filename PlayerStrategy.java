@@ -0,0 +1,154 @@
+/**
+ * Makes the choices a player has during a turn. Both {@link GameEngine} and
+ * {@link GameStateEngine} ask the strategy at every decision point; each
+ * method is only called when the action is legal and affordable. The view is
+ * live and must not be kept after the call returns.
+ * <p>
+ * Strategies used in batch simulation are shared by all games on all threads,
+ * so they should be stateless.
+ */
+public interface PlayerStrategy {
+    /**
+     * The choices the engine has always made: buy whatever is affordable,
+     * pay the jail fee after two turns and never build or mortgage.
+     */
+    PlayerStrategy DEFAULT = new PlayerStrategy() {
+        @Override
+        public boolean shouldBuy(DecisionView view, int player, int tile) {
+            return true;
+        }
+
+        @Override
+        public boolean shouldPayJailFee(DecisionView view, int player) {
+            return view.getJailTurns(player) >= 2;
+        }
+
+        @Override
+        public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+            return false;
+        }
+
+        @Override
+        public boolean shouldMortgage(DecisionView view, int player, int tile) {
+            return false;
+        }
+
+        @Override
+        public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+            return false;
+        }
+
+        @Override
+        public boolean managesProperties() {
+            return false;
+        }
+    };
+
+    /**
+     * Decides whether to buy an unowned space the player landed on.
+     *
+     * @param view The game
+     * @param player The deciding player's seat
+     * @param tile Board index of the space
+     * @return true to buy
+     */
+    boolean shouldBuy(DecisionView view, int player, int tile);
+
+    /**
+     * Decides whether a jailed player pays the fee instead of rolling for doubles.
+     *
+     * @param view The game
+     * @param player The deciding player's seat
+     * @return true to pay
+     */
+    boolean shouldPayJailFee(DecisionView view, int player);
+
+    /**
+     * Decides whether to build one house (or the hotel) on a property at the
+     * start of a turn. There is no separate hotel decision: when
+     * {@link DecisionView#getBuildings(int)} is 4, the next building is the
+     * hotel, which costs the same as a house.
+     *
+     * @param view The game
+     * @param player The deciding player's seat
+     * @param tile Board index of the property
+     * @return true to build
+     */
+    boolean shouldBuildHouse(DecisionView view, int player, int tile);
+
+    /**
+     * Decides whether to mortgage an undeveloped space at the start of a turn.
+     *
+     * @param view The game
+     * @param player The deciding player's seat
+     * @param tile Board index of the space
+     * @return true to mortgage
+     */
+    boolean shouldMortgage(DecisionView view, int player, int tile);
+
+    /**
+     * Decides whether to lift the mortgage on a space at the start of a turn.
+     *
+     * @param view The game
+     * @param player The deciding player's seat
+     * @param tile Board index of the space
+     * @return true to unmortgage
+     */
+    boolean shouldUnmortgage(DecisionView view, int player, int tile);
+
+    /**
+     * Tells the engines whether this strategy ever builds or (un)mortgages.
+     * If not, the start-of-turn property scan is skipped entirely.
+     *
+     * @return true if the build and mortgage methods should be asked
+     */
+    default boolean managesProperties() {
+        return true;
+    }
+
+    /**
+     * Combines one strategy per seat into a single strategy.
+     *
+     * @param seats The strategy for each seat
+     * @return A strategy that asks the deciding player's own strategy
+     */
+    static PlayerStrategy perSeat(PlayerStrategy... seats) {
+        PlayerStrategy[] strategies = seats.clone();
+        boolean manages = false;
+        for (PlayerStrategy strategy : strategies) {
+            manages |= strategy.managesProperties();
+        }
+        boolean anyManages = manages;
+        return new PlayerStrategy() {
+            @Override
+            public boolean shouldBuy(DecisionView view, int player, int tile) {
+                return strategies[player].shouldBuy(view, player, tile);
+            }
+
+            @Override
+            public boolean shouldPayJailFee(DecisionView view, int player) {
+                return strategies[player].shouldPayJailFee(view, player);
+            }
+
+            @Override
+            public boolean shouldBuildHouse(DecisionView view, int player, int tile) {
+                return strategies[player].shouldBuildHouse(view, player, tile);
+            }
+
+            @Override
+            public boolean shouldMortgage(DecisionView view, int player, int tile) {
+                return strategies[player].shouldMortgage(view, player, tile);
+            }
+
+            @Override
+            public boolean shouldUnmortgage(DecisionView view, int player, int tile) {
+                return strategies[player].shouldUnmortgage(view, player, tile);
+            }
+
+            @Override
+            public boolean managesProperties() {
+                return anyManages;
+            }
+        };
+    }
+}
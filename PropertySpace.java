@@ -11,6 +11,8 @@ public class PropertySpace extends Space implements Mortgageable {
     private boolean hasHotel;
     private int[] rentLevels; // Array of rent amounts for different development levels
     private boolean mortgaged;
+    private OwnershipIndex ownershipIndex;
+    private int colorGroupId;
     
     /**
      * Initializes a property space.
@@ -22,6 +24,21 @@ public class PropertySpace extends Space implements Mortgageable {
      * @param colorGroup The color group this property belongs to
      */
     public PropertySpace(String name, int price, int baseRent, int houseCost, String colorGroup) {
+        this(name, price, baseRent, houseCost, colorGroup, GameRules.DEFAULT);
+    }
+    
+    /**
+     * Initializes a property space whose rents follow the given rules.
+     *
+     * @param name Name of the property
+     * @param price Purchase price
+     * @param baseRent Base rent amount (rent with no houses/hotels)
+     * @param houseCost Cost to build one house
+     * @param colorGroup The color group this property belongs to
+     * @param rules The rules setting rents relative to the price
+     */
+    public PropertySpace(String name, int price, int baseRent, int houseCost, String colorGroup,
+                         GameRules rules) {
         super(name, SpaceType.PROPERTY);
         this.price = price;
         this.baseRent = baseRent;
@@ -31,25 +48,26 @@ public class PropertySpace extends Space implements Mortgageable {
         this.houses = 0;
         this.hasHotel = false;
         this.mortgaged = false;
+        this.ownershipIndex = null;
+        this.colorGroupId = -1;
         
         // Initialize rent levels based on property value
-        initializeRentLevels();
+        initializeRentLevels(rules);
     }
     
     /**
      * Initialize rent levels for different development states
-     * (no houses, 1-4 houses, hotel)
+     * (no houses, 1-4 houses, hotel). By default the base rent is 100% of
+     * the property price and every building adds another 100%, up to 600%
+     * for a hotel.
+     *
+     * @param rules The rules giving each level's rent in percent of the price
      */
-    private void initializeRentLevels() {
+    private void initializeRentLevels(GameRules rules) {
         rentLevels = new int[6]; // 0 houses, 1-4 houses, hotel
-        rentLevels[0] = price; // Base rent is 100% of property price
-        
-        // Calculate progressive rent levels based on property price
-        rentLevels[1] = price * 2;      // 1 house - 200% of property price
-        rentLevels[2] = price * 3;      // 2 houses - 300% of property price
-        rentLevels[3] = price * 4;      // 3 houses - 400% of property price
-        rentLevels[4] = price * 5;      // 4 houses - 500% of property price
-        rentLevels[5] = price * 6;      // hotel - 600% of property price
+        for (int level = 0; level < rentLevels.length; level++) {
+            rentLevels[level] = rules.rentFor(price, level);
+        }
     }
     
     @Override
@@ -69,39 +87,52 @@ public class PropertySpace extends Space implements Mortgageable {
         } else if (houses > 0) {
             return rentLevels[houses]; // House-based rent
         } else {
-            // Base rent is now 100% of property price (doubled if owner has monopoly)
-            int baseRentAmount = price; // 100% of property price instead of baseRent
+            // Base rent comes from the price (doubled if owner has monopoly)
+            int baseRentAmount = rentLevels[0];
             return hasMonopoly() ? baseRentAmount * 2 : baseRentAmount;
         }
     }
     
     /**
-     * Checks if the owner has a monopoly (owns all properties in this color group)
+     * Checks if the owner has a monopoly (owns all properties in this color group).
+     * The group is only known once the board is indexed, so a property that
+     * is not part of an indexed board never has a monopoly.
      *
      * @return true if owner has a monopoly on this color group
      */
     public boolean hasMonopoly() {
-        if (owner == null) return false;
-        
-        // Count properties in this color group owned by the player
-        int ownedInGroup = 0;
-        int totalInGroup = 0;
-        
-        for (Buyable property : owner.getProperties()) {
-            if (property instanceof PropertySpace) {
-                PropertySpace prop = (PropertySpace) property;
-                if (prop.getColorGroup().equals(colorGroup)) {
-                    totalInGroup++;
-                    if (prop.getOwner() == owner) {
-                        ownedInGroup++;
-                    }
-                }
-            }
-        }
+        if (owner == null || ownershipIndex == null) return false;
         
-        // Check if player owns all properties in the group
-        // This requires checking the total properties in the group on the board
-        return ownedInGroup > 0 && ownedInGroup == totalInGroup;
+        return ownershipIndex.hasMonopoly(owner, colorGroupId);
+    }
+    
+    /**
+     * Connects this property to its board's ownership index.
+     *
+     * @param index The board's index
+     * @param groupId The id of this property's colour group in the index
+     */
+    void attachOwnershipIndex(OwnershipIndex index, int groupId) {
+        this.ownershipIndex = index;
+        this.colorGroupId = groupId;
+    }
+    
+    /**
+     * Gets the ownership index this property reports to.
+     *
+     * @return The index, or null if the board was never indexed
+     */
+    public OwnershipIndex getOwnershipIndex() {
+        return ownershipIndex;
+    }
+    
+    /**
+     * Gets the id of this property's colour group in its ownership index.
+     *
+     * @return The group id, or -1 if the board was never indexed
+     */
+    public int getColorGroupId() {
+        return colorGroupId;
     }
     
     @Override
@@ -111,15 +142,23 @@ public class PropertySpace extends Space implements Mortgageable {
     
     @Override
     public void setOwner(Player owner) {
+        Player previous = this.owner;
         this.owner = owner;
+        if (ownershipIndex != null) {
+            ownershipIndex.ownerChanged(this, previous, owner);
+        }
     }
     
     @Override
     public void resetOwner() {
+        Player previous = this.owner;
         this.owner = null;
         this.houses = 0;
         this.hasHotel = false;
         this.mortgaged = false;
+        if (ownershipIndex != null) {
+            ownershipIndex.ownerChanged(this, previous, null);
+        }
     }
     
     /**
@@ -130,6 +169,7 @@ public class PropertySpace extends Space implements Mortgageable {
     public boolean addHouse() {
         if (houses < 4 && owner != null && hasMonopoly()) {
             houses++;
+            notifySpaceChanged();
             return true;
         }
         return false;
@@ -144,11 +184,30 @@ public class PropertySpace extends Space implements Mortgageable {
         if (houses == 4 && !hasHotel && owner != null) {
             houses = 0;
             hasHotel = true;
+            notifySpaceChanged();
             return true;
         }
         return false;
     }
     
+    /**
+     * Sets the buildings directly, e.g. when restoring a saved game state.
+     * No ownership or even-building rules are checked.
+     *
+     * @param level 0 for none, 1-4 for houses, 5 for a hotel
+     */
+    public void setDevelopmentLevel(int level) {
+        this.hasHotel = level >= 5;
+        this.houses = hasHotel ? 0 : level;
+        notifySpaceChanged();
+    }
+    
+    private void notifySpaceChanged() {
+        if (ownershipIndex != null) {
+            ownershipIndex.spaceChanged(this);
+        }
+    }
+    
     /**
      * Gets the number of houses on the property.
      *
@@ -219,15 +278,10 @@ public class PropertySpace extends Space implements Mortgageable {
         }
         
         // Check if building would violate the "build evenly" rule
-        for (Buyable property : owner.getProperties()) {
-            if (property instanceof PropertySpace) {
-                PropertySpace prop = (PropertySpace) property;
-                if (prop.getColorGroup().equals(colorGroup) && prop != this) {
-                    // If any property in the group has fewer houses, build there first
-                    if (prop.getHouses() < houses) {
-                        return false;
-                    }
-                }
+        for (PropertySpace prop : ownershipIndex.getGroupMembers(colorGroupId)) {
+            // If any property in the group has fewer houses, build there first
+            if (prop != this && !prop.hasHotel() && prop.getHouses() < houses) {
+                return false;
             }
         }
         
@@ -235,24 +289,21 @@ public class PropertySpace extends Space implements Mortgageable {
     }
     
     /**
-     * Checks if a hotel can be built on this property.
+     * Checks if a hotel can be built on this property. Every other property
+     * in the group must have 4 houses or a hotel already, so each property of
+     * a group can get its own hotel.
      *
      * @return true if a hotel can be built
      */
     public boolean canBuildHotel() {
-        if (owner == null || !hasMonopoly() || houses < 4 || hasHotel) {
+        if (owner == null || !hasMonopoly() || houses < 4 || hasHotel || mortgaged) {
             return false;
         }
         
-        // Check if all properties in the group have 4 houses
-        for (Buyable property : owner.getProperties()) {
-            if (property instanceof PropertySpace) {
-                PropertySpace prop = (PropertySpace) property;
-                if (prop.getColorGroup().equals(colorGroup)) {
-                    if (prop.getHouses() < 4 || prop.hasHotel()) {
-                        return false;
-                    }
-                }
+        // Check if all properties in the group have 4 houses or a hotel
+        for (PropertySpace prop : ownershipIndex.getGroupMembers(colorGroupId)) {
+            if (prop.getHouses() < 4 && !prop.hasHotel()) {
+                return false;
             }
         }
         
@@ -268,6 +319,7 @@ public class PropertySpace extends Space implements Mortgageable {
     public int mortgage() {
         if (!mortgaged) {
             mortgaged = true;
+            notifySpaceChanged();
             return getMortgageValue();
         }
         return 0;
@@ -277,6 +329,7 @@ public class PropertySpace extends Space implements Mortgageable {
     public int unmortgage() {
         if (mortgaged) {
             mortgaged = false;
+            notifySpaceChanged();
             return 1; // Success
         }
         return 0;
@@ -7,6 +7,7 @@ public class RailroadSpace extends Space implements Mortgageable {
     // Base rent for owning 1 railroad
     private static final int BASE_RENT = 25; 
     private boolean mortgaged;
+    private OwnershipIndex ownershipIndex;
 
     /**
      * Initializes a new Railroad space.
@@ -33,9 +34,8 @@ public class RailroadSpace extends Space implements Mortgageable {
 
     /**
      * Calculates the rent for landing on this railroad.
-     * NOTE: This implementation is basic. The actual rent depends on the *total number*
-     * of railroads owned by the owner. This calculation should ideally happen 
-     * within the GameEngine where owner information is readily available.
+     * The rent depends on the total number of railroads owned by the owner,
+     * which the board's {@link OwnershipIndex} keeps on the Player.
      *
      * @return The calculated rent amount (based on standard Monopoly rules).
      */
@@ -45,21 +45,29 @@ public class RailroadSpace extends Space implements Mortgageable {
             return 0; // No rent if unowned or mortgaged
         }
         
-        // TODO: Refactor rent calculation to GameEngine or pass owner's railroad count.
-        // For now, just return base rent. The actual logic is more complex:
         // Rent is $25, $50, $100, $200 for 1, 2, 3, or 4 railroads owned respectively.
-        // We need to count how many RailroadSpace objects the owner has in their properties list.
-        
-        // Count railroads owned by the owner
-        int railroadCount = 0;
-        if (owner != null) {
-             for (Buyable p : owner.getProperties()) {
-                 if (p instanceof RailroadSpace) {
-                     railroadCount++;
-                 }
-             }
+        int railroadCount;
+        if (ownershipIndex != null) {
+            railroadCount = owner.getOwnedRailroads();
+        } else {
+            railroadCount = 0;
+            for (Buyable p : owner.getProperties()) {
+                if (p instanceof RailroadSpace) {
+                    railroadCount++;
+                }
+            }
         }
         
+        return getRentForCount(railroadCount);
+    }
+
+    /**
+     * Gets the rent of a railroad whose owner holds a number of railroads.
+     *
+     * @param railroadCount Railroads owned by the owner (1-4)
+     * @return The rent amount
+     */
+    public static int getRentForCount(int railroadCount) {
         switch (railroadCount) {
             case 1: return BASE_RENT;      // 1 * 25
             case 2: return BASE_RENT * 2;  // 2 * 25 = 50
@@ -69,6 +77,15 @@ public class RailroadSpace extends Space implements Mortgageable {
         }
     }
 
+    /**
+     * Connects this railroad to its board's ownership index.
+     *
+     * @param index The board's index
+     */
+    void attachOwnershipIndex(OwnershipIndex index) {
+        this.ownershipIndex = index;
+    }
+
     @Override
     public Player getOwner() {
         return owner;
@@ -76,13 +93,21 @@ public class RailroadSpace extends Space implements Mortgageable {
 
     @Override
     public void setOwner(Player owner) {
+        Player previous = this.owner;
         this.owner = owner;
+        if (ownershipIndex != null) {
+            ownershipIndex.ownerChanged(this, previous, owner);
+        }
     }
 
     @Override
     public void resetOwner() {
+        Player previous = this.owner;
         this.owner = null;
         this.mortgaged = false;
+        if (ownershipIndex != null) {
+            ownershipIndex.ownerChanged(this, previous, null);
+        }
     }
     
     @Override
@@ -94,6 +119,9 @@ public class RailroadSpace extends Space implements Mortgageable {
     public int mortgage() {
         if (!mortgaged) {
             mortgaged = true;
+            if (ownershipIndex != null) {
+                ownershipIndex.spaceChanged(this);
+            }
             return getMortgageValue();
         }
         return 0;
@@ -103,6 +131,9 @@ public class RailroadSpace extends Space implements Mortgageable {
     public int unmortgage() {
         if (mortgaged) {
             mortgaged = false;
+            if (ownershipIndex != null) {
+                ownershipIndex.spaceChanged(this);
+            }
             return 1; // Success
         }
         return 0;
@@ -0,0 +1,340 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Explores variants of the {@link GameRules} by simulation. Configurations
+ * come from a grid (every combination of listed values) or from a random
+ * search (values drawn uniformly from ranges); each is played as a
+ * {@link BatchSimulator} campaign and measured by its average game length
+ * and first-player advantage.
+ * <p>
+ * All configurations are queued on one shared fork-join pool at once, so the
+ * pool stays busy across configuration boundaries. Every configuration plays
+ * the same seeded games, so differences between them come from the rules
+ * rather than from the dice.
+ */
+public class RuleSweep {
+    /** Names of the parameters a sweep can vary. */
+    public static final String[] PARAMETERS = {
+        "goSalary", "jailFee", "maxJailTurns", "startingMoney", "rentScale", "interestRate"
+    };
+
+    private final int playerCount;
+    private final int maxTurns;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a sweep runner.
+     *
+     * @param playerCount Number of players in each game
+     * @param maxTurns Turn limit after which a game is abandoned without a winner
+     * @param seed Campaign seed shared by every configuration
+     * @param pool The pool all games run on
+     */
+    public RuleSweep(int playerCount, int maxTurns, long seed, ForkJoinPool pool) {
+        this.playerCount = playerCount;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * One point of a sweep: the swept parameter values and the rules they give.
+     */
+    public static final class Configuration {
+        private final String[] names;
+        private final double[] values;
+        private final GameRules rules;
+
+        Configuration(String[] names, double[] values, GameRules rules) {
+            this.names = names;
+            this.values = values;
+            this.rules = rules;
+        }
+
+        public GameRules getRules() {
+            return rules;
+        }
+
+        /**
+         * Formats the swept parameters.
+         *
+         * @return Such as {@code "goSalary=200 jailFee=50"}
+         */
+        public String getLabel() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    sb.append(' ');
+                }
+                double value = values[i];
+                sb.append(names[i]).append('=')
+                        .append(value == Math.rint(value) ? Long.toString((long) value) : String.format("%.3f", value));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * The measured outcome of one configuration.
+     */
+    public static final class Outcome {
+        private final Configuration configuration;
+        private final BatchResult result;
+
+        Outcome(Configuration configuration, BatchResult result) {
+            this.configuration = configuration;
+            this.result = result;
+        }
+
+        public Configuration getConfiguration() {
+            return configuration;
+        }
+
+        public BatchResult getResult() {
+            return result;
+        }
+
+        public double getAverageTurns() {
+            return result.getAverageTurns();
+        }
+
+        /**
+         * Gets the first player's win rate above a fair share.
+         *
+         * @return Win rate of seat 1 among finished games minus 1 / players
+         */
+        public double getFirstPlayerAdvantage() {
+            long finished = result.getFinishedGames();
+            return finished > 0 ? (double) result.getWins(0) / finished - 1.0 / result.getPlayerCount() : 0.0;
+        }
+
+        /**
+         * Gets the standard error of {@link #getFirstPlayerAdvantage()}.
+         *
+         * @return One standard error of the first player's win rate
+         */
+        public double getFirstPlayerAdvantageError() {
+            long finished = result.getFinishedGames();
+            if (finished == 0) {
+                return 0.0;
+            }
+            double rate = (double) result.getWins(0) / finished;
+            return Math.sqrt(rate * (1 - rate) / finished);
+        }
+
+        /**
+         * Gets the share of games that ended before the turn limit.
+         *
+         * @return Fraction between 0 and 1
+         */
+        public double getFinishedShare() {
+            return result.getGames() > 0 ? (double) result.getFinishedGames() / result.getGames() : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-50s %7.1f turns  %5.1f%% finished  first player %+5.1f%% (+/- %.1f)",
+                    configuration.getLabel(), getAverageTurns(), 100 * getFinishedShare(),
+                    100 * getFirstPlayerAdvantage(), 100 * getFirstPlayerAdvantageError());
+        }
+    }
+
+    /**
+     * Plays every configuration and blocks until all are done.
+     *
+     * @param configurations The configurations
+     * @param games Games per configuration
+     * @return The outcomes, in the order of the configurations
+     */
+    public List<Outcome> run(List<Configuration> configurations, long games) {
+        List<ForkJoinTask<BatchResult>> campaigns = new ArrayList<>();
+        for (Configuration configuration : configurations) {
+            BatchSimulator simulator = new BatchSimulator(playerCount, maxTurns, seed, pool);
+            simulator.setRules(configuration.getRules());
+            campaigns.add(pool.submit(() -> simulator.run(games)));
+        }
+        List<Outcome> outcomes = new ArrayList<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            outcomes.add(new Outcome(configurations.get(i), campaigns.get(i).join()));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Sets one parameter of the rules.
+     *
+     * @param rules The rules to modify
+     * @param parameter One of {@link #PARAMETERS}; {@code rentScale} is in
+     *                  percent of the given rules' rents
+     * @param value The new value
+     * @return The modified rules
+     */
+    public static GameRules apply(GameRules rules, String parameter, double value) {
+        switch (parameter) {
+            case "goSalary": return rules.withGoSalary((int) Math.round(value));
+            case "jailFee": return rules.withJailFee((int) Math.round(value));
+            case "maxJailTurns": return rules.withMaxJailTurns((int) Math.round(value));
+            case "startingMoney": return rules.withStartingMoney((int) Math.round(value));
+            case "rentScale": return rules.withRentScale((int) Math.round(value));
+            case "interestRate": return rules.withInterestRate(value);
+            default: throw new IllegalArgumentException("Unknown rule parameter: " + parameter);
+        }
+    }
+
+    /**
+     * Builds every combination of the given parameter values.
+     *
+     * @param base The rules the parameters are applied to
+     * @param axes Values of each parameter, in the order the parameters should vary (last fastest)
+     * @return The configurations
+     */
+    public static List<Configuration> grid(GameRules base, Map<String, double[]> axes) {
+        String[] names = axes.keySet().toArray(new String[0]);
+        List<Configuration> configurations = new ArrayList<>();
+        int[] index = new int[names.length];
+        while (true) {
+            double[] values = new double[names.length];
+            GameRules rules = base;
+            for (int i = 0; i < names.length; i++) {
+                values[i] = axes.get(names[i])[index[i]];
+                rules = apply(rules, names[i], values[i]);
+            }
+            configurations.add(new Configuration(names, values, rules));
+            int axis = names.length - 1;
+            while (axis >= 0 && ++index[axis] == axes.get(names[axis]).length) {
+                index[axis--] = 0;
+            }
+            if (axis < 0) {
+                return configurations;
+            }
+        }
+    }
+
+    /**
+     * Draws configurations with every parameter uniform in its range. Integer
+     * parameters are rounded.
+     *
+     * @param base The rules the parameters are applied to
+     * @param ranges Lowest and highest value of each parameter
+     * @param samples Number of configurations
+     * @param seed Seed of the draws
+     * @return The configurations
+     */
+    public static List<Configuration> randomSearch(GameRules base, Map<String, double[]> ranges, int samples,
+                                                   long seed) {
+        String[] names = ranges.keySet().toArray(new String[0]);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Configuration> configurations = new ArrayList<>();
+        for (int s = 0; s < samples; s++) {
+            double[] values = new double[names.length];
+            GameRules rules = base;
+            for (int i = 0; i < names.length; i++) {
+                double[] range = ranges.get(names[i]);
+                double value = range[0] + random.nextDouble() * (range[1] - range[0]);
+                values[i] = names[i].equals("interestRate") ? value : Math.round(value);
+                rules = apply(rules, names[i], values[i]);
+            }
+            configurations.add(new Configuration(names, values, rules));
+        }
+        return configurations;
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: {@code java RuleSweep [options] parameter=values ...}
+     * <p>
+     * Options: {@code -games N} (per configuration), {@code -players N},
+     * {@code -turns N}, {@code -threads N}, {@code -seed N} and
+     * {@code -random N} to draw N configurations instead of a grid. For a
+     * grid, values are listed ({@code goSalary=100,200,300}); for a random
+     * search, each parameter takes a range ({@code jailFee=0:200}).
+     * Parameters: goSalary, jailFee, maxJailTurns, startingMoney, rentScale
+     * (percent), interestRate.
+     *
+     * @param args Options followed by the swept parameters
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long games = 2000;
+        int players = 4;
+        int maxTurns = BatchSimulator.DEFAULT_MAX_TURNS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        int samples = 0;
+        Map<String, double[]> axes = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-games": games = Long.parseLong(args[++i]); break;
+                case "-players": players = Integer.parseInt(args[++i]); break;
+                case "-turns": maxTurns = Integer.parseInt(args[++i]); break;
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                case "-random": samples = Integer.parseInt(args[++i]); break;
+                default: {
+                    String[] parts = args[i].split("=", 2);
+                    if (parts.length != 2) {
+                        System.err.println("Expected parameter=values: " + args[i]);
+                        System.exit(1);
+                    }
+                    String[] values = parts[1].split(parts[1].indexOf(':') >= 0 ? ":" : ",");
+                    double[] numbers = new double[values.length];
+                    for (int v = 0; v < values.length; v++) {
+                        numbers[v] = Double.parseDouble(values[v]);
+                    }
+                    axes.put(parts[0], numbers);
+                }
+            }
+        }
+        if (axes.isEmpty()) {
+            System.err.println("Usage: java RuleSweep [-games N] [-players N] [-turns N] [-threads N] [-seed N]"
+                    + " [-random N] parameter=v1,v2,... | parameter=min:max ...");
+            System.exit(1);
+        }
+
+        List<Configuration> configurations;
+        try {
+            if (samples > 0) {
+                for (Map.Entry<String, double[]> range : axes.entrySet()) {
+                    if (range.getValue().length != 2) {
+                        throw new IllegalArgumentException("A random search needs min:max for " + range.getKey());
+                    }
+                }
+                configurations = randomSearch(GameRules.DEFAULT, axes, samples, seed);
+            } else {
+                configurations = grid(GameRules.DEFAULT, axes);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            System.out.println("Sweeping " + configurations.size() + " configurations, " + games + " games each, "
+                    + players + " players on " + threads + " threads (seed " + seed + ")...");
+            long start = System.nanoTime();
+            List<Outcome> outcomes = new RuleSweep(players, maxTurns, seed, pool).run(configurations, games);
+            Outcome fairest = null;
+            for (Outcome outcome : outcomes) {
+                System.out.println(outcome);
+                if (fairest == null
+                        || Math.abs(outcome.getFirstPlayerAdvantage()) < Math.abs(fairest.getFirstPlayerAdvantage())) {
+                    fairest = outcome;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Smallest first-player advantage: %s%n", fairest.getConfiguration().getLabel());
+            System.out.printf("%.1f s, %.0f games/s%n", seconds, configurations.size() * games / seconds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
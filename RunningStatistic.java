@@ -0,0 +1,87 @@
+/**
+ * Mean and variance of a stream of observations, updated one value at a time
+ * with Welford's method so that long campaigns do not lose precision.
+ * Statistics gathered on separate tasks are combined with
+ * {@link #merge(RunningStatistic)}. Instances are not thread-safe.
+ */
+public class RunningStatistic {
+    /** Normal quantile for a two-sided 95% confidence interval. */
+    public static final double Z_95 = 1.959963984540054;
+
+    private long count;
+    private double mean;
+    // Sum of squared deviations from the mean
+    private double m2;
+
+    /**
+     * Adds one observation.
+     *
+     * @param value The observed value
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Adds the observations of another statistic into this one.
+     *
+     * @param other The statistic to fold in
+     * @return This statistic, for chaining
+     */
+    public RunningStatistic merge(RunningStatistic other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the sample variance of the observations.
+     *
+     * @return The unbiased variance, or 0 for fewer than two observations
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    /**
+     * Gets the standard error of the mean.
+     *
+     * @return Standard deviation of the mean estimate
+     */
+    public double getStandardError() {
+        return count > 1 ? Math.sqrt(getVariance() / count) : 0.0;
+    }
+
+    /**
+     * Gets half the width of a normal-approximation confidence interval for
+     * the mean.
+     *
+     * @param z The normal quantile, such as {@link #Z_95}
+     * @return The mean plus or minus this value covers the true mean
+     */
+    public double getHalfWidth(double z) {
+        return z * getStandardError();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.4f +/- %.4f (n=%d)", mean, getHalfWidth(Z_95), count);
+    }
+}
@@ -0,0 +1,222 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A file of saved games in {@link SaveGameFormat}, opened by memory-mapping
+ * it. Decoding a position is a few dozen absolute reads from the mapped
+ * buffer into a reusable {@link GameState}, so large archives of positions
+ * (for analysis or as rollout starting points) load in well under a
+ * microsecond per game. A single saved game is simply an archive with one
+ * record. Files are limited to 2 GB.
+ */
+public class SaveGameArchive {
+    private final ByteBuffer buffer;
+    private final SaveGameFormat format;
+    private final int count;
+
+    private SaveGameArchive(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.format = SaveGameFormat.readHeader(buffer);
+        long records = SaveGameFormat.readRecordCount(buffer);
+        if (records < 0 || format.recordOffset(records) > buffer.limit()) {
+            throw new IllegalArgumentException("Save file is truncated");
+        }
+        this.count = (int) records;
+    }
+
+    /**
+     * Opens and maps an archive.
+     *
+     * @param path The file
+     * @return The archive
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a supported save file
+     */
+    public static SaveGameArchive open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Save file is larger than 2 GB");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SaveGameArchive(buffer);
+        }
+    }
+
+    /**
+     * Reads an archive that is already in memory, such as one embedded in
+     * another file. The buffer's contents from its position on are used.
+     *
+     * @param buffer The archive bytes; they must not change while in use
+     * @return The archive
+     * @throws IllegalArgumentException if the bytes are not a supported save file
+     */
+    public static SaveGameArchive wrap(ByteBuffer buffer) {
+        return new SaveGameArchive(buffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public SaveGameFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Decodes a saved position. Cards are identified by their index in the
+     * standard decks.
+     *
+     * @param index The record index
+     * @param target The state to overwrite (see {@link SaveGameFormat#newState()})
+     */
+    public void readState(int index, GameState target) {
+        format.readState(buffer, offset(index), target);
+    }
+
+    /**
+     * Reads the player names of a saved game.
+     *
+     * @param index The record index
+     * @return The names, by seat
+     */
+    public String[] getNames(int index) {
+        return format.readNames(buffer, offset(index));
+    }
+
+    /**
+     * Recreates the dice's random source of a saved game.
+     *
+     * @param index The record index
+     * @return The random source, or null if it was not saved
+     */
+    public GameRandom getDiceRandom(int index) {
+        return format.readDiceRandom(buffer, offset(index));
+    }
+
+    /**
+     * Rebuilds a complete game from a record, with the standard board and
+     * decks. If the dice's random state was saved the game continues with exactly
+     * the rolls it would have had.
+     *
+     * @param index The record index
+     * @return The game, ready for its next turn
+     */
+    public GameEngine loadGame(int index) {
+        GameRandom diceRandom = getDiceRandom(index);
+        return loadGame(index, diceRandom != null ? new Dice(diceRandom) : new Dice());
+    }
+
+    /**
+     * Rebuilds a complete game from a record, rolling the given dice instead
+     * of the saved dice's random source.
+     *
+     * @param index The record index
+     * @param dice The dice the game will roll
+     * @return The game, ready for its next turn
+     */
+    public GameEngine loadGame(int index, Dice dice) {
+        GameEngine engine = new GameEngine(Arrays.asList(getNames(index)), dice, new MortgageServiceImpl(),
+                BoardInitializer.createBoard(), CardDeckManager.createChanceCards(),
+                CardDeckManager.createCommunityChestCards());
+        engine.restoreSaved(this, index);
+        return engine;
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("No saved game " + index);
+        }
+        return (int) format.recordOffset(index);
+    }
+
+    /**
+     * Writes an archive record by record. The header is completed on close.
+     */
+    public static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final SaveGameFormat format;
+        private final ByteBuffer record;
+        private final GameState scratch;
+        private long count;
+
+        /**
+         * Creates or replaces an archive file.
+         *
+         * @param path The file
+         * @param format The layout of the games to be written
+         * @throws IOException if the file cannot be created
+         */
+        public Writer(Path path, SaveGameFormat format) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.format = format;
+            this.record = ByteBuffer.allocate(Math.max(format.getRecordSize(), SaveGameFormat.HEADER_SIZE))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            this.scratch = format.newState();
+            writeHeader();
+        }
+
+        /**
+         * Appends a game in progress, including its dice's random state when
+         * the dice use a {@link GameRandom}.
+         *
+         * @param engine The game
+         * @throws IOException if writing fails
+         * @throws IllegalStateException if the game is played by custom {@link GameRules}
+         */
+        public void append(GameEngine engine) throws IOException {
+            engine.requireDefaultRules();
+            engine.captureSaveState(scratch);
+            append(scratch, engine.getPlayerNames(), engine.getSavableDiceRandom());
+        }
+
+        /**
+         * Appends a position.
+         *
+         * @param state The position, with cards identified by their standard index
+         * @param names Player names, by seat
+         * @param diceRandom The dice's random source, or null
+         * @throws IOException if writing fails
+         */
+        public void append(GameState state, List<String> names, GameRandom diceRandom) throws IOException {
+            record.clear().limit(format.getRecordSize());
+            format.writeRecord(record, 0, state, names, diceRandom);
+            long position = format.recordOffset(count);
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            count++;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        private void writeHeader() throws IOException {
+            record.clear().limit(SaveGameFormat.HEADER_SIZE);
+            format.writeHeader(record, count);
+            long position = 0;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writeHeader();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The binary layout of saved games.
+ * <p>
+ * A save file is a 32-byte header followed by any number of fixed-size game
+ * records, all little-endian. Every field of a record sits at an offset that
+ * only depends on the game's shape (players, spaces, deck sizes), which the
+ * header stores, so record {@code i} starts at
+ * {@code HEADER_SIZE + i * recordSize} and can be decoded straight out of a
+ * memory-mapped file with absolute reads, without parsing or reflection.
+ * <p>
+ * Header: magic "MNPS", version, player count, space count, Chance and
+ * Community Chest deck sizes, name field size, record size and record count.
+ * <p>
+ * Record, in order: the dice's random state (seed and gamma),
+ * the mortgage bit set, money per player, position, flags, jail turns and
+ * jail cards per player, owner and buildings per space, for each deck its
+ * card ids top first, the holder of each card and the number of cards in the
+ * deck, then current player, dice values, doubles count, record flags and
+ * finally the player names as zero-padded UTF-8, cut to {@link #NAME_BYTES}
+ * at a character boundary. Cards are identified by
+ * their index in {@link CardDeckManager#createChanceCards()} and
+ * {@link CardDeckManager#createCommunityChestCards()}.
+ */
+public final class SaveGameFormat {
+    public static final int MAGIC = 0x53504e4d; // "MNPS" in little-endian
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 32;
+    /** Bytes reserved for each player name (UTF-8, zero-padded). */
+    public static final int NAME_BYTES = 32;
+
+    /** Record flag: the game is over. */
+    public static final int FLAG_GAME_OVER = 1;
+    /** Record flag: the dice's random state is valid (the dice used a {@link GameRandom}). */
+    public static final int FLAG_RANDOM_STATE = 2;
+
+    // Header offsets
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_PLAYERS = 6;
+    private static final int H_TILES = 7;
+    private static final int H_CHANCE = 8;
+    private static final int H_COMMUNITY_CHEST = 9;
+    private static final int H_NAME_BYTES = 10;
+    private static final int H_RECORD_SIZE = 12;
+    private static final int H_RECORD_COUNT = 16;
+
+    private final int playerCount;
+    private final int tileCount;
+    private final int chanceSize;
+    private final int communityChestSize;
+
+    // Record offsets
+    private final int randomOffset;
+    private final int mortgagedOffset;
+    private final int mortgagedWords;
+    private final int moneyOffset;
+    private final int playerOffset;
+    private final int ownerOffset;
+    private final int buildingsOffset;
+    private final int chanceOffset;
+    private final int communityChestOffset;
+    private final int turnOffset;
+    private final int namesOffset;
+    private final int recordSize;
+
+    /**
+     * Computes the layout for a game shape.
+     *
+     * @param playerCount Number of players
+     * @param tileCount Number of spaces on the board
+     * @param chanceSize Number of Chance cards
+     * @param communityChestSize Number of Community Chest cards
+     */
+    public SaveGameFormat(int playerCount, int tileCount, int chanceSize, int communityChestSize) {
+        if (playerCount > 127 || tileCount > 127 || chanceSize > 127 || communityChestSize > 127) {
+            throw new IllegalArgumentException("Game is too large for the save format");
+        }
+        this.playerCount = playerCount;
+        this.tileCount = tileCount;
+        this.chanceSize = chanceSize;
+        this.communityChestSize = communityChestSize;
+
+        int offset = 0;
+        randomOffset = offset;
+        offset += 2 * Long.BYTES;
+        mortgagedOffset = offset;
+        mortgagedWords = (tileCount + 63) >>> 6;
+        offset += mortgagedWords * Long.BYTES;
+        moneyOffset = offset;
+        offset += playerCount * Integer.BYTES;
+        playerOffset = offset;
+        offset += playerCount * 4;
+        ownerOffset = offset;
+        offset += tileCount;
+        buildingsOffset = offset;
+        offset += tileCount;
+        chanceOffset = offset;
+        offset += 2 * chanceSize + 1;
+        communityChestOffset = offset;
+        offset += 2 * communityChestSize + 1;
+        turnOffset = offset;
+        offset += 5;
+        namesOffset = offset;
+        offset += playerCount * NAME_BYTES;
+        recordSize = (offset + 7) & ~7;
+    }
+
+    /**
+     * Gets the layout matching a state's shape.
+     *
+     * @param state The state
+     * @return The layout
+     */
+    public static SaveGameFormat forState(GameState state) {
+        return new SaveGameFormat(state.playerCount, state.tileCount,
+                state.chanceHolder.length, state.communityChestHolder.length);
+    }
+
+    /**
+     * Reads and checks a file header.
+     *
+     * @param buffer The file contents
+     * @return The layout of the file's records
+     * @throws IllegalArgumentException if the header is not a supported save file
+     */
+    public static SaveGameFormat readHeader(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IllegalArgumentException("Not a saved game file");
+        }
+        short version = buffer.getShort(H_VERSION);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported save file version " + version);
+        }
+        SaveGameFormat format = new SaveGameFormat(buffer.get(H_PLAYERS), buffer.get(H_TILES),
+                buffer.get(H_CHANCE), buffer.get(H_COMMUNITY_CHEST));
+        if (buffer.getShort(H_NAME_BYTES) != NAME_BYTES || buffer.getInt(H_RECORD_SIZE) != format.recordSize) {
+            throw new IllegalArgumentException("Save file layout does not match its header");
+        }
+        return format;
+    }
+
+    /**
+     * Reads the record count from a file header.
+     *
+     * @param buffer The file contents
+     * @return Number of records
+     */
+    public static long readRecordCount(ByteBuffer buffer) {
+        return buffer.order(ByteOrder.LITTLE_ENDIAN).getLong(H_RECORD_COUNT);
+    }
+
+    /**
+     * Writes a file header.
+     *
+     * @param buffer Receives the header at position 0 (at least {@link #HEADER_SIZE} bytes)
+     * @param recordCount Number of records that follow
+     */
+    public void writeHeader(ByteBuffer buffer, long recordCount) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(H_MAGIC, MAGIC);
+        buffer.putShort(H_VERSION, VERSION);
+        buffer.put(H_PLAYERS, (byte) playerCount);
+        buffer.put(H_TILES, (byte) tileCount);
+        buffer.put(H_CHANCE, (byte) chanceSize);
+        buffer.put(H_COMMUNITY_CHEST, (byte) communityChestSize);
+        buffer.putShort(H_NAME_BYTES, (short) NAME_BYTES);
+        buffer.putInt(H_RECORD_SIZE, recordSize);
+        buffer.putLong(H_RECORD_COUNT, recordCount);
+        buffer.putLong(24, 0L);
+    }
+
+    /**
+     * Gets the byte offset of a record in a file.
+     *
+     * @param index The record index
+     * @return The offset from the start of the file
+     */
+    public long recordOffset(long index) {
+        return HEADER_SIZE + index * recordSize;
+    }
+
+    /**
+     * Writes one game as a record.
+     *
+     * @param buffer The target buffer (little-endian)
+     * @param offset Offset of the record in the buffer
+     * @param state The game state, with cards identified by their standard index
+     * @param names Player names, by seat
+     * @param diceRandom The dice's random source, or null if it cannot be saved
+     */
+    public void writeRecord(ByteBuffer buffer, int offset, GameState state, List<String> names,
+                            GameRandom diceRandom) {
+        checkShape(state);
+        boolean hasRandom = diceRandom != null;
+        buffer.putLong(offset + randomOffset, hasRandom ? diceRandom.getSeed() : 0);
+        buffer.putLong(offset + randomOffset + 8, hasRandom ? diceRandom.getGamma() : 0);
+        for (int w = 0; w < mortgagedWords; w++) {
+            buffer.putLong(offset + mortgagedOffset + w * Long.BYTES, state.mortgaged[w]);
+        }
+        for (int p = 0; p < playerCount; p++) {
+            buffer.putInt(offset + moneyOffset + p * Integer.BYTES, state.money[p]);
+            int at = offset + playerOffset + p * 4;
+            buffer.put(at, state.position[p]);
+            buffer.put(at + 1, state.flags[p]);
+            buffer.put(at + 2, state.jailTurns[p]);
+            buffer.put(at + 3, state.jailCards[p]);
+        }
+        buffer.put(offset + ownerOffset, state.owner, 0, tileCount);
+        buffer.put(offset + buildingsOffset, state.buildings, 0, tileCount);
+        writeDeck(buffer, offset + chanceOffset, state.chanceDeck, state.chanceHead, state.chanceCount,
+                state.chanceHolder);
+        writeDeck(buffer, offset + communityChestOffset, state.communityChestDeck, state.communityChestHead,
+                state.communityChestCount, state.communityChestHolder);
+        int at = offset + turnOffset;
+        buffer.put(at, (byte) state.currentPlayer);
+        buffer.put(at + 1, (byte) state.die1);
+        buffer.put(at + 2, (byte) state.die2);
+        buffer.put(at + 3, (byte) state.consecutiveDoubles);
+        buffer.put(at + 4, (byte) ((state.gameOver ? FLAG_GAME_OVER : 0) | (hasRandom ? FLAG_RANDOM_STATE : 0)));
+        for (int p = 0; p < playerCount; p++) {
+            byte[] name = p < names.size() ? names.get(p).getBytes(StandardCharsets.UTF_8) : new byte[0];
+            int length = Math.min(name.length, NAME_BYTES);
+            // Never cut a multibyte character in half
+            while (length < name.length && length > 0 && (name[length] & 0xC0) == 0x80) {
+                length--;
+            }
+            int start = offset + namesOffset + p * NAME_BYTES;
+            buffer.put(start, name, 0, length);
+            for (int i = length; i < NAME_BYTES; i++) {
+                buffer.put(start + i, (byte) 0);
+            }
+        }
+        for (int i = namesOffset + playerCount * NAME_BYTES; i < recordSize; i++) {
+            buffer.put(offset + i, (byte) 0);
+        }
+    }
+
+    private static void writeDeck(ByteBuffer buffer, int at, byte[] ring, int head, int count, byte[] holders) {
+        int size = holders.length;
+        for (int i = 0; i < size; i++) {
+            buffer.put(at + i, i < count ? ring[(head + i) % ring.length] : 0);
+        }
+        buffer.put(at + size, holders, 0, size);
+        buffer.put(at + 2 * size, (byte) count);
+    }
+
+    /**
+     * Decodes the game state of a record into an existing state.
+     * This is a handful of absolute reads and allocates nothing.
+     *
+     * @param buffer The source buffer (little-endian)
+     * @param offset Offset of the record in the buffer
+     * @param target The state to overwrite; must have this layout's shape
+     */
+    public void readState(ByteBuffer buffer, int offset, GameState target) {
+        checkShape(target);
+        for (int w = 0; w < mortgagedWords; w++) {
+            target.mortgaged[w] = buffer.getLong(offset + mortgagedOffset + w * Long.BYTES);
+        }
+        for (int p = 0; p < playerCount; p++) {
+            target.money[p] = buffer.getInt(offset + moneyOffset + p * Integer.BYTES);
+            int at = offset + playerOffset + p * 4;
+            target.position[p] = buffer.get(at);
+            target.flags[p] = buffer.get(at + 1);
+            target.jailTurns[p] = buffer.get(at + 2);
+            target.jailCards[p] = buffer.get(at + 3);
+        }
+        buffer.get(offset + ownerOffset, target.owner, 0, tileCount);
+        buffer.get(offset + buildingsOffset, target.buildings, 0, tileCount);
+        int at = offset + chanceOffset;
+        buffer.get(at, target.chanceDeck, 0, chanceSize);
+        buffer.get(at + chanceSize, target.chanceHolder, 0, chanceSize);
+        target.chanceHead = 0;
+        target.chanceCount = buffer.get(at + 2 * chanceSize);
+        at = offset + communityChestOffset;
+        buffer.get(at, target.communityChestDeck, 0, communityChestSize);
+        buffer.get(at + communityChestSize, target.communityChestHolder, 0, communityChestSize);
+        target.communityChestHead = 0;
+        target.communityChestCount = buffer.get(at + 2 * communityChestSize);
+        at = offset + turnOffset;
+        target.currentPlayer = buffer.get(at);
+        target.die1 = buffer.get(at + 1);
+        target.die2 = buffer.get(at + 2);
+        target.consecutiveDoubles = buffer.get(at + 3);
+        target.gameOver = (buffer.get(at + 4) & FLAG_GAME_OVER) != 0;
+    }
+
+    /**
+     * Reads the player names of a record.
+     *
+     * @param buffer The source buffer
+     * @param offset Offset of the record in the buffer
+     * @return The names, by seat
+     */
+    public String[] readNames(ByteBuffer buffer, int offset) {
+        String[] names = new String[playerCount];
+        byte[] bytes = new byte[NAME_BYTES];
+        for (int p = 0; p < playerCount; p++) {
+            buffer.get(offset + namesOffset + p * NAME_BYTES, bytes);
+            int length = 0;
+            while (length < NAME_BYTES && bytes[length] != 0) {
+                length++;
+            }
+            names[p] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return names;
+    }
+
+    /**
+     * Checks whether a record carries the dice's random state.
+     *
+     * @param buffer The source buffer
+     * @param offset Offset of the record in the buffer
+     * @return true if {@link #readDiceRandom} is valid
+     */
+    public boolean hasRandomState(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset + turnOffset + 4) & FLAG_RANDOM_STATE) != 0;
+    }
+
+    /**
+     * Recreates the dice's random source of a record.
+     *
+     * @param buffer The source buffer
+     * @param offset Offset of the record in the buffer
+     * @return The random source, or null if the record has none
+     */
+    public GameRandom readDiceRandom(ByteBuffer buffer, int offset) {
+        if (!hasRandomState(buffer, offset)) {
+            return null;
+        }
+        return new GameRandom(buffer.getLong(offset + randomOffset), buffer.getLong(offset + randomOffset + 8));
+    }
+
+    private void checkShape(GameState state) {
+        if (state.playerCount != playerCount || state.tileCount != tileCount
+                || state.chanceHolder.length != chanceSize
+                || state.communityChestHolder.length != communityChestSize) {
+            throw new IllegalArgumentException("Game state does not match the save layout");
+        }
+    }
+
+    /**
+     * Creates an empty state with this layout's shape.
+     *
+     * @return The new state
+     */
+    public GameState newState() {
+        return new GameState(playerCount, tileCount, chanceSize, communityChestSize);
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+}
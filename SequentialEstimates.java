@@ -0,0 +1,191 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Running estimates of a campaign's metrics that are updated while games are
+ * still being played, for campaigns that stop once they are precise enough
+ * (see {@link BatchSimulator#runUntil(SequentialEstimates, StoppingRule, long)}).
+ * <p>
+ * Worker tasks collect a batch of games in local {@link RunningStatistic}s and
+ * fold it in with one locked merge, so the lock is taken once per batch rather
+ * than once per game. Every method is thread-safe; getters return snapshots.
+ * <p>
+ * Metric {@link #GAME_LENGTH} is the number of turns played, {@link #FINISHED}
+ * whether the game ended before the turn limit and {@link #wins(int)} whether
+ * a seat won.
+ */
+public class SequentialEstimates {
+    public static final int GAME_LENGTH = 0;
+    public static final int FINISHED = 1;
+
+    private final int playerCount;
+    private final RunningStatistic[] metrics;
+
+    /**
+     * Creates empty estimates for games with the given number of players.
+     *
+     * @param playerCount Number of players seated in each game
+     */
+    public SequentialEstimates(int playerCount) {
+        this.playerCount = playerCount;
+        this.metrics = newBatch(playerCount);
+    }
+
+    /**
+     * Gets the metric index of a seat's win rate.
+     *
+     * @param seat The seat index
+     * @return The metric index
+     */
+    public static int wins(int seat) {
+        return 2 + seat;
+    }
+
+    /**
+     * Creates empty local statistics for one batch of games.
+     *
+     * @param playerCount Number of players seated in each game
+     * @return One statistic per metric
+     */
+    static RunningStatistic[] newBatch(int playerCount) {
+        RunningStatistic[] batch = new RunningStatistic[2 + playerCount];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new RunningStatistic();
+        }
+        return batch;
+    }
+
+    /**
+     * Adds one game to a local batch.
+     *
+     * @param batch Statistics from {@link #newBatch(int)}
+     * @param turns Number of turns that were played
+     * @param winnerSeat Seat index of the winner, or -1 if the game hit the turn limit
+     */
+    static void record(RunningStatistic[] batch, int turns, int winnerSeat) {
+        batch[GAME_LENGTH].add(turns);
+        batch[FINISHED].add(winnerSeat >= 0 ? 1 : 0);
+        for (int seat = 0; seat < batch.length - 2; seat++) {
+            batch[wins(seat)].add(seat == winnerSeat ? 1 : 0);
+        }
+    }
+
+    /**
+     * Folds a batch in and evaluates a stopping rule on the result, both
+     * under the same lock so the rule sees every batch exactly once.
+     *
+     * @param batch Statistics from {@link #newBatch(int)}
+     * @param rule The rule to evaluate, or null
+     * @return True if the rule is satisfied
+     */
+    synchronized boolean merge(RunningStatistic[] batch, StoppingRule rule) {
+        for (int i = 0; i < metrics.length; i++) {
+            metrics[i].merge(batch[i]);
+        }
+        return rule != null && rule.shouldStop(this);
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getMetricCount() {
+        return metrics.length;
+    }
+
+    /**
+     * Gets a readable name of a metric.
+     *
+     * @param metric The metric index
+     * @return Such as {@code "game length"} or {@code "seat 2 wins"}
+     */
+    public static String getMetricName(int metric) {
+        return metric == GAME_LENGTH ? "game length" : metric == FINISHED ? "finished"
+                : "seat " + (metric - 1) + " wins";
+    }
+
+    /**
+     * Gets the number of games folded in so far.
+     *
+     * @return Number of games
+     */
+    public synchronized long getGames() {
+        return metrics[GAME_LENGTH].getCount();
+    }
+
+    /**
+     * Gets a snapshot of one metric.
+     *
+     * @param metric The metric index
+     * @return A copy that later games do not change
+     */
+    public synchronized RunningStatistic getStatistic(int metric) {
+        return new RunningStatistic().merge(metrics[metric]);
+    }
+
+    /**
+     * Gets the current mean of a metric.
+     *
+     * @param metric The metric index
+     * @return The mean over all games so far
+     */
+    public synchronized double getMean(int metric) {
+        return metrics[metric].getMean();
+    }
+
+    /**
+     * Gets the current half-width of a metric's 95% confidence interval.
+     *
+     * @param metric The metric index
+     * @return Half the interval width
+     */
+    public synchronized double getHalfWidth(int metric) {
+        return metrics[metric].getHalfWidth(RunningStatistic.Z_95);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Games:        %d%n", getGames()));
+        for (int i = 0; i < metrics.length; i++) {
+            double scale = i == GAME_LENGTH ? 1 : 100;
+            sb.append(String.format("%-13s %8.2f +/- %.2f%n", getMetricName(i) + ":",
+                    scale * metrics[i].getMean(), scale * getHalfWidth(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Command-line entry point that plays until every seat's win rate is
+     * known to the given precision.
+     * Usage: {@code java SequentialEstimates [halfWidth%] [maxGames] [players] [threads] [seed]}
+     *
+     * @param args Optional target half-width in percentage points, game limit,
+     *             player count, thread count and seed
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        double target = (args.length > 0 ? Double.parseDouble(args[0]) : 1.0) / 100;
+        long maxGames = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        StoppingRule rule = StoppingRule.halfWidth(wins(0), target);
+        for (int seat = 1; seat < players; seat++) {
+            rule = rule.and(StoppingRule.halfWidth(wins(seat), target));
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            BatchSimulator simulator = new BatchSimulator(players, BatchSimulator.DEFAULT_MAX_TURNS, seed, pool);
+            SequentialEstimates estimates = new SequentialEstimates(players);
+            System.out.printf("Playing until every win rate is within +/- %.2f%% (at most %d games, %d players,"
+                    + " %d threads, seed %d)...%n", 100 * target, maxGames, players, threads, seed);
+            BatchResult result = simulator.runUntil(estimates, rule, maxGames);
+            System.out.print(estimates);
+            System.out.printf("%d games in %.2f s%n", result.getGames(), result.getElapsedNanos() / 1e9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
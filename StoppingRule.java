@@ -0,0 +1,74 @@
+/**
+ * Decides when a sequential campaign has played enough games. The rule is
+ * evaluated after every batch of games while the estimates are locked, so it
+ * must be quick and must not block.
+ */
+public interface StoppingRule {
+    /**
+     * Fewest games the precision rules accept; below this the variance
+     * estimate itself is too noisy to trust.
+     */
+    long MIN_GAMES = 100;
+
+    /**
+     * Decides whether to stop.
+     *
+     * @param estimates The estimates so far
+     * @return true to stop starting new games
+     */
+    boolean shouldStop(SequentialEstimates estimates);
+
+    /**
+     * Stops once a metric's 95% confidence interval is narrow enough.
+     *
+     * @param metric The metric index (see {@link SequentialEstimates})
+     * @param halfWidth Largest accepted half-width, in the metric's units
+     *                  (turns, or a fraction for rates)
+     * @return The rule
+     */
+    static StoppingRule halfWidth(int metric, double halfWidth) {
+        return estimates -> estimates.getGames() >= MIN_GAMES && estimates.getHalfWidth(metric) <= halfWidth;
+    }
+
+    /**
+     * Stops once a metric's 95% confidence interval is narrow relative to its mean.
+     *
+     * @param metric The metric index (see {@link SequentialEstimates})
+     * @param fraction Largest accepted half-width as a fraction of the mean
+     * @return The rule
+     */
+    static StoppingRule relativeHalfWidth(int metric, double fraction) {
+        return estimates -> estimates.getGames() >= MIN_GAMES
+                && estimates.getHalfWidth(metric) <= fraction * Math.abs(estimates.getMean(metric));
+    }
+
+    /**
+     * Stops after a number of games.
+     *
+     * @param games The number of games
+     * @return The rule
+     */
+    static StoppingRule games(long games) {
+        return estimates -> estimates.getGames() >= games;
+    }
+
+    /**
+     * Combines this rule with another that must also be satisfied.
+     *
+     * @param other The other rule
+     * @return A rule that stops when both do
+     */
+    default StoppingRule and(StoppingRule other) {
+        return estimates -> shouldStop(estimates) && other.shouldStop(estimates);
+    }
+
+    /**
+     * Combines this rule with another that may stop on its own.
+     *
+     * @param other The other rule
+     * @return A rule that stops when either does
+     */
+    default StoppingRule or(StoppingRule other) {
+        return estimates -> shouldStop(estimates) || other.shouldStop(estimates);
+    }
+}
@@ -0,0 +1,241 @@
+import java.util.List;
+
+/**
+ * Turns recorded turn events into the English narration shown in the game log.
+ * Text is only built when a caller asks for it, so simulations that never read
+ * the narration do not pay for it.
+ */
+public class TurnEventFormatter {
+
+    private TurnEventFormatter() {
+    }
+
+    /**
+     * Renders every readable event in the log.
+     *
+     * @param log The events to render
+     * @param engine The game the events belong to (for names and cards)
+     * @return The narration text
+     */
+    public static String render(TurnEventLog log, GameEngine engine) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < log.size(); i++) {
+            appendEvent(sb, log, i, engine);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the narration for a single event.
+     *
+     * @param sb Where to write the text
+     * @param log The event log
+     * @param index Index of the event in the log
+     * @param engine The game the event belongs to
+     */
+    public static void appendEvent(StringBuilder sb, TurnEventLog log, int index, GameEngine engine) {
+        List<Player> players = engine.getPlayers();
+        List<Space> board = engine.getBoard();
+        int a = log.getArgument(index, 0);
+        int b = log.getArgument(index, 1);
+        int c = log.getArgument(index, 2);
+        int d = log.getArgument(index, 3);
+        String name = a >= 0 && a < players.size() ? players.get(a).getName() : "";
+
+        switch (log.getType(index)) {
+            case GAME_ALREADY_OVER:
+                sb.append("Game is over!");
+                break;
+            case TURN_STARTED:
+                sb.append(name).append("'s turn.\n");
+                break;
+            case BANKRUPT_SKIPPED:
+                sb.append(name).append(" is bankrupt and cannot play.");
+                break;
+            case DICE_ROLLED:
+                appendDice(sb, b, c).append("\n");
+                break;
+            case THREE_DOUBLES_JAIL:
+                sb.append(name).append(" rolled 3 consecutive doubles and must go to jail!\n");
+                break;
+            case PASSED_GO:
+                sb.append(name).append(" passed GO and collected $").append(b).append(".\n");
+                break;
+            case LANDED:
+                sb.append(name).append(" landed on ").append(board.get(b).getName()).append(".\n");
+                break;
+            case WENT_BANKRUPT:
+                sb.append(name).append(" went bankrupt!\n");
+                break;
+            case EXTRA_TURN:
+                sb.append(name).append(" rolled doubles and gets another turn!\n");
+                break;
+            case JAIL_TURN:
+                sb.append(name).append(" is in jail (Turn ").append(b).append(").\n");
+                break;
+            case JAIL_CARD_USED:
+                sb.append(name).append(" uses a Get Out of Jail Free card.\n");
+                break;
+            case JAIL_FEE_PAID:
+                sb.append(name).append(" pays the $").append(b).append(" fine to get out of jail.\n");
+                break;
+            case JAIL_ROLL:
+                sb.append(name).append(" rolls ");
+                appendDice(sb, b, c).append(" to try to get out of jail.\n");
+                break;
+            case JAIL_DOUBLES_RELEASE:
+                sb.append(name).append(" rolled doubles and gets out of jail!\n");
+                break;
+            case JAIL_FORCED_FEE:
+                sb.append("This is ").append(name).append("'s third turn in jail. ")
+                  .append("Must pay the $").append(b).append(" fine to get out of jail.\n");
+                break;
+            case JAIL_FEE_UNAFFORDABLE:
+                sb.append("This is ").append(name).append("'s third turn in jail. ")
+                  .append("Cannot afford the $").append(b)
+                  .append(" fine! Must sell properties or declare bankruptcy.\n");
+                break;
+            case SENT_TO_JAIL:
+                sb.append(name).append(" must go to jail!\n");
+                break;
+            case FREE_PARKING:
+                sb.append(name).append(" landed on Free Parking. Nothing happens.\n");
+                break;
+            case LANDED_ON_GO:
+                sb.append(name).append(" landed on GO.\n");
+                break;
+            case JUST_VISITING:
+                sb.append(name).append(" is just visiting jail.\n");
+                break;
+            case CARD_DRAWN:
+                sb.append(name).append(" draws ").append(b == 1 ? "Chance" : "Community Chest")
+                  .append(" card: ").append(engine.getCard(b == 1, c).getDescription()).append("\n");
+                break;
+            case CARD_PASSED_GO:
+                sb.append(name).append(" passes GO and collects $").append(b).append(".\n");
+                break;
+            case CARD_MOVED:
+                sb.append(name).append(" moves to ").append(board.get(b).getName()).append(".\n");
+                break;
+            case CARD_TO_JAIL:
+                sb.append(name).append(" goes to jail!\n");
+                break;
+            case CARD_COLLECT:
+                sb.append(name).append(" collects $").append(b).append(".\n");
+                break;
+            case CARD_PAY:
+                sb.append(name).append(" pays $").append(b).append(".\n");
+                break;
+            case CARD_PAY_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford to pay $").append(b).append("!\n");
+                break;
+            case CARD_KEPT:
+                sb.append(name).append(" keeps this card for future use.\n");
+                break;
+            case REPAIRS_DUE:
+                sb.append(name).append(" must pay $").append(b).append(" for repairs.\n");
+                break;
+            case REPAIRS_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford repairs!\n");
+                break;
+            case NO_REPAIRS:
+                sb.append(name).append(" has no properties requiring repair.\n");
+                break;
+            case PLAYER_PAID_PLAYER:
+                sb.append(name).append(" pays $").append(c).append(" to ")
+                  .append(players.get(b).getName()).append(".\n");
+                break;
+            case PAY_EACH_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford to pay all players!\n");
+                break;
+            case COLLECT_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford to pay $").append(b).append("!\n");
+                break;
+            case COLLECTED_TOTAL:
+                sb.append(name).append(" collects a total of $").append(b).append(".\n");
+                break;
+            case MOVED_BACK:
+                sb.append(name).append(" moves back ").append(b).append(" spaces to ")
+                  .append(board.get(c).getName()).append(".\n");
+                break;
+            case DOUBLE_RENT_DUE:
+                sb.append(board.get(b).getName()).append(" is owned by ")
+                  .append(players.get(c).getName()).append(".\n");
+                sb.append("Card effect: Rent is doubled to $").append(d).append(".\n");
+                break;
+            case DOUBLE_RENT_PAID:
+                sb.append(name).append(" pays $").append(c).append(" to ")
+                  .append(players.get(b).getName()).append(".\n");
+                break;
+            case DOUBLE_RENT_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford the double rent!\n");
+                break;
+            case NO_NEAREST_SPACE:
+                sb.append("Error: No property of specified type found on the board.\n");
+                break;
+            case PROPERTY_BOUGHT:
+                sb.append(name).append(" bought ").append(board.get(b).getName())
+                  .append(" for $").append(c).append(".\n");
+                break;
+            case PROPERTY_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford to buy ").append(board.get(b).getName()).append(".\n");
+                break;
+            case PROPERTY_DECLINED:
+                sb.append(name).append(" decides not to buy ").append(board.get(b).getName()).append(".\n");
+                break;
+            case UTILITY_RENT_ROLL:
+                sb.append(name).append(" must pay rent based on dice roll (").append(b)
+                  .append("). Multiplier: ").append(c).append("x.\n");
+                break;
+            case RENT_DUE:
+                sb.append(name).append(" must pay $").append(c).append(" rent to ")
+                  .append(players.get(b).getName()).append(".\n");
+                break;
+            case RENT_RECEIVED:
+                sb.append(name).append(" received $").append(b).append(".\n");
+                break;
+            case RENT_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford the rent!\n");
+                break;
+            case ALREADY_OWNED:
+                sb.append(name).append(" already owns ").append(board.get(b).getName()).append(".\n");
+                break;
+            case HOUSE_BUILT:
+                sb.append(name).append(" builds a house on ").append(board.get(b).getName())
+                  .append(" for $").append(c).append(".\n");
+                break;
+            case HOTEL_BUILT:
+                sb.append(name).append(" builds a hotel on ").append(board.get(b).getName())
+                  .append(" for $").append(c).append(".\n");
+                break;
+            case PROPERTY_MORTGAGED:
+                sb.append(name).append(" mortgages ").append(board.get(b).getName())
+                  .append(" for $").append(c).append(".\n");
+                break;
+            case PROPERTY_UNMORTGAGED:
+                sb.append(name).append(" pays $").append(c).append(" to unmortgage ")
+                  .append(board.get(b).getName()).append(".\n");
+                break;
+            case TAX_DUE:
+                sb.append(name).append(" must pay $").append(b).append(" in taxes.\n");
+                break;
+            case TAX_UNAFFORDABLE:
+                sb.append(name).append(" cannot afford the tax!\n");
+                break;
+            case GAME_OVER:
+                if (a >= 0) {
+                    sb.append("Game Over! ").append(name).append(" is the winner!\n");
+                } else {
+                    sb.append("Game Over! No winner (all players bankrupt simultaneously?).\n");
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static StringBuilder appendDice(StringBuilder sb, int value1, int value2) {
+        return sb.append("Dice roll: ").append(value1).append(" and ").append(value2)
+                 .append(" (Total: ").append(value1 + value2).append(")");
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Fixed-size ring buffer of turn events stored as primitive ints.
+ * GameEngine reuses a single log for the whole game, so recording an event
+ * never allocates. When more events are written than the buffer holds, the
+ * oldest ones are overwritten.
+ */
+public class TurnEventLog {
+    private static final int STRIDE = 5; // type + 4 arguments
+    private static final TurnEventType[] TYPES = TurnEventType.values();
+
+    private final int[] data;
+    private final int mask;
+    private long start; // sequence number of the first readable event
+    private long end;   // sequence number of the next event to write
+
+    /**
+     * Creates a log that holds at least the given number of events.
+     *
+     * @param capacity Minimum number of events kept before the oldest are overwritten
+     */
+    public TurnEventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.data = new int[size * STRIDE];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Forgets the current events. Nothing is cleared in memory; the read
+     * window simply moves forward.
+     */
+    public void clear() {
+        start = end;
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param type The event type
+     * @param a First argument
+     * @param b Second argument
+     * @param c Third argument
+     * @param d Fourth argument
+     */
+    public void add(TurnEventType type, int a, int b, int c, int d) {
+        int base = (int) (end & mask) * STRIDE;
+        data[base] = type.ordinal();
+        data[base + 1] = a;
+        data[base + 2] = b;
+        data[base + 3] = c;
+        data[base + 4] = d;
+        end++;
+        if (end - start > mask + 1) {
+            start = end - (mask + 1);
+        }
+    }
+
+    public void add(TurnEventType type, int a) {
+        add(type, a, 0, 0, 0);
+    }
+
+    public void add(TurnEventType type, int a, int b) {
+        add(type, a, b, 0, 0);
+    }
+
+    public void add(TurnEventType type, int a, int b, int c) {
+        add(type, a, b, c, 0);
+    }
+
+    /**
+     * Gets the number of readable events.
+     *
+     * @return Number of events since the last clear (up to the capacity)
+     */
+    public int size() {
+        return (int) (end - start);
+    }
+
+    /**
+     * Gets the type of an event.
+     *
+     * @param index Event index, 0 being the oldest readable event
+     * @return The event type
+     */
+    public TurnEventType getType(int index) {
+        return TYPES[data[offset(index)]];
+    }
+
+    /**
+     * Gets an argument of an event.
+     *
+     * @param index Event index, 0 being the oldest readable event
+     * @param argument Argument number (0-3)
+     * @return The argument value
+     */
+    public int getArgument(int index, int argument) {
+        return data[offset(index) + 1 + argument];
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Event " + index + " of " + size());
+        }
+        return (int) ((start + index) & mask) * STRIDE;
+    }
+}
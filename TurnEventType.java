@@ -0,0 +1,282 @@
+/**
+ * Defines the kinds of events that GameEngine records while playing a turn.
+ * Each event carries up to four integer arguments (player indices, board
+ * indices, amounts or dice values), documented on each constant.
+ */
+public enum TurnEventType {
+    /**
+     * A turn was requested after the game ended
+     */
+    GAME_ALREADY_OVER,
+
+    /**
+     * A player's turn starts (player)
+     */
+    TURN_STARTED,
+
+    /**
+     * A bankrupt player's turn was skipped (player)
+     */
+    BANKRUPT_SKIPPED,
+
+    /**
+     * The dice were rolled for a normal move (player, die 1, die 2)
+     */
+    DICE_ROLLED,
+
+    /**
+     * Three doubles in a row sent the player to jail (player)
+     */
+    THREE_DOUBLES_JAIL,
+
+    /**
+     * The player passed GO while moving with the dice (player, salary)
+     */
+    PASSED_GO,
+
+    /**
+     * The player landed on a space after rolling (player, board index)
+     */
+    LANDED,
+
+    /**
+     * The player went bankrupt during the turn (player)
+     */
+    WENT_BANKRUPT,
+
+    /**
+     * The player rolled doubles and moves again (player)
+     */
+    EXTRA_TURN,
+
+    /**
+     * A jailed player starts a jail turn (player, jail turn number)
+     */
+    JAIL_TURN,
+
+    /**
+     * A Get Out of Jail Free card was used (player)
+     */
+    JAIL_CARD_USED,
+
+    /**
+     * The player chose to pay the jail fine (player, fee)
+     */
+    JAIL_FEE_PAID,
+
+    /**
+     * The player rolled to try to leave jail (player, die 1, die 2)
+     */
+    JAIL_ROLL,
+
+    /**
+     * The jail roll was doubles and the player is free (player)
+     */
+    JAIL_DOUBLES_RELEASE,
+
+    /**
+     * The last jail turn forced the player to pay the fine (player, fee)
+     */
+    JAIL_FORCED_FEE,
+
+    /**
+     * The last jail turn fine could not be paid (player, fee)
+     */
+    JAIL_FEE_UNAFFORDABLE,
+
+    /**
+     * The player landed on Go To Jail (player)
+     */
+    SENT_TO_JAIL,
+
+    /**
+     * The player landed on Free Parking (player)
+     */
+    FREE_PARKING,
+
+    /**
+     * The player landed exactly on GO (player)
+     */
+    LANDED_ON_GO,
+
+    /**
+     * The player is just visiting jail (player)
+     */
+    JUST_VISITING,
+
+    /**
+     * A card was drawn (player, 1 for Chance or 0 for Community Chest, card id)
+     */
+    CARD_DRAWN,
+
+    /**
+     * A card move passed GO (player, salary)
+     */
+    CARD_PASSED_GO,
+
+    /**
+     * A card moved the player to a space (player, board index)
+     */
+    CARD_MOVED,
+
+    /**
+     * A card sent the player to jail (player)
+     */
+    CARD_TO_JAIL,
+
+    /**
+     * A card paid the player money (player, amount)
+     */
+    CARD_COLLECT,
+
+    /**
+     * The player paid a card fee (player, amount)
+     */
+    CARD_PAY,
+
+    /**
+     * The player could not pay a card fee (player, amount)
+     */
+    CARD_PAY_UNAFFORDABLE,
+
+    /**
+     * The player kept a Get Out of Jail Free card (player)
+     */
+    CARD_KEPT,
+
+    /**
+     * Repairs are due on the player's buildings (player, amount)
+     */
+    REPAIRS_DUE,
+
+    /**
+     * The player could not afford repairs (player)
+     */
+    REPAIRS_UNAFFORDABLE,
+
+    /**
+     * The player had no buildings to repair (player)
+     */
+    NO_REPAIRS,
+
+    /**
+     * One player paid another because of a card (payer, receiver, amount)
+     */
+    PLAYER_PAID_PLAYER,
+
+    /**
+     * The player could not pay every other player (player)
+     */
+    PAY_EACH_UNAFFORDABLE,
+
+    /**
+     * Another player could not pay a card collection (payer, amount)
+     */
+    COLLECT_UNAFFORDABLE,
+
+    /**
+     * The total collected from the other players (player, amount)
+     */
+    COLLECTED_TOTAL,
+
+    /**
+     * A card moved the player backwards (player, spaces, board index)
+     */
+    MOVED_BACK,
+
+    /**
+     * Double rent is owed after a nearest railroad or utility card
+     * (player, board index, owner, amount)
+     */
+    DOUBLE_RENT_DUE,
+
+    /**
+     * Double rent was paid (player, owner, amount)
+     */
+    DOUBLE_RENT_PAID,
+
+    /**
+     * Double rent could not be paid (player)
+     */
+    DOUBLE_RENT_UNAFFORDABLE,
+
+    /**
+     * No space of the requested type exists on the board (space type ordinal)
+     */
+    NO_NEAREST_SPACE,
+
+    /**
+     * The player bought a property (player, board index, price)
+     */
+    PROPERTY_BOUGHT,
+
+    /**
+     * The player could not afford an unowned property (player, board index)
+     */
+    PROPERTY_UNAFFORDABLE,
+
+    /**
+     * The player's strategy declined to buy an affordable property (player, board index)
+     */
+    PROPERTY_DECLINED,
+
+    /**
+     * Utility rent depends on the dice (player, dice total, multiplier)
+     */
+    UTILITY_RENT_ROLL,
+
+    /**
+     * Rent is owed to the owner (player, owner, amount)
+     */
+    RENT_DUE,
+
+    /**
+     * The owner received rent (owner, amount)
+     */
+    RENT_RECEIVED,
+
+    /**
+     * The player could not afford the rent (player)
+     */
+    RENT_UNAFFORDABLE,
+
+    /**
+     * The player landed on their own property (player, board index)
+     */
+    ALREADY_OWNED,
+
+    /**
+     * The player built a house at the start of the turn (player, board index, cost)
+     */
+    HOUSE_BUILT,
+
+    /**
+     * The player built a hotel at the start of the turn (player, board index, cost)
+     */
+    HOTEL_BUILT,
+
+    /**
+     * The player mortgaged a space at the start of the turn (player, board index, amount received)
+     */
+    PROPERTY_MORTGAGED,
+
+    /**
+     * The player lifted a mortgage at the start of the turn (player, board index, amount paid)
+     */
+    PROPERTY_UNMORTGAGED,
+
+    /**
+     * Tax is due (player, amount)
+     */
+    TAX_DUE,
+
+    /**
+     * The player could not afford the tax (player)
+     */
+    TAX_UNAFFORDABLE,
+
+    /**
+     * The game ended (winner, or -1 if nobody is left)
+     */
+    GAME_OVER
+}
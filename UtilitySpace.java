@@ -5,6 +5,7 @@ public class UtilitySpace extends Space implements Mortgageable {
     private int price;
     private Player owner;
     private boolean mortgaged;
+    private OwnershipIndex ownershipIndex;
 
     /**
      * Initializes a new Utility space.
@@ -44,13 +45,28 @@ public class UtilitySpace extends Space implements Mortgageable {
         }
 
         // Count utilities owned by the owner
-        int utilityCount = 0;
-        for (Buyable p : owner.getProperties()) {
-            if (p instanceof UtilitySpace) {
-                utilityCount++;
+        int utilityCount;
+        if (ownershipIndex != null) {
+            utilityCount = owner.getOwnedUtilities();
+        } else {
+            utilityCount = 0;
+            for (Buyable p : owner.getProperties()) {
+                if (p instanceof UtilitySpace) {
+                    utilityCount++;
+                }
             }
         }
 
+        return getMultiplierForCount(utilityCount);
+    }
+
+    /**
+     * Gets the rent multiplier of a utility whose owner holds a number of utilities.
+     *
+     * @param utilityCount Utilities owned by the owner
+     * @return The multiplier (4 for one utility, 10 for two or more)
+     */
+    public static int getMultiplierForCount(int utilityCount) {
         if (utilityCount == 1) {
             return 4; // Multiplier for owning 1 utility
         } else if (utilityCount >= 2) { // Should be 2 in standard Monopoly
@@ -60,6 +76,15 @@ public class UtilitySpace extends Space implements Mortgageable {
         }
     }
 
+    /**
+     * Connects this utility to its board's ownership index.
+     *
+     * @param index The board's index
+     */
+    void attachOwnershipIndex(OwnershipIndex index) {
+        this.ownershipIndex = index;
+    }
+
     @Override
     public Player getOwner() {
         return owner;
@@ -67,13 +92,21 @@ public class UtilitySpace extends Space implements Mortgageable {
 
     @Override
     public void setOwner(Player owner) {
+        Player previous = this.owner;
         this.owner = owner;
+        if (ownershipIndex != null) {
+            ownershipIndex.ownerChanged(this, previous, owner);
+        }
     }
 
     @Override
     public void resetOwner() {
+        Player previous = this.owner;
         this.owner = null;
         this.mortgaged = false;
+        if (ownershipIndex != null) {
+            ownershipIndex.ownerChanged(this, previous, null);
+        }
     }
     
     @Override
@@ -85,6 +118,9 @@ public class UtilitySpace extends Space implements Mortgageable {
     public int mortgage() {
         if (!mortgaged) {
             mortgaged = true;
+            if (ownershipIndex != null) {
+                ownershipIndex.spaceChanged(this);
+            }
             return getMortgageValue();
         }
         return 0;
@@ -94,6 +130,9 @@ public class UtilitySpace extends Space implements Mortgageable {
     public int unmortgage() {
         if (mortgaged) {
             mortgaged = false;
+            if (ownershipIndex != null) {
+                ownershipIndex.spaceChanged(this);
+            }
             return 1; // Success
         }
         return 0;
@@ -0,0 +1,311 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estimates each player's chance of winning from a position by playing random
+ * games to the end on background threads.
+ * <p>
+ * Every rollout starts from a copy of the captured {@link GameState} (with the
+ * undrawn cards reshuffled, since nobody knows their order) and is played by a
+ * {@link GameStateEngine}. Results are published to a listener while the
+ * rollouts run, so a UI can show odds that sharpen over time; listeners are
+ * called on worker threads and must hand off to the Event Dispatch Thread
+ * themselves.
+ */
+public class WinProbabilityEstimator implements AutoCloseable {
+    private static final long PUBLISH_INTERVAL_NANOS = 100_000_000L;
+
+    /**
+     * Receives progressively more accurate estimates.
+     */
+    public interface Listener {
+        void estimateUpdated(Estimate estimate);
+    }
+
+    /**
+     * An immutable snapshot of the win counts so far.
+     */
+    public static class Estimate {
+        private final double[] wins;
+        private final int rollouts;
+        private final long elapsedNanos;
+        private final boolean finished;
+
+        Estimate(double[] wins, int rollouts, long elapsedNanos, boolean finished) {
+            this.wins = wins;
+            this.rollouts = rollouts;
+            this.elapsedNanos = elapsedNanos;
+            this.finished = finished;
+        }
+
+        /**
+         * Gets the estimated probability that a player wins.
+         * Rollouts that hit the turn limit are shared equally by the players
+         * still in the game.
+         *
+         * @param seat The player's seat
+         * @return The probability, or 0 before any rollout has finished
+         */
+        public double getWinProbability(int seat) {
+            return rollouts == 0 ? 0 : wins[seat] / rollouts;
+        }
+
+        /**
+         * Gets the standard error of {@link #getWinProbability(int)}.
+         *
+         * @param seat The player's seat
+         * @return The standard error
+         */
+        public double getStandardError(int seat) {
+            if (rollouts == 0) {
+                return 1;
+            }
+            double p = getWinProbability(seat);
+            return Math.sqrt(p * (1 - p) / rollouts);
+        }
+
+        public int getPlayerCount() {
+            return wins.length;
+        }
+
+        public int getRollouts() {
+            return rollouts;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Checks whether this is the last estimate of its run.
+         *
+         * @return true once all rollouts finished, the time ran out or the run was cancelled
+         */
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int seat = 0; seat < wins.length; seat++) {
+                sb.append(String.format("%d: %.1f%% (+/- %.1f)  ", seat + 1,
+                        getWinProbability(seat) * 100, getStandardError(seat) * 100));
+            }
+            sb.append(String.format("[%d rollouts]", rollouts));
+            return sb.toString();
+        }
+    }
+
+    private final GameStateEngine engine;
+    private final ExecutorService executor;
+    private final int threads;
+    private final int maxTurns;
+
+    /**
+     * Creates an estimator using every available core.
+     *
+     * @param engine The engine that plays the rollouts
+     */
+    public WinProbabilityEstimator(GameStateEngine engine) {
+        this(engine, Runtime.getRuntime().availableProcessors(), BatchSimulator.DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Creates an estimator.
+     *
+     * @param engine The engine that plays the rollouts
+     * @param threads Number of background threads
+     * @param maxTurns Turn limit for a single rollout
+     */
+    public WinProbabilityEstimator(GameStateEngine engine, int threads, int maxTurns) {
+        this.engine = engine;
+        this.threads = Math.max(1, threads);
+        this.maxTurns = maxTurns;
+        this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "win-probability");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts estimating in the background.
+     *
+     * @param start The position to estimate; it is copied and may be reused at once
+     * @param rollouts Maximum number of rollouts
+     * @param timeBudgetMillis Time after which no new rollouts are started
+     * @param seed Seed for the rollouts' random streams
+     * @param listener Receives estimates as they improve, or null
+     * @return The running estimation
+     */
+    public Run start(GameState start, int rollouts, long timeBudgetMillis, long seed, Listener listener) {
+        Run run = new Run(start.copy(), rollouts, timeBudgetMillis, listener);
+        GameRandom source = new GameRandom(seed);
+        for (int i = 0; i < threads; i++) {
+            GameRandom random = source.split();
+            executor.execute(() -> run.work(random));
+        }
+        return run;
+    }
+
+    /**
+     * Estimates and waits for the result.
+     *
+     * @param start The position to estimate
+     * @param rollouts Maximum number of rollouts
+     * @param timeBudgetMillis Time after which no new rollouts are started
+     * @param seed Seed for the rollouts' random streams
+     * @return The final estimate
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public Estimate estimate(GameState start, int rollouts, long timeBudgetMillis, long seed)
+            throws InterruptedException {
+        return start(start, rollouts, timeBudgetMillis, seed, null).await();
+    }
+
+    /**
+     * Stops the background threads. Running estimations end after their
+     * current rollouts.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One estimation in progress.
+     */
+    public class Run {
+        private final GameState start;
+        private final int rollouts;
+        private final long startNanos;
+        private final long deadlineNanos;
+        private final Listener listener;
+        private final AtomicInteger claimed;
+        private final AtomicInteger workers;
+        private final CountDownLatch done;
+        private final double[] wins;
+        private int completed;
+        private long lastPublishNanos;
+        private volatile boolean cancelled;
+        private volatile Estimate latest;
+
+        Run(GameState start, int rollouts, long timeBudgetMillis, Listener listener) {
+            this.start = start;
+            this.rollouts = rollouts;
+            this.startNanos = System.nanoTime();
+            this.deadlineNanos = startNanos + timeBudgetMillis * 1_000_000L;
+            this.listener = listener;
+            this.claimed = new AtomicInteger();
+            this.workers = new AtomicInteger(threads);
+            this.done = new CountDownLatch(1);
+            this.wins = new double[start.getPlayerCount()];
+            this.lastPublishNanos = startNanos;
+            this.latest = new Estimate(new double[wins.length], 0, 0, false);
+        }
+
+        private void work(GameRandom random) {
+            try {
+                GameState state = start.copy();
+                while (!cancelled && System.nanoTime() < deadlineNanos
+                        && claimed.getAndIncrement() < rollouts) {
+                    state.copyFrom(start);
+                    state.shuffleDecks(random);
+                    engine.playGame(state, random, maxTurns);
+                    record(state);
+                }
+            } finally {
+                if (workers.decrementAndGet() == 0) {
+                    publish(true);
+                    done.countDown();
+                }
+            }
+        }
+
+        private void record(GameState state) {
+            Estimate estimate = null;
+            synchronized (this) {
+                int winner = state.getWinner();
+                if (winner >= 0) {
+                    wins[winner] += 1;
+                } else {
+                    int active = 0;
+                    for (int p = 0; p < wins.length; p++) {
+                        if (!state.isBankrupt(p)) {
+                            active++;
+                        }
+                    }
+                    for (int p = 0; p < wins.length; p++) {
+                        if (!state.isBankrupt(p)) {
+                            wins[p] += 1.0 / active;
+                        }
+                    }
+                }
+                completed++;
+                long now = System.nanoTime();
+                if (now - lastPublishNanos >= PUBLISH_INTERVAL_NANOS) {
+                    lastPublishNanos = now;
+                    estimate = snapshot(false);
+                }
+            }
+            if (estimate != null && listener != null) {
+                listener.estimateUpdated(estimate);
+            }
+        }
+
+        private void publish(boolean finished) {
+            Estimate estimate;
+            synchronized (this) {
+                estimate = snapshot(finished);
+            }
+            if (listener != null) {
+                listener.estimateUpdated(estimate);
+            }
+        }
+
+        private Estimate snapshot(boolean finished) {
+            Estimate estimate = new Estimate(wins.clone(), completed, System.nanoTime() - startNanos, finished);
+            latest = estimate;
+            return estimate;
+        }
+
+        /**
+         * Stops starting new rollouts. The final estimate is still published.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        /**
+         * Gets the most recently published estimate without waiting.
+         *
+         * @return The latest estimate
+         */
+        public Estimate getEstimate() {
+            return latest;
+        }
+
+        /**
+         * Waits for the estimation to finish.
+         *
+         * @return The final estimate
+         * @throws InterruptedException if the calling thread is interrupted while waiting
+         */
+        public Estimate await() throws InterruptedException {
+            done.await();
+            return latest;
+        }
+    }
+}